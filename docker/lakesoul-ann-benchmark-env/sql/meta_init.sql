@@ -54,12 +54,26 @@ $$
                 path            text,
                 file_op         text,
                 size            bigint,
-                file_exist_cols text
+                file_exist_cols text,
+                file_stats      text
             );
         END IF;
     END
 $$;
 
+-- file_stats is added after data_file_op was first released
+DO
+$$
+    BEGIN
+        IF NOT EXISTS (SELECT 1
+                       FROM pg_attribute
+                       WHERE attrelid = (SELECT typrelid FROM pg_type WHERE typname = 'data_file_op')
+                         AND attname = 'file_stats') THEN
+            alter type data_file_op add attribute file_stats text;
+        END IF;
+    END
+$$;
+
 create table if not exists data_commit_info
 (
     table_id       text,
@@ -85,6 +99,7 @@ create table if not exists partition_info
     domain         text default 'public',
     primary key (table_id, partition_desc, version)
 );
+CREATE INDEX CONCURRENTLY IF NOT EXISTS partition_info_table_timestamp ON partition_info (table_id, timestamp);
 
 CREATE OR REPLACE FUNCTION partition_insert() RETURNS TRIGGER AS
 $$
@@ -0,0 +1,85 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.dmetasoul.lakesoul.meta;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JVM wide counters of partition commit conflicts resolved by {@link DBManager}: commits whose first transaction
+ * conflicted with a concurrent writer, the retries and backoff spent on them, how many were appended server side on
+ * top of the latest versions, and how many still failed after all attempts.
+ */
+public class CommitConflictMetrics {
+
+    private static final CommitConflictMetrics instance = new CommitConflictMetrics();
+
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong serverSideAppends = new AtomicLong();
+    private final AtomicLong backoffMs = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public static CommitConflictMetrics get() {
+        return instance;
+    }
+
+    void onCommit() {
+        commits.incrementAndGet();
+    }
+
+    void onConflict() {
+        conflicts.incrementAndGet();
+    }
+
+    void onRetry(long backoff) {
+        retries.incrementAndGet();
+        backoffMs.addAndGet(backoff);
+    }
+
+    void onServerSideAppend() {
+        serverSideAppends.incrementAndGet();
+    }
+
+    void onFailure() {
+        failures.incrementAndGet();
+    }
+
+    public long getCommitCount() {
+        return commits.get();
+    }
+
+    public long getConflictCount() {
+        return conflicts.get();
+    }
+
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    public long getServerSideAppendCount() {
+        return serverSideAppends.get();
+    }
+
+    public long getBackoffMs() {
+        return backoffMs.get();
+    }
+
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    @Override
+    public String toString() {
+        return "CommitConflictMetrics{" +
+                "commits=" + commits.get() +
+                ", conflicts=" + conflicts.get() +
+                ", retries=" + retries.get() +
+                ", serverSideAppends=" + serverSideAppends.get() +
+                ", backoffMs=" + backoffMs.get() +
+                ", failures=" + failures.get() +
+                '}';
+    }
+}
@@ -42,5 +42,11 @@ public abstract class DBConfig {
         public static final String CDC_CHANGE_COLUMN = "lakesoul_cdc_change_column";
 
         public static final String CDC_CHANGE_COLUMN_DEFAULT = "rowKinds";
+
+        // comma separated columns to collect file statistics of besides primary keys
+        public static final String STATS_COLUMNS = "statsColumns";
+
+        // json object of column name to approximate number of distinct values, written by analyze
+        public static final String COLUMN_NDV = "columnNdv";
     }
 }
@@ -15,6 +15,7 @@ public class DBFactory {
     private static volatile DataCommitInfoDao dataCommitInfoDao;
     private static volatile PartitionInfoDao partitionInfoDao;
     private static volatile DiscardCompressedFileDao discardCompressedFileDao;
+    private static volatile PartitionSnapshotCheckpointDao partitionSnapshotCheckpointDao;
 
     private DBFactory(){}
 
@@ -94,4 +95,15 @@ public class DBFactory {
         }
         return discardCompressedFileDao;
     }
+
+    public static PartitionSnapshotCheckpointDao getPartitionSnapshotCheckpointDao() {
+        if (partitionSnapshotCheckpointDao == null) {
+            synchronized (PartitionSnapshotCheckpointDao.class) {
+                if (partitionSnapshotCheckpointDao == null) {
+                    partitionSnapshotCheckpointDao = new PartitionSnapshotCheckpointDao();
+                }
+            }
+        }
+        return partitionSnapshotCheckpointDao;
+    }
 }
@@ -15,6 +15,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 import static com.dmetasoul.lakesoul.meta.DBConfig.LAKESOUL_PARTITION_SPLITTER_OF_RANGE_AND_HASH;
@@ -24,6 +27,19 @@ public class DBManager {
 
     private static final Logger LOG = LoggerFactory.getLogger(DBManager.class);
 
+    // bound on query size of bulk data commit info lookups
+    private static final int MAX_COMMIT_IDS_PER_QUERY = 5000;
+
+    // append and merge conflicts are resolved by appending to the latest partition versions in one transaction
+    private static volatile boolean serverSideAppendEnabled = Boolean.parseBoolean(DBUtil.getConfigValue(
+            "LAKESOUL_META_COMMIT_SERVER_SIDE_APPEND", "lakesoul.meta.commit.server_side_append", "true"));
+
+    // bounds of the exponential backoff between retries of conflicting commits
+    private static final long COMMIT_BACKOFF_BASE_MS = Long.parseLong(DBUtil.getConfigValue(
+            "LAKESOUL_META_COMMIT_BACKOFF_BASE_MS", "lakesoul.meta.commit.backoff.base.ms", "20"));
+    private static final long COMMIT_BACKOFF_MAX_MS = Long.parseLong(DBUtil.getConfigValue(
+            "LAKESOUL_META_COMMIT_BACKOFF_MAX_MS", "lakesoul.meta.commit.backoff.max.ms", "2000"));
+
     private final NamespaceDao namespaceDao;
     private final TableInfoDao tableInfoDao;
     private final TableNameIdDao tableNameIdDao;
@@ -31,8 +47,15 @@ public class DBManager {
     private final DataCommitInfoDao dataCommitInfoDao;
     private final PartitionInfoDao partitionInfoDao;
     private final DiscardCompressedFileDao discardCompressedFileDao;
+    private final TableInfoCache tableInfoCache;
+    private final DataCommitInfoCache dataCommitInfoCache;
+    private final PartitionSnapshotCheckpoints snapshotCheckpoints;
 
     public DBManager() {
+        this(PartitionSnapshotCheckpoints.get());
+    }
+
+    DBManager(PartitionSnapshotCheckpoints snapshotCheckpoints) {
         namespaceDao = DBFactory.getNamespaceDao();
         tableInfoDao = DBFactory.getTableInfoDao();
         tableNameIdDao = DBFactory.getTableNameIdDao();
@@ -40,6 +63,9 @@ public class DBManager {
         dataCommitInfoDao = DBFactory.getDataCommitInfoDao();
         partitionInfoDao = DBFactory.getPartitionInfoDao();
         discardCompressedFileDao = DBFactory.getDiscardCompressedFileDao();
+        tableInfoCache = TableInfoCache.get();
+        dataCommitInfoCache = DataCommitInfoCache.get();
+        this.snapshotCheckpoints = snapshotCheckpoints;
     }
 
     public boolean isNamespaceExists(String table_namespace) {
@@ -75,8 +101,9 @@ public class DBManager {
     }
 
     public TableNameId shortTableName(String tableName, String tableNamespace) {
-        tableNamespace = tableNamespace == null ? "default" : tableNamespace;
-        return tableNameIdDao.findByTableName(tableName, tableNamespace);
+        String namespace = tableNamespace == null ? "default" : tableNamespace;
+        return tableInfoCache.getTableNameId(tableName, namespace,
+                () -> tableNameIdDao.findByTableName(tableName, namespace));
     }
 
     public String getTablePathFromShortTableName(String tableName, String tableNamespace) {
@@ -92,11 +119,12 @@ public class DBManager {
     }
 
     public TableInfo getTableInfoByTableId(String tableId) {
-        return tableInfoDao.selectByTableId(tableId);
+        return tableInfoCache.getTableInfoById(tableId, () -> tableInfoDao.selectByTableId(tableId));
     }
 
     public TableInfo getTableInfoByNameAndNamespace(String tableName, String namespace) {
-        return tableInfoDao.selectByTableNameAndNameSpace(tableName, namespace);
+        return tableInfoCache.getTableInfoByName(tableName, namespace,
+                () -> tableInfoDao.selectByTableNameAndNameSpace(tableName, namespace));
     }
 
     public void createNewTable(String tableId, String namespace, String tableName, String tablePath, String tableSchema,
@@ -147,6 +175,7 @@ public class DBManager {
                 tableNameIdDao.deleteByTableId(tableId);
                 tablePathIdDao.deleteByTableId(tableId);
             }
+            tableInfoCache.invalidate(tableId);
         }
     }
 
@@ -171,11 +200,15 @@ public class DBManager {
     }
 
     public String getNameSpaceByTablePath(String tablePath){
-        return tableInfoDao.selectByTablePath(tablePath).getTableNamespace();
+        return getTableInfoByPath(tablePath).getTableNamespace();
     }
 
     public TableInfo getTableInfoByPath(String tablePath) {
-        return tableInfoDao.selectByTablePath(tablePath);
+        return tableInfoCache.getTableInfoByPath(tablePath, () -> tableInfoDao.selectByTablePath(tablePath));
+    }
+
+    public TableInfoCache getTableInfoCache() {
+        return tableInfoCache;
     }
 
     public PartitionInfo getSinglePartitionInfo(String tableId, String partitionDesc) {
@@ -191,6 +224,10 @@ public class DBManager {
         return partitionInfoDao.getPartitionInfoByTableId(tableId);
     }
 
+    public List<PartitionInfo> getAllPartitionInfoFromTimestamp(String tableId, long timestamp) {
+        return partitionInfoDao.getPartitionInfoByTableIdFromTimestamp(tableId, timestamp);
+    }
+
     public List<PartitionInfo> getOnePartitionVersions(String tableId, String partitionDesc) {
         return partitionInfoDao.getPartitionVersions(tableId, partitionDesc);
     }
@@ -221,6 +258,7 @@ public class DBManager {
         getSnapshotAndFilePathInfo(tableId, partitionDesc, fileOps, deleteFilePathList, singlePartitionAllVersionList, snapshotList);
         partitionInfoDao.deleteByTableIdAndPartitionDesc(tableId, partitionDesc);
         dataCommitInfoDao.deleteByTableIdPartitionDescCommitList(tableId, partitionDesc, snapshotList.stream().collect(Collectors.toList()));
+        snapshotList.forEach(commitId -> dataCommitInfoCache.invalidate(tableId, partitionDesc, commitId));
     }
 
 
@@ -244,6 +282,7 @@ public class DBManager {
         getSnapshotAndFilePathInfo(tableId, partitionDesc, fileOps, deleteFilePathList, filterPartitionInfo, snapshotList);
         partitionInfoDao.deletePreviousVersionPartition(tableId, partitionDesc, utcMills);
         dataCommitInfoDao.deleteByTableIdPartitionDescCommitList(tableId, partitionDesc, snapshotList.stream().collect(Collectors.toList()));
+        snapshotList.forEach(commitId -> dataCommitInfoCache.invalidate(tableId, partitionDesc, commitId));
     }
 
     private void getSnapshotAndFilePathInfo(String tableId, String partitionDesc, List<DataFileOp> fileOps, List<String> deleteFilePathList,
@@ -287,6 +326,7 @@ public class DBManager {
         propertiesJson.put(DBConfig.TableInfoProperty.LAST_TABLE_SCHEMA_CHANGE_TIME, String.valueOf(System.currentTimeMillis()));
         tableInfoDao.updateByTableId(tableId, "", "", tableSchema);
         tableInfoDao.updatePropertiesById(tableId, propertiesJson.toJSONString());
+        tableInfoCache.invalidate(tableId);
     }
 
     public void deleteTableInfo(String tablePath, String tableId, String tableNamespace) {
@@ -298,6 +338,7 @@ public class DBManager {
             tableNameIdDao.delete(tableName, tableNamespace);
         }
         tableInfoDao.deleteByIdAndPath(tableId, tablePath);
+        tableInfoCache.invalidate(tableId);
     }
 
 
@@ -317,19 +358,24 @@ public class DBManager {
         JSONObject propertiesJson = JSON.parseObject(tableInfo.getProperties());
         propertiesJson.remove(DBConfig.TableInfoProperty.DROPPED_COLUMN);
         tableInfoDao.updatePropertiesById(tableId, propertiesJson.toJSONString());
+        tableInfoCache.invalidate(tableId);
     }
 
     public void deletePartitionInfoByTableId(String tableId) {
         partitionInfoDao.deleteByTableId(tableId);
+        snapshotCheckpoints.delete(tableId, null);
     }
 
     public void deleteTablePathIdByTableId(String tableId) {
         tablePathIdDao.deleteByTableId(tableId);
+        tableInfoCache.invalidate(tableId);
     }
 
     public void deletePartitionInfoByTableAndPartition(String tableId, String partitionDesc) {
         partitionInfoDao.deleteByTableIdAndPartitionDesc(tableId, partitionDesc);
         dataCommitInfoDao.deleteByTableIdAndPartitionDesc(tableId, partitionDesc);
+        dataCommitInfoCache.invalidate(tableId, partitionDesc);
+        snapshotCheckpoints.delete(tableId, partitionDesc);
     }
 
     public void logicDeletePartitionInfoByTableId(String tableId) {
@@ -362,6 +408,7 @@ public class DBManager {
     public void deleteDataCommitInfo(String tableId, String partitionDesc, UUID commitId) {
         if (StringUtils.isNotBlank(commitId.toString())) {
             dataCommitInfoDao.deleteByPrimaryKey(tableId, partitionDesc, commitId);
+            dataCommitInfoCache.invalidate(tableId, partitionDesc, DBUtil.toProtoUuid(commitId));
         } else {
             deleteDataCommitInfo(tableId, partitionDesc);
         }
@@ -370,6 +417,7 @@ public class DBManager {
     public void deleteDataCommitInfo(String tableId, String partitionDesc) {
         if (StringUtils.isNotBlank(partitionDesc)) {
             dataCommitInfoDao.deleteByTableIdAndPartitionDesc(tableId, partitionDesc);
+            dataCommitInfoCache.invalidate(tableId, partitionDesc);
         } else {
             deleteDataCommitInfo(tableId);
         }
@@ -377,10 +425,13 @@ public class DBManager {
 
     public void deleteDataCommitInfo(String tableId) {
         dataCommitInfoDao.deleteByTableId(tableId);
+        dataCommitInfoCache.invalidate(tableId, null);
     }
 
     public void deleteShortTableName(String tableName, String tablePath, String tableNamespace) {
         tableNameIdDao.delete(tableName, tableNamespace);
+        // table id of the name is not known here
+        tableInfoCache.invalidateAll();
     }
 
     public void updateTableProperties(String tableId, String properties) {
@@ -394,6 +445,7 @@ public class DBManager {
             }
         }
         tableInfoDao.updatePropertiesById(tableId, newProperties.toJSONString());
+        tableInfoCache.invalidate(tableId);
     }
 
     public void updateTableShortName(String tablePath, String tableId, String tableName, String tableNamespace) {
@@ -409,6 +461,7 @@ public class DBManager {
         tableInfoDao.updateByTableId(tableId, tableName, tablePath, "");
 
         tableNameIdDao.insert(TableNameIdDao.newTableNameId(tableName, tableId, tableNamespace, tableInfo.getDomain()));
+        tableInfoCache.invalidate(tableId);
     }
 
     public boolean batchCommitDataCommitInfo(List<DataCommitInfo> listData) {
@@ -554,21 +607,30 @@ public class DBManager {
             throw new IllegalStateException("this operation is Illegal of the table:" + tableInfo.getTablePath());
         }
 
+        CommitConflictMetrics conflictMetrics = CommitConflictMetrics.get();
+        conflictMetrics.onCommit();
         boolean notConflict = partitionInfoDao.transactionInsert(newPartitionList, snapshotList);
         if (!notConflict) {
+            conflictMetrics.onConflict();
+            // the conflict resolutions share the attempts left after this one
             switch (commitOp) {
                 case AppendCommit:
-                    notConflict = appendConflict(tableId, partitionDescList, rawMap, newMap, snapshotList, 0);
+                    notConflict = appendConflict(tableId, partitionDescList, rawMap, newMap, snapshotList, 1);
                     break;
                 case CompactionCommit:
                     notConflict =
-                            compactionConflict(tableId, partitionDescList, rawMap, readPartitionMap, snapshotList, 0);
+                            compactionConflict(tableId, partitionDescList, rawMap, readPartitionMap, snapshotList, 1);
                     break;
                 case UpdateCommit:
-                    notConflict = updateConflict(tableId, partitionDescList, rawMap, readPartitionMap, snapshotList, 0);
+                    notConflict = updateConflict(tableId, partitionDescList, rawMap, readPartitionMap, snapshotList, 1);
                     break;
                 case MergeCommit:
-                    notConflict = mergeConflict(tableId, partitionDescList, rawMap, newMap, snapshotList, 0);
+                    notConflict = mergeConflict(tableId, partitionDescList, rawMap, newMap, snapshotList, 1);
+            }
+            if (!notConflict) {
+                conflictMetrics.onFailure();
+                LOG.warn("Commit of table {} failed after {} attempts, {}", tableId, DBConfig.MAX_COMMIT_ATTEMPTS,
+                        conflictMetrics);
             }
         }
 
@@ -577,6 +639,21 @@ public class DBManager {
 
     public boolean appendConflict(String tableId, List<String> partitionDescList, Map<String, PartitionInfo> rawMap,
                                   Map<String, PartitionInfo> newMap, List<String> snapshotList, int retryTimes) {
+        if (serverSideAppendEnabled) {
+            if (appendOnLatest(partitionDescList, rawMap, newMap, snapshotList,
+                    EnumSet.of(CommitOp.CompactionCommit, CommitOp.AppendCommit, CommitOp.UpdateCommit))) {
+                return true;
+            }
+            // a writer not taking the lock committed first, retry within the attempts of the commit, unless server
+            // side append was disabled, which leaves this attempt to the re-reading path
+            if (serverSideAppendEnabled) {
+                if (retryTimes + 1 < DBConfig.MAX_COMMIT_ATTEMPTS) {
+                    backoff(retryTimes - 1);
+                    return appendConflict(tableId, partitionDescList, rawMap, newMap, snapshotList, retryTimes + 1);
+                }
+                return false;
+            }
+        }
         List<PartitionInfo> newPartitionList = new ArrayList<>();
         Map<String, PartitionInfo> curMap = getCurPartitionMap(tableId, partitionDescList);
 
@@ -610,7 +687,8 @@ public class DBManager {
         }
 
         boolean success = partitionInfoDao.transactionInsert(newPartitionList, snapshotList);
-        if (!success && retryTimes < DBConfig.MAX_COMMIT_ATTEMPTS) {
+        if (!success && retryTimes + 1 < DBConfig.MAX_COMMIT_ATTEMPTS) {
+            backoff(retryTimes - 1);
             return appendConflict(tableId, partitionDescList, rawMap, newMap, snapshotList, retryTimes + 1);
         }
         return success;
@@ -657,7 +735,8 @@ public class DBManager {
         }
 
         boolean success = partitionInfoDao.transactionInsert(newPartitionList, snapshotList);
-        if (!success && retryTime < DBConfig.MAX_COMMIT_ATTEMPTS) {
+        if (!success && retryTime + 1 < DBConfig.MAX_COMMIT_ATTEMPTS) {
+            backoff(retryTime - 1);
             return compactionConflict(tableId, partitionDescList, rawMap, readPartitionMap, snapshotList, retryTime + 1);
         }
 
@@ -714,7 +793,8 @@ public class DBManager {
         }
 
         boolean success = partitionInfoDao.transactionInsert(newPartitionList, snapshotList);
-        if (!success && retryTime < DBConfig.MAX_COMMIT_ATTEMPTS) {
+        if (!success && retryTime + 1 < DBConfig.MAX_COMMIT_ATTEMPTS) {
+            backoff(retryTime - 1);
             return updateConflict(tableId, partitionDescList, rawMap, readPartitionMap, snapshotList, retryTime + 1);
         }
         return success;
@@ -722,6 +802,21 @@ public class DBManager {
 
     public boolean mergeConflict(String tableId, List<String> partitionDescList, Map<String, PartitionInfo> rawMap,
                                  Map<String, PartitionInfo> newMap, List<String> snapshotList, int retryTime) {
+        if (serverSideAppendEnabled) {
+            if (appendOnLatest(partitionDescList, rawMap, newMap, snapshotList,
+                    EnumSet.of(CommitOp.CompactionCommit, CommitOp.UpdateCommit, CommitOp.MergeCommit))) {
+                return true;
+            }
+            // a writer not taking the lock committed first, retry within the attempts of the commit, unless server
+            // side append was disabled, which leaves this attempt to the re-reading path
+            if (serverSideAppendEnabled) {
+                if (retryTime + 1 < DBConfig.MAX_COMMIT_ATTEMPTS) {
+                    backoff(retryTime - 1);
+                    return mergeConflict(tableId, partitionDescList, rawMap, newMap, snapshotList, retryTime + 1);
+                }
+                return false;
+            }
+        }
         List<PartitionInfo> newPartitionList = new ArrayList<>();
         Map<String, PartitionInfo> curMap = getCurPartitionMap(tableId, partitionDescList);
 
@@ -756,13 +851,66 @@ public class DBManager {
         }
 
         boolean success = partitionInfoDao.transactionInsert(newPartitionList, snapshotList);
-        if (!success && retryTime < DBConfig.MAX_COMMIT_ATTEMPTS) {
+        if (!success && retryTime + 1 < DBConfig.MAX_COMMIT_ATTEMPTS) {
+            backoff(retryTime - 1);
             return mergeConflict(tableId, partitionDescList, rawMap, newMap, snapshotList, retryTime + 1);
         }
 
         return success;
     }
 
+    /**
+     * Append the snapshots of a conflicting append or merge commit to the latest partition versions in one
+     * transaction, which waits for concurrent appenders instead of re-reading partitions and retrying. Latest versions
+     * of other commit ops fail the commit as the re-reading path does. Makes one attempt, retried by the caller within
+     * the attempts of the commit.
+     *
+     * @return false if a writer not taking the lock committed first, or if server side append failed and is disabled
+     */
+    private boolean appendOnLatest(List<String> partitionDescList, Map<String, PartitionInfo> rawMap,
+                                   Map<String, PartitionInfo> newMap, List<String> snapshotList,
+                                   Set<CommitOp> appendableCommitOps) {
+        List<PartitionInfo> appendList = new ArrayList<>();
+        for (String partitionDesc : partitionDescList) {
+            PartitionInfo planned = newMap.get(partitionDesc);
+            appendList.add(planned.toBuilder()
+                    .setVersion(planned.getVersion() - 1)
+                    .clearSnapshot()
+                    .addAllSnapshot(rawMap.get(partitionDesc).getSnapshotList())
+                    .build());
+        }
+        boolean success;
+        try {
+            success = partitionInfoDao.appendSnapshots(appendList, appendableCommitOps, snapshotList);
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            serverSideAppendEnabled = false;
+            LOG.warn("Disable server side append of conflicting commits", e);
+            return false;
+        }
+        if (success) {
+            CommitConflictMetrics.get().onServerSideAppend();
+        }
+        return success;
+    }
+
+    /**
+     * Sleep before retrying a conflicting commit, exponentially longer for each retry up to a bound, with jitter so
+     * that writers conflicting with each other do not retry in lockstep.
+     */
+    private static void backoff(int retryTime) {
+        long bound = Math.min(COMMIT_BACKOFF_MAX_MS, COMMIT_BACKOFF_BASE_MS << Math.min(retryTime, 20));
+        long sleepMs = bound / 2 + ThreadLocalRandom.current().nextLong(bound / 2 + 1);
+        CommitConflictMetrics.get().onRetry(sleepMs);
+        try {
+            Thread.sleep(sleepMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
     private PartitionInfo.Builder updateSubmitPartitionSnapshot(PartitionInfo rawPartitionInfo, PartitionInfo.Builder curPartitionInfo,
                                                                 PartitionInfo readPartition) {
         List<Uuid> snapshot = new ArrayList<>(rawPartitionInfo.getSnapshotList());
@@ -809,18 +957,98 @@ public class DBManager {
     }
 
     public List<DataCommitInfo> getTableSinglePartitionDataInfo(PartitionInfo partitionInfo) {
-        String tableId = partitionInfo.getTableId();
-        String partitionDesc = partitionInfo.getPartitionDesc();
-        List<Uuid> snapshotList = partitionInfo.getSnapshotList();
+        return getTablePartitionsDataInfo(Collections.singletonList(partitionInfo)).get(0);
+    }
+
+    /**
+     * Data commit infos of many partitions, queried per table in chunks of commit ids instead of once per partition.
+     * Only commits not in {@link DataCommitInfoCache} are queried, and long snapshots are resolved from their latest
+     * {@link PartitionSnapshotCheckpoint} and the commits after it.
+     *
+     * @return for each of the given partitions, its data commit infos in the order of its snapshot, as
+     * {@link #getTableSinglePartitionDataInfo} returns them
+     */
+    public List<List<DataCommitInfo>> getTablePartitionsDataInfo(List<PartitionInfo> partitionInfoList) {
+        List<PartitionSnapshotCheckpoint> checkpoints = snapshotCheckpoints.find(partitionInfoList);
+        // table id -> partition desc -> commit id -> data commit info
+        Map<String, Map<String, Map<Uuid, DataCommitInfo>>> found = new HashMap<>();
+        // commits not cached by table id
+        Map<String, List<Uuid>> commitIdsByTable = new LinkedHashMap<>();
+        for (int i = 0; i < partitionInfoList.size(); i++) {
+            PartitionInfo partitionInfo = partitionInfoList.get(i);
+            String tableId = partitionInfo.getTableId();
+            Map<Uuid, DataCommitInfo> partitionFound = found.computeIfAbsent(tableId, k -> new HashMap<>())
+                    .computeIfAbsent(partitionInfo.getPartitionDesc(), k -> new HashMap<>());
+            commitIdsByTable.computeIfAbsent(tableId, k -> new ArrayList<>())
+                    .addAll(dataCommitInfoCache.getAll(tableId, partitionInfo.getPartitionDesc(),
+                            snapshotAfter(partitionInfo, checkpoints.get(i)), partitionFound));
+        }
+        // queries of all chunks are in flight at once
+        List<Map.Entry<String, CompletableFuture<List<DataCommitInfo>>>> chunkFutures = new ArrayList<>();
+        for (Map.Entry<String, List<Uuid>> entry : commitIdsByTable.entrySet()) {
+            String tableId = entry.getKey();
+            List<Uuid> commitIds = entry.getValue();
+            for (int i = 0; i < commitIds.size(); i += MAX_COMMIT_IDS_PER_QUERY) {
+                chunkFutures.add(new AbstractMap.SimpleEntry<>(tableId,
+                        dataCommitInfoDao.selectByTableIdCommitListAsync(tableId,
+                                commitIds.subList(i, Math.min(i + MAX_COMMIT_IDS_PER_QUERY, commitIds.size())))));
+            }
+        }
+        for (Map.Entry<String, CompletableFuture<List<DataCommitInfo>>> chunkFuture : chunkFutures) {
+            Map<String, Map<Uuid, DataCommitInfo>> tableFound = found.get(chunkFuture.getKey());
+            List<DataCommitInfo> chunk;
+            try {
+                chunk = chunkFuture.getValue().join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+            if (chunk == null) {
+                // skipping it would silently resolve partitions to fewer files
+                throw new RuntimeException("Failed to query data commit infos of table " + chunkFuture.getKey());
+            }
+            dataCommitInfoCache.putAll(chunk);
+            for (DataCommitInfo dataCommitInfo : chunk) {
+                tableFound.computeIfAbsent(dataCommitInfo.getPartitionDesc(), k -> new HashMap<>())
+                        .put(dataCommitInfo.getCommitId(), dataCommitInfo);
+            }
+        }
+        List<List<DataCommitInfo>> result = new ArrayList<>(partitionInfoList.size());
+        for (int i = 0; i < partitionInfoList.size(); i++) {
+            PartitionInfo partitionInfo = partitionInfoList.get(i);
+            PartitionSnapshotCheckpoint checkpoint = checkpoints.get(i);
+            Map<Uuid, DataCommitInfo> partitionFound =
+                    found.get(partitionInfo.getTableId()).get(partitionInfo.getPartitionDesc());
+            List<DataCommitInfo> resolved = new ArrayList<>();
+            for (Uuid commitId : new LinkedHashSet<>(snapshotAfter(partitionInfo, checkpoint))) {
+                DataCommitInfo dataCommitInfo = partitionFound.get(commitId);
+                if (dataCommitInfo != null) {
+                    resolved.add(dataCommitInfo);
+                }
+            }
+            snapshotCheckpoints.checkpointIfNeeded(partitionInfo, checkpoint, resolved);
+            List<DataCommitInfo> dataCommitInfos = new ArrayList<>(partitionInfo.getSnapshotCount());
+            if (checkpoint != null) {
+                dataCommitInfos.addAll(checkpoint.getDataCommitInfos());
+            }
+            dataCommitInfos.addAll(resolved);
+            result.add(dataCommitInfos);
+        }
+        return result;
+    }
 
-        return dataCommitInfoDao.selectByTableIdPartitionDescCommitList(tableId, partitionDesc, snapshotList);
+    private static List<Uuid> snapshotAfter(PartitionInfo partitionInfo, PartitionSnapshotCheckpoint checkpoint) {
+        List<Uuid> snapshotList = partitionInfo.getSnapshotList();
+        return checkpoint == null
+                ? snapshotList
+                : snapshotList.subList(checkpoint.getSnapshotSize(), snapshotList.size());
     }
 
     public Map.Entry<List<DataCommitInfo>, PartitionInfo> getPartitionSnapshot(String tableId, String partitionDesc, int version) {
         PartitionInfo partitionInfo = partitionInfoDao.findByKey(tableId, partitionDesc, version);
         List<Uuid> commitList = partitionInfo.getSnapshotList();
         return new AbstractMap.SimpleEntry<>(
-                dataCommitInfoDao.selectByTableIdPartitionDescCommitList(tableId, partitionDesc, commitList),
+                dataCommitInfoCache.getAll(tableId, partitionDesc, commitList,
+                        missing -> dataCommitInfoDao.selectByTableIdPartitionDescCommitList(tableId, partitionDesc, missing)),
                 partitionInfo);
     }
 
@@ -852,7 +1080,8 @@ public class DBManager {
 
     public List<DataCommitInfo> getDataCommitInfosFromUUIDs(String tableId, String partitionDesc,
                                                             List<Uuid> dataCommitUUIDs) {
-        return dataCommitInfoDao.selectByTableIdPartitionDescCommitList(tableId, partitionDesc, dataCommitUUIDs);
+        return dataCommitInfoCache.getAll(tableId, partitionDesc, dataCommitUUIDs,
+                missing -> dataCommitInfoDao.selectByTableIdPartitionDescCommitList(tableId, partitionDesc, missing));
     }
 
     public void rollbackPartitionByVersion(String tableId, String partitionDesc, int version) {
@@ -922,6 +1151,98 @@ public class DBManager {
         commitData(metaInfo.build(), false, commitOp);
     }
 
+    /**
+     * Commit DataCommitInfo of many tables and partitions with one data_commit_info insert and one
+     * partition_info transaction, instead of several round trips for each partition.
+     * Only append and merge commits are combined, tables having other commit types in the list are
+     * committed one by one through {@link #commitDataCommitInfo(DataCommitInfo, List)}. If the combined
+     * transaction conflicts with a concurrent writer, it is rolled back and every DataCommitInfo falls back
+     * to the same path, which resolves conflicts per partition.
+     */
+    public void commitDataCommitInfoList(List<DataCommitInfo> dataCommitInfoList) {
+        Set<String> sequentialTables = new HashSet<>();
+        for (DataCommitInfo dataCommitInfo : dataCommitInfoList) {
+            CommitOp commitOp = dataCommitInfo.getCommitOp();
+            if (!commitOp.equals(CommitOp.AppendCommit) && !commitOp.equals(CommitOp.MergeCommit)) {
+                sequentialTables.add(dataCommitInfo.getTableId());
+            }
+        }
+
+        Map<String, String> tableDomainMap = new HashMap<>();
+        List<DataCommitInfo> batchList = new ArrayList<>();
+        List<DataCommitInfo> sequentialList = new ArrayList<>();
+        for (DataCommitInfo dataCommitInfo : dataCommitInfoList) {
+            String tableId = dataCommitInfo.getTableId();
+            if (sequentialTables.contains(tableId)) {
+                sequentialList.add(dataCommitInfo);
+                continue;
+            }
+            String domain = tableDomainMap.computeIfAbsent(tableId, this::getTableDomain);
+            batchList.add(dataCommitInfo.toBuilder()
+                    .setPartitionDesc(dataCommitInfo.getPartitionDesc().replaceAll("/", LAKESOUL_RANGE_PARTITION_SPLITTER))
+                    .setDomain(domain)
+                    .build());
+        }
+
+        if (!batchList.isEmpty() && !batchCommitAppendData(batchList, tableDomainMap)) {
+            LOG.info("Batch commit of {} DataCommitInfo conflicts, fall back to commit one by one", batchList.size());
+            sequentialList.addAll(batchList);
+        }
+        for (DataCommitInfo dataCommitInfo : sequentialList) {
+            commitDataCommitInfo(dataCommitInfo, null);
+        }
+    }
+
+    private boolean batchCommitAppendData(List<DataCommitInfo> dataCommitInfoList, Map<String, String> tableDomainMap) {
+        // fails when some of them have been inserted before, e.g. on recovery
+        if (!dataCommitInfoDao.batchInsert(dataCommitInfoList)) {
+            return false;
+        }
+
+        Map<String, Set<String>> tablePartitionDescMap = new LinkedHashMap<>();
+        for (DataCommitInfo dataCommitInfo : dataCommitInfoList) {
+            tablePartitionDescMap.computeIfAbsent(dataCommitInfo.getTableId(), k -> new LinkedHashSet<>())
+                    .add(dataCommitInfo.getPartitionDesc());
+        }
+        Map<String, PartitionInfo> latestPartitionMap = new HashMap<>();
+        for (Map.Entry<String, Set<String>> entry : tablePartitionDescMap.entrySet()) {
+            String tableId = entry.getKey();
+            Map<String, PartitionInfo> curMap = getCurPartitionMap(tableId, new ArrayList<>(entry.getValue()));
+            for (String partitionDesc : entry.getValue()) {
+                PartitionInfo curPartitionInfo = curMap.get(partitionDesc);
+                if (curPartitionInfo == null) {
+                    curPartitionInfo = PartitionInfo.newBuilder()
+                            .setTableId(tableId)
+                            .setPartitionDesc(partitionDesc)
+                            .setVersion(-1)
+                            .build();
+                }
+                latestPartitionMap.put(tableId + LAKESOUL_PARTITION_SPLITTER_OF_RANGE_AND_HASH + partitionDesc,
+                        curPartitionInfo);
+            }
+        }
+
+        // commits to the same partition in one batch get consecutive versions
+        List<PartitionInfo> newPartitionList = new ArrayList<>();
+        List<String> snapshotList = new ArrayList<>();
+        for (DataCommitInfo dataCommitInfo : dataCommitInfoList) {
+            String key = dataCommitInfo.getTableId() + LAKESOUL_PARTITION_SPLITTER_OF_RANGE_AND_HASH +
+                    dataCommitInfo.getPartitionDesc();
+            PartitionInfo curPartitionInfo = latestPartitionMap.get(key);
+            PartitionInfo newPartitionInfo = curPartitionInfo.toBuilder()
+                    .setVersion(curPartitionInfo.getVersion() + 1)
+                    .addSnapshot(dataCommitInfo.getCommitId())
+                    .setCommitOp(dataCommitInfo.getCommitOp())
+                    .setExpression("")
+                    .setDomain(tableDomainMap.get(dataCommitInfo.getTableId()))
+                    .build();
+            latestPartitionMap.put(key, newPartitionInfo);
+            newPartitionList.add(newPartitionInfo);
+            snapshotList.add(DBUtil.toJavaUUID(dataCommitInfo.getCommitId()).toString());
+        }
+        return partitionInfoDao.transactionInsert(newPartitionList, snapshotList);
+    }
+
     //==============
     //namespace
     //==============
@@ -1023,14 +1344,20 @@ public class DBManager {
         if (NativeUtils.NATIVE_METADATA_UPDATE_ENABLED) {
             NativeMetadataJavaClient.cleanMeta();
             namespaceDao.insert(NamespaceDao.DEFAULT_NAMESPACE);
+            tableInfoCache.invalidateAll();
+            dataCommitInfoCache.invalidateAll();
+            snapshotCheckpoints.clean();
             return;
         }
         namespaceDao.clean();
         namespaceDao.insert(NamespaceDao.DEFAULT_NAMESPACE);
         dataCommitInfoDao.clean();
+        dataCommitInfoCache.invalidateAll();
         tableInfoDao.clean();
         tablePathIdDao.clean();
         tableNameIdDao.clean();
         partitionInfoDao.clean();
+        snapshotCheckpoints.clean();
+        tableInfoCache.invalidateAll();
     }
 }
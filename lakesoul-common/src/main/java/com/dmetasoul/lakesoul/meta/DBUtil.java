@@ -211,7 +211,11 @@ public class DBUtil {
             String fileOp = dataFileOp.getFileOp().name();
             long size = dataFileOp.getSize();
             String fileExistCols = dataFileOp.getFileExistCols();
-            sb.append(String.format("\"(%s,%s,%s,\\\"%s\\\")\",", path, fileOp, size, fileExistCols));
+            // file stats are json, so fields are quoted as record fields and then the record as array element
+            String fileStats = dataFileOp.getFileStats().isEmpty() ? "" : quoteCompositeField(dataFileOp.getFileStats());
+            String record = String.format("(%s,%s,%s,%s,%s)", quoteCompositeField(path), fileOp, size,
+                    quoteCompositeField(fileExistCols), fileStats);
+            sb.append(quoteCompositeField(record)).append(",");
         }
         sb = new StringBuilder(sb.substring(0, sb.length() - 1));
         sb.append("}");
@@ -224,28 +228,71 @@ public class DBUtil {
             // todo throw error
             return rsList;
         }
-        String[] fileOpTmp = s.substring(1, s.length() - 1).split("\",\"");
-        for (String value : fileOpTmp) {
-            String tmpElem = value.replace("\"", "").replace("\\", "");
-            if (!tmpElem.startsWith("(") || !tmpElem.endsWith(")")) {
+        for (String value : splitCompositeLiteral(s)) {
+            if (value == null || !value.startsWith("(") || !value.endsWith(")")) {
                 // todo throw error
                 continue;
             }
-            tmpElem = tmpElem.substring(1, tmpElem.length() - 1);
+            List<String> fields = splitCompositeLiteral(value);
+            if (fields.size() < 4) {
+                continue;
+            }
             DataFileOp.Builder dataFileOp = DataFileOp.newBuilder();
-            dataFileOp.setPath(tmpElem.substring(0, tmpElem.indexOf(",")));
-            tmpElem = tmpElem.substring(tmpElem.indexOf(",") + 1);
-            String fileOp = tmpElem.substring(0, tmpElem.indexOf(","));
-            dataFileOp.setFileOp(FileOp.valueOf(fileOp));
-            tmpElem = tmpElem.substring(tmpElem.indexOf(",") + 1);
-            dataFileOp.setSize(Long.parseLong(tmpElem.substring(0, tmpElem.indexOf(","))));
-            tmpElem = tmpElem.substring(tmpElem.indexOf(",") + 1);
-            dataFileOp.setFileExistCols(tmpElem);
+            dataFileOp.setPath(fields.get(0));
+            dataFileOp.setFileOp(FileOp.valueOf(fields.get(1)));
+            dataFileOp.setSize(Long.parseLong(fields.get(2)));
+            dataFileOp.setFileExistCols(fields.get(3) == null ? "" : fields.get(3));
+            // file_stats is absent in data_file_op created by older versions
+            if (fields.size() > 4 && fields.get(4) != null) {
+                dataFileOp.setFileStats(fields.get(4));
+            }
             rsList.add(dataFileOp.build());
         }
         return rsList;
     }
 
+    private static String quoteCompositeField(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    /**
+     * Splits a postgres array literal {a,"b"} or record literal (a,"b") into its unquoted elements,
+     * unquoted empty elements of records are null.
+     */
+    private static List<String> splitCompositeLiteral(String s) {
+        List<String> elements = new ArrayList<>();
+        if (s.length() <= 2) {
+            return elements;
+        }
+        StringBuilder element = new StringBuilder();
+        boolean inQuotes = false;
+        boolean quoted = false;
+        int end = s.length() - 1;
+        for (int i = 1; i < end; i++) {
+            char c = s.charAt(i);
+            if (c == '\\' && i + 1 < end) {
+                element.append(s.charAt(++i));
+            } else if (c == '"') {
+                if (inQuotes && i + 1 < end && s.charAt(i + 1) == '"') {
+                    // doubled quote inside quoted record field
+                    element.append('"');
+                    i++;
+                } else {
+                    inQuotes = !inQuotes;
+                    quoted = true;
+                }
+            } else if (c == ',' && !inQuotes) {
+                elements.add(quoted || element.length() > 0 ? element.toString() : null);
+                element.setLength(0);
+                quoted = false;
+            } else {
+                element.append(c);
+            }
+        }
+        elements.add(quoted || element.length() > 0 ? element.toString() : null);
+        return elements;
+    }
+
     public static String formatTableInfoPartitionsField(List<String> primaryKeys, List<String> rangePartitions) {
         return formatTableInfoPartitionsField(
                 String.join(LAKESOUL_HASH_PARTITION_SPLITTER, primaryKeys),
@@ -0,0 +1,246 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.dmetasoul.lakesoul.meta;
+
+import com.dmetasoul.lakesoul.meta.entity.DataCommitInfo;
+import com.dmetasoul.lakesoul.meta.entity.Uuid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * JVM wide cache of data commit infos by table id, partition desc and commit id, shared by all {@link DBManager}
+ * instances, so that resolving partition snapshots again only queries the commits not seen before.
+ *
+ * <p>A data commit info does not change any more once it is committed, so committed ones are kept until evicted by
+ * the LRU bound or deleted through DBManager in this process. Uncommitted ones are never cached.
+ *
+ * <p>Data commit infos carry the stats of each of their files, so the cache is bounded by the estimated heap size of
+ * its entries rather than their number. Max size in bytes is configured by env
+ * LAKESOUL_META_DATA_COMMIT_CACHE_MAX_BYTES or system property lakesoul.meta.data_commit.cache.max.bytes, 0 disables
+ * the cache.
+ */
+public class DataCommitInfoCache {
+    private static final Logger LOG = LoggerFactory.getLogger(DataCommitInfoCache.class);
+
+    public static final String maxBytesEnv = "LAKESOUL_META_DATA_COMMIT_CACHE_MAX_BYTES";
+    public static final String maxBytesKey = "lakesoul.meta.data_commit.cache.max.bytes";
+    public static final long maxBytesDefault = 128L << 20;
+
+    // heap size of key, map entry and message objects beyond the serialized bytes, and of java strings over utf8
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+    private static final int SERIALIZED_SIZE_FACTOR = 2;
+
+    private static DataCommitInfoCache instance = null;
+
+    private final long maxBytes;
+
+    private final LinkedHashMap<Key, DataCommitInfo> dataCommitInfos;
+    private long bytes = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private static final class Key {
+        final String tableId;
+        final String partitionDesc;
+        final Uuid commitId;
+
+        Key(String tableId, String partitionDesc, Uuid commitId) {
+            this.tableId = tableId;
+            this.partitionDesc = partitionDesc;
+            this.commitId = commitId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return tableId.equals(key.tableId) && partitionDesc.equals(key.partitionDesc)
+                    && commitId.getHigh() == key.commitId.getHigh() && commitId.getLow() == key.commitId.getLow();
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tableId, partitionDesc, commitId.getHigh(), commitId.getLow());
+        }
+    }
+
+    DataCommitInfoCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.dataCommitInfos = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public static synchronized DataCommitInfoCache get() {
+        if (instance == null) {
+            long maxBytes = Long.parseLong(
+                    DBUtil.getConfigValue(maxBytesEnv, maxBytesKey, String.valueOf(maxBytesDefault)));
+            instance = new DataCommitInfoCache(maxBytes);
+            LOG.info("Data commit info cache max bytes {}", maxBytes);
+        }
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    static long estimateBytes(DataCommitInfo dataCommitInfo) {
+        return (long) dataCommitInfo.getSerializedSize() * SERIALIZED_SIZE_FACTOR + ENTRY_OVERHEAD_BYTES;
+    }
+
+    /**
+     * Data commit infos of the given commits of a partition in the order of commitIds, skipping commits not found.
+     *
+     * @param loader queries the data commit infos of the commits not cached, in any order
+     * @throws RuntimeException if the loader returns null, instead of returning only the cached ones
+     */
+    public List<DataCommitInfo> getAll(String tableId, String partitionDesc, List<Uuid> commitIds,
+                                       Function<List<Uuid>, List<DataCommitInfo>> loader) {
+        Map<Uuid, DataCommitInfo> found = new HashMap<>();
+        List<Uuid> missing = getAll(tableId, partitionDesc, commitIds, found);
+        if (!missing.isEmpty()) {
+            List<DataCommitInfo> loaded = loader.apply(missing);
+            if (loaded == null) {
+                throw new RuntimeException("Failed to query data commit infos of table " + tableId +
+                        ", partition " + partitionDesc);
+            }
+            for (DataCommitInfo dataCommitInfo : loaded) {
+                if (dataCommitInfo.getPartitionDesc().equals(partitionDesc)) {
+                    found.put(dataCommitInfo.getCommitId(), dataCommitInfo);
+                }
+            }
+            putAll(loaded);
+        }
+        List<DataCommitInfo> result = new ArrayList<>(found.size());
+        for (Uuid commitId : new LinkedHashSet<>(commitIds)) {
+            DataCommitInfo dataCommitInfo = found.get(commitId);
+            if (dataCommitInfo != null) {
+                result.add(dataCommitInfo);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Put cached data commit infos of the given commits of a partition into found.
+     *
+     * @return commits not cached
+     */
+    public List<Uuid> getAll(String tableId, String partitionDesc, List<Uuid> commitIds,
+                             Map<Uuid, DataCommitInfo> found) {
+        if (!isEnabled()) {
+            return commitIds;
+        }
+        List<Uuid> missing = new ArrayList<>();
+        synchronized (this) {
+            for (Uuid commitId : commitIds) {
+                DataCommitInfo dataCommitInfo = dataCommitInfos.get(new Key(tableId, partitionDesc, commitId));
+                if (dataCommitInfo != null) {
+                    found.put(commitId, dataCommitInfo);
+                } else {
+                    missing.add(commitId);
+                }
+            }
+        }
+        hits.addAndGet(commitIds.size() - missing.size());
+        misses.addAndGet(missing.size());
+        return missing;
+    }
+
+    public void putAll(Collection<DataCommitInfo> loaded) {
+        if (!isEnabled()) {
+            return;
+        }
+        synchronized (this) {
+            for (DataCommitInfo dataCommitInfo : loaded) {
+                // committed flag may still change for uncommitted ones
+                if (dataCommitInfo.getCommitted()) {
+                    DataCommitInfo previous = dataCommitInfos.put(new Key(dataCommitInfo.getTableId(),
+                            dataCommitInfo.getPartitionDesc(), dataCommitInfo.getCommitId()), dataCommitInfo);
+                    bytes += estimateBytes(dataCommitInfo) - (previous == null ? 0 : estimateBytes(previous));
+                }
+            }
+            Iterator<DataCommitInfo> eldest = dataCommitInfos.values().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                bytes -= estimateBytes(eldest.next());
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    public synchronized void invalidate(String tableId, String partitionDesc, Uuid commitId) {
+        DataCommitInfo removed = dataCommitInfos.remove(new Key(tableId, partitionDesc, commitId));
+        if (removed != null) {
+            bytes -= estimateBytes(removed);
+        }
+    }
+
+    /**
+     * Drop cached data commit infos of a partition, or of all partitions of the table if partitionDesc is null.
+     */
+    public synchronized void invalidate(String tableId, String partitionDesc) {
+        Iterator<Map.Entry<Key, DataCommitInfo>> iterator = dataCommitInfos.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, DataCommitInfo> entry = iterator.next();
+            if (entry.getKey().tableId.equals(tableId)
+                    && (partitionDesc == null || entry.getKey().partitionDesc.equals(partitionDesc))) {
+                bytes -= estimateBytes(entry.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        dataCommitInfos.clear();
+        bytes = 0;
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public synchronized int size() {
+        return dataCommitInfos.size();
+    }
+
+    /**
+     * Estimated heap size of the cached entries, bounded by max bytes.
+     */
+    public synchronized long sizeInBytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "DataCommitInfoCache{" +
+                "size=" + size() +
+                ", bytes=" + sizeInBytes() +
+                ", hits=" + hits.get() +
+                ", misses=" + misses.get() +
+                ", evictions=" + evictions.get() +
+                '}';
+    }
+}
@@ -0,0 +1,209 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.dmetasoul.lakesoul.meta;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Column statistics of a data file, as collected by the native writer into {@code DataFileOp.file_stats}, e.g.
+ * {@code {"numRows":100,"columns":{"id":{"nullCount":0,"min":1,"max":100}}}}.
+ *
+ * <p>Min/max are integers (dates as days since epoch) or strings ordered by their utf8 bytes. All checks
+ * answer whether a file <i>may</i> contain matching rows: a missing or incomparable statistic always answers
+ * {@code true}, so files are only skipped when they certainly don't match.
+ *
+ * <p>For primary key tables, files of a partition are merged on read, so a row that doesn't match in one
+ * file may still be needed to merge with rows of other files. Skipping is only correct there with predicates
+ * on primary key columns, which are never changed by the merge.
+ */
+public class DataFileStats {
+
+    public static final String NUM_ROWS = "numRows";
+    public static final String COLUMNS = "columns";
+    public static final String NULL_COUNT = "nullCount";
+    public static final String MIN = "min";
+    public static final String MAX = "max";
+
+    private final long numRows;
+
+    private final Map<String, ColumnStats> columns;
+
+    private DataFileStats(long numRows, Map<String, ColumnStats> columns) {
+        this.numRows = numRows;
+        this.columns = columns;
+    }
+
+    /**
+     * @return parsed statistics, or null if none were collected or they are not readable
+     */
+    public static DataFileStats parse(String fileStats) {
+        if (fileStats == null || fileStats.isEmpty()) {
+            return null;
+        }
+        try {
+            JSONObject json = JSON.parseObject(fileStats);
+            if (json == null || !json.containsKey(NUM_ROWS)) {
+                return null;
+            }
+            long numRows = json.getLongValue(NUM_ROWS);
+            JSONObject columnsJson = json.getJSONObject(COLUMNS);
+            if (columnsJson == null) {
+                return new DataFileStats(numRows, Collections.emptyMap());
+            }
+            Map<String, ColumnStats> columns = new HashMap<>();
+            for (String column : columnsJson.keySet()) {
+                JSONObject columnJson = columnsJson.getJSONObject(column);
+                Long nullCount = columnJson.getLong(NULL_COUNT);
+                Object min = normalize(columnJson.get(MIN));
+                Object max = normalize(columnJson.get(MAX));
+                columns.put(column, new ColumnStats(numRows, nullCount,
+                        min != null && max != null ? min : null, min != null && max != null ? max : null));
+            }
+            return new DataFileStats(numRows, columns);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    public long getNumRows() {
+        return numRows;
+    }
+
+    /**
+     * @return statistics of column, or null if not collected
+     */
+    public ColumnStats getColumn(String column) {
+        return columns.get(column);
+    }
+
+    public Map<String, ColumnStats> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Converts literals of engines to the value types of statistics: integral numbers to Long, strings and
+     * chars to String. Other values are not comparable with statistics and become null.
+     */
+    public static Object normalize(Object value) {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof CharSequence || value instanceof Character) {
+            return value.toString();
+        }
+        return null;
+    }
+
+    public static class ColumnStats {
+        private final long numRows;
+        private final Long nullCount;
+        private final Object min;
+        private final Object max;
+
+        ColumnStats(long numRows, Long nullCount, Object min, Object max) {
+            this.numRows = numRows;
+            this.nullCount = nullCount;
+            this.min = min;
+            this.max = max;
+        }
+
+        public Long getNullCount() {
+            return nullCount;
+        }
+
+        public Object getMin() {
+            return min;
+        }
+
+        public Object getMax() {
+            return max;
+        }
+
+        public boolean mayBeNull() {
+            return nullCount == null || nullCount > 0;
+        }
+
+        public boolean mayBeNotNull() {
+            return nullCount == null || nullCount < numRows;
+        }
+
+        public boolean mayEqual(Object value) {
+            Integer toMin = compare(value, min);
+            Integer toMax = compare(value, max);
+            if (toMin == null || toMax == null) {
+                return mayBeNotNull();
+            }
+            return toMin >= 0 && toMax <= 0;
+        }
+
+        /**
+         * @return whether the column may have a value other than value
+         */
+        public boolean mayNotEqual(Object value) {
+            Integer toMin = compare(value, min);
+            Integer toMax = compare(value, max);
+            if (toMin == null || toMax == null) {
+                return mayBeNotNull();
+            }
+            return toMin != 0 || toMax != 0;
+        }
+
+        /**
+         * @return whether the column may have a value less than (or equal to, if inclusive) value
+         */
+        public boolean mayBeLessThan(Object value, boolean inclusive) {
+            Integer toMin = compare(value, min);
+            if (toMin == null) {
+                return mayBeNotNull();
+            }
+            return inclusive ? toMin >= 0 : toMin > 0;
+        }
+
+        /**
+         * @return whether the column may have a value greater than (or equal to, if inclusive) value
+         */
+        public boolean mayBeGreaterThan(Object value, boolean inclusive) {
+            Integer toMax = compare(value, max);
+            if (toMax == null) {
+                return mayBeNotNull();
+            }
+            return inclusive ? toMax <= 0 : toMax < 0;
+        }
+
+        // compares a literal with a statistic, null if they are not comparable
+        static Integer compare(Object value, Object stat) {
+            value = normalize(value);
+            if (value == null || stat == null) {
+                return null;
+            }
+            if (value instanceof Long && stat instanceof Long) {
+                return Long.compare((Long) value, (Long) stat);
+            }
+            if (value instanceof String && stat instanceof String) {
+                return compareUtf8((String) value, (String) stat);
+            }
+            return null;
+        }
+
+        private static int compareUtf8(String a, String b) {
+            byte[] x = a.getBytes(StandardCharsets.UTF_8);
+            byte[] y = b.getBytes(StandardCharsets.UTF_8);
+            int length = Math.min(x.length, y.length);
+            for (int i = 0; i < length; i++) {
+                int c = Integer.compare(x[i] & 0xFF, y[i] & 0xFF);
+                if (c != 0) {
+                    return c;
+                }
+            }
+            return Integer.compare(x.length, y.length);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.dmetasoul.lakesoul.meta;
+
+import com.dmetasoul.lakesoul.meta.entity.DataCommitInfo;
+
+import java.util.List;
+
+/**
+ * Live files of a partition version resolved from the first snapshotSize commits of its snapshot, as data commit
+ * infos of those commits that only keep their files not deleted by a later commit of the prefix.
+ */
+public class PartitionSnapshotCheckpoint {
+    private final String tableId;
+    private final String partitionDesc;
+    private final int version;
+    private final int snapshotSize;
+    private final String snapshotDigest;
+    private final List<DataCommitInfo> dataCommitInfos;
+    private final long timestamp;
+    private final String domain;
+
+    public PartitionSnapshotCheckpoint(String tableId, String partitionDesc, int version, int snapshotSize,
+                                       String snapshotDigest, List<DataCommitInfo> dataCommitInfos, long timestamp,
+                                       String domain) {
+        this.tableId = tableId;
+        this.partitionDesc = partitionDesc;
+        this.version = version;
+        this.snapshotSize = snapshotSize;
+        this.snapshotDigest = snapshotDigest;
+        this.dataCommitInfos = dataCommitInfos;
+        this.timestamp = timestamp;
+        this.domain = domain;
+    }
+
+    public String getTableId() {
+        return tableId;
+    }
+
+    public String getPartitionDesc() {
+        return partitionDesc;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int getSnapshotSize() {
+        return snapshotSize;
+    }
+
+    public String getSnapshotDigest() {
+        return snapshotDigest;
+    }
+
+    public List<DataCommitInfo> getDataCommitInfos() {
+        return dataCommitInfos;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+
+    @Override
+    public String toString() {
+        return "PartitionSnapshotCheckpoint{" +
+                "tableId='" + tableId + '\'' +
+                ", partitionDesc='" + partitionDesc + '\'' +
+                ", version=" + version +
+                ", snapshotSize=" + snapshotSize +
+                ", dataCommitInfos=" + dataCommitInfos.size() +
+                '}';
+    }
+}
@@ -0,0 +1,399 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.dmetasoul.lakesoul.meta;
+
+import com.dmetasoul.lakesoul.meta.dao.PartitionSnapshotCheckpointDao;
+import com.dmetasoul.lakesoul.meta.entity.DataCommitInfo;
+import com.dmetasoul.lakesoul.meta.entity.DataFileOp;
+import com.dmetasoul.lakesoul.meta.entity.FileOp;
+import com.dmetasoul.lakesoul.meta.entity.PartitionInfo;
+import com.dmetasoul.lakesoul.meta.entity.Uuid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps the snapshot resolution of long lived partitions bounded. The snapshot of a partition grows by a commit with
+ * every append until compaction rewrites it, so once a resolved snapshot has at least interval commits after its
+ * latest checkpoint, its live files are written as a new checkpoint to partition_snapshot_checkpoint. Later
+ * resolutions whose snapshot starts with the commits of the checkpoint only query the commits after them.
+ *
+ * <p>Checkpoints are not written by the resolving thread, which only queues them. A single writer thread builds the
+ * queued checkpoints and inserts them in batches, keeping only the latest one queued for each partition.
+ *
+ * <p>A checkpoint applies to a snapshot only if the snapshot has the same first snapshotSize commits, checked by a
+ * digest of them, so checkpoints of snapshots rewritten by compaction or rollback are never used. Only the latest
+ * checkpoint of each partition is kept, and the latest checkpoints used by this process are cached.
+ *
+ * <p>The interval is configured by env LAKESOUL_META_SNAPSHOT_CHECKPOINT_INTERVAL or system property
+ * lakesoul.meta.snapshot.checkpoint.interval, 0 disables checkpoints. If partition_snapshot_checkpoint can not be
+ * accessed, e.g. it is not created yet in the metadata db, checkpoints are disabled for the process.
+ */
+public class PartitionSnapshotCheckpoints {
+    private static final Logger LOG = LoggerFactory.getLogger(PartitionSnapshotCheckpoints.class);
+
+    public static final String intervalEnv = "LAKESOUL_META_SNAPSHOT_CHECKPOINT_INTERVAL";
+    public static final String intervalKey = "lakesoul.meta.snapshot.checkpoint.interval";
+    public static final int intervalDefault = 200;
+    public static final String maxEntriesEnv = "LAKESOUL_META_SNAPSHOT_CHECKPOINT_CACHE_MAX_ENTRIES";
+    public static final String maxEntriesKey = "lakesoul.meta.snapshot.checkpoint.cache.max.entries";
+    public static final int maxEntriesDefault = 1000;
+
+    private static PartitionSnapshotCheckpoints instance = null;
+
+    private final PartitionSnapshotCheckpointDao checkpointDao;
+    private final int interval;
+    private final int maxEntries;
+    private volatile boolean enabled;
+
+    // latest checkpoint by table id and partition desc
+    private final LinkedHashMap<List<String>, PartitionSnapshotCheckpoint> checkpoints;
+
+    // checkpoints to write by table id and partition desc, guarded by itself
+    private final LinkedHashMap<List<String>, PendingCheckpoint> pending = new LinkedHashMap<>();
+    private boolean writeScheduled = false;
+    private ExecutorService writer = null;
+
+    PartitionSnapshotCheckpoints(PartitionSnapshotCheckpointDao checkpointDao, int interval, int maxEntries) {
+        this.checkpointDao = checkpointDao;
+        this.interval = interval;
+        this.maxEntries = maxEntries;
+        this.enabled = interval > 0;
+        this.checkpoints = new LinkedHashMap<List<String>, PartitionSnapshotCheckpoint>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<String>, PartitionSnapshotCheckpoint> eldest) {
+                return size() > PartitionSnapshotCheckpoints.this.maxEntries;
+            }
+        };
+    }
+
+    public static synchronized PartitionSnapshotCheckpoints get() {
+        if (instance == null) {
+            int interval = Integer.parseInt(
+                    DBUtil.getConfigValue(intervalEnv, intervalKey, String.valueOf(intervalDefault)));
+            int maxEntries = Integer.parseInt(
+                    DBUtil.getConfigValue(maxEntriesEnv, maxEntriesKey, String.valueOf(maxEntriesDefault)));
+            instance = new PartitionSnapshotCheckpoints(
+                    DBFactory.getPartitionSnapshotCheckpointDao(), interval, maxEntries);
+            LOG.info("Partition snapshot checkpoint interval {}, cache max entries {}", interval, maxEntries);
+        }
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Latest checkpoint applying to the snapshot of each partition, or null for partitions whose snapshot is shorter
+     * than the interval or that have no such checkpoint.
+     */
+    public List<PartitionSnapshotCheckpoint> find(List<PartitionInfo> partitionInfoList) {
+        PartitionSnapshotCheckpoint[] result = new PartitionSnapshotCheckpoint[partitionInfoList.size()];
+        if (!enabled) {
+            return Arrays.asList(result);
+        }
+        // partitions whose cached checkpoint is missing or leaves a long tail, by table id
+        Map<String, Set<String>> lookups = new LinkedHashMap<>();
+        for (int i = 0; i < result.length; i++) {
+            PartitionInfo partitionInfo = partitionInfoList.get(i);
+            if (partitionInfo.getSnapshotCount() < interval) {
+                continue;
+            }
+            PartitionSnapshotCheckpoint checkpoint = cached(partitionInfo);
+            if (appliesTo(checkpoint, partitionInfo)) {
+                result[i] = checkpoint;
+            }
+            if (result[i] == null || partitionInfo.getSnapshotCount() - result[i].getSnapshotSize() >= interval) {
+                lookups.computeIfAbsent(partitionInfo.getTableId(), k -> new LinkedHashSet<>())
+                        .add(partitionInfo.getPartitionDesc());
+            }
+        }
+        if (lookups.isEmpty()) {
+            return Arrays.asList(result);
+        }
+        // checkpoints written by other processes
+        Map<List<String>, PartitionSnapshotCheckpoint> latest = new HashMap<>();
+        try {
+            for (Map.Entry<String, Set<String>> entry : lookups.entrySet()) {
+                for (PartitionSnapshotCheckpoint checkpoint :
+                        checkpointDao.findLatestByTableIdAndParList(entry.getKey(), new ArrayList<>(entry.getValue()))) {
+                    latest.put(key(checkpoint.getTableId(), checkpoint.getPartitionDesc()), checkpoint);
+                }
+            }
+        } catch (RuntimeException e) {
+            disable(e);
+            return Arrays.asList(result);
+        }
+        for (int i = 0; i < result.length; i++) {
+            PartitionInfo partitionInfo = partitionInfoList.get(i);
+            PartitionSnapshotCheckpoint checkpoint =
+                    latest.get(key(partitionInfo.getTableId(), partitionInfo.getPartitionDesc()));
+            if (appliesTo(checkpoint, partitionInfo)
+                    && (result[i] == null || checkpoint.getSnapshotSize() > result[i].getSnapshotSize())) {
+                result[i] = checkpoint;
+                cache(checkpoint);
+            }
+        }
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Queue a checkpoint of the resolved snapshot of the partition if it has at least interval commits after the
+     * checkpoint used to resolve it. The checkpoint is written later by the writer thread, and failing to write it
+     * does not fail the resolution.
+     *
+     * @param used     checkpoint used to resolve the snapshot, or null
+     * @param resolved data commit infos of the commits of the snapshot after those of used, in snapshot order.
+     *                 If some of them are missing, e.g. cleaned up before a time travel read, no checkpoint is
+     *                 taken as it would leave their files out of all later resolutions.
+     */
+    public void checkpointIfNeeded(PartitionInfo partitionInfo, PartitionSnapshotCheckpoint used,
+                                   List<DataCommitInfo> resolved) {
+        int snapshotSize = partitionInfo.getSnapshotCount();
+        int usedSize = used == null ? 0 : used.getSnapshotSize();
+        if (!enabled || !partitionInfo.hasVersion() || partitionInfo.getVersion() < 0
+                || snapshotSize - usedSize < interval) {
+            return;
+        }
+        int commits = new HashSet<>(partitionInfo.getSnapshotList().subList(usedSize, snapshotSize)).size();
+        if (resolved.size() != commits) {
+            LOG.warn("Resolved {} of {} commits after version {} of table {} partition {}, not checkpointing it",
+                    resolved.size(), commits, partitionInfo.getVersion(), partitionInfo.getTableId(),
+                    partitionInfo.getPartitionDesc());
+            return;
+        }
+        List<String> key = key(partitionInfo.getTableId(), partitionInfo.getPartitionDesc());
+        synchronized (pending) {
+            PendingCheckpoint current = pending.get(key);
+            if (current == null || current.partitionInfo.getVersion() < partitionInfo.getVersion()) {
+                pending.put(key, new PendingCheckpoint(partitionInfo, used, new ArrayList<>(resolved)));
+            }
+            if (!writeScheduled) {
+                writeScheduled = true;
+                writer().execute(this::writePending);
+            }
+        }
+    }
+
+    /**
+     * Wait until the checkpoints queued so far are written.
+     */
+    void flush() throws InterruptedException, ExecutionException {
+        writer().submit(() -> {
+        }).get();
+    }
+
+    private synchronized ExecutorService writer() {
+        if (writer == null) {
+            writer = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "lakesoul-snapshot-checkpoint-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return writer;
+    }
+
+    private void writePending() {
+        while (true) {
+            List<PendingCheckpoint> batch;
+            synchronized (pending) {
+                if (pending.isEmpty() || !enabled) {
+                    pending.clear();
+                    writeScheduled = false;
+                    return;
+                }
+                batch = new ArrayList<>(pending.values());
+                pending.clear();
+            }
+            List<PartitionSnapshotCheckpoint> checkpointList = new ArrayList<>(batch.size());
+            for (PendingCheckpoint pendingCheckpoint : batch) {
+                checkpointList.add(pendingCheckpoint.build());
+            }
+            try {
+                checkpointDao.insert(checkpointList);
+            } catch (RuntimeException e) {
+                disable(e);
+                continue;
+            }
+            for (PartitionSnapshotCheckpoint checkpoint : checkpointList) {
+                cache(checkpoint);
+                LOG.info("Wrote {}", checkpoint);
+            }
+        }
+    }
+
+    /**
+     * Delete checkpoints of a partition, or of all partitions of the table if partitionDesc is null. Checkpoints left
+     * behind are never applied to snapshots of other commits, so failing to delete them is only logged.
+     */
+    public void delete(String tableId, String partitionDesc) {
+        invalidate(tableId, partitionDesc);
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (partitionDesc == null) {
+                checkpointDao.deleteByTableId(tableId);
+            } else {
+                checkpointDao.deleteByTableIdAndPartitionDesc(tableId, partitionDesc);
+            }
+        } catch (RuntimeException e) {
+            disable(e);
+        }
+    }
+
+    public void clean() {
+        invalidateAll();
+        if (!enabled) {
+            return;
+        }
+        try {
+            checkpointDao.clean();
+        } catch (RuntimeException e) {
+            disable(e);
+        }
+    }
+
+    public void invalidate(String tableId, String partitionDesc) {
+        synchronized (pending) {
+            pending.keySet().removeIf(key -> key.get(0).equals(tableId)
+                    && (partitionDesc == null || key.get(1).equals(partitionDesc)));
+        }
+        synchronized (this) {
+            checkpoints.keySet().removeIf(key -> key.get(0).equals(tableId)
+                    && (partitionDesc == null || key.get(1).equals(partitionDesc)));
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (pending) {
+            pending.clear();
+        }
+        synchronized (this) {
+            checkpoints.clear();
+        }
+    }
+
+    private void disable(RuntimeException e) {
+        enabled = false;
+        LOG.warn("Disable partition snapshot checkpoints, partition_snapshot_checkpoint not accessible", e);
+    }
+
+    private synchronized PartitionSnapshotCheckpoint cached(PartitionInfo partitionInfo) {
+        return checkpoints.get(key(partitionInfo.getTableId(), partitionInfo.getPartitionDesc()));
+    }
+
+    private synchronized void cache(PartitionSnapshotCheckpoint checkpoint) {
+        List<String> key = key(checkpoint.getTableId(), checkpoint.getPartitionDesc());
+        PartitionSnapshotCheckpoint current = checkpoints.get(key);
+        if (current == null || current.getVersion() <= checkpoint.getVersion()) {
+            checkpoints.put(key, checkpoint);
+        }
+    }
+
+    private static class PendingCheckpoint {
+        private final PartitionInfo partitionInfo;
+        private final PartitionSnapshotCheckpoint used;
+        private final List<DataCommitInfo> resolved;
+
+        PendingCheckpoint(PartitionInfo partitionInfo, PartitionSnapshotCheckpoint used,
+                          List<DataCommitInfo> resolved) {
+            this.partitionInfo = partitionInfo;
+            this.used = used;
+            this.resolved = resolved;
+        }
+
+        PartitionSnapshotCheckpoint build() {
+            List<DataCommitInfo> dataCommitInfos = new ArrayList<>();
+            if (used != null) {
+                dataCommitInfos.addAll(used.getDataCommitInfos());
+            }
+            dataCommitInfos.addAll(resolved);
+            String domain = dataCommitInfos.isEmpty() ? "public" : dataCommitInfos.get(0).getDomain();
+            int snapshotSize = partitionInfo.getSnapshotCount();
+            return new PartitionSnapshotCheckpoint(
+                    partitionInfo.getTableId(),
+                    partitionInfo.getPartitionDesc(),
+                    partitionInfo.getVersion(),
+                    snapshotSize,
+                    digest(partitionInfo.getSnapshotList(), snapshotSize),
+                    liveFiles(dataCommitInfos),
+                    System.currentTimeMillis(),
+                    domain);
+        }
+    }
+
+    private static List<String> key(String tableId, String partitionDesc) {
+        return Arrays.asList(tableId, partitionDesc);
+    }
+
+    private static boolean appliesTo(PartitionSnapshotCheckpoint checkpoint, PartitionInfo partitionInfo) {
+        return checkpoint != null
+                && checkpoint.getSnapshotSize() <= partitionInfo.getSnapshotCount()
+                && checkpoint.getSnapshotDigest().equals(digest(partitionInfo.getSnapshotList(),
+                checkpoint.getSnapshotSize()));
+    }
+
+    /**
+     * Hex md5 of the first size commit ids of the snapshot.
+     */
+    public static String digest(List<Uuid> snapshot, int size) {
+        MessageDigest md5;
+        try {
+            md5 = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        for (int i = 0; i < size; i++) {
+            Uuid uuid = snapshot.get(i);
+            buffer.clear();
+            buffer.putLong(uuid.getHigh()).putLong(uuid.getLow());
+            md5.update(buffer.array());
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : md5.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Data commit infos keeping only added files that no later commit deletes, in the same order, which resolve to
+     * the same live files as the given ones.
+     */
+    public static List<DataCommitInfo> liveFiles(List<DataCommitInfo> dataCommitInfos) {
+        Set<String> deleted = new HashSet<>();
+        List<DataCommitInfo> result = new ArrayList<>(dataCommitInfos.size());
+        for (int i = dataCommitInfos.size() - 1; i >= 0; i--) {
+            DataCommitInfo dataCommitInfo = dataCommitInfos.get(i);
+            List<DataFileOp> fileOps = dataCommitInfo.getFileOpsList();
+            List<DataFileOp> live = new ArrayList<>(fileOps.size());
+            for (int j = fileOps.size() - 1; j >= 0; j--) {
+                DataFileOp fileOp = fileOps.get(j);
+                if (fileOp.getFileOp() == FileOp.del) {
+                    deleted.add(fileOp.getPath());
+                } else if (!deleted.contains(fileOp.getPath())) {
+                    live.add(fileOp);
+                }
+            }
+            if (!live.isEmpty()) {
+                Collections.reverse(live);
+                result.add(dataCommitInfo.toBuilder().clearFileOps().addAllFileOps(live).build());
+            }
+        }
+        Collections.reverse(result);
+        return result;
+    }
+}
@@ -0,0 +1,151 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.dmetasoul.lakesoul.meta;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Statistics of a set of data files, e.g. a partition or a whole table, summed up from their
+ * {@link DataFileStats}. Row count and null counts are only known if every file has statistics,
+ * min/max only if every file has them for the column.
+ *
+ * <p>Files of primary key tables are merged on read, so before compaction the row count is an upper bound
+ * of the rows a scan returns.
+ */
+public class TableFileStats {
+
+    private long numRows;
+
+    private long numFiles;
+
+    private boolean complete = true;
+
+    private final Map<String, ColumnSummary> columns = new HashMap<>();
+
+    public static TableFileStats aggregate(Iterable<String> fileStats) {
+        TableFileStats stats = new TableFileStats();
+        for (String file : fileStats) {
+            stats.add(file);
+        }
+        return stats;
+    }
+
+    public void add(String fileStats) {
+        numFiles++;
+        DataFileStats stats = complete ? DataFileStats.parse(fileStats) : null;
+        if (stats == null) {
+            complete = false;
+            columns.clear();
+            return;
+        }
+        numRows += stats.getNumRows();
+        for (Map.Entry<String, DataFileStats.ColumnStats> entry : stats.getColumns().entrySet()) {
+            ColumnSummary column = columns.get(entry.getKey());
+            if (column == null) {
+                if (numFiles > 1) {
+                    // column has no statistics in some earlier file
+                    continue;
+                }
+                column = new ColumnSummary();
+                columns.put(entry.getKey(), column);
+            }
+            column.add(entry.getValue());
+        }
+        columns.entrySet().removeIf(entry -> !stats.getColumns().containsKey(entry.getKey()));
+    }
+
+    /**
+     * @return total number of rows, or null if some file has no statistics
+     */
+    public Long getNumRows() {
+        return complete && numFiles > 0 ? numRows : null;
+    }
+
+    /**
+     * @return statistics of column over all files, or null if some file has no statistics for it
+     */
+    public ColumnSummary getColumn(String column) {
+        return columns.get(column);
+    }
+
+    /**
+     * @return approximate number of distinct values of columns, as written into table properties by analyze
+     */
+    public static Map<String, Long> parseColumnNdv(JSONObject properties) {
+        Map<String, Long> result = new HashMap<>();
+        String value = properties == null ? null : properties.getString(DBConfig.TableInfoProperty.COLUMN_NDV);
+        if (value == null || value.isEmpty()) {
+            return result;
+        }
+        try {
+            JSONObject json = JSON.parseObject(value);
+            for (String column : json.keySet()) {
+                result.put(column, json.getLong(column));
+            }
+        } catch (RuntimeException e) {
+            // ignore malformed statistics, they are only hints for planning
+        }
+        return result;
+    }
+
+    public static class ColumnSummary {
+        private long nullCount;
+        private Object min;
+        private Object max;
+        // false once some file has no min/max or they are not comparable
+        private boolean hasRange = true;
+
+        void add(DataFileStats.ColumnStats stats) {
+            nullCount = stats.getNullCount() == null || nullCount < 0 ? -1 : nullCount + stats.getNullCount();
+            if (!hasRange) {
+                return;
+            }
+            Object fileMin = stats.getMin();
+            Object fileMax = stats.getMax();
+            if (fileMin == null || fileMax == null) {
+                hasRange = false;
+                min = max = null;
+                return;
+            }
+            if (min == null) {
+                min = fileMin;
+                max = fileMax;
+                return;
+            }
+            Integer toMin = DataFileStats.ColumnStats.compare(fileMin, min);
+            Integer toMax = DataFileStats.ColumnStats.compare(fileMax, max);
+            if (toMin == null || toMax == null) {
+                hasRange = false;
+                min = max = null;
+                return;
+            }
+            if (toMin < 0) {
+                min = fileMin;
+            }
+            if (toMax > 0) {
+                max = fileMax;
+            }
+        }
+
+        /**
+         * @return number of nulls, or null if unknown
+         */
+        public Long getNullCount() {
+            return nullCount < 0 ? null : nullCount;
+        }
+
+        public Object getMin() {
+            return min;
+        }
+
+        public Object getMax() {
+            return max;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.dmetasoul.lakesoul.meta;
+
+import com.dmetasoul.lakesoul.meta.entity.TableInfo;
+import com.dmetasoul.lakesoul.meta.entity.TableNameId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * JVM wide cache of table info and table name id lookups, shared by all {@link DBManager} instances, so that
+ * catalogs, sources, sinks and committers in one process resolving the same table do not each query the metadata db.
+ *
+ * <p>Entries expire after a TTL, which bounds how long changes made by other processes stay invisible. Creation, drop,
+ * schema, property and name changes of a table made through DBManager in this process invalidate the entries of the
+ * table at once. Data commits only change partition and data commit info, which are not cached here, so they do not
+ * invalidate the table, except for {@link DBManager#commitData} which also rewrites table name and properties.
+ * Every invalidation bumps a version, and a lookup racing with an invalidation does not store its possibly outdated
+ * result. Missing tables are not cached.
+ *
+ * <p>TTL in milliseconds is configured by env LAKESOUL_META_CACHE_TTL_MS or system property lakesoul.meta.cache.ttl.ms,
+ * 0 disables the cache. Max number of entries of each kind by env LAKESOUL_META_CACHE_MAX_ENTRIES or system property
+ * lakesoul.meta.cache.max.entries.
+ */
+public class TableInfoCache {
+    private static final Logger LOG = LoggerFactory.getLogger(TableInfoCache.class);
+
+    public static final String ttlMsEnv = "LAKESOUL_META_CACHE_TTL_MS";
+    public static final String ttlMsKey = "lakesoul.meta.cache.ttl.ms";
+    public static final long ttlMsDefault = 10000L;
+    public static final String maxEntriesEnv = "LAKESOUL_META_CACHE_MAX_ENTRIES";
+    public static final String maxEntriesKey = "lakesoul.meta.cache.max.entries";
+    public static final int maxEntriesDefault = 10000;
+
+    private static TableInfoCache instance = null;
+
+    private final long ttlMs;
+    private final int maxEntries;
+
+    private final LinkedHashMap<String, Entry<TableInfo>> tableInfos;
+    private final LinkedHashMap<String, Entry<TableNameId>> tableNameIds;
+    private long version = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private static final class Entry<T> {
+        final T value;
+        final String tableId;
+        final long expireAt;
+
+        Entry(T value, String tableId, long expireAt) {
+            this.value = value;
+            this.tableId = tableId;
+            this.expireAt = expireAt;
+        }
+    }
+
+    TableInfoCache(long ttlMs, int maxEntries) {
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+        this.tableInfos = newLruMap();
+        this.tableNameIds = newLruMap();
+    }
+
+    public static synchronized TableInfoCache get() {
+        if (instance == null) {
+            long ttlMs = Long.parseLong(DBUtil.getConfigValue(ttlMsEnv, ttlMsKey, String.valueOf(ttlMsDefault)));
+            int maxEntries = Integer.parseInt(
+                    DBUtil.getConfigValue(maxEntriesEnv, maxEntriesKey, String.valueOf(maxEntriesDefault)));
+            instance = new TableInfoCache(ttlMs, maxEntries);
+            LOG.info("Table info cache ttl {}ms, max entries {}", ttlMs, maxEntries);
+        }
+        return instance;
+    }
+
+    private <T> LinkedHashMap<String, Entry<T>> newLruMap() {
+        return new LinkedHashMap<String, Entry<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<T>> eldest) {
+                if (size() > maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return ttlMs > 0 && maxEntries > 0;
+    }
+
+    public TableInfo getTableInfoById(String tableId, Supplier<TableInfo> loader) {
+        return lookup(tableInfos, "id:" + tableId, loader, TableInfo::getTableId);
+    }
+
+    public TableInfo getTableInfoByName(String tableName, String namespace, Supplier<TableInfo> loader) {
+        return lookup(tableInfos, "name:" + namespace + "." + tableName, loader, TableInfo::getTableId);
+    }
+
+    public TableInfo getTableInfoByPath(String tablePath, Supplier<TableInfo> loader) {
+        return lookup(tableInfos, "path:" + tablePath, loader, TableInfo::getTableId);
+    }
+
+    public TableNameId getTableNameId(String tableName, String namespace, Supplier<TableNameId> loader) {
+        return lookup(tableNameIds, namespace + "." + tableName, loader, TableNameId::getTableId);
+    }
+
+    private <T> T lookup(LinkedHashMap<String, Entry<T>> map, String key, Supplier<T> loader,
+                         Function<T, String> tableIdOf) {
+        if (!isEnabled()) {
+            return loader.get();
+        }
+        long loadVersion;
+        synchronized (this) {
+            Entry<T> entry = map.get(key);
+            if (entry != null) {
+                if (entry.expireAt > System.currentTimeMillis()) {
+                    hits.incrementAndGet();
+                    return entry.value;
+                }
+                map.remove(key);
+            }
+            loadVersion = version;
+        }
+        misses.incrementAndGet();
+        // query db outside the lock, concurrent misses of the same key may load it more than once
+        T value = loader.get();
+        if (value != null) {
+            synchronized (this) {
+                if (loadVersion == version) {
+                    map.put(key, new Entry<>(value, tableIdOf.apply(value), System.currentTimeMillis() + ttlMs));
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drop all entries of the table, to be called after its table info, name or path is changed.
+     */
+    public synchronized void invalidate(String tableId) {
+        version++;
+        invalidations.incrementAndGet();
+        removeTable(tableInfos, tableId);
+        removeTable(tableNameIds, tableId);
+    }
+
+    public synchronized void invalidateAll() {
+        version++;
+        invalidations.incrementAndGet();
+        tableInfos.clear();
+        tableNameIds.clear();
+    }
+
+    private static <T> void removeTable(LinkedHashMap<String, Entry<T>> map, String tableId) {
+        Iterator<Entry<T>> iterator = map.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().tableId.equals(tableId)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.get();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public synchronized int size() {
+        return tableInfos.size() + tableNameIds.size();
+    }
+
+    @Override
+    public String toString() {
+        return "TableInfoCache{" +
+                "size=" + size() +
+                ", hits=" + hits.get() +
+                ", misses=" + misses.get() +
+                ", evictions=" + evictions.get() +
+                ", invalidations=" + invalidations.get() +
+                '}';
+    }
+}
@@ -15,6 +15,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public class DataCommitInfoDao {
@@ -258,6 +259,66 @@ public class DataCommitInfoDao {
         return commitInfoList;
     }
 
+    /**
+     * Data commit infos of the given commit ids in any partitions of a table, in no particular order.
+     */
+    public List<DataCommitInfo> selectByTableIdCommitList(String tableId, List<Uuid> commitIdList) {
+        if (commitIdList.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (NativeUtils.NATIVE_METADATA_QUERY_ENABLED) {
+            JniWrapper jniWrapper = NativeMetadataJavaClient.query(
+                    NativeUtils.CodedDaoType.ListDataCommitInfoByTableIdAndCommitList,
+                    Arrays.asList(tableId,
+                            commitIdList.stream().map(DBUtil::protoUuidToJniString).collect(Collectors.joining(""))
+                    ));
+            if (jniWrapper == null) return null;
+            return jniWrapper.getDataCommitInfoList();
+        }
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        List<DataCommitInfo> commitInfoList = new ArrayList<>();
+        String sql = String.format("select * from data_commit_info where table_id = ? and commit_id in (%s)",
+                String.join(",", Collections.nCopies(commitIdList.size(), "?")));
+
+        try {
+            conn = DBConnector.getConn();
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setString(1, tableId);
+            int index = 2;
+            for (Uuid uuid : commitIdList) {
+                pstmt.setString(index++, DBUtil.toJavaUUID(uuid).toString());
+            }
+
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                commitInfoList.add(dataCommitInfoFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            DBConnector.closeConn(rs, pstmt, conn);
+        }
+        return commitInfoList;
+    }
+
+    /**
+     * Async variant of {@link #selectByTableIdCommitList}, so that queries of many chunks of commits can be in flight
+     * at once. Without native metadata query the jdbc query is done before returning.
+     */
+    public CompletableFuture<List<DataCommitInfo>> selectByTableIdCommitListAsync(String tableId,
+                                                                                 List<Uuid> commitIdList) {
+        if (commitIdList.isEmpty() || !NativeUtils.NATIVE_METADATA_QUERY_ENABLED) {
+            return CompletableFuture.completedFuture(selectByTableIdCommitList(tableId, commitIdList));
+        }
+        return NativeMetadataJavaClient.queryAsync(
+                NativeUtils.CodedDaoType.ListDataCommitInfoByTableIdAndCommitList,
+                Arrays.asList(tableId,
+                        commitIdList.stream().map(DBUtil::protoUuidToJniString).collect(Collectors.joining(""))
+                )).thenApply(jniWrapper -> jniWrapper == null ? null : jniWrapper.getDataCommitInfoList());
+    }
+
     public static DataCommitInfo dataCommitInfoFromResultSet(ResultSet rs) throws SQLException {
         UUID uuid = UUID.fromString(rs.getString("commit_id"));
         Uuid commitId = DBUtil.toProtoUuid(uuid);
@@ -303,6 +364,10 @@ public class DataCommitInfoDao {
             } catch (SQLException ex) {
                 ex.printStackTrace();
             }
+            if (e.getMessage().contains("duplicate key value violates unique constraint")) {
+                // some of them have been inserted before, same as the native path
+                return false;
+            }
             throw new RuntimeException(e);
         } finally {
             DBConnector.closeConn(pstmt, conn);
@@ -99,6 +99,95 @@ public class PartitionInfoDao {
         }
     }
 
+    /**
+     * Append snapshots to the latest versions the partitions have when the transaction runs, instead of to the
+     * versions read when the commit was planned, and mark the data commit infos of snapshotList committed. Appends to
+     * the same partition take a transaction scoped advisory lock, so concurrent appenders wait for each other instead
+     * of failing on the version key. Always goes through jdbc, the native metadata client has no such statement.
+     *
+     * @param partitionInfoList   for each partition the snapshot to append and commit op, expression and domain of
+     *                            the new version, whose version is the one planned on top of
+     * @param appendableCommitOps commit ops of latest versions newer than the planned ones that may be appended to
+     * @return false if a writer not taking the lock inserted the same version first
+     * @throws IllegalStateException if the latest version of a partition is newer than planned and its commit op is
+     *                               not appendable
+     */
+    public boolean appendSnapshots(List<PartitionInfo> partitionInfoList, Set<CommitOp> appendableCommitOps,
+                                   List<String> snapshotList) {
+        if (partitionInfoList.isEmpty()) return true;
+        // same lock order in all transactions
+        List<PartitionInfo> sortedList = new ArrayList<>(partitionInfoList);
+        sortedList.sort(Comparator.comparing(PartitionInfo::getTableId).thenComparing(PartitionInfo::getPartitionDesc));
+        Connection conn = null;
+        PreparedStatement lockStmt = null;
+        PreparedStatement appendStmt = null;
+        PreparedStatement commitStmt = null;
+        ResultSet rs = null;
+        try {
+            conn = DBConnector.getConn();
+            conn.setAutoCommit(false);
+            lockStmt = conn.prepareStatement("select pg_advisory_xact_lock(hashtext(?), hashtext(?))");
+            appendStmt = conn.prepareStatement("insert into partition_info (table_id, partition_desc, version, " +
+                    "commit_op, snapshot, expression, domain) " +
+                    "select ?, ?, coalesce(cur.version, -1) + 1, ?, coalesce(cur.snapshot, '{}') || ?, ?, ? " +
+                    "from (select 1) as one left join lateral (" +
+                    "select version, commit_op, snapshot from partition_info " +
+                    "where table_id = ? and partition_desc = ? order by version desc limit 1) as cur on true " +
+                    "where coalesce(cur.version, -1) = ? or cur.commit_op = any(?) " +
+                    "returning version");
+            Array appendableArray = conn.createArrayOf("text",
+                    appendableCommitOps.stream().map(CommitOp::name).toArray());
+            for (PartitionInfo partitionInfo : sortedList) {
+                lockStmt.setString(1, partitionInfo.getTableId());
+                lockStmt.setString(2, partitionInfo.getPartitionDesc());
+                lockStmt.execute();
+
+                appendStmt.setString(1, partitionInfo.getTableId());
+                appendStmt.setString(2, partitionInfo.getPartitionDesc());
+                appendStmt.setString(3, partitionInfo.getCommitOp().name());
+                appendStmt.setArray(4, conn.createArrayOf("UUID",
+                        partitionInfo.getSnapshotList().stream().map(DBUtil::toJavaUUID).toArray()));
+                appendStmt.setString(5, partitionInfo.getExpression());
+                appendStmt.setString(6, partitionInfo.getDomain());
+                appendStmt.setString(7, partitionInfo.getTableId());
+                appendStmt.setString(8, partitionInfo.getPartitionDesc());
+                appendStmt.setInt(9, partitionInfo.getVersion());
+                appendStmt.setArray(10, appendableArray);
+                rs = appendStmt.executeQuery();
+                boolean appended = rs.next();
+                rs.close();
+                if (!appended) {
+                    conn.rollback();
+                    throw new IllegalStateException("this tableId:" + partitionInfo.getTableId() +
+                            " exists conflicting manipulation currently!");
+                }
+            }
+            commitStmt = conn.prepareStatement(
+                    "update data_commit_info set committed = 'true' where commit_id = any(?)");
+            commitStmt.setArray(1, conn.createArrayOf("UUID",
+                    snapshotList.stream().map(UUID::fromString).toArray()));
+            commitStmt.execute();
+            conn.commit();
+            return true;
+        } catch (SQLException e) {
+            try {
+                if (conn != null) {
+                    conn.rollback();
+                }
+            } catch (SQLException ex) {
+                e.addSuppressed(ex);
+            }
+            if (e.getMessage().contains("duplicate key value violates unique constraint")) {
+                return false;
+            }
+            throw new RuntimeException(e);
+        } finally {
+            DBConnector.closeConn(rs, lockStmt, null);
+            DBConnector.closeConn(appendStmt, null);
+            DBConnector.closeConn(commitStmt, conn);
+        }
+    }
+
     private void insertSinglePartitionInfo(Connection conn, PreparedStatement pstmt, PartitionInfo partitionInfo)
             throws SQLException {
         Array array = conn.createArrayOf("UUID", partitionInfo.getSnapshotList().stream().map(DBUtil::toJavaUUID).toArray());
@@ -430,6 +519,27 @@ public class PartitionInfoDao {
         return rsList;
     }
 
+    /**
+     * Latest version of every partition of a table that has been committed at or after the given timestamp.
+     * Used by streaming readers to discover changed partitions without listing the whole table.
+     */
+    public List<PartitionInfo> getPartitionInfoByTableIdFromTimestamp(String tableId, long timestamp) {
+        if (NativeUtils.NATIVE_METADATA_QUERY_ENABLED) {
+            JniWrapper jniWrapper = NativeMetadataJavaClient.query(
+                    NativeUtils.CodedDaoType.ListPartitionByTableIdFromTimestamp,
+                    Arrays.asList(tableId, Long.toString(timestamp)));
+            if (jniWrapper == null) return null;
+            return jniWrapper.getPartitionInfoList();
+        }
+        String sql = String.format(
+                "select DISTINCT ON (table_id, partition_desc) table_id, partition_desc, version, commit_op, " +
+                        "snapshot, timestamp, expression, domain from partition_info " +
+                        "where table_id = '%s' and timestamp >= %d " +
+                        "order by table_id, partition_desc, version desc",
+                tableId, timestamp);
+        return getPartitionInfos(sql);
+    }
+
     public PartitionInfo findByKey(String tableId, String partitionDesc, int version) {
         if (NativeUtils.NATIVE_METADATA_QUERY_ENABLED) {
             JniWrapper jniWrapper = NativeMetadataJavaClient.query(
@@ -0,0 +1,192 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.dmetasoul.lakesoul.meta.dao;
+
+import com.dmetasoul.lakesoul.meta.DBConnector;
+import com.dmetasoul.lakesoul.meta.PartitionSnapshotCheckpoint;
+import com.dmetasoul.lakesoul.meta.entity.JniWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Access to partition_snapshot_checkpoint, whose manifest column holds the gzip compressed {@link JniWrapper} of the
+ * data commit infos of a checkpoint. Not covered by the native metadata client, so always accessed through jdbc.
+ */
+public class PartitionSnapshotCheckpointDao {
+
+    /**
+     * Checkpoint of the highest version of each of the given partitions that has one.
+     */
+    public List<PartitionSnapshotCheckpoint> findLatestByTableIdAndParList(String tableId,
+                                                                           List<String> partitionDescList) {
+        List<PartitionSnapshotCheckpoint> rsList = new ArrayList<>();
+        if (partitionDescList.isEmpty()) {
+            return rsList;
+        }
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        String sql = String.format(
+                "select distinct on (partition_desc) table_id, partition_desc, version, snapshot_size, " +
+                        "snapshot_digest, manifest, timestamp, domain from partition_snapshot_checkpoint " +
+                        "where table_id = ? and partition_desc in (%s) " +
+                        "order by partition_desc, version desc",
+                String.join(",", Collections.nCopies(partitionDescList.size(), "?")));
+        try {
+            conn = DBConnector.getConn();
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setString(1, tableId);
+            int index = 2;
+            for (String partition : partitionDescList) {
+                pstmt.setString(index++, partition);
+            }
+            rs = pstmt.executeQuery();
+            while (rs.next()) {
+                rsList.add(checkpointFromResultSet(rs));
+            }
+        } catch (SQLException | IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            DBConnector.closeConn(rs, pstmt, conn);
+        }
+        return rsList;
+    }
+
+    /**
+     * Insert the checkpoints and delete older checkpoints of their partitions in one transaction.
+     */
+    public void insert(List<PartitionSnapshotCheckpoint> checkpoints) {
+        if (checkpoints.isEmpty()) {
+            return;
+        }
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        try {
+            conn = DBConnector.getConn();
+            conn.setAutoCommit(false);
+            pstmt = conn.prepareStatement("insert into partition_snapshot_checkpoint (table_id, partition_desc, " +
+                    "version, snapshot_size, snapshot_digest, manifest, timestamp, domain) " +
+                    "values (?, ?, ?, ?, ?, ?, ?, ?) on conflict do nothing");
+            for (PartitionSnapshotCheckpoint checkpoint : checkpoints) {
+                pstmt.setString(1, checkpoint.getTableId());
+                pstmt.setString(2, checkpoint.getPartitionDesc());
+                pstmt.setInt(3, checkpoint.getVersion());
+                pstmt.setInt(4, checkpoint.getSnapshotSize());
+                pstmt.setString(5, checkpoint.getSnapshotDigest());
+                pstmt.setBytes(6, encodeManifest(checkpoint));
+                pstmt.setLong(7, checkpoint.getTimestamp());
+                pstmt.setString(8, checkpoint.getDomain());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            pstmt.close();
+
+            pstmt = conn.prepareStatement("delete from partition_snapshot_checkpoint " +
+                    "where table_id = ? and partition_desc = ? and version < ?");
+            for (PartitionSnapshotCheckpoint checkpoint : checkpoints) {
+                pstmt.setString(1, checkpoint.getTableId());
+                pstmt.setString(2, checkpoint.getPartitionDesc());
+                pstmt.setInt(3, checkpoint.getVersion());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            conn.commit();
+        } catch (SQLException | IOException e) {
+            try {
+                if (conn != null) {
+                    conn.rollback();
+                }
+            } catch (SQLException ex) {
+                e.addSuppressed(ex);
+            }
+            throw new RuntimeException(e);
+        } finally {
+            DBConnector.closeConn(pstmt, conn);
+        }
+    }
+
+    public void deleteByTableIdAndPartitionDesc(String tableId, String partitionDesc) {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        String sql = "delete from partition_snapshot_checkpoint where table_id = ? and partition_desc = ?";
+        try {
+            conn = DBConnector.getConn();
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setString(1, tableId);
+            pstmt.setString(2, partitionDesc);
+            pstmt.execute();
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            DBConnector.closeConn(pstmt, conn);
+        }
+    }
+
+    public void deleteByTableId(String tableId) {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        String sql = "delete from partition_snapshot_checkpoint where table_id = ?";
+        try {
+            conn = DBConnector.getConn();
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setString(1, tableId);
+            pstmt.execute();
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            DBConnector.closeConn(pstmt, conn);
+        }
+    }
+
+    public void clean() {
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        String sql = "delete from partition_snapshot_checkpoint;";
+        try {
+            conn = DBConnector.getConn();
+            pstmt = conn.prepareStatement(sql);
+            pstmt.execute();
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            DBConnector.closeConn(pstmt, conn);
+        }
+    }
+
+    private static byte[] encodeManifest(PartitionSnapshotCheckpoint checkpoint) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            JniWrapper.newBuilder().addAllDataCommitInfo(checkpoint.getDataCommitInfos()).build().writeTo(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static PartitionSnapshotCheckpoint checkpointFromResultSet(ResultSet rs) throws SQLException, IOException {
+        JniWrapper manifest;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(rs.getBytes("manifest")))) {
+            manifest = JniWrapper.parseFrom(in);
+        }
+        return new PartitionSnapshotCheckpoint(
+                rs.getString("table_id"),
+                rs.getString("partition_desc"),
+                rs.getInt("version"),
+                rs.getInt("snapshot_size"),
+                rs.getString("snapshot_digest"),
+                manifest.getDataCommitInfoList(),
+                rs.getLong("timestamp"),
+                rs.getString("domain"));
+    }
+}
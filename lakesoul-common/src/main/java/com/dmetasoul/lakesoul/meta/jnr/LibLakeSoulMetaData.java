@@ -31,6 +31,22 @@ public interface LibLakeSoulMetaData {
 
     void execute_insert(IntegerCallback integerCallback, Pointer runtime, Pointer client, Integer type, @LongLong long addr, int length);
 
+    /**
+     * Same as execute_query, but returns before the query is done. The result is filled before the callback is
+     * called, and must not be freed before.
+     */
+    Pointer execute_query_async(IntegerCallback integerCallback, Pointer runtime, Pointer client, Integer type, String texts);
+
+    /**
+     * Same as execute_update, but returns before the update is done.
+     */
+    void execute_update_async(IntegerCallback integerCallback, Pointer runtime, Pointer client, Integer type, String texts);
+
+    /**
+     * Same as execute_insert, but returns before the insert is done, once the params are decoded.
+     */
+    void execute_insert_async(IntegerCallback integerCallback, Pointer runtime, Pointer client, Integer type, @LongLong long addr, int length);
+
     void clean_meta_for_test(IntegerCallback integerCallback, Pointer runtime, Pointer client);
 
     Pointer create_split_desc_array(BooleanCallback booleanCallback, Pointer client, Pointer runtime, String tableName, String namespace);
@@ -20,12 +20,20 @@ import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.dmetasoul.lakesoul.meta.jnr.NativeUtils.*;
@@ -34,8 +42,25 @@ public class NativeMetadataJavaClient implements AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(NativeMetadataJavaClient.class);
 
+    public static final String asyncThreadsEnv = "LAKESOUL_META_ASYNC_THREADS";
+    public static final String asyncThreadsKey = "lakesoul.meta.async.threads";
+    // same as the max size of the native connection pool
+    public static final int asyncThreadsDefault = 16;
+
+    // results and params larger than this are copied through a buffer allocated for the call
+    private static final int MAX_POOLED_BUFFER_SIZE = 1 << 20;
+    private static final int MAX_POOLED_BUFFERS = 16;
+
+    private static ExecutorService asyncExecutor = null;
+    private static ScheduledExecutorService asyncTimeoutScheduler = null;
+
     private long timeout;
 
+    private final int bufferSize;
+
+    // direct buffers to pass query results and insert params through, shared by all threads
+    private final ArrayBlockingQueue<PooledBuffer> pooledBuffers = new ArrayBlockingQueue<>(MAX_POOLED_BUFFERS);
+
     private Pointer tokioPostgresClient = null;
     private Pointer tokioRuntime = null;
 
@@ -57,6 +82,7 @@ public class NativeMetadataJavaClient implements AutoCloseable {
 
     public NativeMetadataJavaClient(long timeout, int bufferSize) {
         this.timeout = timeout;
+        this.bufferSize = bufferSize;
         libLakeSoulMetaData = JnrLoader.get();
         booleanCallbackObjectReferenceManager = Runtime.getRuntime(libLakeSoulMetaData).newObjectReferenceManager();
         stringCallbackObjectReferenceManager = Runtime.getRuntime(libLakeSoulMetaData).newObjectReferenceManager();
@@ -77,6 +103,37 @@ public class NativeMetadataJavaClient implements AutoCloseable {
         closeAll();
     }
 
+    /**
+     * Executor completing the async variants of the DAO operations. Native queries, inserts and updates run on the
+     * native runtime and call back when done, so no thread waits for postgres. Results are exported and parsed, and
+     * dependent stages of the returned futures run, on this executor instead of the native runtime threads.
+     */
+    public static synchronized ExecutorService getAsyncExecutor() {
+        if (asyncExecutor == null) {
+            int threads = Integer.parseInt(
+                    DBUtil.getConfigValue(asyncThreadsEnv, asyncThreadsKey, String.valueOf(asyncThreadsDefault)));
+            AtomicInteger threadCount = new AtomicInteger();
+            asyncExecutor = Executors.newFixedThreadPool(threads, r -> {
+                Thread thread = new Thread(r, "lakesoul-meta-async-" + threadCount.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+            LOG.info("Native metadata async executor threads {}", threads);
+        }
+        return asyncExecutor;
+    }
+
+    private static synchronized ScheduledExecutorService getAsyncTimeoutScheduler() {
+        if (asyncTimeoutScheduler == null) {
+            asyncTimeoutScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "lakesoul-meta-async-timeout");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return asyncTimeoutScheduler;
+    }
+
     public Pointer getTokioPostgresClient() {
         return tokioPostgresClient;
     }
@@ -174,6 +231,39 @@ public class NativeMetadataJavaClient implements AutoCloseable {
         }
     }
 
+    private static final class PooledBuffer {
+        final Pointer pointer;
+        final int capacity;
+
+        PooledBuffer(Pointer pointer, int capacity) {
+            this.pointer = pointer;
+            this.capacity = capacity;
+        }
+    }
+
+    /**
+     * Direct buffer of at least size bytes, to be given back by {@link #releaseBuffer}. Up to MAX_POOLED_BUFFERS
+     * buffers of at most MAX_POOLED_BUFFER_SIZE bytes are kept for later calls of any thread, larger ones are
+     * allocated for the call and dropped after it.
+     */
+    private PooledBuffer acquireBuffer(int size) {
+        PooledBuffer buffer = size > MAX_POOLED_BUFFER_SIZE ? null : pooledBuffers.poll();
+        if (buffer == null || buffer.capacity < size) {
+            int capacity = Math.max(bufferSize, Integer.highestOneBit(Math.max(size - 1, 1)) << 1);
+            buffer = new PooledBuffer(
+                    Runtime.getRuntime(libLakeSoulMetaData).getMemoryManager().allocateDirect(capacity, true),
+                    capacity);
+        }
+        return buffer;
+    }
+
+    private void releaseBuffer(PooledBuffer buffer) {
+        if (buffer.capacity <= MAX_POOLED_BUFFER_SIZE) {
+            // dropped if the pool is full
+            pooledBuffers.offer(buffer);
+        }
+    }
+
     private void initialize() {
         libLakeSoulMetaData.rust_logger_init();
         DataBaseProperty dataBaseProperty = DBUtil.getDBInfo();
@@ -248,31 +338,7 @@ public class NativeMetadataJavaClient implements AutoCloseable {
                     );
                     Integer len = queryFuture.get(timeout, TimeUnit.MILLISECONDS);
                     if (len < 0) return null;
-                    Integer lenWithTail = len + 1;
-
-                    Pointer buffer = Runtime.getRuntime(libLakeSoulMetaData).getMemoryManager().allocateDirect(lenWithTail, true);
-
-                    final CompletableFuture<Boolean> importFuture = new CompletableFuture<>();
-                    getLibLakeSoulMetaData().export_bytes_result(
-                            new ReferencedBooleanCallback((result, msg) -> {
-                                if (msg == null || msg.isEmpty()) {
-                                    importFuture.complete(result);
-                                } else {
-                                    importFuture.completeExceptionally(new SQLException(msg));
-                                }
-                            }, getbooleanCallbackObjectReferenceManager()),
-                            queryResult,
-                            len,
-                            buffer.address()
-                    );
-                    Boolean b = importFuture.get(timeout, TimeUnit.MILLISECONDS);
-                    if (!b) return null;
-
-                    byte[] bytes = new byte[len];
-                    buffer.get(0, bytes, 0, len);
-                    JniWrapper jniWrapper = JniWrapper.parseFrom(bytes);
-                    getLibLakeSoulMetaData().free_bytes_result(queryResult);
-                    return jniWrapper;
+                    return exportQueryResult(queryResult, len);
 
                 } catch (InvalidProtocolBufferException | InterruptedException | ExecutionException | TimeoutException e) {
                     LOG.error("Failed to execute postgres query, type {}, params {}, retry {}",
@@ -294,6 +360,38 @@ public class NativeMetadataJavaClient implements AutoCloseable {
         return null;
     }
 
+    /**
+     * Copy the bytes of the result of a query of len bytes and parse them. The result is freed.
+     */
+    private JniWrapper exportQueryResult(Pointer queryResult, int len)
+            throws InvalidProtocolBufferException, InterruptedException, ExecutionException, TimeoutException {
+        PooledBuffer buffer = acquireBuffer(len + 1);
+        try {
+            final CompletableFuture<Boolean> importFuture = new CompletableFuture<>();
+            getLibLakeSoulMetaData().export_bytes_result(
+                    new ReferencedBooleanCallback((result, msg) -> {
+                        if (msg == null || msg.isEmpty()) {
+                            importFuture.complete(result);
+                        } else {
+                            importFuture.completeExceptionally(new SQLException(msg));
+                        }
+                    }, getbooleanCallbackObjectReferenceManager()),
+                    queryResult,
+                    len,
+                    buffer.pointer.address()
+            );
+            Boolean b = importFuture.get(timeout, TimeUnit.MILLISECONDS);
+            if (!b) return null;
+
+            byte[] bytes = new byte[len];
+            buffer.pointer.get(0, bytes, 0, len);
+            return JniWrapper.parseFrom(bytes);
+        } finally {
+            releaseBuffer(buffer);
+            getLibLakeSoulMetaData().free_bytes_result(queryResult);
+        }
+    }
+
     private void enlargeTimeout() {
         timeout += 5000L;
     }
@@ -323,24 +421,7 @@ public class NativeMetadataJavaClient implements AutoCloseable {
                 try {
                     final CompletableFuture<Integer> future = new CompletableFuture<>();
 
-                    byte[] bytes = jniWrapper.toByteArray();
-                    Pointer buffer = Runtime.getRuntime(libLakeSoulMetaData).getMemoryManager().allocateDirect(bytes.length, true);;
-                    buffer.put(0, bytes, 0, bytes.length);
-
-                    getLibLakeSoulMetaData().execute_insert(
-                            new ReferencedIntegerCallback((result, msg) -> {
-                                if (msg == null || msg.isEmpty()) {
-                                    future.complete(result);
-                                } else {
-                                    future.completeExceptionally(new SQLException(msg));
-                                }
-                            }, getIntegerCallbackObjectReferenceManager()),
-                            tokioRuntime,
-                            tokioPostgresClient,
-                            insertType,
-                            buffer.address(),
-                            bytes.length
-                    );
+                    callInsert(insertType, jniWrapper, future, false);
                     return future.get(timeout, TimeUnit.MILLISECONDS);
                 } catch (InterruptedException | ExecutionException | TimeoutException e) {
                     LOG.error("Failed to execute postgres insert, type {}, retry {}",
@@ -362,6 +443,35 @@ public class NativeMetadataJavaClient implements AutoCloseable {
         return -1;
     }
 
+    /**
+     * Issue an insert completing future when done, blocking until then unless async. Params are decoded by the
+     * native call before it returns, so their buffer is given back at once.
+     */
+    private void callInsert(Integer insertType, JniWrapper jniWrapper, CompletableFuture<Integer> future,
+                            boolean async) {
+        byte[] bytes = jniWrapper.toByteArray();
+        PooledBuffer buffer = acquireBuffer(bytes.length);
+        try {
+            buffer.pointer.put(0, bytes, 0, bytes.length);
+            ReferencedIntegerCallback callback = new ReferencedIntegerCallback((result, msg) -> {
+                if (msg == null || msg.isEmpty()) {
+                    future.complete(result);
+                } else {
+                    future.completeExceptionally(new SQLException(msg));
+                }
+            }, getIntegerCallbackObjectReferenceManager());
+            if (async) {
+                getLibLakeSoulMetaData().execute_insert_async(callback, tokioRuntime, tokioPostgresClient,
+                        insertType, buffer.pointer.address(), bytes.length);
+            } else {
+                getLibLakeSoulMetaData().execute_insert(callback, tokioRuntime, tokioPostgresClient,
+                        insertType, buffer.pointer.address(), bytes.length);
+            }
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
+
     public Integer executeUpdate(Integer updateType, List<String> params) {
         try {
             getWriteLock();
@@ -450,6 +560,157 @@ public class NativeMetadataJavaClient implements AutoCloseable {
         return Collections.emptyList();
     }
 
+    /**
+     * Query without blocking the caller: the query runs on the native runtime, which completes the returned future,
+     * retried on failure like {@link #executeQuery}. The read lock is only held while the query is issued.
+     */
+    public CompletableFuture<JniWrapper> executeQueryAsync(Integer queryType, List<String> params) {
+        return withRetry(() -> {
+            final CompletableFuture<Integer> queryFuture = new CompletableFuture<>();
+            Pointer queryResult;
+            getReadLock();
+            try {
+                queryResult = getLibLakeSoulMetaData().execute_query_async(
+                        new ReferencedIntegerCallback((result, msg) -> {
+                            if (msg == null || msg.isEmpty()) {
+                                queryFuture.complete(result);
+                            } else {
+                                queryFuture.completeExceptionally(new SQLException(msg));
+                            }
+                        }, getIntegerCallbackObjectReferenceManager()),
+                        tokioRuntime,
+                        tokioPostgresClient,
+                        queryType,
+                        String.join(PARAM_DELIM, params)
+                );
+            } finally {
+                unlockReadLock();
+            }
+            // the result is filled by the native call before its callback, so it is exported or freed once the query
+            // is done, even if the returned future timed out before
+            CompletableFuture<JniWrapper> exported = new CompletableFuture<>();
+            queryFuture.whenCompleteAsync((len, e) -> {
+                if (e != null || len < 0) {
+                    getLibLakeSoulMetaData().free_bytes_result(queryResult);
+                    if (e != null) {
+                        exported.completeExceptionally(e);
+                    } else {
+                        exported.complete(null);
+                    }
+                    return;
+                }
+                try {
+                    exported.complete(exportQueryResult(queryResult, len));
+                } catch (Throwable t) {
+                    exported.completeExceptionally(t);
+                }
+            }, getAsyncExecutor());
+            return exported;
+        }, "query", queryType, params, NATIVE_METADATA_MAX_RETRY_ATTEMPTS, true);
+    }
+
+    /**
+     * Insert without blocking the caller, see {@link #executeQueryAsync}. The write lock is only held while the
+     * insert is issued, so it is not exclusive with calls issued after it.
+     */
+    public CompletableFuture<Integer> executeInsertAsync(Integer insertType, JniWrapper jniWrapper) {
+        return withRetry(() -> {
+            final CompletableFuture<Integer> future = new CompletableFuture<>();
+            getWriteLock();
+            try {
+                callInsert(insertType, jniWrapper, future, true);
+            } finally {
+                unlockWriteLock();
+            }
+            return future.thenApplyAsync(result -> result, getAsyncExecutor());
+        }, "insert", insertType, Collections.emptyList(), NATIVE_METADATA_MAX_RETRY_ATTEMPTS, false);
+    }
+
+    /**
+     * Update without blocking the caller, see {@link #executeInsertAsync}.
+     */
+    public CompletableFuture<Integer> executeUpdateAsync(Integer updateType, List<String> params) {
+        return withRetry(() -> {
+            final CompletableFuture<Integer> future = new CompletableFuture<>();
+            getWriteLock();
+            try {
+                getLibLakeSoulMetaData().execute_update_async(
+                        new ReferencedIntegerCallback((result, msg) -> {
+                            if (msg == null || msg.isEmpty()) {
+                                future.complete(result);
+                            } else {
+                                future.completeExceptionally(new SQLException(msg));
+                            }
+                        }, getIntegerCallbackObjectReferenceManager()),
+                        tokioRuntime,
+                        tokioPostgresClient,
+                        updateType,
+                        String.join(PARAM_DELIM, params)
+                );
+            } finally {
+                unlockWriteLock();
+            }
+            return future.thenApplyAsync(result -> result, getAsyncExecutor());
+        }, "update", updateType, params, NATIVE_METADATA_MAX_RETRY_ATTEMPTS, false);
+    }
+
+    /**
+     * Query scalar on the async executor. Native scalar queries still block until postgres responds, so each pending
+     * call takes one of its threads.
+     */
+    public CompletableFuture<List<String>> executeQueryScalarAsync(Integer queryScalarType, List<String> params) {
+        return CompletableFuture.supplyAsync(() -> executeQueryScalar(queryScalarType, params), getAsyncExecutor());
+    }
+
+    /**
+     * Future of call, failed with TimeoutException if not completed within the timeout, and retried on failure up to
+     * retryCounter more times. Timed out calls may still be running, so they are only retried if retryOnTimeout,
+     * which writes must not be.
+     */
+    private <T> CompletableFuture<T> withRetry(Supplier<CompletableFuture<T>> call, String kind, Integer type,
+                                               List<String> params, int retryCounter, boolean retryOnTimeout) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        long startTime = System.currentTimeMillis();
+        CompletableFuture<T> attempt;
+        try {
+            attempt = call.get();
+        } catch (RuntimeException e) {
+            attempt = new CompletableFuture<>();
+            attempt.completeExceptionally(e);
+        }
+        final CompletableFuture<T> pending = attempt;
+        long attemptTimeout = timeout;
+        ScheduledFuture<?> timeoutTask = getAsyncTimeoutScheduler().schedule(
+                () -> pending.completeExceptionally(new TimeoutException(
+                        "Postgres " + kind + " timed out after " + attemptTimeout + " ms")),
+                attemptTimeout, TimeUnit.MILLISECONDS);
+        pending.whenComplete((value, e) -> {
+            timeoutTask.cancel(false);
+            LOG.info("Execute postgres {} async, type {}, cost {} ms",
+                    kind, NativeUtils.getQueryName(type), System.currentTimeMillis() - startTime);
+            if (e == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            LOG.error("Failed to execute postgres {} async, type {}, params {}, retry {}",
+                    kind, NativeUtils.getQueryName(type), params, retryCounter, cause);
+            if (retryCounter == 0 || (cause instanceof TimeoutException && !retryOnTimeout)) {
+                result.completeExceptionally(new RuntimeException(cause));
+            } else {
+                enlargeTimeout();
+                withRetry(call, kind, type, params, retryCounter - 1, retryOnTimeout).whenComplete((retried, retryError) -> {
+                    if (retryError == null) {
+                        result.complete(retried);
+                    } else {
+                        result.completeExceptionally(retryError);
+                    }
+                });
+            }
+        });
+        return result;
+    }
+
     public static Integer insert(NativeUtils.CodedDaoType insertType, JniWrapper jniWrapper) {
         return getInstance().executeInsert(insertType.getCode(), jniWrapper);
     }
@@ -475,6 +736,32 @@ public class NativeMetadataJavaClient implements AutoCloseable {
         return getInstance().executeQueryScalar(queryScalarType.getCode(), params);
     }
 
+    public static CompletableFuture<Integer> insertAsync(NativeUtils.CodedDaoType insertType, JniWrapper jniWrapper) {
+        return getInstance().executeInsertAsync(insertType.getCode(), jniWrapper);
+    }
+
+    public static CompletableFuture<JniWrapper> queryAsync(NativeUtils.CodedDaoType queryType, List<String> params) {
+        if (params.size() != queryType.getParamsNum()) {
+            throw new RuntimeException("Params Num mismatch for " + queryType.name() + ", params=" + params + " paramsNum=" + params.size());
+        }
+        return getInstance().executeQueryAsync(queryType.getCode(), params);
+    }
+
+    public static CompletableFuture<Integer> updateAsync(NativeUtils.CodedDaoType updateType, List<String> params) {
+        if (params.size() != updateType.getParamsNum()) {
+            throw new RuntimeException("Params Num mismatch for " + updateType.name() + ", params=" + params + " paramsNum=" + params.size());
+        }
+        return getInstance().executeUpdateAsync(updateType.getCode(), params);
+    }
+
+    public static CompletableFuture<List<String>> queryScalarAsync(NativeUtils.CodedDaoType queryScalarType,
+                                                                   List<String> params) {
+        if (params.size() != queryScalarType.getParamsNum()) {
+            throw new RuntimeException("Params Num mismatch for " + queryScalarType.name() + ", params=" + params + " paramsNum=" + params.size());
+        }
+        return getInstance().executeQueryScalarAsync(queryScalarType.getCode(), params);
+    }
+
     public static int cleanMeta() {
         final CompletableFuture<Integer> future = new CompletableFuture<>();
 
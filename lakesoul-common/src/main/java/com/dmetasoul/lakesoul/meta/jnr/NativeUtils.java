@@ -82,6 +82,10 @@ public class NativeUtils {
         ListNamespacesByDomain(DAO_TYPE_QUERY_LIST_OFFSET + 14, 1),
         // Query Table Name List Filtered by Domain
         ListTableNamesByDomain(DAO_TYPE_QUERY_LIST_OFFSET + 15, 1),
+        // Query latest Partition versions committed since a timestamp
+        ListPartitionByTableIdFromTimestamp(DAO_TYPE_QUERY_LIST_OFFSET + 16, 2),
+        // Query DataCommitInfo List of any partitions of a table
+        ListDataCommitInfoByTableIdAndCommitList(DAO_TYPE_QUERY_LIST_OFFSET + 17, 2),
 
         // ==== Insert One ====
         InsertNamespace(DAO_TYPE_INSERT_ONE_OFFSET),
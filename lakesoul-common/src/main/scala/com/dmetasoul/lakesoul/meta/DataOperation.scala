@@ -33,7 +33,7 @@ object BucketingUtils {
 }
 
 case class DataFileInfo(range_partitions: String, path: String, file_op: String, size: Long,
-                        modification_time: Long = -1L, file_exist_cols: String = "") {
+                        modification_time: Long = -1L, file_exist_cols: String = "", file_stats: String = "") {
 
   lazy val file_bucket_id: Int = BucketingUtils.getBucketId(new Path(path).getName)
     .getOrElse(sys.error(s"Invalid bucket file $path"))
@@ -73,13 +73,26 @@ object DataOperation {
 
     val file_info_buf = new ArrayBuffer[DataFileInfo]()
 
-    for (partition_info <- partition_info_arr) {
-      file_info_buf ++= getSinglePartitionDataInfo(partition_info)
+    for (partition_files <- getPartitionsDataInfo(partition_info_arr)) {
+      file_info_buf ++= partition_files
     }
 
     file_info_buf.toArray
   }
 
+  //get files info of each partition that match its current read version, with data commit infos of all partitions
+  //queried in bulk
+  def getPartitionsDataInfo(partition_info_arr: Array[PartitionInfoScala]): Array[ArrayBuffer[DataFileInfo]] = {
+    if (partition_info_arr.isEmpty) {
+      return Array.empty
+    }
+    val dataCommitInfoLists = dbManager.getTablePartitionsDataInfo(partition_info_arr.map(toMetaPartitionInfo).toList.asJava)
+    partition_info_arr.zip(dataCommitInfoLists.asScala).map {
+      case (partition_info, dataCommitInfoList) =>
+        partitionDataInfo(partition_info, dataCommitInfoList.asScala.toArray)
+    }
+  }
+
 
   def getTableDataInfo(tableId: String, partitions: List[String]): Array[DataFileInfo] = {
     val Pars = MetaVersion.getAllPartitionInfoScala(tableId)
@@ -123,7 +136,7 @@ object DataOperation {
       val fileOps = data_commit_info.getFileOpsList.asScala.toArray
       fileOps.foreach(file => {
         file_arr_buf += DataFileInfo(data_commit_info.getPartitionDesc, file.getPath, file.getFileOp.name, file.getSize,
-          data_commit_info.getTimestamp, file.getFileExistCols)
+          data_commit_info.getTimestamp, file.getFileExistCols, file.getFileStats)
       })
     })
     filterFiles(file_arr_buf)
@@ -131,18 +144,27 @@ object DataOperation {
 
   //get files info in this partition that match the current read version
   def getSinglePartitionDataInfo(partition_info: PartitionInfoScala): ArrayBuffer[DataFileInfo] = {
-    val file_arr_buf = new ArrayBuffer[DataFileInfo]()
+    val dataCommitInfoList = dbManager.getTableSinglePartitionDataInfo(toMetaPartitionInfo(partition_info)).asScala.toArray
+    partitionDataInfo(partition_info, dataCommitInfoList)
+  }
 
+  private def toMetaPartitionInfo(partition_info: PartitionInfoScala): PartitionInfo = {
     val metaPartitionInfoScala = entity.PartitionInfo.newBuilder
     metaPartitionInfoScala.setTableId(partition_info.table_id)
     metaPartitionInfoScala.setPartitionDesc(partition_info.range_value)
+    metaPartitionInfoScala.setVersion(partition_info.version)
     metaPartitionInfoScala.addAllSnapshot(JavaConverters.bufferAsJavaList(partition_info.read_files.map(DBUtil.toProtoUuid).toBuffer))
-    val dataCommitInfoList = dbManager.getTableSinglePartitionDataInfo(metaPartitionInfoScala.build).asScala.toArray
+    metaPartitionInfoScala.build
+  }
+
+  private def partitionDataInfo(partition_info: PartitionInfoScala,
+                                dataCommitInfoList: Array[DataCommitInfo]): ArrayBuffer[DataFileInfo] = {
+    val file_arr_buf = new ArrayBuffer[DataFileInfo]()
     for (metaDataCommitInfo <- dataCommitInfoList) {
       val fileOps = metaDataCommitInfo.getFileOpsList.asScala.toArray
       for (file <- fileOps) {
         file_arr_buf += DataFileInfo(partition_info.range_value, file.getPath, file.getFileOp.name, file.getSize,
-          metaDataCommitInfo.getTimestamp, file.getFileExistCols)
+          metaDataCommitInfo.getTimestamp, file.getFileExistCols, file.getFileStats)
       }
     }
     filterFiles(file_arr_buf)
@@ -142,6 +142,11 @@ object MetaVersion {
     dbManager.getAllPartitionInfo(table_id)
   }
 
+  // latest version of the partitions committed at or after timestamp
+  def getAllPartitionInfoFromTimestamp(table_id: String, timestamp: Long): util.List[PartitionInfo] = {
+    dbManager.getAllPartitionInfoFromTimestamp(table_id, timestamp)
+  }
+
   def getAllPartitionDesc(table_id: String, table_partition_cols: Seq[String] = Seq.empty,
                           equalityFilter: Seq[(String, String)] = Seq.empty): util.List[String] = {
     if (equalityFilter.isEmpty || table_partition_cols.isEmpty) {
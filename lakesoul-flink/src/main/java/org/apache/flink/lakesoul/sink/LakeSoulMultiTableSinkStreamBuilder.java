@@ -86,7 +86,8 @@ public class LakeSoulMultiTableSinkStreamBuilder {
             context.conf.set(AUTO_SCHEMA_CHANGE, true);
         }
         LakeSoulRollingPolicyImpl<RowData> rollingPolicy = new LakeSoulRollingPolicyImpl<>(
-                context.conf.getLong(FILE_ROLLING_SIZE), context.conf.getLong(FILE_ROLLING_TIME));
+                context.conf.getLong(FILE_ROLLING_SIZE), context.conf.getLong(FILE_ROLLING_TIME),
+                context.conf.getBoolean(FILE_ROLL_ON_CHECKPOINT));
         OutputFileConfig fileNameConfig = OutputFileConfig.builder()
                 .withPartSuffix(".parquet")
                 .build();
@@ -19,7 +19,11 @@ public class LakeSoulRollingPolicyImpl<In> extends CheckpointRollingPolicy<In, S
     private long rollingTime;
 
     public LakeSoulRollingPolicyImpl(long rollingSize, long rollingTime) {
-        this.rollOnCheckpoint = true;
+        this(rollingSize, rollingTime, true);
+    }
+
+    public LakeSoulRollingPolicyImpl(long rollingSize, long rollingTime, boolean rollOnCheckpoint) {
+        this.rollOnCheckpoint = rollOnCheckpoint;
         this.rollingSize = rollingSize;
         this.rollingTime = rollingTime;
     }
@@ -37,7 +41,12 @@ public class LakeSoulRollingPolicyImpl<In> extends CheckpointRollingPolicy<In, S
     @Override
     public boolean shouldRollOnProcessingTime(
             PartFileInfo<String> partFileState, long currentTime) {
-        return currentTime - partFileState.getLastUpdateTime() > rollingTime;
+        if (currentTime - partFileState.getLastUpdateTime() > rollingTime) {
+            return true;
+        }
+        // files kept open across checkpoints are also bounded by their age,
+        // otherwise a steady stream of rows would never make them visible
+        return !rollOnCheckpoint && currentTime - partFileState.getCreationTime() > rollingTime;
     }
 
     public boolean shouldRollOnMaxSize(long size) {
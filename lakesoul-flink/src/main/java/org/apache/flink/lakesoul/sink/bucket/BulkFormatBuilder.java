@@ -100,7 +100,8 @@ public abstract class BulkFormatBuilder<IN, OUT, T extends BulkFormatBuilder<IN,
     public SimpleVersionedSerializer<LakeSoulWriterBucketState> getWriterStateSerializer()
             throws IOException {
         return new LakeSoulWriterBucketStateSerializer(
-                NativeParquetWriter.NativePendingFileRecoverableSerializer.INSTANCE);
+                NativeParquetWriter.NativePendingFileRecoverableSerializer.INSTANCE,
+                NativeParquetWriter.NativeInProgressFileRecoverableSerializer.INSTANCE);
     }
 
     @Override
@@ -7,6 +7,7 @@ package org.apache.flink.lakesoul.sink.committer;
 import com.dmetasoul.lakesoul.meta.DBManager;
 import com.dmetasoul.lakesoul.meta.DBUtil;
 import com.dmetasoul.lakesoul.meta.entity.*;
+import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.connector.sink2.Committer;
 import org.apache.flink.core.fs.FileStatus;
 import org.apache.flink.core.fs.FileSystem;
@@ -79,28 +80,163 @@ public class LakeSoulSinkCommitter implements Committer<LakeSoulMultiTableSinkCo
                 customPool.shutdown();
             }
         }
+        deleteInProgressSegments(committables);
         long end = System.currentTimeMillis();
         LOG.info("Committing done, object {}, for {}ms", committables.hashCode(), end - start);
     }
 
+    /**
+     * Commit committables of many tables with a single metadata transaction, see
+     * {@link DBManager#commitDataCommitInfoList(List)}. Tables having committables that need to be checked
+     * against the partition versions they read are committed one by one by {@link #commit(List, boolean)}.
+     */
+    public void commitBatch(List<LakeSoulMultiTableSinkCommittable> committables)
+            throws IOException, InterruptedException {
+        long start = System.currentTimeMillis();
+        committables.sort(LakeSoulMultiTableSinkCommittable::compareTo);
+        Set<String> sequentialTables = new HashSet<>();
+        for (LakeSoulMultiTableSinkCommittable committable : committables) {
+            if (!committable.getSourcePartitionInfo().isEmpty() ||
+                    !getCommitOp(committable).equals(CommitOp.AppendCommit)) {
+                sequentialTables.add(committable.getIdentity().tableId.identifier());
+            }
+        }
+
+        List<LakeSoulMultiTableSinkCommittable> sequentialCommittables = new ArrayList<>();
+        List<DataCommitInfo> dataCommitInfoList = new ArrayList<>();
+        Map<String, TableNameId> tableNameIdMap = new HashMap<>();
+        for (LakeSoulMultiTableSinkCommittable committable : committables) {
+            TableSchemaIdentity identity = committable.getIdentity();
+            if (sequentialTables.contains(identity.tableId.identifier())) {
+                sequentialCommittables.add(committable);
+                continue;
+            }
+            TableNameId tableNameId = tableNameIdMap.computeIfAbsent(identity.tableId.identifier(),
+                    k -> getTableNameId(identity));
+            for (Map.Entry<String, List<InProgressFileWriter.PendingFileRecoverable>> entry :
+                    committable.getPendingFilesMap().entrySet()) {
+                DataCommitInfo dataCommitInfo = buildDataCommitInfo(entry, committable, tableNameId);
+                if (dataCommitInfo != null) {
+                    dataCommitInfoList.add(dataCommitInfo);
+                }
+            }
+        }
+
+        if (!dataCommitInfoList.isEmpty()) {
+            lakeSoulDBManager.commitDataCommitInfoList(dataCommitInfoList);
+        }
+        List<LakeSoulMultiTableSinkCommittable> batchCommittables = new ArrayList<>(committables);
+        batchCommittables.removeAll(sequentialCommittables);
+        deleteInProgressSegments(batchCommittables);
+        LOG.info("Batch committed {} DataCommitInfo of {} tables, for {}ms",
+                dataCommitInfoList.size(), tableNameIdMap.size(), System.currentTimeMillis() - start);
+        if (!sequentialCommittables.isEmpty()) {
+            commit(sequentialCommittables, false);
+        }
+    }
+
+    /**
+     * Delete the in-progress segments released by committed files. Failures are only logged, as the segments are
+     * not read anymore once the files holding their rows are committed.
+     */
+    @VisibleForTesting
+    void deleteInProgressSegments(List<LakeSoulMultiTableSinkCommittable> committables) {
+        for (LakeSoulMultiTableSinkCommittable committable : committables) {
+            for (List<InProgressFileWriter.PendingFileRecoverable> pendingFiles :
+                    committable.getPendingFilesMap().values()) {
+                for (InProgressFileWriter.PendingFileRecoverable pendingFile : pendingFiles) {
+                    if (!(pendingFile instanceof NativeParquetWriter.NativeWriterPendingFileRecoverable)) {
+                        continue;
+                    }
+                    for (String segment :
+                            ((NativeParquetWriter.NativeWriterPendingFileRecoverable) pendingFile).inProgressSegments) {
+                        Path path = new Path(segment);
+                        try {
+                            path.getFileSystem().delete(path, false);
+                        } catch (IOException e) {
+                            LOG.warn("Failed to delete in-progress segment {}", segment, e);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     private void commitEntry(Map.Entry<String, List<InProgressFileWriter.PendingFileRecoverable>> entry,
                              LakeSoulMultiTableSinkCommittable committable) throws IOException {
         long start = System.currentTimeMillis();
+        TableSchemaIdentity identity = committable.getIdentity();
+        TableNameId tableNameId = getTableNameId(identity);
+        DataCommitInfo dataCommitInfo = buildDataCommitInfo(entry, committable, tableNameId);
+        if (dataCommitInfo == null) {
+            return;
+        }
+
+        List<PartitionInfo> readPartitionInfoList = null;
+        if (!committable.getSourcePartitionInfo().isEmpty()) {
+            readPartitionInfoList =
+                    JniWrapper
+                            .parseFrom(Base64.getDecoder().decode(committable.getSourcePartitionInfo()))
+                            .getPartitionInfoList();
+        }
+
+        lakeSoulDBManager.commitDataCommitInfo(dataCommitInfo, readPartitionInfoList);
+        if (LOG.isInfoEnabled()) {
+            long end = System.currentTimeMillis();
+            String fileOpStr = dataCommitInfo.getFileOpsList().stream()
+                    .map(op -> String.format("%s,%s,%d,%s", op.getPath(), op.getFileOp(), op.getSize(),
+                            "op.getFileExistCols()")).collect(Collectors.joining("\n\t"));
+            LOG.info("Committed to LakeSoul: Table={}, TableId={}, Partition={}, Files:\n\t{}, " +
+                            "CommitOp={}, Timestamp={}, UUID={}, time={}ms", identity.tableId.identifier(),
+                    tableNameId.getTableId(), entry.getKey(), fileOpStr, dataCommitInfo.getCommitOp(),
+                    dataCommitInfo.getTimestamp(), dataCommitInfo.getCommitId().toString(), end - start);
+        }
+    }
+
+    private TableNameId getTableNameId(TableSchemaIdentity identity) {
+        if (identity.tableId.schema() == null) {
+            return lakeSoulDBManager.shortTableName(identity.tableId.table(), identity.tableId.catalog());
+        }
+        return lakeSoulDBManager.shortTableName(identity.tableId.table(), identity.tableId.schema());
+    }
+
+    private static CommitOp getCommitOp(LakeSoulMultiTableSinkCommittable committable) {
+        if (LakeSoulSinkOptions.DELETE.equals(committable.getDmlType())) {
+            return CommitOp.UpdateCommit;
+        } else if (LakeSoulSinkOptions.PARTITION_DELETE.equals(committable.getDmlType())) {
+            return CommitOp.DeleteCommit;
+        } else if (LakeSoulSinkOptions.UPDATE.equals(committable.getDmlType()) &&
+                committable.getIdentity().primaryKeys.isEmpty()) {
+            return CommitOp.UpdateCommit;
+        }
+        return CommitOp.AppendCommit;
+    }
+
+    /**
+     * Build DataCommitInfo of the pending files of one partition, null if there is nothing to commit.
+     */
+    private DataCommitInfo buildDataCommitInfo(Map.Entry<String, List<InProgressFileWriter.PendingFileRecoverable>> entry,
+                                               LakeSoulMultiTableSinkCommittable committable,
+                                               TableNameId tableNameId) throws IOException {
         List<InProgressFileWriter.PendingFileRecoverable> pendingFiles = entry.getValue();
 
         // pending files to commit
         List<String> files = new ArrayList<>();
+        List<Long> fileSizes = new ArrayList<>();
+        List<String> fileStats = new ArrayList<>();
         for (InProgressFileWriter.PendingFileRecoverable pendingFileRecoverable :
                 pendingFiles) {
             if (pendingFileRecoverable instanceof NativeParquetWriter.NativeWriterPendingFileRecoverable) {
                 NativeParquetWriter.NativeWriterPendingFileRecoverable recoverable =
                         (NativeParquetWriter.NativeWriterPendingFileRecoverable) pendingFileRecoverable;
                 files.add(recoverable.path);
+                fileSizes.add(recoverable.fileSize);
+                fileStats.add(recoverable.fileStats);
             }
         }
 
         if (files.isEmpty() && !LakeSoulSinkOptions.DELETE.equals(committable.getDmlType())) {
-            return;
+            return null;
         }
 
         // commit LakeSoul Meta
@@ -115,64 +251,37 @@ public class LakeSoulSinkCommitter implements Committer<LakeSoulMultiTableSinkCo
         String fileExistCols =
                 identity.rowType.getFieldNames().stream().filter(name -> !name.equals(SORT_FIELD))
                         .collect(Collectors.joining(LAKESOUL_FILE_EXISTS_COLUMN_SPLITTER));
-        for (String file : files) {
+        for (int i = 0; i < files.size(); i++) {
+            String file = files.get(i);
             DataFileOp.Builder dataFileOp = DataFileOp.newBuilder();
             dataFileOp.setFileOp(FileOp.add);
             dataFileOp.setPath(file);
-            Path path = new Path(file);
-            FileStatus fileStatus = FileSystem.get(path.toUri()).getFileStatus(path);
-            dataFileOp.setSize(fileStatus.getLen());
+            long fileSize = fileSizes.get(i);
+            if (fileSize < 0) {
+                // recovered from state written by older version without file size
+                Path path = new Path(file);
+                FileStatus fileStatus = FileSystem.get(path.toUri()).getFileStatus(path);
+                fileSize = fileStatus.getLen();
+            }
+            dataFileOp.setSize(fileSize);
             dataFileOp.setFileExistCols(fileExistCols);
+            if (fileStats.get(i) != null) {
+                dataFileOp.setFileStats(fileStats.get(i));
+            }
             dataFileOpList.add(dataFileOp.build());
         }
         String partition = entry.getKey();
-        List<PartitionInfo> readPartitionInfoList = null;
-
-
-        TableNameId tableNameId =
-                lakeSoulDBManager.shortTableName(identity.tableId.table(), identity.tableId.schema());
-        if (identity.tableId.schema() == null) {
-            tableNameId = lakeSoulDBManager.shortTableName(identity.tableId.table(), identity.tableId.catalog());
-        }
 
         DataCommitInfo.Builder dataCommitInfo = DataCommitInfo.newBuilder();
         dataCommitInfo.setTableId(tableNameId.getTableId());
         dataCommitInfo.setPartitionDesc(partition.isEmpty() ? LAKESOUL_NON_PARTITION_TABLE_PART_DESC :
                 partition.replaceAll("/", LAKESOUL_RANGE_PARTITION_SPLITTER));
         dataCommitInfo.addAllFileOps(dataFileOpList);
-
-        if (!committable.getSourcePartitionInfo().isEmpty()) {
-            readPartitionInfoList =
-                    JniWrapper
-                            .parseFrom(Base64.getDecoder().decode(committable.getSourcePartitionInfo()))
-                            .getPartitionInfoList();
-        }
-
-        if (LakeSoulSinkOptions.DELETE.equals(committable.getDmlType())) {
-            dataCommitInfo.setCommitOp(CommitOp.UpdateCommit);
-        } else if (LakeSoulSinkOptions.PARTITION_DELETE.equals(committable.getDmlType())) {
-            dataCommitInfo.setCommitOp(CommitOp.DeleteCommit);
-        } else if (LakeSoulSinkOptions.UPDATE.equals(committable.getDmlType()) && identity.primaryKeys.isEmpty()) {
-            dataCommitInfo.setCommitOp(CommitOp.UpdateCommit);
-        } else {
-            dataCommitInfo.setCommitOp(CommitOp.AppendCommit);
-        }
+        dataCommitInfo.setCommitOp(getCommitOp(committable));
         dataCommitInfo.setTimestamp(System.currentTimeMillis());
         assert committable.getCommitId() != null;
         dataCommitInfo.setCommitId(DBUtil.toProtoUuid(UUID.fromString(committable.getCommitId())));
-
-        lakeSoulDBManager.commitDataCommitInfo(dataCommitInfo.build(), readPartitionInfoList);
-        if (LOG.isInfoEnabled()) {
-            long end = System.currentTimeMillis();
-            String fileOpStr = dataFileOpList.stream()
-                    .map(op -> String.format("%s,%s,%d,%s", op.getPath(), op.getFileOp(), op.getSize(),
-                            "op.getFileExistCols()")).collect(Collectors.joining("\n\t"));
-            LOG.info("Committed to LakeSoul: Table={}, TableId={}, Partition={}, Files:\n\t{}, " +
-                            "CommitOp={}, Timestamp={}, UUID={}, time={}ms", identity.tableId.identifier(),
-                    tableNameId.getTableId(), partition, fileOpStr, dataCommitInfo.getCommitOp(),
-                    dataCommitInfo.getTimestamp(), dataCommitInfo.getCommitId().toString(), end - start);
-        }
-
+        return dataCommitInfo.build();
     }
 
     @Override
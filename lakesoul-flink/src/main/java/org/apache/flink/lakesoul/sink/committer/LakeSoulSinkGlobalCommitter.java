@@ -65,6 +65,9 @@ public class LakeSoulSinkGlobalCommitter
 
     private final boolean logicallyDropColumn;
     private LakeSoulInAndOutputJobListener listener;
+
+    private ForkJoinPool commitPool;
+
     public LakeSoulSinkGlobalCommitter(Configuration conf) {
         committer = LakeSoulSinkCommitter.INSTANCE;
         dbManager = new DBManager();
@@ -84,7 +87,10 @@ public class LakeSoulSinkGlobalCommitter
 
     @Override
     public void close() throws Exception {
-        // Do nothing.
+        if (commitPool != null) {
+            commitPool.shutdown();
+            commitPool = null;
+        }
     }
 
     /**
@@ -135,23 +141,25 @@ public class LakeSoulSinkGlobalCommitter
                 globalCommittable.getGroupedCommittable().size(),
                 globalCommittable.hashCode(),
                 globalCommittable);
-        ForkJoinPool commitPool = new ForkJoinPool(4);
-        try {
-            commitPool.submit(() -> {
-                globalCommittable.getGroupedCommittable().entrySet().parallelStream()
-                        .forEach(entry -> {
-                            try {
-                                commitEntry(entry);
-                            } catch (IOException | InterruptedException e) {
-                                throw new RuntimeException(e);
-                            }
-                        });
-            }).join();
-        } catch (Exception e) {
-            throw e;
-        } finally {
-            commitPool.shutdown();
+        if (commitPool == null) {
+            commitPool = new ForkJoinPool(4);
         }
+        // create or evolve tables concurrently, then commit data of all tables in one metadata transaction
+        commitPool.submit(() -> {
+            globalCommittable.getGroupedCommittable().entrySet().parallelStream()
+                    .forEach(entry -> {
+                        try {
+                            prepareTable(entry);
+                        } catch (IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                    });
+        }).join();
+        List<LakeSoulMultiTableSinkCommittable> committables = new ArrayList<>();
+        for (List<LakeSoulMultiTableSinkCommittable> list : globalCommittable.getGroupedCommittable().values()) {
+            committables.addAll(list);
+        }
+        committer.commitBatch(committables);
         long endTime = System.currentTimeMillis();
         LOG.info("Global Committing done, #{}, object {}, time {}ms",
                 globalCommittable.getGroupedCommittable().size(),
@@ -161,8 +169,11 @@ public class LakeSoulSinkGlobalCommitter
         return Collections.emptyList();
     }
 
-    private void commitEntry(Map.Entry<Tuple2<TableSchemaIdentity, String>, List<LakeSoulMultiTableSinkCommittable>> entry)
-            throws IOException, InterruptedException {
+    /**
+     * Create the table of the entry if absent, or apply schema change to it before its data is committed.
+     */
+    private void prepareTable(Map.Entry<Tuple2<TableSchemaIdentity, String>, List<LakeSoulMultiTableSinkCommittable>> entry)
+            throws IOException {
         String dbType = this.conf.getString(SOURCE_DB_TYPE, "");
         TableSchemaIdentity identity = entry.getKey().f0;
         List<LakeSoulMultiTableSinkCommittable> lakeSoulMultiTableSinkCommittable = entry.getValue();
@@ -358,8 +369,6 @@ public class LakeSoulSinkGlobalCommitter
                 }
             }
         }
-
-        committer.commit(lakeSoulMultiTableSinkCommittable, true);
     }
 
     /**
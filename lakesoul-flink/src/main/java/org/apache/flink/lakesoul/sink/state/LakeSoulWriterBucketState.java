@@ -9,6 +9,7 @@ import org.apache.flink.lakesoul.sink.writer.LakeSoulWriterBucket;
 import org.apache.flink.lakesoul.types.TableSchemaIdentity;
 import org.apache.flink.streaming.api.functions.sink.filesystem.InProgressFileWriter;
 
+import javax.annotation.Nullable;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +36,12 @@ public class LakeSoulWriterBucketState {
 
     private final int restartTimes;
 
+    /**
+     * The file kept open across the checkpoint, if any.
+     */
+    @Nullable
+    private final InProgressFileWriter.InProgressFileRecoverable inProgressFileRecoverable;
+
     public LakeSoulWriterBucketState(
             TableSchemaIdentity identity,
             String bucketId,
@@ -47,6 +54,7 @@ public class LakeSoulWriterBucketState {
         this.pendingFileRecoverableMap = new HashMap<>();
         this.pendingFileRecoverableMap.put(bucketId, pendingFileRecoverableList);
         restartTimes = 0;
+        inProgressFileRecoverable = null;
     }
 
     public LakeSoulWriterBucketState(
@@ -74,6 +82,23 @@ public class LakeSoulWriterBucketState {
 
         this.pendingFileRecoverableMap = pendingFileRecoverableMap;
         this.restartTimes = restartTimes;
+        this.inProgressFileRecoverable = null;
+    }
+
+    public LakeSoulWriterBucketState(
+            TableSchemaIdentity identity,
+            String bucketId,
+            Path bucketPath,
+            HashMap<String, List<InProgressFileWriter.PendingFileRecoverable>> pendingFileRecoverableMap,
+            int restartTimes,
+            @Nullable InProgressFileWriter.InProgressFileRecoverable inProgressFileRecoverable
+    ) {
+        this.identity = identity;
+        this.bucketId = bucketId;
+        this.bucketPath = bucketPath;
+        this.pendingFileRecoverableMap = pendingFileRecoverableMap;
+        this.restartTimes = restartTimes;
+        this.inProgressFileRecoverable = inProgressFileRecoverable;
     }
 
     public String getBucketId() {
@@ -98,7 +123,8 @@ public class LakeSoulWriterBucketState {
                 " and identity=" +
                 identity +
                 " and pendingFilesMap=" +
-                pendingFileRecoverableMap.entrySet().stream().map(Object::toString).collect(Collectors.joining("; "))
+                pendingFileRecoverableMap.entrySet().stream().map(Object::toString).collect(Collectors.joining("; ")) +
+                (inProgressFileRecoverable == null ? "" : " and inProgressFile=" + inProgressFileRecoverable)
                 ;
     }
 
@@ -113,4 +139,13 @@ public class LakeSoulWriterBucketState {
     public Map<String, List<InProgressFileWriter.PendingFileRecoverable>> getPendingFileRecoverableMap() {
         return pendingFileRecoverableMap;
     }
+
+    public boolean hasInProgressFileRecoverable() {
+        return inProgressFileRecoverable != null;
+    }
+
+    @Nullable
+    public InProgressFileWriter.InProgressFileRecoverable getInProgressFileRecoverable() {
+        return inProgressFileRecoverable;
+    }
 }
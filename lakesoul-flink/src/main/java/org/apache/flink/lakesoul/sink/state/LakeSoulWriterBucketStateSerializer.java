@@ -36,17 +36,22 @@ public class LakeSoulWriterBucketStateSerializer
 
     private final SimpleVersionedSerializer<InProgressFileWriter.PendingFileRecoverable> pendingFileRecoverableSimpleVersionedSerializer;
 
+    private final SimpleVersionedSerializer<InProgressFileWriter.InProgressFileRecoverable> inProgressFileRecoverableSerializer;
+
     public LakeSoulWriterBucketStateSerializer(
             SimpleVersionedSerializer<InProgressFileWriter.PendingFileRecoverable>
-                    pendingFileRecoverableSimpleVersionedSerializer) {
+                    pendingFileRecoverableSimpleVersionedSerializer,
+            SimpleVersionedSerializer<InProgressFileWriter.InProgressFileRecoverable>
+                    inProgressFileRecoverableSerializer) {
         this.pendingFileRecoverableSimpleVersionedSerializer =
                 checkNotNull(pendingFileRecoverableSimpleVersionedSerializer);
+        this.inProgressFileRecoverableSerializer = checkNotNull(inProgressFileRecoverableSerializer);
         this.tableSchemaIdentitySerializer = new TableSchemaIdentitySerializer();
     }
 
     @Override
     public int getVersion() {
-        return 1;
+        return 2;
     }
 
     @Override
@@ -61,7 +66,7 @@ public class LakeSoulWriterBucketStateSerializer
     public LakeSoulWriterBucketState deserialize(int version, byte[] serialized) throws IOException {
         DataInputDeserializer in = new DataInputDeserializer(serialized);
         validateMagicNumber(in);
-        return deserialize(in);
+        return deserialize(version, in);
     }
 
     private void serialize(LakeSoulWriterBucketState state, DataOutputView dataOutputView)
@@ -78,7 +83,7 @@ public class LakeSoulWriterBucketStateSerializer
         for (Map.Entry<String, List<InProgressFileWriter.PendingFileRecoverable>> entry : state.getPendingFileRecoverableMap().entrySet()) {
             dataOutputView.writeUTF(entry.getKey());
             dataOutputView.writeInt(entry.getValue().size());
-            for (int i = 0; i < state.getPendingFileRecoverableMap().size(); ++i) {
+            for (int i = 0; i < entry.getValue().size(); ++i) {
                 SimpleVersionedSerialization.writeVersionAndSerialize(
                         pendingFileRecoverableSimpleVersionedSerializer, entry.getValue().get(i),
                         dataOutputView
@@ -86,10 +91,18 @@ public class LakeSoulWriterBucketStateSerializer
             }
         }
 
+        // since version 2
+        dataOutputView.writeUTF(state.getBucketId());
+        dataOutputView.writeBoolean(state.hasInProgressFileRecoverable());
+        if (state.hasInProgressFileRecoverable()) {
+            SimpleVersionedSerialization.writeVersionAndSerialize(
+                    inProgressFileRecoverableSerializer, state.getInProgressFileRecoverable(), dataOutputView);
+        }
     }
 
-    private LakeSoulWriterBucketState deserialize(DataInputView in) throws IOException {
+    private LakeSoulWriterBucketState deserialize(int version, DataInputView in) throws IOException {
         return internalDeserialize(
+                version,
                 in,
                 dataInputView ->
                         SimpleVersionedSerialization.readVersionAndDeSerialize(
@@ -97,6 +110,7 @@ public class LakeSoulWriterBucketStateSerializer
     }
 
     private LakeSoulWriterBucketState internalDeserialize(
+            int version,
             DataInputView dataInputView,
             FunctionWithException<DataInputView, InProgressFileWriter.PendingFileRecoverable, IOException>
                     pendingFileDeser)
@@ -122,11 +136,27 @@ public class LakeSoulWriterBucketStateSerializer
             pendingFileRecoverableMap.put(bucketId, pendingFileRecoverableList);
         }
 
+        if (version < 2) {
+            return new LakeSoulWriterBucketState(
+                    identity,
+                    new Path(bucketPathStr),
+                    pendingFileRecoverableMap,
+                    restartTimes
+            );
+        }
+        String bucketId = dataInputView.readUTF();
+        InProgressFileWriter.InProgressFileRecoverable inProgressFileRecoverable = null;
+        if (dataInputView.readBoolean()) {
+            inProgressFileRecoverable = SimpleVersionedSerialization.readVersionAndDeSerialize(
+                    inProgressFileRecoverableSerializer, dataInputView);
+        }
         return new LakeSoulWriterBucketState(
                 identity,
+                bucketId,
                 new Path(bucketPathStr),
                 pendingFileRecoverableMap,
-                restartTimes
+                restartTimes,
+                inProgressFileRecoverable
         );
     }
 
@@ -131,6 +131,20 @@ public class LakeSoulWriterBucket {
             pendingFilesMap.computeIfAbsent(entry.getKey(), key -> new ArrayList<>()).addAll(entry.getValue());
         }
         restartTimes = state.getRestartTimes();
+
+        if (state.hasInProgressFileRecoverable()) {
+            InProgressFileWriter.InProgressFileRecoverable recoverable = state.getInProgressFileRecoverable();
+            if (bucketWriter.getProperties().supportsResume()) {
+                LOG.info("Resuming in-progress file {} for bucket id={}.", recoverable, getBucketId());
+                long creationTime = recoverable instanceof NativeParquetWriter.NativeWriterInProgressFileRecoverable ?
+                        ((NativeParquetWriter.NativeWriterInProgressFileRecoverable) recoverable).creationTime :
+                        System.currentTimeMillis();
+                inProgressPartWriter = bucketWriter.resumeInProgressFileFrom(bucketId, recoverable, creationTime);
+            } else {
+                throw new IOException("Bucket writer of bucket id=" + getBucketId() +
+                        " can not resume in-progress file " + recoverable);
+            }
+        }
     }
 
     public String getBucketId() {
@@ -175,9 +189,9 @@ public class LakeSoulWriterBucket {
 
     List<LakeSoulMultiTableSinkCommittable> prepareCommit(String dmlType, String sourcePartitionInfo)
             throws IOException {
-        // we always close part file and do not keep in-progress file
-        // since the native parquet writer doesn't support resume
-        if (inProgressPartWriter != null) {
+        // unless the rolling policy keeps in-progress file across checkpoints,
+        // we close part file so that its rows are committed with this checkpoint
+        if (inProgressPartWriter != null && rollingPolicy.shouldRollOnCheckpoint(inProgressPartWriter)) {
             LOG.info(
                     "Closing in-progress part file for bucket id={} on checkpoint.", getBucketId());
             closePartFile();
@@ -213,11 +227,18 @@ public class LakeSoulWriterBucket {
     }
 
     LakeSoulWriterBucketState snapshotState() throws IOException {
+        InProgressFileWriter.InProgressFileRecoverable inProgressFileRecoverable = null;
         if (inProgressPartWriter != null) {
-            closePartFile();
+            if (!rollingPolicy.shouldRollOnCheckpoint(inProgressPartWriter)) {
+                inProgressFileRecoverable = inProgressPartWriter.persist();
+            }
+            if (inProgressFileRecoverable == null) {
+                closePartFile();
+            }
         }
 
-        return new LakeSoulWriterBucketState(tableId, bucketPath, new HashMap<>(pendingFilesMap));
+        return new LakeSoulWriterBucketState(tableId, bucketId, bucketPath, new HashMap<>(pendingFilesMap),
+                0, inProgressFileRecoverable);
     }
 
     void onProcessingTime(long timestamp) throws IOException {
@@ -41,18 +41,22 @@ public class NativeBucketWriter implements BucketWriter<RowData, String> {
 
     @Override
     public InProgressFileWriter<RowData, String> resumeInProgressFileFrom(
-            String s,
+            String bucketId,
             InProgressFileWriter.InProgressFileRecoverable inProgressFileSnapshot,
             long creationTime) throws IOException {
-        throw new UnsupportedOperationException("NativeBucketWriter does not support resume");
+        if (!(inProgressFileSnapshot instanceof NativeParquetWriter.NativeWriterInProgressFileRecoverable)) {
+            throw new UnsupportedOperationException("NativeBucketWriter can not resume from " + inProgressFileSnapshot);
+        }
+        return new NativeParquetWriter(rowType, primaryKeys, partitionKeys, bucketId,
+                (NativeParquetWriter.NativeWriterInProgressFileRecoverable) inProgressFileSnapshot, conf, subTaskId);
     }
 
     @Override
     public WriterProperties getProperties() {
         return new WriterProperties(
-                UnsupportedInProgressFileRecoverableSerializable.INSTANCE,
+                NativeParquetWriter.NativeInProgressFileRecoverableSerializer.INSTANCE,
                 NativeParquetWriter.NativePendingFileRecoverableSerializer.INSTANCE,
-                false
+                true
         );
     }
 
@@ -6,8 +6,13 @@ package org.apache.flink.lakesoul.sink.writer;
 
 import com.dmetasoul.lakesoul.lakesoul.io.NativeIOWriter;
 import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.fs.FSDataOutputStream;
+import org.apache.flink.core.fs.FileSystem;
 import org.apache.flink.core.fs.Path;
 import org.apache.flink.core.io.SimpleVersionedSerializer;
 import org.apache.flink.core.memory.DataInputDeserializer;
@@ -26,15 +31,25 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
 
 import static org.apache.flink.lakesoul.tool.LakeSoulSinkOptions.*;
 
+/**
+ * Writes rows to parquet files by the native writer. Parquet files of the native writer can not be reopened, so
+ * when {@link LakeSoulSinkOptions#FILE_ROLL_ON_CHECKPOINT} is disabled, rows written to an open file are also
+ * appended to arrow ipc segments under {@link #IN_PROGRESS_DIR}, one per checkpoint. {@link #persist()} seals the
+ * current segment, and a writer resumed from the checkpoint replays the sealed segments into a new native writer.
+ * The segments are referenced by the pending files of the writer until they are committed.
+ */
 public class NativeParquetWriter implements InProgressFileWriter<RowData, String> {
 
     private static final Logger LOG = LoggerFactory.getLogger(NativeParquetWriter.class);
 
+    public static final String IN_PROGRESS_DIR = "_lakesoul_in_progress";
+
     private final RowType rowType;
     private final int subTaskId;
     private ArrowWriter<RowData> arrowWriter;
@@ -56,9 +71,26 @@ public class NativeParquetWriter implements InProgressFileWriter<RowData, String
 
     Path prefix;
 
+    // path the writer was opened with, to resume it from
+    private final Path path;
+
     private long totalRows = 0;
     private final boolean isDynamicBucket;
 
+    private final boolean persistable;
+
+    // segments sealed by persist, holding all rows written before the last checkpoint
+    private final List<String> inProgressSegments = new ArrayList<>();
+
+    @Nullable
+    private Path segmentPath;
+
+    @Nullable
+    private FSDataOutputStream segmentOut;
+
+    @Nullable
+    private ArrowStreamWriter segmentWriter;
+
     public NativeParquetWriter(RowType rowType,
                                List<String> primaryKeys,
                                List<String> rangeColumns,
@@ -77,6 +109,8 @@ public class NativeParquetWriter implements InProgressFileWriter<RowData, String
         this.rangeColumns = rangeColumns;
         this.conf = conf;
         this.subTaskId = subTaskId;
+        this.persistable = !conf.getBoolean(FILE_ROLL_ON_CHECKPOINT);
+        this.path = path;
 
         this.prefix = path.makeQualified(path.getFileSystem());
         if (!bucketID.isEmpty() && !isDynamicBucket) {
@@ -86,6 +120,36 @@ public class NativeParquetWriter implements InProgressFileWriter<RowData, String
 
     }
 
+    /**
+     * Resume writer from the segments persisted by {@link #persist()}.
+     */
+    public NativeParquetWriter(RowType rowType,
+                               List<String> primaryKeys,
+                               List<String> rangeColumns,
+                               String bucketID,
+                               NativeWriterInProgressFileRecoverable recoverable,
+                               Configuration conf,
+                               int subTaskId) throws IOException {
+        this(rowType, primaryKeys, rangeColumns, bucketID, new Path(recoverable.path), recoverable.creationTime,
+                conf, subTaskId);
+        long start = System.currentTimeMillis();
+        for (String segment : recoverable.segments) {
+            Path persisted = new Path(segment);
+            try (FSDataInputStream in = persisted.getFileSystem().open(persisted);
+                 ArrowStreamReader reader = new ArrowStreamReader(in, nativeWriter.getAllocator())) {
+                while (reader.loadNextBatch()) {
+                    // exported buffers are retained by native writer, loading next batch releases only ours
+                    nativeWriter.write(reader.getVectorSchemaRoot());
+                }
+            }
+            inProgressSegments.add(segment);
+        }
+        this.totalRows = recoverable.totalRows;
+        this.lastUpdateTime = System.currentTimeMillis();
+        LOG.info("Resumed NativeParquetWriter from {} segments with {} rows in {}ms",
+                recoverable.segments.size(), totalRows, System.currentTimeMillis() - start);
+    }
+
 
     private void initNativeWriter() throws IOException {
         ArrowUtils.setLocalTimeZone(FlinkUtil.getLocalTimeZone(conf));
@@ -97,6 +161,7 @@ public class NativeParquetWriter implements InProgressFileWriter<RowData, String
             nativeWriter.setAuxSortColumns(Collections.singletonList(SORT_FIELD));
         }
         nativeWriter.setHashBucketNum(conf.getInteger(LakeSoulSinkOptions.HASH_BUCKET_NUM));
+        nativeWriter.setOption(NativeIOWriter.STATS_COLUMNS_OPTION, conf.getString(STATS_COLUMNS));
 
         nativeWriter.setRowGroupRowNumber(this.maxRowGroupRows);
         batch = VectorSchemaRoot.create(arrowSchema, nativeWriter.getAllocator());
@@ -114,6 +179,10 @@ public class NativeParquetWriter implements InProgressFileWriter<RowData, String
             nativeWriter.setOption(STABLE_SORT, "true");
         }
         nativeWriter.initializeWriter();
+        int maxInFlightBatches = conf.getInteger(MAX_IN_FLIGHT_WRITE_BATCHES);
+        if (maxInFlightBatches > 0) {
+            nativeWriter.enableAsyncWrite(maxInFlightBatches);
+        }
         LOG.info("Initialized NativeParquetWriter: {}", this);
     }
 
@@ -124,20 +193,162 @@ public class NativeParquetWriter implements InProgressFileWriter<RowData, String
         this.rowsInBatch++;
         this.totalRows++;
         if (this.rowsInBatch >= this.maxRowGroupRows) {
-            this.arrowWriter.finish();
-            this.nativeWriter.write(this.batch);
-            // in native writer, batch may be kept in memory for sorting,
-            // so we have to release ownership in java
-            this.batch.clear();
-            this.arrowWriter.reset();
-            this.rowsInBatch = 0;
+            writeBatch();
         }
     }
 
+    private void writeBatch() throws IOException {
+        this.arrowWriter.finish();
+        if (persistable) {
+            writeSegment();
+        }
+        // with async write enabled this returns once the batch is exported,
+        // so filling the next batch overlaps with native write of this one
+        this.nativeWriter.write(this.batch);
+        // in native writer, batch may be kept in memory for sorting,
+        // so we have to release ownership in java
+        this.batch.clear();
+        this.arrowWriter.reset();
+        this.rowsInBatch = 0;
+    }
+
+    private void writeSegment() throws IOException {
+        if (segmentWriter == null) {
+            segmentPath = new Path(new Path(prefix, IN_PROGRESS_DIR), UUID.randomUUID() + ".arrow");
+            segmentOut = segmentPath.getFileSystem().create(segmentPath, FileSystem.WriteMode.NO_OVERWRITE);
+            segmentWriter = new ArrowStreamWriter(batch, null, segmentOut);
+            segmentWriter.start();
+        }
+        segmentWriter.writeBatch();
+    }
+
+    /**
+     * Seal the rows written since the last persist into a segment, so that the writer can be resumed from them.
+     *
+     * @return recoverable of all sealed segments, or null if the writer is not persistable
+     */
     @Override
     public InProgressFileRecoverable persist() throws IOException {
-        // we currently do not support persist
-        return null;
+        if (!persistable) {
+            return null;
+        }
+        if (this.rowsInBatch > 0) {
+            writeBatch();
+        }
+        if (segmentWriter != null) {
+            segmentWriter.end();
+            segmentOut.flush();
+            // closing the stream makes the segment durable also on object stores
+            segmentWriter.close();
+            inProgressSegments.add(segmentPath.toString());
+            segmentWriter = null;
+            segmentOut = null;
+            segmentPath = null;
+        }
+        return new NativeWriterInProgressFileRecoverable(
+                path.toString(), new ArrayList<>(inProgressSegments), creationTime, totalRows);
+    }
+
+    // rows of the open segment are also in the files being closed, so it is never needed again
+    private void discardOpenSegment() {
+        if (segmentWriter != null) {
+            Path openSegment = segmentPath;
+            try {
+                segmentWriter.close();
+                openSegment.getFileSystem().delete(openSegment, false);
+            } catch (Throwable t) {
+                LOG.warn("Error discarding in-progress segment {}", openSegment, t);
+            } finally {
+                segmentWriter = null;
+                segmentOut = null;
+                segmentPath = null;
+            }
+        }
+    }
+
+    public static class NativeInProgressFileRecoverableSerializer
+            implements SimpleVersionedSerializer<InProgressFileRecoverable> {
+
+        public static final NativeInProgressFileRecoverableSerializer INSTANCE =
+                new NativeInProgressFileRecoverableSerializer();
+
+        @Override
+        public int getVersion() {
+            return 1;
+        }
+
+        @Override
+        public byte[] serialize(InProgressFileRecoverable obj) throws IOException {
+            if (!(obj instanceof NativeWriterInProgressFileRecoverable)) {
+                throw new UnsupportedOperationException(
+                        "Only NativeParquetWriter.NativeWriterInProgressFileRecoverable is supported.");
+            }
+            NativeWriterInProgressFileRecoverable recoverable = (NativeWriterInProgressFileRecoverable) obj;
+            DataOutputSerializer out = new DataOutputSerializer(256);
+            out.writeUTF(recoverable.path);
+            out.writeLong(recoverable.creationTime);
+            out.writeLong(recoverable.totalRows);
+            out.writeInt(recoverable.segments.size());
+            for (String segment : recoverable.segments) {
+                out.writeUTF(segment);
+            }
+            return out.getCopyOfBuffer();
+        }
+
+        @Override
+        public InProgressFileRecoverable deserialize(int version, byte[] serialized) throws IOException {
+            DataInputDeserializer in = new DataInputDeserializer(serialized);
+            String path = in.readUTF();
+            long creationTime = in.readLong();
+            long totalRows = in.readLong();
+            int segmentNum = in.readInt();
+            List<String> segments = new ArrayList<>(segmentNum);
+            for (int i = 0; i < segmentNum; i++) {
+                segments.add(in.readUTF());
+            }
+            return new NativeWriterInProgressFileRecoverable(path, segments, creationTime, totalRows);
+        }
+    }
+
+    static public class NativeWriterInProgressFileRecoverable implements InProgressFileRecoverable, Serializable {
+        /**
+         * Path the in-progress file was opened with
+         */
+        public String path;
+
+        /**
+         * Arrow ipc segments holding all rows written to the in-progress files, in write order
+         */
+        public List<String> segments;
+
+        public long creationTime;
+
+        public long totalRows;
+
+        public NativeWriterInProgressFileRecoverable(String path, List<String> segments, long creationTime,
+                                                     long totalRows) {
+            this.path = path;
+            this.segments = segments;
+            this.creationTime = creationTime;
+            this.totalRows = totalRows;
+        }
+
+        @Override
+        public String toString() {
+            return "InProgressFile(" +
+                    path + ", " + creationTime + ", " + totalRows + ", " + segments + ")";
+        }
+
+        @Nullable
+        @Override
+        public Path getPath() {
+            return new Path(path);
+        }
+
+        @Override
+        public long getSize() {
+            return totalRows;
+        }
     }
 
     public static class NativePendingFileRecoverableSerializer
@@ -148,7 +359,7 @@ public class NativeParquetWriter implements InProgressFileWriter<RowData, String
 
         @Override
         public int getVersion() {
-            return 0;
+            return 3;
         }
 
         @Override
@@ -162,6 +373,16 @@ public class NativeParquetWriter implements InProgressFileWriter<RowData, String
                     (NativeParquetWriter.NativeWriterPendingFileRecoverable) obj;
             out.writeUTF(recoverable.path);
             out.writeLong(recoverable.creationTime);
+            out.writeLong(recoverable.fileSize);
+            // stats json may exceed the length limit of writeUTF
+            byte[] fileStats = recoverable.fileStats == null ?
+                    new byte[0] : recoverable.fileStats.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(fileStats.length);
+            out.write(fileStats);
+            out.writeInt(recoverable.inProgressSegments.size());
+            for (String segment : recoverable.inProgressSegments) {
+                out.writeUTF(segment);
+            }
             return out.getCopyOfBuffer();
         }
 
@@ -171,7 +392,25 @@ public class NativeParquetWriter implements InProgressFileWriter<RowData, String
             DataInputDeserializer in = new DataInputDeserializer(serialized);
             String path = in.readUTF();
             long time = in.readLong();
-            return new NativeParquetWriter.NativeWriterPendingFileRecoverable(path, time);
+            // file size is not recorded before version 1
+            long fileSize = version >= 1 ? in.readLong() : -1;
+            // file stats are not recorded before version 2
+            String fileStats = "";
+            if (version >= 2) {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                fileStats = new String(bytes, StandardCharsets.UTF_8);
+            }
+            NativeParquetWriter.NativeWriterPendingFileRecoverable recoverable =
+                    new NativeParquetWriter.NativeWriterPendingFileRecoverable(path, time, fileSize, fileStats);
+            // in-progress segments are not recorded before version 3
+            if (version >= 3) {
+                int segmentNum = in.readInt();
+                for (int i = 0; i < segmentNum; i++) {
+                    recoverable.inProgressSegments.add(in.readUTF());
+                }
+            }
+            return recoverable;
         }
     }
 
@@ -180,15 +419,40 @@ public class NativeParquetWriter implements InProgressFileWriter<RowData, String
 
         public long creationTime;
 
+        /**
+         * File size reported by native writer on flush, -1 if unknown
+         */
+        public long fileSize;
+
+        /**
+         * Column statistics json reported by native writer on flush, empty if unknown
+         */
+        public String fileStats;
+
+        /**
+         * Segments persisted while the file was in progress, to be deleted once the file is committed
+         */
+        public List<String> inProgressSegments = new ArrayList<>();
+
         public NativeWriterPendingFileRecoverable(String path, long creationTime) {
+            this(path, creationTime, -1);
+        }
+
+        public NativeWriterPendingFileRecoverable(String path, long creationTime, long fileSize) {
+            this(path, creationTime, fileSize, "");
+        }
+
+        public NativeWriterPendingFileRecoverable(String path, long creationTime, long fileSize, String fileStats) {
             this.path = path;
             this.creationTime = creationTime;
+            this.fileSize = fileSize;
+            this.fileStats = fileStats;
         }
 
         @Override
         public String toString() {
             return "PendingFile(" +
-                    path + ", " + creationTime + ")";
+                    path + ", " + creationTime + ", " + fileSize + ")";
         }
 
         @Nullable
@@ -199,7 +463,7 @@ public class NativeParquetWriter implements InProgressFileWriter<RowData, String
 
         @Override
         public long getSize() {
-            return 0;
+            return Math.max(fileSize, 0);
         }
 
         @Override
@@ -210,6 +474,7 @@ public class NativeParquetWriter implements InProgressFileWriter<RowData, String
 
     @Override
     public PendingFileRecoverable closeForCommit() throws IOException {
+        discardOpenSegment();
         this.arrowWriter.finish();
         this.nativeWriter.write(this.batch);
         this.nativeWriter.flush();
@@ -223,11 +488,15 @@ public class NativeParquetWriter implements InProgressFileWriter<RowData, String
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
-        return new NativeWriterPendingFileRecoverable(this.prefix.toString(), this.creationTime);
+        NativeWriterPendingFileRecoverable recoverable =
+                new NativeWriterPendingFileRecoverable(this.prefix.toString(), this.creationTime);
+        recoverable.inProgressSegments.addAll(inProgressSegments);
+        return recoverable;
     }
 
     public Map<String, List<PendingFileRecoverable>> closeForCommitWithRecoverableMap() throws IOException {
         long timer = System.currentTimeMillis();
+        discardOpenSegment();
         this.arrowWriter.finish();
         Map<String, List<PendingFileRecoverable>> recoverableMap = new HashMap<>();
         if (this.batch.getRowCount() > 0) {
@@ -241,10 +510,16 @@ public class NativeParquetWriter implements InProgressFileWriter<RowData, String
                     entry.getValue()
                             .stream()
                             .map(result -> new NativeParquetWriter.NativeWriterPendingFileRecoverable(result.getFilePath(),
-                                    creationTime))
+                                    creationTime, result.getFileSize(), result.getFileStats()))
                             .collect(Collectors.toList())
             );
         }
+        // the persisted segments hold rows of all these files, they are released with the first one committed
+        if (!inProgressSegments.isEmpty()) {
+            recoverableMap.values().stream().filter(files -> !files.isEmpty()).findFirst()
+                    .ifPresent(files -> ((NativeWriterPendingFileRecoverable) files.get(0)).inProgressSegments
+                            .addAll(inProgressSegments));
+        }
         this.arrowWriter.reset();
         this.rowsInBatch = 0;
         this.batch.clear();
@@ -263,6 +538,9 @@ public class NativeParquetWriter implements InProgressFileWriter<RowData, String
         LOG.info("Disposing NativeParquetWriter...");
         Throwable firstException = null;
 
+        // sealed segments are kept since checkpoints may still refer to them
+        discardOpenSegment();
+
         if (this.arrowWriter != null) {
             try {
                 this.arrowWriter.finish();
@@ -331,6 +609,7 @@ public class NativeParquetWriter implements InProgressFileWriter<RowData, String
                 ", lastUpdateTime=" + lastUpdateTime +
                 ", path=" + prefix +
                 ", totalRows=" + totalRows +
+                ", inProgressSegments=" + inProgressSegments.size() +
                 '}';
     }
 }
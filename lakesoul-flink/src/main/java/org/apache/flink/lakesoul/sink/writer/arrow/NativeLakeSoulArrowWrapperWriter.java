@@ -79,6 +79,7 @@ public class NativeLakeSoulArrowWrapperWriter implements InProgressFileWriter<La
             nativeWriter.setAuxSortColumns(Collections.singletonList(SORT_FIELD));
         }
         nativeWriter.setHashBucketNum(conf.getInteger(LakeSoulSinkOptions.HASH_BUCKET_NUM));
+        nativeWriter.setOption(NativeIOWriter.STATS_COLUMNS_OPTION, conf.getString(STATS_COLUMNS));
 
         nativeWriter.setRowGroupRowNumber(this.maxRowGroupRows);
         nativeWriter.setBatchSize(conf.get(BATCH_SIZE));
@@ -124,7 +125,7 @@ public class NativeLakeSoulArrowWrapperWriter implements InProgressFileWriter<La
                     entry.getKey(),
                     entry.getValue()
                             .stream()
-                            .map(result -> new NativeParquetWriter.NativeWriterPendingFileRecoverable(result.getFilePath(), creationTime))
+                            .map(result -> new NativeParquetWriter.NativeWriterPendingFileRecoverable(result.getFilePath(), creationTime, result.getFileSize(), result.getFileStats()))
                             .collect(Collectors.toList())
             );
         }
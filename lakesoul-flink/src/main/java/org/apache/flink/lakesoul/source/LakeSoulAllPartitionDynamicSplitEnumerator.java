@@ -5,6 +5,7 @@
 package org.apache.flink.lakesoul.source;
 
 import com.dmetasoul.lakesoul.lakesoul.io.substrait.SubstraitUtil;
+import com.dmetasoul.lakesoul.meta.DBUtil;
 import com.dmetasoul.lakesoul.meta.DataFileInfo;
 import com.dmetasoul.lakesoul.meta.DataOperation;
 import com.dmetasoul.lakesoul.meta.MetaVersion;
@@ -17,6 +18,9 @@ import org.apache.flink.api.connector.source.SplitEnumerator;
 import org.apache.flink.api.connector.source.SplitEnumeratorContext;
 import org.apache.flink.core.fs.Path;
 import org.apache.flink.lakesoul.tool.FlinkUtil;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.runtime.execution.SuppressRestartsException;
 import org.apache.flink.shaded.guava31.com.google.common.collect.Maps;
 import org.apache.flink.shaded.guava31.com.google.common.collect.Sets;
@@ -51,13 +55,27 @@ public class LakeSoulAllPartitionDynamicSplitEnumerator
     private long startTime;
     private long nextStartTime;
     private int hashBucketNum = -1;
+    private final boolean partitionChangeFeed;
+    // partition_info.timestamp is taken at transaction start, so a commit may become visible with a timestamp
+    // older than the cursor. This window is re-read on every round and unchanged partitions are skipped below,
+    // but a commit whose transaction ran longer than the window is not discovered.
+    private final long partitionChangeFeedOverlapMs;
+    // max partition_info.timestamp seen so far, -1 before the first full listing
+    private long partitionCursor = -1;
+    // buckets of tables without primary key larger than this are read by several splits of consecutive files
+    private final long splitMaxBytes;
+    private final boolean bucketSplittable;
+    private final Counter extraSplitsCounter;
 
     public LakeSoulAllPartitionDynamicSplitEnumerator(SplitEnumeratorContext<LakeSoulPartitionSplit> context,
                                                       LakeSoulDynSplitAssigner splitAssigner, RowType rowType,
                                                       long discoveryInterval, long startTime, String tableId,
                                                       String hashBucketNum, List<String> partitionColumns,
-                                                      Plan partitionFilters) {
+                                                      Plan partitionFilters, boolean partitionChangeFeed,
+                                                      long partitionChangeFeedOverlapMs, long splitMaxBytes) {
         this.context = context;
+        this.partitionChangeFeed = partitionChangeFeed;
+        this.partitionChangeFeedOverlapMs = partitionChangeFeedOverlapMs;
         this.splitAssigner = splitAssigner;
         this.discoveryInterval = discoveryInterval;
         this.tableId = tableId;
@@ -76,10 +94,23 @@ public class LakeSoulAllPartitionDynamicSplitEnumerator
         this.partitionFilters = partitionFilters;
         tableInfo = DataOperation.dbManager().getTableInfoByTableId(tableId);
         fullTableName = tableInfo.getTableNamespace() + "." + tableInfo.getTableName();
+        this.splitMaxBytes = splitMaxBytes;
+        this.bucketSplittable = splitMaxBytes > 0 &&
+                DBUtil.parseTableInfoPartitions(tableInfo.getPartitions()).primaryKeys.isEmpty();
+
+        MetricGroup metricGroup = context.metricGroup();
+        metricGroup.gauge("pendingSplits", (Gauge<Long>) splitAssigner::getPendingSplitNum);
+        metricGroup.gauge("pendingBytes", (Gauge<Long>) splitAssigner::getPendingBytes);
+        metricGroup.gauge("assignedSplits", (Gauge<Long>) splitAssigner::getAssignedSplitNum);
+        metricGroup.gauge("assignedBytes", (Gauge<Long>) splitAssigner::getAssignedBytes);
+        metricGroup.gauge("maxSubtaskAssignedBytes", (Gauge<Long>) splitAssigner::getMaxSubtaskAssignedBytes);
+        metricGroup.gauge("minSubtaskAssignedBytes", (Gauge<Long>) splitAssigner::getMinSubtaskAssignedBytes);
+        this.extraSplitsCounter = metricGroup.counter("largeBucketExtraSplits");
         LOG.info("Create Dyn enumerator for table name {}, tableId {}, context {}," +
-                        " filter {}, interval {}",
-                fullTableName, tableId, System.identityHashCode(context),
-                partitionFilters, discoveryInterval);
+                        " filter {}, interval {}, changeFeed {}, changeFeedOverlapMs {}, splitMaxBytes {}," +
+                        " bucketSplittable {}",
+                fullTableName, tableId, System.identityHashCode(context), partitionFilters, discoveryInterval,
+                partitionChangeFeed, partitionChangeFeedOverlapMs, splitMaxBytes, bucketSplittable);
     }
 
     @Override
@@ -101,7 +132,8 @@ public class LakeSoulAllPartitionDynamicSplitEnumerator
             taskIdsAwaitingSplit.add(subtaskId);
             return;
         }
-        Optional<LakeSoulPartitionSplit> nextSplit = this.splitAssigner.getNext(subtaskId, tasksSize);
+        Optional<LakeSoulPartitionSplit> nextSplit =
+                this.splitAssigner.getNext(subtaskId, context.currentParallelism());
         if (nextSplit.isPresent()) {
             context.assignSplit(nextSplit.get(), subtaskId);
             taskIdsAwaitingSplit.remove(subtaskId);
@@ -126,12 +158,16 @@ public class LakeSoulAllPartitionDynamicSplitEnumerator
     @Override
     public LakeSoulPendingSplits snapshotState(long checkpointId) throws Exception {
         List<LakeSoulPartitionSplit> remaining;
+        Map<Integer, Integer> bucketOwners;
+        int ownersParallelism;
         synchronized (this) {
             remaining = splitAssigner.remainingSplits();
+            bucketOwners = splitAssigner.getBucketOwners();
+            ownersParallelism = splitAssigner.getOwnersParallelism();
         }
         LakeSoulPendingSplits pendingSplits = new LakeSoulPendingSplits(
                 remaining, this.nextStartTime, this.tableId,
-                "", this.discoveryInterval, this.hashBucketNum);
+                "", this.discoveryInterval, this.hashBucketNum, bucketOwners, ownersParallelism);
         LOG.info("LakeSoulAllPartitionDynamicSplitEnumerator" +
                         "snapshotState, table {}, chkId {}, splits {}, oid {}, tid {}",
                 fullTableName, checkpointId, pendingSplits,
@@ -166,7 +202,7 @@ public class LakeSoulAllPartitionDynamicSplitEnumerator
                 iter.remove();
                 continue;
             }
-            Optional<LakeSoulPartitionSplit> al = this.splitAssigner.getNext(taskId, tasksSize);
+            Optional<LakeSoulPartitionSplit> al = this.splitAssigner.getNext(taskId, context.currentParallelism());
             if (al.isPresent()) {
                 context.assignSplit(al.get(), taskId);
                 iter.remove();
@@ -186,13 +222,23 @@ public class LakeSoulAllPartitionDynamicSplitEnumerator
                 Thread.currentThread().getId());
         long s = System.currentTimeMillis();
         List<PartitionInfo> allPartitionInfo;
+        boolean fromCursor = false;
         if (partitionColumns.isEmpty()) {
             allPartitionInfo = DataOperation.dbManager().getPartitionInfos(tableId,
                     Collections.singletonList(LAKESOUL_NON_PARTITION_TABLE_PART_DESC));
+        } else if (partitionChangeFeed && partitionCursor >= 0) {
+            long from = Math.max(0, partitionCursor - partitionChangeFeedOverlapMs);
+            allPartitionInfo = MetaVersion.getAllPartitionInfoFromTimestamp(tableId, from);
+            fromCursor = true;
         } else {
             allPartitionInfo = MetaVersion.getAllPartitionInfo(tableId);
         }
         long e = System.currentTimeMillis();
+        if (fromCursor && allPartitionInfo != null && allPartitionInfo.isEmpty()) {
+            LOG.info("Table {} no partition changed since {}, queryTime={}ms",
+                    fullTableName, partitionCursor, e - s);
+            return Collections.emptyList();
+        }
         if (allPartitionInfo == null || allPartitionInfo.isEmpty()) {
             String err = String.format("Table %s with tableId %s does not exist. " +
                             "This table may have been dropped, please restart this streaming job " +
@@ -201,8 +247,8 @@ public class LakeSoulAllPartitionDynamicSplitEnumerator
             LOG.error(err);
             throw new SuppressRestartsException(new RuntimeException(err));
         }
-        LOG.info("Table {} allPartitionInfo num {}, queryTime={}ms, interval={}",
-                fullTableName, allPartitionInfo.size(), e - s, discoveryInterval);
+        LOG.info("Table {} allPartitionInfo num {}, queryTime={}ms, interval={}, fromCursor={}",
+                fullTableName, allPartitionInfo.size(), e - s, discoveryInterval, fromCursor);
         List<PartitionInfo> filteredPartition = SubstraitUtil.applyPartitionFilters(
                 allPartitionInfo, partitionArrowSchema, partitionFilters);
         LOG.info("Table {} filteredPartition num {}, filter={}", fullTableName, filteredPartition.size(), partitionFilters);
@@ -237,12 +283,16 @@ public class LakeSoulAllPartitionDynamicSplitEnumerator
                         tableId, partitionDesc, startTime, latestTimestamp, "incremental");
             }
             if (dataFileInfos.length > 0) {
+                Map<Path, Long> fileSizes = new HashMap<>(dataFileInfos.length);
+                for (DataFileInfo dataFileInfo : dataFileInfos) {
+                    fileSizes.put(new Path(dataFileInfo.path()), dataFileInfo.size());
+                }
                 Map<String, Map<Integer, List<Path>>> splitByRangeAndHashPartition =
                         FlinkUtil.splitDataInfosToRangeAndHashPartition(tableInfo, dataFileInfos);
                 for (Map.Entry<String, Map<Integer, List<Path>>> entry : splitByRangeAndHashPartition.entrySet()) {
                     for (Map.Entry<Integer, List<Path>> split : entry.getValue().entrySet()) {
-                        splits.add(new LakeSoulPartitionSplit(String.valueOf(split.hashCode()), split.getValue(),
-                                0, split.getKey(), partitionDesc));
+                        addBucketSplits(splits, String.valueOf(split.hashCode()), split.getValue(), fileSizes,
+                                split.getKey(), partitionDesc);
                     }
                 }
             }
@@ -250,6 +300,11 @@ public class LakeSoulAllPartitionDynamicSplitEnumerator
                 partitionLatestTimestamp.put(partitionDesc, latestTimestamp);
             }
         }
+        if (partitionChangeFeed) {
+            for (PartitionInfo partitionInfo : allPartitionInfo) {
+                partitionCursor = Math.max(partitionCursor, partitionInfo.getTimestamp());
+            }
+        }
         LOG.info("dynamic enumerate table {} done, partitionLatestTimestamp={}, oid {}, tid {}",
                 fullTableName, partitionLatestTimestamp,
                 System.identityHashCode(this),
@@ -257,4 +312,36 @@ public class LakeSoulAllPartitionDynamicSplitEnumerator
 
         return splits;
     }
+
+    private void addBucketSplits(List<LakeSoulPartitionSplit> splits, String id, List<Path> files,
+                                 Map<Path, Long> fileSizes, int bucketId, String partitionDesc) {
+        long totalSize = 0;
+        for (Path file : files) {
+            totalSize += fileSizes.getOrDefault(file, 0L);
+        }
+        if (!bucketSplittable || totalSize <= splitMaxBytes || files.size() <= 1) {
+            splits.add(new LakeSoulPartitionSplit(id, files, 0, bucketId, partitionDesc, 0, null, totalSize));
+            return;
+        }
+        // without primary key files are not merged on read, so consecutive files can be read separately
+        List<Path> current = new ArrayList<>();
+        long currentSize = 0;
+        int part = 0;
+        for (Path file : files) {
+            long fileSize = fileSizes.getOrDefault(file, 0L);
+            if (!current.isEmpty() && currentSize + fileSize > splitMaxBytes) {
+                splits.add(new LakeSoulPartitionSplit(id + "-" + part++, current, 0, bucketId, partitionDesc,
+                        0, null, currentSize));
+                current = new ArrayList<>();
+                currentSize = 0;
+            }
+            current.add(file);
+            currentSize += fileSize;
+        }
+        splits.add(new LakeSoulPartitionSplit(id + "-" + part, current, 0, bucketId, partitionDesc,
+                0, null, currentSize));
+        extraSplitsCounter.inc(part);
+        LOG.info("Split bucket {} of {}/{} with {} bytes into {} splits",
+                bucketId, fullTableName, partitionDesc, totalSize, part + 1);
+    }
 }
@@ -5,65 +5,183 @@
 package org.apache.flink.lakesoul.source;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Assigns splits discovered by {@link LakeSoulAllPartitionDynamicSplitEnumerator} to subtasks, balancing the bytes
+ * read by each subtask.
+ *
+ * <p>Without hash buckets, rows of different splits need no order, so any subtask may read any split and the
+ * largest pending split is handed out first.
+ *
+ * <p>With hash buckets, all splits of a bucket are read in discovery order by the same subtask, so that changes of
+ * a primary key are emitted in order. A bucket is pinned to its subtask the first time it has splits to read:
+ * bucket i to subtask i if there are no more buckets than subtasks, otherwise to the subtask with the least bytes
+ * assigned and pinned so far. The pinning is kept in enumerator state. Enumerator state written before the pinning
+ * was kept has no owners, so after restoring it every bucket i is pinned to subtask i modulo parallelism, as buckets
+ * were read before, to keep reading the splits of a bucket in order.
+ */
 public class LakeSoulDynSplitAssigner {
-    private final HashMap<Integer, ArrayList<LakeSoulPartitionSplit>> splits;
+    // pending splits by bucket id in discovery order, for hash bucketed tables
+    private final HashMap<Integer, ArrayDeque<LakeSoulPartitionSplit>> splits;
+    // pending splits by descending size, for tables without hash bucket
+    private final PriorityQueue<LakeSoulPartitionSplit> unorderedSplits;
     private int hashBucketNum = -1;
 
+    private final HashMap<Integer, Integer> bucketOwners;
+    private int ownersParallelism;
+    // restored without owners, so buckets are pinned as they were before owners were kept
+    private boolean pinByBucketId = false;
+
+    private final Map<Integer, Long> assignedBytesBySubtask = new ConcurrentHashMap<>();
+    private volatile int parallelism;
+    private volatile long pendingSplitNum;
+    private volatile long pendingBytes;
+    private volatile long assignedSplitNum;
+    private volatile long assignedBytes;
+
     public LakeSoulDynSplitAssigner(Collection<LakeSoulPartitionSplit> splits, String hashBucketNum) {
+        this(splits, hashBucketNum, Collections.emptyMap(), -1);
+    }
+
+    /**
+     * Assigner restored from enumerator state.
+     *
+     * @param bucketOwners      restored subtask of each pinned bucket, empty for state written before owners were kept
+     * @param ownersParallelism parallelism of bucketOwners, -1 if there are none
+     */
+    public LakeSoulDynSplitAssigner(Collection<LakeSoulPartitionSplit> splits, String hashBucketNum,
+                                    Map<Integer, Integer> bucketOwners, int ownersParallelism) {
+        this(hashBucketNum);
+        this.bucketOwners.putAll(bucketOwners);
+        this.ownersParallelism = ownersParallelism;
+        this.pinByBucketId = bucketOwners.isEmpty() && ownersParallelism < 0;
+        addSplitsFromCollection(splits);
+    }
+
+    public LakeSoulDynSplitAssigner(String hashBucketNum) {
         this.hashBucketNum = Integer.valueOf(hashBucketNum);
         this.splits = new HashMap<>(100);
-        addSplitsFromCollection(splits);
+        this.unorderedSplits = new PriorityQueue<>(
+                Comparator.comparingLong((LakeSoulPartitionSplit split) -> sizeOf(split)).reversed());
+        this.bucketOwners = new HashMap<>();
+        this.ownersParallelism = -1;
+    }
+
+    private static long sizeOf(LakeSoulPartitionSplit split) {
+        return Math.max(split.getSize(), 0);
     }
 
     private void addSplitsFromCollection(Collection<LakeSoulPartitionSplit> splitsCol) {
-        if (splitsCol == null && splitsCol.size() == 0) {
+        if (splitsCol == null || splitsCol.isEmpty()) {
             return;
         }
         for (LakeSoulPartitionSplit lss : splitsCol) {
-            if (!this.splits.containsKey(lss.getBucketId())) {
-                this.splits.put(lss.getBucketId(), new ArrayList<>());
+            if (-1 == this.hashBucketNum) {
+                unorderedSplits.add(lss);
+            } else {
+                this.splits.computeIfAbsent(lss.getBucketId(), k -> new ArrayDeque<>()).add(lss);
             }
-            this.splits.get(lss.getBucketId()).add(lss);
+            pendingSplitNum++;
+            pendingBytes += sizeOf(lss);
         }
     }
 
-    public LakeSoulDynSplitAssigner(String hashBucketNum) {
-        this.hashBucketNum = Integer.valueOf(hashBucketNum);
-        this.splits = new HashMap<>(100);
-    }
-
-
-    public Optional<LakeSoulPartitionSplit> getNext(int taskId, int tasksNum) {
-        final int size = splits.size();
-        if (size > 0) {
-            if (-1 == this.hashBucketNum) {
-                Collection<ArrayList<LakeSoulPartitionSplit>> all = this.splits.values();
-                for (ArrayList<LakeSoulPartitionSplit> al : all) {
-                    if (al.size() > 0) {
-                        return Optional.of(al.remove(0));
+    /**
+     * @param taskId      subtask requesting a split
+     * @param parallelism parallelism of the source
+     */
+    public Optional<LakeSoulPartitionSplit> getNext(int taskId, int parallelism) {
+        this.parallelism = parallelism;
+        if (pendingSplitNum == 0) {
+            return Optional.empty();
+        }
+        LakeSoulPartitionSplit split;
+        if (-1 == this.hashBucketNum) {
+            split = unorderedSplits.poll();
+        } else {
+            if (parallelism != ownersParallelism) {
+                // buckets can not keep their subtasks when parallelism changes
+                bucketOwners.clear();
+                ownersParallelism = parallelism;
+                if (pinByBucketId) {
+                    for (int bucket = 0; bucket < this.hashBucketNum; bucket++) {
+                        bucketOwners.put(bucket, Math.floorMod(bucket, parallelism));
                     }
+                    pinByBucketId = false;
                 }
-                return Optional.empty();
-            } else {
-                if (this.hashBucketNum <= tasksNum) {
-                    ArrayList<LakeSoulPartitionSplit> taskSplits = this.splits.get(taskId);
-                    return (taskSplits == null || taskSplits.size() == 0) ? Optional.empty() : Optional.of(taskSplits.remove(0));
-                } else {
-                    for (int i = taskId; i < this.hashBucketNum; i += tasksNum) {
-                        ArrayList<LakeSoulPartitionSplit> splits = this.splits.get(i);
-                        if (splits != null && splits.size() > 0) {
-                            return Optional.of(splits.remove(0));
-                        }
-                    }
-                    return Optional.empty();
+            }
+            pinNewBuckets(parallelism);
+            split = null;
+            for (Map.Entry<Integer, ArrayDeque<LakeSoulPartitionSplit>> entry : splits.entrySet()) {
+                Integer owner = bucketOwners.get(entry.getKey());
+                if (!entry.getValue().isEmpty() && owner != null && owner == taskId) {
+                    split = entry.getValue().poll();
+                    break;
                 }
-
             }
-        } else {
+        }
+        if (split == null) {
             return Optional.empty();
         }
+        long size = sizeOf(split);
+        pendingSplitNum--;
+        pendingBytes -= size;
+        assignedSplitNum++;
+        assignedBytes += size;
+        assignedBytesBySubtask.merge(taskId, size, Long::sum);
+        return Optional.of(split);
+    }
+
+    private void pinNewBuckets(int parallelism) {
+        List<Integer> newBuckets = new ArrayList<>();
+        for (Map.Entry<Integer, ArrayDeque<LakeSoulPartitionSplit>> entry : splits.entrySet()) {
+            if (!entry.getValue().isEmpty() && !bucketOwners.containsKey(entry.getKey())) {
+                newBuckets.add(entry.getKey());
+            }
+        }
+        if (newBuckets.isEmpty()) {
+            return;
+        }
+        if (this.hashBucketNum <= parallelism) {
+            for (int bucket : newBuckets) {
+                bucketOwners.put(bucket, Math.floorMod(bucket, parallelism));
+            }
+            return;
+        }
+        // bytes assigned to and pending in pinned buckets of each subtask
+        long[] load = new long[parallelism];
+        for (Map.Entry<Integer, Long> entry : assignedBytesBySubtask.entrySet()) {
+            if (entry.getKey() < parallelism) {
+                load[entry.getKey()] += entry.getValue();
+            }
+        }
+        for (Map.Entry<Integer, Integer> entry : bucketOwners.entrySet()) {
+            load[entry.getValue()] += pendingBytesOf(entry.getKey());
+        }
+        // largest first, so that the remaining smaller buckets even out the load
+        newBuckets.sort(Comparator.comparingLong(this::pendingBytesOf).reversed());
+        for (int bucket : newBuckets) {
+            int owner = 0;
+            for (int i = 1; i < parallelism; i++) {
+                if (load[i] < load[owner]) {
+                    owner = i;
+                }
+            }
+            bucketOwners.put(bucket, owner);
+            load[owner] += pendingBytesOf(bucket);
+        }
+    }
 
+    private long pendingBytesOf(int bucket) {
+        ArrayDeque<LakeSoulPartitionSplit> bucketSplits = splits.get(bucket);
+        long bytes = 0;
+        if (bucketSplits != null) {
+            for (LakeSoulPartitionSplit split : bucketSplits) {
+                bytes += sizeOf(split);
+            }
+        }
+        return bytes;
     }
 
     public void addSplits(Collection<LakeSoulPartitionSplit> newSplits) {
@@ -72,15 +190,55 @@ public class LakeSoulDynSplitAssigner {
 
     public List<LakeSoulPartitionSplit> remainingSplits() {
         ArrayList<LakeSoulPartitionSplit> als = new ArrayList<>(100);
-        for (ArrayList al : this.splits.values()) {
+        for (ArrayDeque<LakeSoulPartitionSplit> al : this.splits.values()) {
             als.addAll(al);
         }
+        als.addAll(unorderedSplits);
         return als;
     }
 
+    public Map<Integer, Integer> getBucketOwners() {
+        return new HashMap<>(bucketOwners);
+    }
+
+    public int getOwnersParallelism() {
+        return ownersParallelism;
+    }
+
+    public long getPendingSplitNum() {
+        return pendingSplitNum;
+    }
+
+    public long getPendingBytes() {
+        return pendingBytes;
+    }
+
+    public long getAssignedSplitNum() {
+        return assignedSplitNum;
+    }
+
+    public long getAssignedBytes() {
+        return assignedBytes;
+    }
+
+    public long getMaxSubtaskAssignedBytes() {
+        return assignedBytesBySubtask.values().stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
+    /**
+     * @return least bytes assigned to a subtask, counting subtasks never assigned a split
+     */
+    public long getMinSubtaskAssignedBytes() {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < parallelism; i++) {
+            min = Math.min(min, assignedBytesBySubtask.getOrDefault(i, 0L));
+        }
+        return min == Long.MAX_VALUE ? 0 : min;
+    }
+
     @Override
     public String toString() {
-        return "LakeSoulDynSplitAssigner " + splits;
+        return "LakeSoulDynSplitAssigner " + splits + ", unordered " + unorderedSplits + ", owners " + bucketOwners;
     }
 
 }
@@ -6,13 +6,17 @@ package org.apache.flink.lakesoul.source;
 
 import com.dmetasoul.lakesoul.meta.DataFileInfo;
 import com.dmetasoul.lakesoul.meta.DataOperation;
+import com.dmetasoul.lakesoul.meta.LakeSoulOptions;
 import com.dmetasoul.lakesoul.meta.entity.TableInfo;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.MemorySize;
 import org.apache.flink.connector.file.table.PartitionFetcher;
 import org.apache.flink.connector.file.table.PartitionReader;
 import org.apache.flink.core.fs.Path;
 import org.apache.flink.lakesoul.connector.LakeSoulPartition;
 import org.apache.flink.lakesoul.connector.LakeSoulPartitionFetcherContextBase;
+import org.apache.flink.lakesoul.substrait.SubstraitFlinkUtil;
+import org.apache.flink.lakesoul.table.LakeSoulAsyncLookupFunction;
 import org.apache.flink.lakesoul.table.LakeSoulTableLookupFunction;
 import org.apache.flink.lakesoul.table.LakeSoulTableSource;
 import org.apache.flink.lakesoul.tool.FlinkUtil;
@@ -22,7 +26,9 @@ import org.apache.flink.table.catalog.ResolvedCatalogTable;
 import org.apache.flink.table.connector.source.DynamicTableSource;
 import org.apache.flink.table.connector.source.LookupTableSource;
 import org.apache.flink.table.connector.source.TableFunctionProvider;
+import org.apache.flink.table.connector.source.lookup.AsyncLookupFunctionProvider;
 import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.functions.AsyncLookupFunction;
 import org.apache.flink.table.functions.TableFunction;
 import org.apache.flink.table.types.DataType;
 import org.apache.flink.table.types.logical.RowType;
@@ -35,9 +41,12 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.dmetasoul.lakesoul.meta.DBConfig.LAKESOUL_RANGE_PARTITION_SPLITTER;
 import static org.apache.flink.lakesoul.tool.JobOptions.*;
@@ -50,6 +59,9 @@ public class LakeSoulLookupTableSource extends LakeSoulTableSource implements Lo
     protected List<String> partitionKeys;
     private Duration lakeSoulTableReloadInterval;
     private long maxCacheSize;
+    private boolean incrementalRefresh;
+    private MemorySize maxCacheMemory;
+    private boolean partialCache;
     private String cdcColumn;
 
     public LakeSoulLookupTableSource(TableId tableId,
@@ -92,13 +104,65 @@ public class LakeSoulLookupTableSource extends LakeSoulTableSource implements Lo
 
         lakeSoulTableReloadInterval = configuration.get(LOOKUP_JOIN_CACHE_TTL);
         maxCacheSize = configuration.get(LOOKUP_JOIN_CACHE_SIZE);
+        incrementalRefresh = configuration.get(LOOKUP_JOIN_CACHE_INCREMENTAL);
+        maxCacheMemory = configuration.getOptional(LOOKUP_JOIN_CACHE_MAX_MEMORY).orElse(null);
+        partialCache = configuration.get(LOOKUP_JOIN_CACHE_PARTIAL);
+        Preconditions.checkArgument(!partialCache || maxCacheMemory != null,
+                String.format("%s requires %s to be set",
+                        LOOKUP_JOIN_CACHE_PARTIAL.key(),
+                        LOOKUP_JOIN_CACHE_MAX_MEMORY.key()));
     }
 
     @Override
     public LookupRuntimeProvider getLookupRuntimeProvider(LookupContext context) {
+        if (configuration.get(LOOKUP_JOIN_PRIMARY_KEY_LOOKUP)) {
+            AsyncLookupFunction asyncLookupFunction = getPrimaryKeyLookupFunction(context.getKeys());
+            if (asyncLookupFunction != null) {
+                return AsyncLookupFunctionProvider.of(asyncLookupFunction);
+            }
+        }
         return TableFunctionProvider.of(getLookupFunction(context.getKeys()));
     }
 
+    /**
+     * @return async function looking up keys in their hash buckets, or null if the lookup keys are not
+     * exactly the primary keys of a hash bucketed table
+     */
+    private AsyncLookupFunction getPrimaryKeyLookupFunction(int[][] keys) {
+        RowType rowType = readFieldsAddPk(this.cdcColumn);
+        int hashBucketNum = Integer.parseInt(optionParams.getOrDefault(LakeSoulOptions.HASH_BUCKET_NUM(), "-1"));
+        int[] keyIndices = new int[keys.length];
+        Set<String> keyNames = new HashSet<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].length > 1) {
+                return null;
+            }
+            keyIndices[i] = keys[i][0];
+            keyNames.add(rowType.getFieldNames().get(keyIndices[i]));
+        }
+        boolean pushable = Arrays.stream(keyIndices)
+                .allMatch(index -> SubstraitFlinkUtil.isEqualityPushable(rowType.getTypeAt(index)));
+        if (hashBucketNum <= 0 || pkColumns.isEmpty() || !keyNames.equals(new HashSet<>(pkColumns)) || !pushable) {
+            LOG.warn("Lookup keys {} of {} are not the hash primary keys {}, fall back to caching the table",
+                    keyNames, tableId, pkColumns);
+            return null;
+        }
+        MemorySize cacheMemory = maxCacheMemory != null ? maxCacheMemory : MemorySize.ofMebiBytes(64);
+        LOG.info("Create primary key lookup function, table {}, pk {}, buckets {}", tableId, pkColumns, hashBucketNum);
+        return new LakeSoulAsyncLookupFunction(tableId,
+                configuration,
+                rowType,
+                keyIndices,
+                pkColumns,
+                partitionKeys,
+                cdcColumn,
+                hashBucketNum,
+                lakeSoulTableReloadInterval,
+                cacheMemory.getBytes(),
+                configuration.get(LOOKUP_JOIN_ASYNC_THREADS),
+                configuration.get(LOOKUP_JOIN_ASYNC_MAX_BATCH_SIZE));
+    }
+
     public TableFunction<RowData> getLookupFunction(int[][] keys) {
         int[] keyIndices = new int[keys.length];
         int i = 0;
@@ -209,15 +273,40 @@ public class LakeSoulLookupTableSource extends LakeSoulTableSource implements Lo
                         this.pkColumns,
                         this.cdcColumn);
 
-        return new LakeSoulTableLookupFunction<>(
+        // latest partition mode switches partitions between reloads, which can only be done by full reload
+        PartitionReader<LakeSoulPartition, RowData> deltaReader = null;
+        if (incrementalRefresh && !pkColumns.isEmpty() && !(isStreamingSource() && isReadingLatest())) {
+            deltaReader = new LakeSoulPartitionReader(this.configuration,
+                    tableId,
+                    readFieldsAddPk(this.cdcColumn),
+                    this.pkColumns,
+                    this.cdcColumn,
+                    false);
+        }
+
+        LakeSoulTableLookupFunction<LakeSoulPartition> lookupFunction = new LakeSoulTableLookupFunction<>(
                 tableId,
                 partitionFetcher,
                 fetcherContext,
                 partitionReader,
+                deltaReader,
                 readFieldsAddPk(this.cdcColumn),
                 keys,
+                partitionKeys,
+                pkColumns,
+                cdcColumn,
                 lakeSoulTableReloadInterval,
                 maxCacheSize);
+        if (maxCacheMemory != null) {
+            LakeSoulPartitionReader pointReader = partialCache ?
+                    new LakeSoulPartitionReader(this.configuration,
+                            tableId,
+                            readFieldsAddPk(this.cdcColumn),
+                            this.pkColumns,
+                            this.cdcColumn) : null;
+            lookupFunction.enableBinaryCache(maxCacheMemory.getBytes(), pointReader);
+        }
+        return lookupFunction;
     }
 
     protected List<String> getPartitionKeys() {
@@ -6,16 +6,20 @@ package org.apache.flink.lakesoul.source;
 
 import com.dmetasoul.lakesoul.LakeSoulArrowReader;
 import com.dmetasoul.lakesoul.lakesoul.io.NativeIOReader;
+import com.dmetasoul.lakesoul.lakesoul.io.substrait.SubstraitUtil;
 import com.dmetasoul.lakesoul.meta.DBUtil;
 import io.substrait.proto.Plan;
 import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VarCharVector;
 import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.connector.base.source.reader.RecordsWithSplitIds;
 import org.apache.flink.core.fs.Path;
+import org.apache.flink.lakesoul.substrait.SubstraitFlinkUtil;
 import org.apache.flink.lakesoul.tool.FlinkUtil;
+import org.apache.flink.table.data.GenericRowData;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.data.StringData;
 import org.apache.flink.table.runtime.arrow.ArrowReader;
@@ -50,6 +54,14 @@ public class LakeSoulOneSplitRecordsReader implements RecordsWithSplitIds<RowDat
 
     private final long skipRecords;
 
+    // indices of pk columns in projectedRowTypeWithPk, null if the merged output can't be positioned by them
+    private final int[] positionFields;
+
+    private final RowData.FieldGetter[] positionFieldGetters;
+
+    // records before the primary key position the native reader starts after, 0 if reading from the beginning
+    private long startRecord = 0;
+
     private final Set<String> finishedSplit;
     private final Schema partitionSchema;
 
@@ -61,7 +73,8 @@ public class LakeSoulOneSplitRecordsReader implements RecordsWithSplitIds<RowDat
 
     String cdcColumn;
 
-    RowData.FieldGetter cdcFieldGetter;
+    // index of cdc column in projectedRowTypeWithPk, -1 if there is none
+    private int cdcField = -1;
 
     private String splitId;
 
@@ -78,6 +91,10 @@ public class LakeSoulOneSplitRecordsReader implements RecordsWithSplitIds<RowDat
     // arrow batch -> row, with requested schema
     private ArrowReader curArrowReaderRequestedSchema;
 
+    // row kind of each row in current arrow batch by cdc column, null entry for a row to skip when bounded,
+    // null if there is no cdc column
+    private RowKind[] curRowKinds;
+
     private final Plan filter;
 
     private long totalRead = 0;
@@ -113,6 +130,10 @@ public class LakeSoulOneSplitRecordsReader implements RecordsWithSplitIds<RowDat
         this.partitionValues = DBUtil.parsePartitionDesc(split.getPartitionDesc());
         this.filter = filter;
         this.limit = conf.getLong(LIMIT, LIMIT.defaultValue());
+        this.positionFields = positionFields(projectedRowTypeWithPk, pkColumns);
+        this.positionFieldGetters = positionFields == null ? null : Arrays.stream(positionFields)
+                .mapToObj(i -> RowData.createFieldGetter(projectedRowTypeWithPk.getTypeAt(i), i))
+                .toArray(RowData.FieldGetter[]::new);
         initializeReader();
         recoverFromSkipRecord();
     }
@@ -136,8 +157,7 @@ public class LakeSoulOneSplitRecordsReader implements RecordsWithSplitIds<RowDat
         reader.setBatchSize(conf.get(BATCH_SIZE));
 
         if (!cdcColumn.isEmpty()) {
-            int cdcField = projectedRowTypeWithPk.getFieldIndex(cdcColumn);
-            cdcFieldGetter = RowData.createFieldGetter(new VarCharType(), cdcField);
+            cdcField = projectedRowTypeWithPk.getFieldIndex(cdcColumn);
         }
 
         for (Map.Entry<String, String> partition : this.partitionValues.entrySet()) {
@@ -148,6 +168,15 @@ public class LakeSoulOneSplitRecordsReader implements RecordsWithSplitIds<RowDat
             reader.addFilterProto(this.filter);
         }
 
+        if (positionFields != null && split.getPositionKey() != null && split.getPositionRecord() <= skipRecords) {
+            // rows of the merged output are sorted by primary key, so read on after the last checkpointed key
+            reader.addFilterProto(SubstraitUtil.substraitExprToProto(
+                    SubstraitFlinkUtil.greaterThanKeyFilter(projectedRowTypeWithPk, positionFields,
+                            positionKey(split.getPositionKey())),
+                    "position"));
+            startRecord = split.getPositionRecord();
+        }
+
         LOG.info("Initializing reader for split {}, pk={}, partitions={}," +
                         " actual read cols={}, cdc column={}, filter={}",
                 split,
@@ -186,20 +215,113 @@ public class LakeSoulOneSplitRecordsReader implements RecordsWithSplitIds<RowDat
         }
         this.curArrowReaderRequestedSchema =
                 ArrowUtils.createArrowReader(new VectorSchemaRoot(requestedVectors), projectedRowType);
+        if (cdcField >= 0) {
+            computeRowKinds();
+        }
+    }
+
+    // resolve row kinds of the whole batch from the cdc vector at once instead of reading the column row by row
+    private void computeRowKinds() {
+        int rowCount = currentVCR.getRowCount();
+        if (curRowKinds == null || curRowKinds.length < rowCount) {
+            curRowKinds = new RowKind[rowCount];
+        }
+        FieldVector vector = currentVCR.getVector(cdcField);
+        if (vector instanceof VarCharVector) {
+            VarCharVector operations = (VarCharVector) vector;
+            for (int i = 0; i < rowCount; i++) {
+                if (isBounded) {
+                    // batch read from cdc table should filter delete rows
+                    curRowKinds[i] = FlinkUtil.isCDCDelete(operations, i) ? null : RowKind.INSERT;
+                } else {
+                    curRowKinds[i] = FlinkUtil.operationToRowKind(operations, i);
+                }
+            }
+        } else {
+            RowData.FieldGetter cdcFieldGetter = RowData.createFieldGetter(new VarCharType(), cdcField);
+            for (int i = 0; i < rowCount; i++) {
+                StringData operation = (StringData) cdcFieldGetter.getFieldOrNull(this.curArrowReader.read(i));
+                if (isBounded) {
+                    curRowKinds[i] = FlinkUtil.isCDCDelete(operation) ? null : RowKind.INSERT;
+                } else {
+                    curRowKinds[i] = FlinkUtil.operationToRowKind(operation);
+                }
+            }
+        }
+    }
+
+    // pk columns whose order is the sort order of the merged output, or null if there are none
+    private static int[] positionFields(RowType rowType, List<String> pkColumns) {
+        if (pkColumns.isEmpty()) {
+            return null;
+        }
+        int[] fields = new int[pkColumns.size()];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = rowType.getFieldIndex(pkColumns.get(i));
+            if (fields[i] < 0 || !SubstraitFlinkUtil.isPrimaryKeyPositionable(rowType.getTypeAt(fields[i]))) {
+                return null;
+            }
+        }
+        return fields;
+    }
+
+    private RowData positionKey(List<String> values) {
+        GenericRowData key = new GenericRowData(positionFields.length);
+        for (int i = 0; i < positionFields.length; i++) {
+            String value = values.get(i);
+            switch (projectedRowTypeWithPk.getTypeAt(positionFields[i]).getTypeRoot()) {
+                case TINYINT:
+                    key.setField(i, Byte.parseByte(value));
+                    break;
+                case SMALLINT:
+                    key.setField(i, Short.parseShort(value));
+                    break;
+                case INTEGER:
+                case DATE:
+                    key.setField(i, Integer.parseInt(value));
+                    break;
+                case BIGINT:
+                    key.setField(i, Long.parseLong(value));
+                    break;
+                default:
+                    key.setField(i, StringData.fromString(value));
+            }
+        }
+        return key;
+    }
+
+    // all rows up to the last row of the current batch have been handed out, remember its primary key
+    private void updatePosition() {
+        int rowCount = currentVCR.getRowCount();
+        if (positionFields == null || rowCount == 0) {
+            return;
+        }
+        RowData last = this.curArrowReader.read(rowCount - 1);
+        List<String> key = new ArrayList<>(positionFields.length);
+        for (RowData.FieldGetter getter : positionFieldGetters) {
+            Object value = getter.getFieldOrNull(last);
+            if (value == null) {
+                return;
+            }
+            key.add(value.toString());
+        }
+        split.updatePosition(totalRead, key);
     }
 
     private void recoverFromSkipRecord() throws Exception {
-        LOG.info("Recover from skip record={} for split={}", skipRecords, split);
-        if (skipRecords > 0) {
+        // rows emitted after the position the reader starts from
+        long skipRows = skipRecords - startRecord;
+        LOG.info("Recover from skip record={}, position record={} for split={}", skipRecords, startRecord, split);
+        if (skipRows > 0) {
             long skipRowCount = 0;
-            while (skipRowCount <= skipRecords) {
+            while (skipRowCount <= skipRows) {
                 boolean hasNext = this.reader.hasNext();
                 if (!hasNext) {
                     close();
                     String error =
                             String.format("Encounter unexpected EOF in split=%s, skipRecords=%s, skipRowCount=%s",
                                     split,
-                                    skipRecords,
+                                    skipRows,
                                     skipRowCount);
                     LOG.error(error);
                     throw new IOException(error);
@@ -209,9 +331,10 @@ public class LakeSoulOneSplitRecordsReader implements RecordsWithSplitIds<RowDat
 
             }
             skipRowCount -= currentVCR.getRowCount();
-            curRecordIdx = (int) (skipRecords - skipRowCount);
+            curRecordIdx = (int) (skipRows - skipRowCount);
             totalRead = skipRecords;
         } else {
+            totalRead = startRecord;
             if (this.reader.hasNext()) {
                 this.currentVCR = this.reader.nextResultVectorSchemaRoot();
                 curRecordIdx = 0;
@@ -245,6 +368,7 @@ public class LakeSoulOneSplitRecordsReader implements RecordsWithSplitIds<RowDat
                 return null;
             }
             if (curRecordIdx >= currentVCR.getRowCount()) {
+                updatePosition();
                 if (this.reader.hasNext()) {
                     this.currentVCR = this.reader.nextResultVectorSchemaRoot();
                     makeCurrentArrowReader();
@@ -257,37 +381,30 @@ public class LakeSoulOneSplitRecordsReader implements RecordsWithSplitIds<RowDat
                 }
             }
 
-            RowData rd = null;
+            // row kind by default is insert
             RowKind rk = RowKind.INSERT;
-            int rowId = 0;
+            int rowId = -1;
 
             while (curRecordIdx < currentVCR.getRowCount()) {
-                rowId = curRecordIdx;
+                int idx = curRecordIdx;
                 curRecordIdx++;
-                // row kind by default is insert
-                rd = this.curArrowReader.read(rowId);
-                if (!cdcColumn.isEmpty()) {
-                    if (!this.isBounded) {
-                        // set rowkind according to cdc row kind field value
-                        rk = FlinkUtil.operationToRowKind((StringData) cdcFieldGetter.getFieldOrNull(rd));
-                        LOG.debug("Set RowKind to {}", rk);
-                    } else {
-                        if (FlinkUtil.isCDCDelete((StringData) cdcFieldGetter.getFieldOrNull(rd))) {
-                            // batch read from cdc table should filter delete rows
-                            rd = null;
-                            continue;
-                        }
+                if (curRowKinds != null) {
+                    rk = curRowKinds[idx];
+                    if (rk == null && this.isBounded) {
+                        // delete row of batch read from cdc table
+                        continue;
                     }
                 }
+                rowId = idx;
                 break;
             }
 
-            if (rd == null) {
+            if (rowId < 0) {
                 continue;
             }
 
             // we have get one valid row, return row with requested schema
-            rd = this.curArrowReaderRequestedSchema.read(rowId);
+            RowData rd = this.curArrowReaderRequestedSchema.read(rowId);
             // change rowkind if needed
             rd.setRowKind(rk);
             totalRead++;
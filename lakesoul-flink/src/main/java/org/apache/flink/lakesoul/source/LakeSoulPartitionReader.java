@@ -6,6 +6,7 @@ package org.apache.flink.lakesoul.source;
 
 import com.dmetasoul.lakesoul.LakeSoulArrowReader;
 import com.dmetasoul.lakesoul.lakesoul.io.NativeIOReader;
+import io.substrait.proto.Plan;
 import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.flink.configuration.Configuration;
@@ -50,11 +51,24 @@ public class LakeSoulPartitionReader implements PartitionReader<LakeSoulPartitio
     private List<LakeSoulPartition> partitions;
     private final String cdcColumn;
     private RowData.FieldGetter cdcFieldGetter;
+    private final boolean filterCdcDelete;
+    private transient Plan filter;
 
 
     public LakeSoulPartitionReader(Configuration conf, TableId tableId, RowType schema,
                                    List<String> primaryKeys,
                                    String cdcColumn) {
+        this(conf, tableId, schema, primaryKeys, cdcColumn, true);
+    }
+
+    /**
+     * @param filterCdcDelete whether to skip rows of cdc delete, false when the caller applies changes
+     *                        of newly committed files and has to see the deletes
+     */
+    public LakeSoulPartitionReader(Configuration conf, TableId tableId, RowType schema,
+                                   List<String> primaryKeys,
+                                   String cdcColumn,
+                                   boolean filterCdcDelete) {
         this.tableId = tableId;
         this.primaryKeys = primaryKeys;
         this.schema = schema;
@@ -63,12 +77,20 @@ public class LakeSoulPartitionReader implements PartitionReader<LakeSoulPartitio
         this.awaitTimeout = 10000;
         this.curPartitionId = -1;
         this.cdcColumn = cdcColumn;
+        this.filterCdcDelete = filterCdcDelete;
         if (cdcColumn != null && !cdcColumn.isEmpty()) {
             int cdcField = schema.getFieldIndex(cdcColumn);
             cdcFieldGetter = RowData.createFieldGetter(new VarCharType(), cdcField);
         }
     }
 
+    /**
+     * Sets the filter pushed down to native reader for partitions opened afterwards.
+     */
+    public void setFilter(@Nullable Plan filter) {
+        this.filter = filter;
+    }
+
     /**
      * Opens the reader with given partitions.
      *
@@ -105,7 +127,7 @@ public class LakeSoulPartitionReader implements PartitionReader<LakeSoulPartitio
         if (curArrowReader == null) return Optional.empty();
         RowData rd = curArrowReader.read(curRecordId);
         curRecordId++;
-        if (cdcColumn != null && !cdcColumn.isEmpty() && rd != null) {
+        if (filterCdcDelete && cdcColumn != null && !cdcColumn.isEmpty() && rd != null) {
             if (FlinkUtil.isCDCDelete((StringData) cdcFieldGetter.getFieldOrNull(rd))) {
                 // batch read from cdc table should filter delete rows
                 return nextRecord();
@@ -146,6 +168,9 @@ public class LakeSoulPartitionReader implements PartitionReader<LakeSoulPartitio
         if (primaryKeys != null) {
             nativeIOReader.setPrimaryKeys(primaryKeys);
         }
+        if (filter != null) {
+            nativeIOReader.addFilterProto(filter);
+        }
         Schema arrowSchema = ArrowUtils.toArrowSchema(schema);
         FlinkUtil.setIOConfigs(conf, nativeIOReader);
         nativeIOReader.setSchema(arrowSchema);
@@ -26,6 +26,13 @@ public class LakeSoulPartitionSplit implements SourceSplit, Serializable {
 
     private final String partitionDesc;
 
+    // records emitted before the last primary key position of the native reader, and the primary key there
+    private long positionRecord = 0;
+    private List<String> positionKey = null;
+
+    // total bytes of the files, -1 if unknown
+    private long size = -1;
+
     public LakeSoulPartitionSplit(String id, List<Path> files, long skipRecord, String partitionDesc) {
         assert id != null;
         this.id = id;
@@ -43,6 +50,19 @@ public class LakeSoulPartitionSplit implements SourceSplit, Serializable {
         this.partitionDesc = partitionDesc;
     }
 
+    public LakeSoulPartitionSplit(String id, List<Path> files, long skipRecord, int bucketId, String partitionDesc,
+                                  long positionRecord, List<String> positionKey) {
+        this(id, files, skipRecord, bucketId, partitionDesc);
+        this.positionRecord = positionRecord;
+        this.positionKey = positionKey;
+    }
+
+    public LakeSoulPartitionSplit(String id, List<Path> files, long skipRecord, int bucketId, String partitionDesc,
+                                  long positionRecord, List<String> positionKey, long size) {
+        this(id, files, skipRecord, bucketId, partitionDesc, positionRecord, positionKey);
+        this.size = size;
+    }
+
     @Override
     public String splitId() {
         return id;
@@ -60,6 +80,29 @@ public class LakeSoulPartitionSplit implements SourceSplit, Serializable {
         this.skipRecord++;
     }
 
+    /**
+     * Marks that the first record rows of the split are exactly the rows with primary key up to key, so that
+     * a restored reader can start after key instead of skipping all emitted rows.
+     */
+    public void updatePosition(long record, List<String> key) {
+        // only positions of already emitted rows may be restored from
+        if (record <= skipRecord) {
+            this.positionRecord = record;
+            this.positionKey = key;
+        }
+    }
+
+    public long getPositionRecord() {
+        return positionRecord;
+    }
+
+    /**
+     * @return primary key values as strings of the last position, or null if there is none
+     */
+    public List<String> getPositionKey() {
+        return positionKey;
+    }
+
     @Override
     public String toString() {
         return "LakeSoulSplit:" + id +
@@ -76,4 +119,11 @@ public class LakeSoulPartitionSplit implements SourceSplit, Serializable {
     public int getBucketId() {
         return this.bucketId;
     }
+
+    /**
+     * @return total bytes of the files, -1 if unknown
+     */
+    public long getSize() {
+        return size;
+    }
 }
@@ -4,7 +4,9 @@
 
 package org.apache.flink.lakesoul.source;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 public class LakeSoulPendingSplits {
 
@@ -24,13 +26,28 @@ public class LakeSoulPendingSplits {
     private final long discoverInterval;
     private final int hashBucketNum;
 
+    /**
+     * Subtask reading each hash bucket, for the parallelism in ownersParallelism
+     * For streaming only
+     */
+    private final Map<Integer, Integer> bucketOwners;
+    private final int ownersParallelism;
+
     public LakeSoulPendingSplits(List<LakeSoulPartitionSplit> splits, long lastReadTimestamp, String tableId, String parDesc, long discoverInterval, int hashBucketNum) {
+        this(splits, lastReadTimestamp, tableId, parDesc, discoverInterval, hashBucketNum, Collections.emptyMap(), -1);
+    }
+
+    public LakeSoulPendingSplits(List<LakeSoulPartitionSplit> splits, long lastReadTimestamp, String tableId,
+                                 String parDesc, long discoverInterval, int hashBucketNum,
+                                 Map<Integer, Integer> bucketOwners, int ownersParallelism) {
         this.splits = splits;
         this.lastReadTimestamp = lastReadTimestamp;
         this.tableId = tableId;
         this.parDesc = parDesc;
         this.discoverInterval = discoverInterval;
         this.hashBucketNum = hashBucketNum;
+        this.bucketOwners = bucketOwners;
+        this.ownersParallelism = ownersParallelism;
     }
 
     public List<LakeSoulPartitionSplit> getSplits() {
@@ -57,10 +74,19 @@ public class LakeSoulPendingSplits {
         return hashBucketNum;
     }
 
+    public Map<Integer, Integer> getBucketOwners() {
+        return bucketOwners;
+    }
+
+    public int getOwnersParallelism() {
+        return ownersParallelism;
+    }
+
     @Override
     public String toString() {
         return "LakeSoulPendingSplits{" + "splits=" + splits + ", lastReadTimestamp=" + lastReadTimestamp +
                 ", tableid='" + tableId + '\'' + ", parDesc='" + parDesc + '\'' + ", discoverInterval=" +
-                discoverInterval + ", hashBucketNum=" + hashBucketNum + '}';
+                discoverInterval + ", hashBucketNum=" + hashBucketNum + ", bucketOwners=" + bucketOwners +
+                ", ownersParallelism=" + ownersParallelism + '}';
     }
 }
@@ -4,6 +4,7 @@
 
 package org.apache.flink.lakesoul.source;
 
+import com.dmetasoul.lakesoul.lakesoul.io.substrait.SubstraitFileStatsFilter;
 import com.dmetasoul.lakesoul.meta.DBUtil;
 import com.dmetasoul.lakesoul.meta.DataFileInfo;
 import com.dmetasoul.lakesoul.meta.DataOperation;
@@ -20,6 +21,8 @@ import org.apache.flink.core.io.SimpleVersionedSerializer;
 import org.apache.flink.lakesoul.tool.FlinkUtil;
 import org.apache.flink.lakesoul.types.TableId;
 import org.apache.flink.table.types.logical.RowType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 import java.time.LocalDateTime;
@@ -30,10 +33,12 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.stream.Collectors;
 
 public abstract class LakeSoulSource<OUT>
     implements Source<OUT, LakeSoulPartitionSplit, LakeSoulPendingSplits> {
   private static final long serialVersionUID = 7549443472589852334L;
+  private static final Logger LOG = LoggerFactory.getLogger(LakeSoulSource.class);
   final TableId tableId;
 
   protected final RowType projectedRowType;
@@ -114,7 +119,10 @@ public abstract class LakeSoulSource<OUT>
           tableInfo.getTableId(),
           optionParams.getOrDefault(LakeSoulOptions.HASH_BUCKET_NUM(), "-1"),
           partitionColumns,
-          partitionFilters);
+          partitionFilters,
+          isPartitionChangeFeedEnabled(),
+          getPartitionChangeFeedOverlapMs(),
+          getSplitMaxBytes());
 
     } else {
       return staticSplitEnumerator(
@@ -157,6 +165,7 @@ public abstract class LakeSoulSource<OUT>
                     readType)));
       }
     }
+    dataFileInfoList = skipByFileStats(dataFileInfoList);
     int capacity = 100;
     ArrayList<LakeSoulPartitionSplit> splits = new ArrayList<>(capacity);
     if (!FlinkUtil.isExistHashPartition(tableInfo)) {
@@ -183,6 +192,30 @@ public abstract class LakeSoulSource<OUT>
     return new LakeSoulStaticSplitEnumerator(enumContext, new LakeSoulSimpleSplitAssigner(splits));
   }
 
+  /**
+   * Drops files whose column statistics show they have no rows matching the pushed filter. Files of primary key
+   * tables are merged on read, so only predicates on primary keys are used for them.
+   */
+  private List<DataFileInfo> skipByFileStats(List<DataFileInfo> dataFileInfoList) {
+    SubstraitFileStatsFilter statsFilter =
+        new SubstraitFileStatsFilter(pushedFilter, pkColumns.isEmpty() ? null : pkColumns);
+    if (statsFilter.isEmpty()) {
+      return dataFileInfoList;
+    }
+    List<DataFileInfo> result =
+        dataFileInfoList.stream()
+            .filter(dataFileInfo -> statsFilter.mayMatch(dataFileInfo.file_stats()))
+            .collect(Collectors.toList());
+    if (result.size() < dataFileInfoList.size()) {
+      LOG.info(
+          "Skipped {} of {} files of table {} by file stats",
+          dataFileInfoList.size() - result.size(),
+          dataFileInfoList.size(),
+          tableId);
+    }
+    return result;
+  }
+
   private DataFileInfo[] getTargetDataFileInfo(TableInfo tableInfo) {
     return FlinkUtil.getTargetDataFileInfo(tableInfo, this.remainingPartitions);
   }
@@ -211,14 +244,35 @@ public abstract class LakeSoulSource<OUT>
     return new LakeSoulAllPartitionDynamicSplitEnumerator(
         enumContext,
         new LakeSoulDynSplitAssigner(
-            checkpoint.getSplits(), String.valueOf(checkpoint.getHashBucketNum())),
+            checkpoint.getSplits(),
+            String.valueOf(checkpoint.getHashBucketNum()),
+            checkpoint.getBucketOwners(),
+            checkpoint.getOwnersParallelism()),
         this.tableRowType,
         checkpoint.getDiscoverInterval(),
         checkpoint.getLastReadTimestamp(),
         checkpoint.getTableId(),
         String.valueOf(checkpoint.getHashBucketNum()),
         this.partitionColumns,
-        this.partitionFilters);
+        this.partitionFilters,
+        isPartitionChangeFeedEnabled(),
+        getPartitionChangeFeedOverlapMs(),
+        getSplitMaxBytes());
+  }
+
+  private long getSplitMaxBytes() {
+    return Long.parseLong(
+        optionParams.getOrDefault(LakeSoulOptions.SPLIT_MAX_BYTES(), String.valueOf(256L * 1024 * 1024)));
+  }
+
+  private long getPartitionChangeFeedOverlapMs() {
+    return Long.parseLong(
+        optionParams.getOrDefault(LakeSoulOptions.PARTITION_CHANGE_FEED_OVERLAP_MS(), "60000"));
+  }
+
+  private boolean isPartitionChangeFeedEnabled() {
+    return Boolean.parseBoolean(
+        optionParams.getOrDefault(LakeSoulOptions.PARTITION_CHANGE_FEED(), "false"));
   }
 
   @Override
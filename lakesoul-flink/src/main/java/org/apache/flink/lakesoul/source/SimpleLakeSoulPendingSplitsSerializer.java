@@ -11,13 +11,14 @@ import org.apache.flink.core.memory.DataOutputSerializer;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 public class SimpleLakeSoulPendingSplitsSerializer implements SimpleVersionedSerializer<LakeSoulPendingSplits> {
     private static final ThreadLocal<DataOutputSerializer> SERIALIZER_CACHE =
             ThreadLocal.withInitial(() -> new DataOutputSerializer(64));
-    private static final int VERSION = 2;
+    private static final int VERSION = 3;
 
     @Override
     public int getVersion() {
@@ -40,11 +41,18 @@ public class SimpleLakeSoulPendingSplitsSerializer implements SimpleVersionedSer
             out.writeLong(split.getSkipRecord());
             out.writeInt(split.getBucketId());
             out.writeUTF(split.getPartitionDesc());
+            out.writeLong(split.getSize());
         }
         out.writeUTF(splits.getTableId());
         out.writeUTF(splits.getParDesc());
         out.writeLong(splits.getDiscoverInterval());
         out.writeInt(splits.getHashBucketNum());
+        out.writeInt(splits.getOwnersParallelism());
+        out.writeInt(splits.getBucketOwners().size());
+        for (Map.Entry<Integer, Integer> owner : splits.getBucketOwners().entrySet()) {
+            out.writeInt(owner.getKey());
+            out.writeInt(owner.getValue());
+        }
         final byte[] result = out.getCopyOfBuffer();
         out.clear();
         return result;
@@ -52,7 +60,7 @@ public class SimpleLakeSoulPendingSplitsSerializer implements SimpleVersionedSer
 
     @Override
     public LakeSoulPendingSplits deserialize(int version, byte[] serialized) throws IOException {
-        if (version == 2) {
+        if (version == 2 || version == 3) {
             final DataInputDeserializer in = new DataInputDeserializer(serialized);
             final long startReadTime = in.readLong();
             final int splitSize = in.readInt();
@@ -68,13 +76,26 @@ public class SimpleLakeSoulPendingSplitsSerializer implements SimpleVersionedSer
                 final long skipRecord = in.readLong();
                 final int bucketID = in.readInt();
                 final String partitionDesc = in.readUTF();
-                lsplits[j] = new LakeSoulPartitionSplit(id, Arrays.asList(paths), skipRecord, bucketID, partitionDesc);
+                // size is not recorded before version 3
+                final long splitSize = version >= 3 ? in.readLong() : -1;
+                lsplits[j] = new LakeSoulPartitionSplit(id, Arrays.asList(paths), skipRecord, bucketID, partitionDesc,
+                        0, null, splitSize);
             }
             final String tableid = in.readUTF();
             final String parDesc = in.readUTF();
             final long discoverInterval = in.readLong();
             final int hashBucketNum = in.readInt();
-            return new LakeSoulPendingSplits(Arrays.asList(lsplits), startReadTime, tableid, parDesc, discoverInterval, hashBucketNum);
+            if (version == 2) {
+                return new LakeSoulPendingSplits(Arrays.asList(lsplits), startReadTime, tableid, parDesc, discoverInterval, hashBucketNum);
+            }
+            final int ownersParallelism = in.readInt();
+            final int ownerNum = in.readInt();
+            final Map<Integer, Integer> bucketOwners = new HashMap<>(ownerNum);
+            for (int i = 0; i < ownerNum; i++) {
+                bucketOwners.put(in.readInt(), in.readInt());
+            }
+            return new LakeSoulPendingSplits(Arrays.asList(lsplits), startReadTime, tableid, parDesc, discoverInterval,
+                    hashBucketNum, bucketOwners, ownersParallelism);
         }
         throw new IOException("Unknown version: " + version);
     }
@@ -10,13 +10,14 @@ import org.apache.flink.core.memory.DataInputDeserializer;
 import org.apache.flink.core.memory.DataOutputSerializer;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 public class SimpleLakeSoulSerializer implements SimpleVersionedSerializer<LakeSoulPartitionSplit> {
     private static final ThreadLocal<DataOutputSerializer> SERIALIZER_CACHE =
             ThreadLocal.withInitial(() -> new DataOutputSerializer(64));
-    private static final int VERSION = 1;
+    private static final int VERSION = 3;
 
     @Override
     public int getVersion() {
@@ -36,6 +37,15 @@ public class SimpleLakeSoulSerializer implements SimpleVersionedSerializer<LakeS
         out.writeLong(split.getSkipRecord());
         out.writeInt(split.getBucketId());
         out.writeUTF(split.getPartitionDesc());
+        out.writeLong(split.getPositionRecord());
+        List<String> positionKey = split.getPositionKey();
+        out.writeInt(positionKey == null ? -1 : positionKey.size());
+        if (positionKey != null) {
+            for (String value : positionKey) {
+                out.writeUTF(value);
+            }
+        }
+        out.writeLong(split.getSize());
         final byte[] result = out.getCopyOfBuffer();
         out.clear();
         return result;
@@ -44,7 +54,7 @@ public class SimpleLakeSoulSerializer implements SimpleVersionedSerializer<LakeS
 
     @Override
     public LakeSoulPartitionSplit deserialize(int version, byte[] serialized) throws IOException {
-        if (version == 1) {
+        if (version >= 1 && version <= 3) {
             final DataInputDeserializer in = new DataInputDeserializer(serialized);
 
             final String id = in.readUTF();
@@ -57,7 +67,22 @@ public class SimpleLakeSoulSerializer implements SimpleVersionedSerializer<LakeS
             final long skipRecord = in.readLong();
             final int bucketid = in.readInt();
             final String partitionDesc = in.readUTF();
-            return new LakeSoulPartitionSplit(id, Arrays.asList(paths), skipRecord, bucketid, partitionDesc);
+            if (version == 1) {
+                return new LakeSoulPartitionSplit(id, Arrays.asList(paths), skipRecord, bucketid, partitionDesc);
+            }
+            final long positionRecord = in.readLong();
+            final int keySize = in.readInt();
+            List<String> positionKey = null;
+            if (keySize >= 0) {
+                positionKey = new ArrayList<>(keySize);
+                for (int i = 0; i < keySize; i++) {
+                    positionKey.add(in.readUTF());
+                }
+            }
+            // size is not recorded before version 3
+            final long splitSize = version >= 3 ? in.readLong() : -1;
+            return new LakeSoulPartitionSplit(id, Arrays.asList(paths), skipRecord, bucketid, partitionDesc,
+                    positionRecord, positionKey, splitSize);
         }
         throw new IOException("Unknown version: " + version);
     }
@@ -1,6 +1,12 @@
 package org.apache.flink.lakesoul.substrait;
 
+import com.dmetasoul.lakesoul.lakesoul.io.substrait.SubstraitUtil;
 import io.substrait.expression.Expression;
+import io.substrait.expression.FieldReference;
+import io.substrait.type.Type;
+import io.substrait.type.TypeCreator;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.table.connector.source.abilities.SupportsFilterPushDown;
@@ -8,8 +14,16 @@ import org.apache.flink.table.expressions.CallExpression;
 import org.apache.flink.table.expressions.FieldReferenceExpression;
 import org.apache.flink.table.expressions.ResolvedExpression;
 import org.apache.flink.table.expressions.ValueLiteralExpression;
+import org.apache.flink.table.data.DecimalData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
 import org.apache.flink.table.functions.BuiltInFunctionDefinition;
+import org.apache.flink.table.runtime.arrow.ArrowUtils;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
 
+import javax.annotation.Nullable;
+import java.io.IOException;
 import java.util.*;
 
 import static com.dmetasoul.lakesoul.lakesoul.io.substrait.SubstraitUtil.and;
@@ -115,4 +129,121 @@ public class SubstraitFlinkUtil {
         }
         return fieldNames;
     }
-}
\ No newline at end of file
+
+    // types whose internal values convert to substrait literals without time zone or precision concerns
+    public static boolean isEqualityPushable(LogicalType type) {
+        switch (type.getTypeRoot()) {
+            case CHAR:
+            case VARCHAR:
+            case BOOLEAN:
+            case BINARY:
+            case VARBINARY:
+            case DECIMAL:
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+            case FLOAT:
+            case DOUBLE:
+            case DATE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Build filter matching rows whose given fields equal any of the keys.
+     *
+     * @param rowType row type of the table
+     * @param fields  indices of the key fields in rowType, whose types must be {@link #isEqualityPushable}
+     * @param keys    keys in flink internal data format, with i-th field for fields[i]
+     * @return filter expression, or null if no row can match since every key contains null
+     */
+    @Nullable
+    public static Expression equalityFilter(RowType rowType, int[] fields, List<RowData> keys) throws IOException {
+        Schema arrowSchema = ArrowUtils.toArrowSchema(rowType);
+        FieldReference[] fieldReferences = new FieldReference[fields.length];
+        Type[] fieldTypes = new Type[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            Field field = arrowSchema.getFields().get(fields[i]);
+            fieldReferences[i] = SubstraitUtil.arrowFieldToSubstraitField(field);
+            fieldTypes[i] = SubstraitUtil.arrowFieldToSubstraitType(field);
+        }
+        Expression combined = null;
+        for (RowData key : keys) {
+            Expression keyExpr = null;
+            for (int i = 0; i < fields.length; i++) {
+                if (key.isNullAt(i)) {
+                    // null never equals
+                    keyExpr = null;
+                    break;
+                }
+                Object value = toJavaValue(key, i, rowType.getTypeAt(fields[i]));
+                Expression eq = SubstraitUtil.makeBinary(fieldReferences[i],
+                        SubstraitUtil.anyToSubstraitLiteral(fieldTypes[i], value),
+                        SubstraitUtil.CompNamespace, "equal:any_any", TypeCreator.NULLABLE.BOOLEAN);
+                keyExpr = keyExpr == null ? eq : and(keyExpr, eq);
+            }
+            if (keyExpr != null) {
+                combined = combined == null ? keyExpr : SubstraitUtil.or(combined, keyExpr);
+            }
+        }
+        return combined;
+    }
+
+    // types whose substrait comparison orders like the primary key sort of the native merge
+    public static boolean isPrimaryKeyPositionable(LogicalType type) {
+        switch (type.getTypeRoot()) {
+            case CHAR:
+            case VARCHAR:
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+            case DATE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Build filter matching rows whose key is greater than the given key, comparing the fields in order.
+     *
+     * @param rowType row type of the table
+     * @param fields  indices of the key fields in rowType, whose types must be {@link #isPrimaryKeyPositionable}
+     * @param key     non null key in flink internal data format, with i-th field for fields[i]
+     * @return filter expression
+     */
+    public static Expression greaterThanKeyFilter(RowType rowType, int[] fields, RowData key) throws IOException {
+        Schema arrowSchema = ArrowUtils.toArrowSchema(rowType);
+        Expression combined = null;
+        Expression equalPrefix = null;
+        for (int i = 0; i < fields.length; i++) {
+            Field field = arrowSchema.getFields().get(fields[i]);
+            FieldReference fieldReference = SubstraitUtil.arrowFieldToSubstraitField(field);
+            Expression literal = SubstraitUtil.anyToSubstraitLiteral(SubstraitUtil.arrowFieldToSubstraitType(field),
+                    toJavaValue(key, i, rowType.getTypeAt(fields[i])));
+            Expression gt = SubstraitUtil.makeBinary(fieldReference, literal,
+                    SubstraitUtil.CompNamespace, "gt:any_any", TypeCreator.NULLABLE.BOOLEAN);
+            gt = equalPrefix == null ? gt : and(equalPrefix, gt);
+            combined = combined == null ? gt : SubstraitUtil.or(combined, gt);
+            Expression eq = SubstraitUtil.makeBinary(fieldReference, literal,
+                    SubstraitUtil.CompNamespace, "equal:any_any", TypeCreator.NULLABLE.BOOLEAN);
+            equalPrefix = equalPrefix == null ? eq : and(equalPrefix, eq);
+        }
+        return combined;
+    }
+
+    private static Object toJavaValue(RowData row, int pos, LogicalType type) {
+        Object value = RowData.createFieldGetter(type, pos).getFieldOrNull(row);
+        if (value instanceof StringData) {
+            return value.toString();
+        }
+        if (value instanceof DecimalData) {
+            return ((DecimalData) value).toBigDecimal();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,329 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.apache.flink.lakesoul.table;
+
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.binary.BinaryRowData;
+import org.apache.flink.table.data.binary.BinarySegmentUtils;
+import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
+import org.apache.flink.table.runtime.util.MurmurHashUtil;
+import org.apache.flink.table.types.logical.RowType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@link LookupCache} keeping rows as {@link BinaryRowData} bytes in off-heap memory pages, limited by bytes,
+ * so that a large build table neither fills the heap nor adds GC pressure.
+ *
+ * <p>Entries are appended to the pages one after another and linked into the buckets of a primitive hash
+ * index by their addresses, newest first. An entry holds either one row of a key ({@link #add}), or all rows
+ * of a key ({@link #put}) which shadows the older entries of the key. When all pages are used, an evicting
+ * cache recycles the oldest page, otherwise new entries are rejected. Addresses carry the generation of
+ * their page, so links into a recycled page are recognized as dead. Entries are aligned to 8 bytes, which leaves
+ * 29 bits of an address to the generation, so a link would only be mistaken for live after 2^29 recycles of its
+ * page.
+ */
+class BinaryLookupCache implements LookupCache {
+
+    private static final int MAX_PAGE_SIZE = 4 << 20;
+    private static final int MIN_PAGE_SIZE = 64 << 10;
+    private static final int MAX_PAGES = 0xFFFF;
+    private static final int INITIAL_BUCKETS = 1 << 10;
+
+    // entry header: next address(8), key hash(4), flags(4), key length(4), value length(4)
+    private static final int NEXT_OFFSET = 0;
+    private static final int HASH_OFFSET = 8;
+    private static final int FLAGS_OFFSET = 12;
+    private static final int KEY_LENGTH_OFFSET = 16;
+    private static final int VALUE_LENGTH_OFFSET = 20;
+    private static final int HEADER_SIZE = 24;
+
+    private static final int FLAG_COMPLETE = 1;
+    private static final long NULL_ADDRESS = -1L;
+
+    // address: generation(29) | page(16) | offset in 8 byte units(19)
+    private static final int ENTRY_ALIGNMENT = 8;
+    private static final int OFFSET_BITS = 19;
+    private static final int PAGE_BITS = 16;
+    private static final int GENERATION_MASK = (1 << (64 - PAGE_BITS - OFFSET_BITS)) - 1;
+
+    private final RowDataSerializer keySerializer;
+    private final RowDataSerializer rowSerializer;
+    private final int rowArity;
+    private final boolean evict;
+
+    private final int pageSize;
+    private final MemorySegment[] pages;
+    private final int[] pageUsed;
+    private final int[] pageEntries;
+    private final int[] pageGenerations;
+    private int currentPage = -1;
+    private int allocatedPages;
+
+    private long[] buckets;
+    private int numEntries;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private boolean closed;
+
+    /**
+     * @param keyType        row type of lookup keys
+     * @param rowType        row type of cached rows
+     * @param maxMemoryBytes max off-heap memory used by cached rows
+     * @param evict          whether to evict the oldest rows when memory is used up, instead of rejecting new rows
+     */
+    BinaryLookupCache(RowType keyType, RowType rowType, long maxMemoryBytes, boolean evict) {
+        this.keySerializer = new RowDataSerializer(keyType);
+        this.rowSerializer = new RowDataSerializer(rowType);
+        this.rowArity = rowType.getFieldCount();
+        this.evict = evict;
+        this.pageSize = (int) Math.max(MIN_PAGE_SIZE, Math.min(MAX_PAGE_SIZE, maxMemoryBytes / 16));
+        int numPages = (int) Math.min(MAX_PAGES, Math.max(2, maxMemoryBytes / pageSize));
+        this.pages = new MemorySegment[numPages];
+        this.pageUsed = new int[numPages];
+        this.pageEntries = new int[numPages];
+        this.pageGenerations = new int[numPages];
+        this.buckets = new long[INITIAL_BUCKETS];
+        Arrays.fill(buckets, NULL_ADDRESS);
+    }
+
+    @Override
+    public List<RowData> get(RowData key) {
+        byte[] keyBytes = toBytes(keySerializer, key);
+        MemorySegment keySegment = MemorySegmentFactory.wrap(keyBytes);
+        int hash = hash(keySegment, keyBytes.length);
+        lock.readLock().lock();
+        try {
+            if (closed) {
+                return null;
+            }
+            List<RowData> rows = null;
+            long address = buckets[hash & (buckets.length - 1)];
+            while (isLive(address)) {
+                MemorySegment page = pages[pageOf(address)];
+                int offset = offsetOf(address);
+                if (page.getInt(offset + HASH_OFFSET) == hash
+                        && page.getInt(offset + KEY_LENGTH_OFFSET) == keyBytes.length
+                        && page.equalTo(keySegment, offset + HEADER_SIZE, 0, keyBytes.length)) {
+                    if (rows == null) {
+                        rows = new ArrayList<>();
+                    }
+                    // older entries go first to keep the order rows were added in
+                    rows.addAll(0, readRows(page, offset + HEADER_SIZE + keyBytes.length));
+                    if ((page.getInt(offset + FLAGS_OFFSET) & FLAG_COMPLETE) != 0) {
+                        break;
+                    }
+                }
+                address = page.getLong(offset + NEXT_OFFSET);
+            }
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean add(RowData key, RowData row) {
+        List<RowData> rows = new ArrayList<>(1);
+        rows.add(row);
+        return append(key, rows, 0);
+    }
+
+    @Override
+    public boolean put(RowData key, List<RowData> rows) {
+        return append(key, rows, FLAG_COMPLETE);
+    }
+
+    private boolean append(RowData key, List<RowData> rows, int flags) {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return false;
+            }
+            byte[] keyBytes = toBytes(keySerializer, key);
+            List<byte[]> rowBytes = new ArrayList<>(rows.size());
+            int valueLength = 4;
+            for (RowData row : rows) {
+                byte[] bytes = toBytes(rowSerializer, row);
+                rowBytes.add(bytes);
+                valueLength += 4 + bytes.length;
+            }
+            int entrySize = entrySize(keyBytes.length, valueLength);
+            if (entrySize > pageSize || !reserve(entrySize)) {
+                return false;
+            }
+            if (numEntries >= buckets.length / 4 * 3) {
+                rehash(buckets.length * 2);
+            }
+
+            MemorySegment page = pages[currentPage];
+            int offset = pageUsed[currentPage];
+            int hash = hash(MemorySegmentFactory.wrap(keyBytes), keyBytes.length);
+            int bucket = hash & (buckets.length - 1);
+            page.putLong(offset + NEXT_OFFSET, buckets[bucket]);
+            page.putInt(offset + HASH_OFFSET, hash);
+            page.putInt(offset + FLAGS_OFFSET, flags);
+            page.putInt(offset + KEY_LENGTH_OFFSET, keyBytes.length);
+            page.putInt(offset + VALUE_LENGTH_OFFSET, valueLength);
+            int pos = offset + HEADER_SIZE;
+            page.put(pos, keyBytes, 0, keyBytes.length);
+            pos += keyBytes.length;
+            page.putInt(pos, rowBytes.size());
+            pos += 4;
+            for (byte[] bytes : rowBytes) {
+                page.putInt(pos, bytes.length);
+                pos += 4;
+                page.put(pos, bytes, 0, bytes.length);
+                pos += bytes.length;
+            }
+
+            buckets[bucket] = address(pageGenerations[currentPage], currentPage, offset);
+            pageUsed[currentPage] += entrySize;
+            pageEntries[currentPage]++;
+            numEntries++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // make room for an entry of size in current page, moving to the next page if needed
+    private boolean reserve(int size) {
+        if (currentPage >= 0 && pageUsed[currentPage] + size <= pageSize) {
+            return true;
+        }
+        int next = currentPage + 1;
+        if (next == pages.length) {
+            if (!evict) {
+                return false;
+            }
+            next = 0;
+        }
+        if (pages[next] == null) {
+            pages[next] = MemorySegmentFactory.allocateOffHeapUnsafeMemory(pageSize);
+            allocatedPages++;
+        } else {
+            // recycle the oldest page, links to its entries die with the generation change
+            pageGenerations[next] = (pageGenerations[next] + 1) & GENERATION_MASK;
+            numEntries -= pageEntries[next];
+            pageEntries[next] = 0;
+            pageUsed[next] = 0;
+        }
+        currentPage = next;
+        return true;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] newBuckets = new long[newCapacity];
+        Arrays.fill(newBuckets, NULL_ADDRESS);
+        int mask = newCapacity - 1;
+        // relink from the oldest page to the newest, so that chains stay newest first
+        int oldest = allocatedPages == pages.length ? (currentPage + 1) % pages.length : 0;
+        for (int i = 0; i < allocatedPages; i++) {
+            int pageIndex = (oldest + i) % pages.length;
+            MemorySegment page = pages[pageIndex];
+            int offset = 0;
+            while (offset < pageUsed[pageIndex]) {
+                int bucket = page.getInt(offset + HASH_OFFSET) & mask;
+                page.putLong(offset + NEXT_OFFSET, newBuckets[bucket]);
+                newBuckets[bucket] = address(pageGenerations[pageIndex], pageIndex, offset);
+                offset += entrySize(page.getInt(offset + KEY_LENGTH_OFFSET),
+                        page.getInt(offset + VALUE_LENGTH_OFFSET));
+            }
+        }
+        buckets = newBuckets;
+    }
+
+    private List<RowData> readRows(MemorySegment page, int pos) {
+        int count = page.getInt(pos);
+        pos += 4;
+        List<RowData> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int length = page.getInt(pos);
+            pos += 4;
+            // copied out of the page, since the page may be recycled while the row is still referenced
+            byte[] bytes = new byte[length];
+            page.get(pos, bytes, 0, length);
+            pos += length;
+            BinaryRowData row = new BinaryRowData(rowArity);
+            row.pointTo(MemorySegmentFactory.wrap(bytes), 0, length);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private boolean isLive(long address) {
+        return address != NULL_ADDRESS && pageGenerations[pageOf(address)] == generationOf(address);
+    }
+
+    private static int entrySize(int keyLength, int valueLength) {
+        int size = HEADER_SIZE + keyLength + valueLength;
+        return (size + ENTRY_ALIGNMENT - 1) & -ENTRY_ALIGNMENT;
+    }
+
+    private static long address(int generation, int page, int offset) {
+        return ((long) generation << (PAGE_BITS + OFFSET_BITS)) | ((long) page << OFFSET_BITS)
+                | (offset / ENTRY_ALIGNMENT);
+    }
+
+    private static int generationOf(long address) {
+        return (int) (address >>> (PAGE_BITS + OFFSET_BITS));
+    }
+
+    private static int pageOf(long address) {
+        return (int) (address >>> OFFSET_BITS) & ((1 << PAGE_BITS) - 1);
+    }
+
+    private static int offsetOf(long address) {
+        return (int) (address & ((1 << OFFSET_BITS) - 1)) * ENTRY_ALIGNMENT;
+    }
+
+    private static int hash(MemorySegment segment, int length) {
+        return MurmurHashUtil.hashBytes(segment, 0, length);
+    }
+
+    private static byte[] toBytes(RowDataSerializer serializer, RowData row) {
+        // serializer reuses its binary row, and keys are serialized by join and reload threads
+        synchronized (serializer) {
+            BinaryRowData binaryRow = serializer.toBinaryRow(row);
+            return BinarySegmentUtils.copyToBytes(
+                    binaryRow.getSegments(), binaryRow.getOffset(), binaryRow.getSizeInBytes());
+        }
+    }
+
+    long getUsedBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) allocatedPages * pageSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (int i = 0; i < pages.length; i++) {
+                if (pages[i] != null) {
+                    pages[i].free();
+                    pages[i] = null;
+                }
+            }
+            buckets = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
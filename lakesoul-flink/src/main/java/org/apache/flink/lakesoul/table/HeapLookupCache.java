@@ -0,0 +1,52 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.apache.flink.lakesoul.table;
+
+import org.apache.flink.table.data.RowData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link LookupCache} keeping rows as java objects, limited by number of keys.
+ */
+class HeapLookupCache implements LookupCache {
+
+    private final Map<RowData, List<RowData>> cache = new ConcurrentHashMap<>();
+
+    private final long maxSize;
+
+    HeapLookupCache(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public List<RowData> get(RowData key) {
+        return cache.get(key);
+    }
+
+    @Override
+    public boolean add(RowData key, RowData row) {
+        cache.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+        return cache.size() < maxSize;
+    }
+
+    @Override
+    public boolean put(RowData key, List<RowData> rows) {
+        // lists are replaced instead of modified, since they may be read by the join thread concurrently
+        if (rows.isEmpty()) {
+            cache.remove(key);
+        } else {
+            cache.put(key, rows);
+        }
+        return cache.size() < maxSize;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,346 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.apache.flink.lakesoul.table;
+
+import com.dmetasoul.lakesoul.lakesoul.io.substrait.SubstraitUtil;
+import com.dmetasoul.lakesoul.meta.DBUtil;
+import com.dmetasoul.lakesoul.meta.DataFileInfo;
+import com.dmetasoul.lakesoul.meta.DataOperation;
+import com.dmetasoul.lakesoul.meta.entity.TableInfo;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.lakesoul.connector.LakeSoulPartition;
+import org.apache.flink.lakesoul.source.LakeSoulPartitionReader;
+import org.apache.flink.lakesoul.substrait.SubstraitFlinkUtil;
+import org.apache.flink.lakesoul.tool.FlinkUtil;
+import org.apache.flink.lakesoul.tool.LakeSoulKeyGen;
+import org.apache.flink.lakesoul.types.TableId;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.functions.AsyncLookupFunction;
+import org.apache.flink.table.functions.FunctionContext;
+import org.apache.flink.table.runtime.typeutils.InternalSerializers;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Async lookup function for lookup joins on the whole primary key of a hash bucketed table.
+ *
+ * <p>Instead of preloading the table, a key is hashed to its bucket the same way as the sink does, and only
+ * the files of that bucket are read, with the requested keys pushed down as equality filter. Reads of a bucket
+ * are serialized, and requests to it arriving while it is being read are batched into its next read, up to
+ * maxBatchSize keys per read. Results are kept in an off-heap
+ * {@link BinaryLookupCache} which evicts the oldest rows when full. The file listing is refreshed and the
+ * cache dropped every reloadInterval.
+ */
+public class LakeSoulAsyncLookupFunction extends AsyncLookupFunction {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LakeSoulAsyncLookupFunction.class);
+
+    private static final long serialVersionUID = 2516327312349164125L;
+
+    private final TableId tableId;
+    private final Configuration conf;
+    private final RowType rowType;
+    private final int[] lookupKeys;
+    private final List<String> primaryKeys;
+    private final List<String> partitionKeys;
+    private final String cdcColumn;
+    private final int hashBucketNum;
+    private final Duration reloadInterval;
+    private final long cacheMaxMemory;
+    private final int numThreads;
+    private final int maxBatchSize;
+
+    private final RowData.FieldGetter[] keyFieldGetters;
+    private final RowData.FieldGetter[] rowKeyFieldGetters;
+    // position in lookup key of each primary key, in primary key order
+    private final int[] primaryKeyPositions;
+    private final LakeSoulKeyGen keyGen;
+    private final TypeSerializer<RowData> serializer;
+    private final RowType keyType;
+
+    private transient volatile LookupCache cache;
+    // partition desc -> bucket id -> files, refreshed on reload
+    private transient volatile Map<String, Map<Integer, List<Path>>> bucketFiles;
+    // bucket -> lookups not read yet, present while a read of the bucket is scheduled or running
+    private transient Map<Integer, List<PendingLookup>> pendingLookups;
+    private transient ExecutorService readExecutor;
+    private transient ScheduledExecutorService reloadExecutor;
+
+    public LakeSoulAsyncLookupFunction(TableId tableId,
+                                       Configuration conf,
+                                       RowType rowType,
+                                       int[] lookupKeys,
+                                       List<String> primaryKeys,
+                                       List<String> partitionKeys,
+                                       String cdcColumn,
+                                       int hashBucketNum,
+                                       Duration reloadInterval,
+                                       long cacheMaxMemory,
+                                       int numThreads,
+                                       int maxBatchSize) {
+        this.tableId = tableId;
+        this.conf = conf;
+        this.rowType = rowType;
+        this.lookupKeys = lookupKeys;
+        this.primaryKeys = primaryKeys;
+        this.partitionKeys = partitionKeys;
+        this.cdcColumn = cdcColumn;
+        this.hashBucketNum = hashBucketNum;
+        this.reloadInterval = reloadInterval;
+        this.cacheMaxMemory = cacheMaxMemory;
+        this.numThreads = numThreads;
+        this.maxBatchSize = maxBatchSize;
+
+        LogicalType[] keyTypes = new LogicalType[lookupKeys.length];
+        this.keyFieldGetters = new RowData.FieldGetter[lookupKeys.length];
+        this.rowKeyFieldGetters = new RowData.FieldGetter[lookupKeys.length];
+        for (int i = 0; i < lookupKeys.length; i++) {
+            keyTypes[i] = rowType.getTypeAt(lookupKeys[i]);
+            keyFieldGetters[i] = RowData.createFieldGetter(keyTypes[i], i);
+            rowKeyFieldGetters[i] = RowData.createFieldGetter(keyTypes[i], lookupKeys[i]);
+        }
+        this.keyType = RowType.of(keyTypes);
+
+        // hash in primary key order, as rows were routed to buckets by the sink
+        this.primaryKeyPositions = new int[primaryKeys.size()];
+        LogicalType[] primaryKeyTypes = new LogicalType[primaryKeys.size()];
+        for (int i = 0; i < primaryKeys.size(); i++) {
+            int field = rowType.getFieldIndex(primaryKeys.get(i));
+            for (int j = 0; j < lookupKeys.length; j++) {
+                if (lookupKeys[j] == field) {
+                    primaryKeyPositions[i] = j;
+                }
+            }
+            primaryKeyTypes[i] = rowType.getTypeAt(field);
+        }
+        this.keyGen = new LakeSoulKeyGen(RowType.of(primaryKeyTypes, primaryKeys.toArray(new String[0])),
+                primaryKeys.toArray(new String[0]));
+        this.serializer = InternalSerializers.create(rowType);
+    }
+
+    @Override
+    public void open(FunctionContext context) throws Exception {
+        super.open(context);
+        pendingLookups = new HashMap<>();
+        reload();
+        AtomicInteger threadId = new AtomicInteger();
+        readExecutor = Executors.newFixedThreadPool(numThreads, r -> {
+            Thread t = new Thread(r, "lakesoul-lookup-read-" + tableId + "-" + threadId.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+        reloadExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "lakesoul-lookup-reload-" + tableId);
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = reloadInterval.toMillis();
+        reloadExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                reload();
+            } catch (Exception e) {
+                // keep serving with the previous listing, retried at next interval
+                LOG.warn("Failed to refresh files of {} for lookup join", tableId, e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+        LOG.info("Opened primary key lookup for {}, pk {}, buckets {}, cache max memory {}, threads {}",
+                tableId, primaryKeys, hashBucketNum, cacheMaxMemory, numThreads);
+    }
+
+    private void reload() {
+        TableInfo tableInfo = DataOperation.dbManager().getTableInfoByNameAndNamespace(tableId.table(), tableId.schema());
+        if (tableInfo == null) {
+            throw new IllegalStateException("Table " + tableId + " does not exist");
+        }
+        DataFileInfo[] dataFileInfos = FlinkUtil.getTargetDataFileInfo(tableInfo, null);
+        bucketFiles = FlinkUtil.splitDataInfosToRangeAndHashPartition(tableInfo, dataFileInfos);
+        LookupCache previous = cache;
+        cache = new BinaryLookupCache(keyType, rowType, cacheMaxMemory, true);
+        if (previous != null) {
+            previous.close();
+        }
+        LOG.info("Listed {} file(s) in {} partition(s) of {} for lookup join",
+                dataFileInfos.length, bucketFiles.size(), tableId);
+    }
+
+    @Override
+    public CompletableFuture<Collection<RowData>> asyncLookup(RowData keyRow) {
+        GenericRowData key = new GenericRowData(lookupKeys.length);
+        for (int i = 0; i < lookupKeys.length; i++) {
+            key.setField(i, keyFieldGetters[i].getFieldOrNull(keyRow));
+        }
+        CompletableFuture<Collection<RowData>> future = new CompletableFuture<>();
+        List<RowData> cached = cache.get(key);
+        if (cached != null) {
+            future.complete(cached);
+            return future;
+        }
+        int bucket = getBucketId(key);
+        boolean schedule;
+        synchronized (pendingLookups) {
+            List<PendingLookup> pending = pendingLookups.get(bucket);
+            // a bucket being read already has its next read scheduled on completion, which picks this one up
+            schedule = pending == null;
+            if (schedule) {
+                pending = new ArrayList<>();
+                pendingLookups.put(bucket, pending);
+            }
+            pending.add(new PendingLookup(key, future));
+        }
+        if (schedule) {
+            readExecutor.execute(() -> readBucket(bucket));
+        }
+        return future;
+    }
+
+    private int getBucketId(RowData key) {
+        GenericRowData primaryKey = new GenericRowData(primaryKeyPositions.length);
+        for (int i = 0; i < primaryKeyPositions.length; i++) {
+            primaryKey.setField(i, keyFieldGetters[primaryKeyPositions[i]].getFieldOrNull(key));
+        }
+        return (int) Math.floorMod(keyGen.getRePartitionHash(primaryKey), (long) hashBucketNum);
+    }
+
+    private void readBucket(int bucket) {
+        List<PendingLookup> batch;
+        synchronized (pendingLookups) {
+            // the remaining lookups stay registered, so that the bucket is not read concurrently
+            List<PendingLookup> pending = pendingLookups.get(bucket);
+            List<PendingLookup> head = pending.subList(0, Math.min(maxBatchSize, pending.size()));
+            batch = new ArrayList<>(head);
+            head.clear();
+        }
+        try {
+            // rows read from files listed before a reload must not go into the cache of the reload
+            LookupCache readCache = cache;
+            Map<RowData, List<RowData>> results = new LinkedHashMap<>();
+            for (PendingLookup lookup : batch) {
+                results.put(lookup.key, new ArrayList<>());
+            }
+            for (RowData row : readRows(bucket, new ArrayList<>(results.keySet()))) {
+                List<RowData> rows = results.get(extractKey(row));
+                if (rows != null) {
+                    rows.add(row);
+                }
+            }
+            if (readCache == cache) {
+                // a cache closed by a concurrent reload ignores the rows
+                for (Map.Entry<RowData, List<RowData>> entry : results.entrySet()) {
+                    readCache.put(entry.getKey(), entry.getValue());
+                }
+            }
+            for (PendingLookup lookup : batch) {
+                lookup.future.complete(results.get(lookup.key));
+            }
+        } catch (Throwable t) {
+            LOG.error("Failed to read bucket {} of {} for {} key(s)", bucket, tableId, batch.size(), t);
+            for (PendingLookup lookup : batch) {
+                lookup.future.completeExceptionally(t);
+            }
+        } finally {
+            synchronized (pendingLookups) {
+                if (pendingLookups.get(bucket).isEmpty()) {
+                    pendingLookups.remove(bucket);
+                } else {
+                    readExecutor.execute(() -> readBucket(bucket));
+                }
+            }
+        }
+    }
+
+    private List<RowData> readRows(int bucket, List<RowData> keys) throws Exception {
+        List<LakeSoulPartition> partitions = new ArrayList<>();
+        for (Map.Entry<String, Map<Integer, List<Path>>> entry : bucketFiles.entrySet()) {
+            List<Path> paths = new ArrayList<>(entry.getValue().getOrDefault(bucket, Collections.emptyList()));
+            // files without bucket id in name may hold any key
+            paths.addAll(entry.getValue().getOrDefault(-1, Collections.emptyList()));
+            if (paths.isEmpty()) {
+                continue;
+            }
+            List<String> partitionValues = new ArrayList<>();
+            if (!partitionKeys.isEmpty()) {
+                LinkedHashMap<String, String> descMap = DBUtil.parsePartitionDesc(entry.getKey());
+                for (String partitionKey : partitionKeys) {
+                    partitionValues.add(descMap.get(partitionKey));
+                }
+            }
+            partitions.add(new LakeSoulPartition(tableId, paths, partitionKeys, partitionValues));
+        }
+        List<RowData> rows = new ArrayList<>();
+        io.substrait.proto.Plan filter = SubstraitUtil.substraitExprToProto(
+                SubstraitFlinkUtil.equalityFilter(rowType, lookupKeys, keys), tableId.table());
+        if (partitions.isEmpty() || filter == null) {
+            return rows;
+        }
+        LakeSoulPartitionReader reader = new LakeSoulPartitionReader(conf, tableId, rowType, primaryKeys, cdcColumn);
+        reader.setFilter(filter);
+        reader.open(partitions);
+        try {
+            RowData row;
+            while ((row = reader.read(null)) != null) {
+                rows.add(serializer.copy(row));
+            }
+        } finally {
+            reader.close();
+        }
+        return rows;
+    }
+
+    private RowData extractKey(RowData row) {
+        GenericRowData key = new GenericRowData(rowKeyFieldGetters.length);
+        for (int i = 0; i < rowKeyFieldGetters.length; i++) {
+            key.setField(i, rowKeyFieldGetters[i].getFieldOrNull(row));
+        }
+        return key;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (reloadExecutor != null) {
+            reloadExecutor.shutdownNow();
+            reloadExecutor = null;
+        }
+        if (readExecutor != null) {
+            readExecutor.shutdownNow();
+            readExecutor.awaitTermination(10, TimeUnit.SECONDS);
+            readExecutor = null;
+        }
+        if (cache != null) {
+            cache.close();
+            cache = null;
+        }
+        super.close();
+    }
+
+    private static class PendingLookup {
+        final RowData key;
+        final CompletableFuture<Collection<RowData>> future;
+
+        PendingLookup(RowData key, CompletableFuture<Collection<RowData>> future) {
+            this.key = key;
+            this.future = future;
+        }
+    }
+}
@@ -4,28 +4,67 @@
 
 package org.apache.flink.lakesoul.table;
 
+import com.dmetasoul.lakesoul.lakesoul.io.substrait.SubstraitUtil;
+import com.dmetasoul.lakesoul.meta.DBManager;
+import com.dmetasoul.lakesoul.meta.DBUtil;
+import com.dmetasoul.lakesoul.meta.DataOperation;
+import com.dmetasoul.lakesoul.meta.entity.CommitOp;
+import com.dmetasoul.lakesoul.meta.entity.DataCommitInfo;
+import com.dmetasoul.lakesoul.meta.entity.DataFileOp;
+import com.dmetasoul.lakesoul.meta.entity.FileOp;
+import com.dmetasoul.lakesoul.meta.entity.PartitionInfo;
+import com.dmetasoul.lakesoul.meta.entity.TableInfo;
+import com.dmetasoul.lakesoul.meta.entity.Uuid;
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.connector.file.table.PartitionFetcher;
 import org.apache.flink.connector.file.table.PartitionReader;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.lakesoul.connector.LakeSoulPartition;
+import org.apache.flink.lakesoul.source.LakeSoulPartitionReader;
+import org.apache.flink.lakesoul.substrait.SubstraitFlinkUtil;
+import org.apache.flink.lakesoul.tool.FlinkUtil;
 import org.apache.flink.lakesoul.types.TableId;
 import org.apache.flink.runtime.execution.SuppressRestartsException;
 import org.apache.flink.table.data.GenericRowData;
 import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
 import org.apache.flink.table.functions.FunctionContext;
 import org.apache.flink.table.functions.TableFunction;
 import org.apache.flink.table.runtime.typeutils.InternalSerializers;
+import org.apache.flink.table.types.logical.LogicalType;
 import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.VarCharType;
 import org.apache.flink.util.FlinkRuntimeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Lookup function which caches the whole LakeSoul table by lookup keys.
+ *
+ * <p>The cache is populated synchronously when the function is opened. Afterwards it is refreshed by a
+ * background thread every reloadInterval: a full reload builds a new cache and swaps it in atomically, so
+ * lookups are served from the previous cache in the meantime. When a delta reader is given, a refresh
+ * only reads files committed since the last refresh and applies them as upserts by primary key,
+ * falling back to a full reload when partitions are compacted, updated or deleted in between.
+ *
+ * <p>Rows are cached on heap by default, or in off-heap binary format with {@link #enableBinaryCache}.
+ */
 public class LakeSoulTableLookupFunction<P> extends TableFunction<RowData> {
 
     private static final Logger LOG = LoggerFactory.getLogger(LakeSoulTableLookupFunction.class);
@@ -34,12 +73,17 @@ public class LakeSoulTableLookupFunction<P> extends TableFunction<RowData> {
     private static final int MAX_RETRIES = 3;
     // interval between retries
     private static final Duration RETRY_INTERVAL = Duration.ofSeconds(5);
+    // partition_info.timestamp is the start time of committing transaction, which may be
+    // earlier than commits seen by previous refresh, so scan from a bit before the cursor
+    private static final long INCREMENTAL_CURSOR_OVERLAP_MS = 60_000L;
 
     private final long cacheMaxSize;
     private final TableId tableId;
 
     private final TypeSerializer<RowData> serializer;
 
+    private final int[] lookupKeys;
+
     private final RowData.FieldGetter[] lookupFieldGetters;
     private final Duration reloadInterval;
 
@@ -50,11 +94,45 @@ public class LakeSoulTableLookupFunction<P> extends TableFunction<RowData> {
 
     private final PartitionReader<P, RowData> partitionReader;
 
-    // cache for lookup data
-    private transient Map<RowData, List<RowData>> cache;
+    // reads newly committed files without filtering cdc deletes, null if incremental refresh is disabled
+    @Nullable
+    private PartitionReader<LakeSoulPartition, RowData> deltaReader;
+
+    private final List<String> partitionKeys;
+
+    // primary keys are only unique within a range partition, so rows are identified by both
+    private final RowData.FieldGetter[] primaryKeyFieldGetters;
+
+    @Nullable
+    private final RowData.FieldGetter cdcFieldGetter;
+
+    // max off-heap memory of binary cache, heap cache is used if not positive
+    private long cacheMaxMemory;
+
+    // reads rows of missed keys for partial cache, null if the whole table is cached
+    @Nullable
+    private LakeSoulPartitionReader pointReader;
+
+    // positions in lookup key of the fields pushed down to point reads
+    private int[] pointReadKeyPositions;
+
+    // cache for lookup data, replaced as a whole on full reload
+    private transient volatile LookupCache cache;
+
+    // partitions point reads go to, refreshed on reload
+    private transient volatile List<LakeSoulPartition> pointReadPartitions;
 
-    // timestamp when cache expires
-    private transient long nextLoadTime;
+    // primary key and range partition to lookup key of cached rows, only maintained for incremental refresh
+    private transient Map<RowData, RowData> primaryKeyIndex;
+
+    // partition versions the cache reflects, only maintained for incremental refresh
+    private transient Map<String, PartitionInfo> loadedPartitions;
+
+    private transient long partitionCursor;
+
+    private transient ScheduledExecutorService reloadExecutor;
+
+    private transient volatile RuntimeException reloadError;
 
     public LakeSoulTableLookupFunction(
             TableId tableId,
@@ -65,12 +143,30 @@ public class LakeSoulTableLookupFunction<P> extends TableFunction<RowData> {
             int[] lookupKeys,
             Duration reloadInterval,
             long cacheMaxSize) {
+        this(tableId, partitionFetcher, fetcherContext, partitionReader, null, rowType, lookupKeys,
+                Collections.emptyList(), Collections.emptyList(), "", reloadInterval, cacheMaxSize);
+    }
+
+    public LakeSoulTableLookupFunction(
+            TableId tableId,
+            PartitionFetcher<P> partitionFetcher,
+            PartitionFetcher.Context<P> fetcherContext,
+            PartitionReader<P, RowData> partitionReader,
+            @Nullable PartitionReader<LakeSoulPartition, RowData> deltaReader,
+            RowType rowType,
+            int[] lookupKeys,
+            List<String> partitionKeys,
+            List<String> primaryKeys,
+            String cdcColumn,
+            Duration reloadInterval,
+            long cacheMaxSize) {
         this.tableId = tableId;
         this.rowType = rowType;
         this.reloadInterval = reloadInterval;
         this.fetcherContext = fetcherContext;
         this.partitionFetcher = partitionFetcher;
         this.partitionReader = partitionReader;
+        this.lookupKeys = lookupKeys;
         this.lookupFieldGetters = new RowData.FieldGetter[lookupKeys.length];
         for (int i = 0; i < lookupKeys.length; i++) {
             lookupFieldGetters[i] =
@@ -78,20 +174,93 @@ public class LakeSoulTableLookupFunction<P> extends TableFunction<RowData> {
         }
         this.serializer = InternalSerializers.create(rowType);
         this.cacheMaxSize = cacheMaxSize;
+        this.partitionKeys = partitionKeys;
+        // upserts need primary keys to find the replaced rows
+        this.deltaReader = primaryKeys.isEmpty() ? null : deltaReader;
+        List<String> rowKeys = new ArrayList<>(primaryKeys);
+        for (String partitionKey : partitionKeys) {
+            if (!rowKeys.contains(partitionKey)) {
+                rowKeys.add(partitionKey);
+            }
+        }
+        this.primaryKeyFieldGetters = new RowData.FieldGetter[rowKeys.size()];
+        for (int i = 0; i < rowKeys.size(); i++) {
+            int index = rowType.getFieldIndex(rowKeys.get(i));
+            primaryKeyFieldGetters[i] = RowData.createFieldGetter(rowType.getTypeAt(index), index);
+        }
+        this.cdcFieldGetter = cdcColumn == null || cdcColumn.isEmpty() ? null :
+                RowData.createFieldGetter(new VarCharType(), rowType.getFieldIndex(cdcColumn));
+    }
+
+    /**
+     * Caches rows in binary format in at most maxMemoryBytes of off-heap memory instead of java heap.
+     *
+     * <p>With a point reader, the cache is partial: the table is not preloaded, rows of a missed key are read
+     * with an equality filter of the key pushed down, and the oldest rows are evicted when memory is used up.
+     * The lookup key must have at least one field that is not a partition column and has a type supported by
+     * {@link SubstraitFlinkUtil#isEqualityPushable}, otherwise the whole table is cached.
+     */
+    public void enableBinaryCache(long maxMemoryBytes, @Nullable LakeSoulPartitionReader pointReader) {
+        this.cacheMaxMemory = maxMemoryBytes;
+        if (pointReader == null) {
+            return;
+        }
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < lookupKeys.length; i++) {
+            String fieldName = rowType.getFieldNames().get(lookupKeys[i]);
+            if (!partitionKeys.contains(fieldName)
+                    && SubstraitFlinkUtil.isEqualityPushable(rowType.getTypeAt(lookupKeys[i]))) {
+                positions.add(i);
+            }
+        }
+        if (positions.isEmpty()) {
+            LOG.warn("No lookup key of {} can be pushed down to point read, cache the whole table instead", tableId);
+            return;
+        }
+        this.pointReader = pointReader;
+        this.pointReadKeyPositions = positions.stream().mapToInt(Integer::intValue).toArray();
+        // missed keys are read from current files, there is nothing to refresh incrementally
+        this.deltaReader = null;
     }
 
     @Override
     public void open(FunctionContext context) throws Exception {
         super.open(context);
-        cache = new HashMap<>();
-        nextLoadTime = -1L;
+        reloadError = null;
         fetcherContext.open();
+        LOG.info("Populating lookup join cache for {}, cache max size {}, max memory {}, partial {}, " +
+                        "interval {}, incremental {}",
+                tableId, cacheMaxSize, cacheMaxMemory, pointReader != null, reloadInterval, deltaReader != null);
+        reloadWithRetry(false);
+        reloadExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "lakesoul-lookup-reload-" + tableId);
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = reloadInterval.toMillis();
+        reloadExecutor.scheduleWithFixedDelay(this::reloadInBackground, interval, interval, TimeUnit.MILLISECONDS);
     }
 
     public void eval(Object... values) {
-        checkCacheReload();
+        if (reloadError != null) {
+            throw reloadError;
+        }
         RowData lookupKey = GenericRowData.of(values);
-        List<RowData> matchedRows = cache.get(lookupKey);
+        LookupCache current = cache;
+        List<RowData> matchedRows = current.get(lookupKey);
+        while (matchedRows == null && current != cache) {
+            // the cache was closed by a reload swapping in a new one
+            current = cache;
+            matchedRows = current.get(lookupKey);
+        }
+        if (matchedRows == null && pointReader != null) {
+            try {
+                matchedRows = pointRead(lookupKey);
+            } catch (IOException e) {
+                throw new FlinkRuntimeException(String.format("Failed to read key %s from %s", lookupKey, tableId), e);
+            }
+            current.put(lookupKey, matchedRows);
+        }
         if (matchedRows != null) {
             for (RowData matchedRow : matchedRows) {
                 collect(matchedRow);
@@ -99,51 +268,31 @@ public class LakeSoulTableLookupFunction<P> extends TableFunction<RowData> {
         }
     }
 
-    private void checkCacheReload() {
-        if (nextLoadTime > System.currentTimeMillis()) {
+    private void reloadInBackground() {
+        if (reloadError != null) {
             return;
         }
-        if (nextLoadTime > 0) {
-            LOG.info(
-                    "Lookup join cache for {} has expired after {}, reloading, cache max size {}",
-                    tableId,
-                    reloadInterval,
-                    cacheMaxSize);
-        } else {
-            LOG.info("Populating lookup join cache for {}, cache max size {}, interval {}",
-                    tableId,  cacheMaxSize, reloadInterval);
+        LOG.info("Lookup join cache for {} has expired after {}, reloading, cache max size {}",
+                tableId, reloadInterval, cacheMaxSize);
+        try {
+            reloadWithRetry(deltaReader != null);
+        } catch (RuntimeException e) {
+            // surfaced to the join operator on next lookup
+            reloadError = e;
         }
+    }
+
+    private void reloadWithRetry(boolean incremental) {
         int numRetry = 0;
-        // load data from lakesoul to cache
         while (true) {
-            cache.clear();
             try {
-                long count = 0;
-                GenericRowData reuse = new GenericRowData(rowType.getFieldCount());
-                partitionReader.
-                        open(partitionFetcher.fetch(fetcherContext));
-                RowData row;
-                while ((row = partitionReader.read(reuse)) != null) {
-                    count++;
-                    RowData rowData = serializer.copy(row);
-                    RowData key = extractLookupKey(rowData);
-                    List<RowData> rows = cache.computeIfAbsent(key, k -> new ArrayList<>());
-                    rows.add(rowData);
-
-                    if (cache.size() >= this.cacheMaxSize) {
-                        String err = String.format(
-                                "Lookup Cache for %s has too many rows than cache limit %s",
-                                tableId.toString(),
-                                cacheMaxSize);
-                        LOG.error(err);
-                        throw new SuppressRestartsException(new IllegalStateException(err));
-                    }
+                if (incremental && refreshIncrementally()) {
+                    return;
                 }
-                partitionReader.close();
-                nextLoadTime = System.currentTimeMillis() + reloadInterval.toMillis();
-                LOG.info("Loaded {} row(s) into lookup join cache for {}, next load time {}",
-                        count, tableId, nextLoadTime);
+                reloadFully();
                 return;
+            } catch (SuppressRestartsException e) {
+                throw e;
             } catch (Exception e) {
                 if (numRetry >= MAX_RETRIES) {
                     throw new SuppressRestartsException(new FlinkRuntimeException(
@@ -158,22 +307,326 @@ public class LakeSoulTableLookupFunction<P> extends TableFunction<RowData> {
                     Thread.sleep(toSleep);
                 } catch (InterruptedException ex) {
                     LOG.warn("Interrupted while waiting to retry failed cache load for {}, aborting", tableId, ex);
+                    Thread.currentThread().interrupt();
                     throw new FlinkRuntimeException(ex);
                 }
             }
         }
     }
 
-    private RowData extractLookupKey(RowData row) {
-        GenericRowData key = new GenericRowData(lookupFieldGetters.length);
-        for (int i = 0; i < lookupFieldGetters.length; i++) {
-            key.setField(i, lookupFieldGetters[i].getFieldOrNull(row));
+    private LookupCache newCache() {
+        if (cacheMaxMemory <= 0) {
+            return new HeapLookupCache(cacheMaxSize);
+        }
+        List<LogicalType> keyTypes = new ArrayList<>(lookupKeys.length);
+        for (int lookupKey : lookupKeys) {
+            keyTypes.add(rowType.getTypeAt(lookupKey));
+        }
+        return new BinaryLookupCache(RowType.of(keyTypes.toArray(new LogicalType[0])), rowType,
+                cacheMaxMemory, pointReader != null);
+    }
+
+    private void swapCache(LookupCache newCache) {
+        LookupCache previous = cache;
+        cache = newCache;
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Load the whole table into a new cache and swap it in.
+     */
+    @SuppressWarnings("unchecked")
+    private void reloadFully() throws Exception {
+        if (pointReader != null) {
+            // partial cache starts empty and reads missed keys from current partitions
+            pointReadPartitions = (List<LakeSoulPartition>) partitionFetcher.fetch(fetcherContext);
+            swapCache(newCache());
+            LOG.info("Reset partial lookup join cache for {} with {} partition(s)", tableId, pointReadPartitions.size());
+            return;
+        }
+        Map<String, PartitionInfo> partitionSnapshot = null;
+        if (deltaReader != null) {
+            // taken before reading, so commits racing with the load are applied again by next refresh,
+            // which is harmless for upserts by primary key
+            partitionSnapshot = new HashMap<>();
+            for (PartitionInfo partitionInfo : dbManager().getAllPartitionInfo(getLakeSoulTableId())) {
+                partitionSnapshot.put(partitionInfo.getPartitionDesc(), partitionInfo);
+            }
+        }
+        LookupCache newCache = newCache();
+        Map<RowData, RowData> newPrimaryKeyIndex = deltaReader != null ? new HashMap<>() : null;
+        long count = 0;
+        GenericRowData reuse = new GenericRowData(rowType.getFieldCount());
+        partitionReader.open(partitionFetcher.fetch(fetcherContext));
+        try {
+            RowData row;
+            while ((row = partitionReader.read(reuse)) != null) {
+                count++;
+                loadRow(newCache, newPrimaryKeyIndex, serializer.copy(row));
+            }
+        } catch (Exception e) {
+            newCache.close();
+            throw e;
+        } finally {
+            partitionReader.close();
+        }
+        primaryKeyIndex = newPrimaryKeyIndex;
+        if (partitionSnapshot != null) {
+            loadedPartitions = partitionSnapshot;
+            partitionCursor = partitionSnapshot.values().stream().mapToLong(PartitionInfo::getTimestamp).max().orElse(0L);
+        }
+        swapCache(newCache);
+        LOG.info("Loaded {} row(s) into lookup join cache for {}", count, tableId);
+    }
+
+    private void loadRow(LookupCache newCache, @Nullable Map<RowData, RowData> newPrimaryKeyIndex, RowData row) {
+        RowData key = extractKey(row, lookupFieldGetters);
+        if (newPrimaryKeyIndex != null) {
+            newPrimaryKeyIndex.put(extractKey(row, primaryKeyFieldGetters), key);
+        }
+        if (!newCache.add(key, row)) {
+            throw cacheLimitExceeded();
+        }
+    }
+
+    /**
+     * Replace the cache with one holding rows, as a full reload of them would.
+     */
+    @VisibleForTesting
+    void loadCache(List<RowData> rows) {
+        LookupCache newCache = newCache();
+        Map<RowData, RowData> newPrimaryKeyIndex = new HashMap<>();
+        for (RowData row : rows) {
+            loadRow(newCache, newPrimaryKeyIndex, row);
+        }
+        primaryKeyIndex = newPrimaryKeyIndex;
+        swapCache(newCache);
+    }
+
+    /**
+     * Apply data committed since the last refresh to the cache.
+     *
+     * @return false if changes could not be applied incrementally and a full reload is required
+     */
+    private boolean refreshIncrementally() throws Exception {
+        DBManager dbManager = dbManager();
+        String lakeSoulTableId = getLakeSoulTableId();
+        List<PartitionInfo> changedPartitions = dbManager.getAllPartitionInfoFromTimestamp(lakeSoulTableId,
+                Math.max(0L, partitionCursor - INCREMENTAL_CURSOR_OVERLAP_MS));
+
+        List<LakeSoulPartition> deltaPartitions = new ArrayList<>();
+        long maxTimestamp = partitionCursor;
+        for (PartitionInfo partitionInfo : changedPartitions) {
+            maxTimestamp = Math.max(maxTimestamp, partitionInfo.getTimestamp());
+            String partitionDesc = partitionInfo.getPartitionDesc();
+            PartitionInfo loaded = loadedPartitions.get(partitionDesc);
+            if (loaded != null && loaded.getVersion() >= partitionInfo.getVersion()) {
+                continue;
+            }
+            Set<Uuid> loadedCommits = new HashSet<>();
+            if (loaded != null) {
+                for (PartitionInfo middle : dbManager.getIncrementalPartitions(lakeSoulTableId, partitionDesc,
+                        loaded.getVersion() + 1, partitionInfo.getVersion())) {
+                    if (middle.getCommitOp() != CommitOp.AppendCommit && middle.getCommitOp() != CommitOp.MergeCommit) {
+                        LOG.info("Partition {} of {} has {} since last load, reload lookup join cache fully",
+                                partitionDesc, tableId, middle.getCommitOp());
+                        return false;
+                    }
+                }
+                loadedCommits.addAll(loaded.getSnapshotList());
+            } else if (partitionInfo.getCommitOp() == CommitOp.DeleteCommit) {
+                continue;
+            }
+            List<Uuid> newCommits = new ArrayList<>();
+            for (Uuid commitId : partitionInfo.getSnapshotList()) {
+                if (!loadedCommits.contains(commitId)) {
+                    newCommits.add(commitId);
+                }
+            }
+            if (newCommits.isEmpty()) {
+                continue;
+            }
+            deltaPartitions.add(toDeltaPartition(partitionDesc,
+                    dbManager.getDataCommitInfosFromUUIDs(lakeSoulTableId, partitionDesc, newCommits)));
+        }
+
+        long count = 0;
+        if (!deltaPartitions.isEmpty()) {
+            GenericRowData reuse = new GenericRowData(rowType.getFieldCount());
+            deltaReader.open(deltaPartitions);
+            try {
+                RowData row;
+                while ((row = deltaReader.read(reuse)) != null) {
+                    count++;
+                    if (!applyUpsert(serializer.copy(row))) {
+                        LOG.info("Lookup join cache for {} is full after applying changes, reload it fully", tableId);
+                        return false;
+                    }
+                }
+            } finally {
+                deltaReader.close();
+            }
+        }
+        for (PartitionInfo partitionInfo : changedPartitions) {
+            loadedPartitions.merge(partitionInfo.getPartitionDesc(), partitionInfo,
+                    (prev, cur) -> cur.getVersion() > prev.getVersion() ? cur : prev);
+        }
+        partitionCursor = maxTimestamp;
+        LOG.info("Applied {} changed row(s) of {} partition(s) to lookup join cache for {}",
+                count, deltaPartitions.size(), tableId);
+        return true;
+    }
+
+    private LakeSoulPartition toDeltaPartition(String partitionDesc, List<DataCommitInfo> dataCommitInfoList) {
+        // files of later commits come later, so that they win when merged by primary key
+        List<Path> paths = new ArrayList<>();
+        List<DataCommitInfo> sorted = new ArrayList<>(dataCommitInfoList);
+        sorted.sort((a, b) -> Long.compare(a.getTimestamp(), b.getTimestamp()));
+        for (DataCommitInfo dataCommitInfo : sorted) {
+            for (DataFileOp fileOp : dataCommitInfo.getFileOpsList()) {
+                if (fileOp.getFileOp() == FileOp.add) {
+                    paths.add(new Path(fileOp.getPath()));
+                }
+            }
+        }
+        List<String> partitionValues = new ArrayList<>();
+        if (!partitionKeys.isEmpty()) {
+            LinkedHashMap<String, String> descMap = DBUtil.parsePartitionDesc(partitionDesc);
+            for (String partitionKey : partitionKeys) {
+                partitionValues.add(descMap.get(partitionKey));
+            }
+        }
+        return new LakeSoulPartition(tableId, paths, partitionKeys, partitionValues);
+    }
+
+    /**
+     * Replace the cached row of the same primary key and range partition with row, or remove it if row is a cdc
+     * delete.
+     *
+     * @return false if the cache is full
+     */
+    @VisibleForTesting
+    boolean applyUpsert(RowData row) {
+        LookupCache current = cache;
+        RowData primaryKey = extractKey(row, primaryKeyFieldGetters);
+        RowData previousLookupKey = primaryKeyIndex.get(primaryKey);
+        boolean delete =
+                cdcFieldGetter != null && FlinkUtil.isCDCDelete((StringData) cdcFieldGetter.getFieldOrNull(row));
+        RowData lookupKey = delete ? null : extractKey(row, lookupFieldGetters);
+        boolean fits = true;
+        if (previousLookupKey != null && !previousLookupKey.equals(lookupKey)) {
+            // the row is deleted or moves to another lookup key
+            List<RowData> rows = current.get(previousLookupKey);
+            if (rows != null) {
+                fits = current.put(previousLookupKey, withoutPrimaryKey(rows, primaryKey));
+            }
+        }
+        if (delete) {
+            primaryKeyIndex.remove(primaryKey);
+            return fits;
+        }
+        // rows of the lookup key are replaced by one put, so readers see either the previous or the new row
+        List<RowData> rows = current.get(lookupKey);
+        List<RowData> updated;
+        if (rows == null) {
+            updated = new ArrayList<>(1);
+        } else if (lookupKey.equals(previousLookupKey)) {
+            updated = withoutPrimaryKey(rows, primaryKey);
+        } else {
+            updated = new ArrayList<>(rows);
+        }
+        updated.add(row);
+        primaryKeyIndex.put(primaryKey, lookupKey);
+        return current.put(lookupKey, updated) && fits;
+    }
+
+    private List<RowData> withoutPrimaryKey(List<RowData> rows, RowData primaryKey) {
+        List<RowData> remaining = new ArrayList<>(rows.size());
+        for (RowData cached : rows) {
+            if (!primaryKey.equals(extractKey(cached, primaryKeyFieldGetters))) {
+                remaining.add(cached);
+            }
+        }
+        return remaining;
+    }
+
+    private List<RowData> pointRead(RowData lookupKey) throws IOException {
+        GenericRowData pushedKey = new GenericRowData(pointReadKeyPositions.length);
+        int[] pushedFields = new int[pointReadKeyPositions.length];
+        for (int i = 0; i < pointReadKeyPositions.length; i++) {
+            pushedKey.setField(i, lookupFieldGetters[pointReadKeyPositions[i]].getFieldOrNull(lookupKey));
+            pushedFields[i] = lookupKeys[pointReadKeyPositions[i]];
+        }
+        io.substrait.proto.Plan filter = SubstraitUtil.substraitExprToProto(
+                SubstraitFlinkUtil.equalityFilter(rowType, pushedFields, Collections.singletonList(pushedKey)),
+                tableId.table());
+        List<RowData> rows = new ArrayList<>();
+        if (filter == null) {
+            return rows;
+        }
+        GenericRowData reuse = new GenericRowData(rowType.getFieldCount());
+        pointReader.setFilter(filter);
+        pointReader.open(pointReadPartitions);
+        try {
+            RowData row;
+            while ((row = pointReader.read(reuse)) != null) {
+                RowData rowData = serializer.copy(row);
+                // fields not pushed down are matched here
+                if (lookupKey.equals(extractKey(rowData, lookupFieldGetters))) {
+                    rows.add(rowData);
+                }
+            }
+        } finally {
+            pointReader.close();
+        }
+        return rows;
+    }
+
+    private SuppressRestartsException cacheLimitExceeded() {
+        String err = cacheMaxMemory > 0 ?
+                String.format("Lookup Cache for %s has more rows than memory limit %s bytes",
+                        tableId.toString(),
+                        cacheMaxMemory) :
+                String.format("Lookup Cache for %s has too many rows than cache limit %s",
+                        tableId.toString(),
+                        cacheMaxSize);
+        LOG.error(err);
+        return new SuppressRestartsException(new IllegalStateException(err));
+    }
+
+    private String getLakeSoulTableId() {
+        TableInfo tableInfo = dbManager().getTableInfoByNameAndNamespace(tableId.table(), tableId.schema());
+        if (tableInfo == null) {
+            throw new IllegalStateException("Table " + tableId + " does not exist");
+        }
+        return tableInfo.getTableId();
+    }
+
+    private static DBManager dbManager() {
+        return DataOperation.dbManager();
+    }
+
+    private static RowData extractKey(RowData row, RowData.FieldGetter[] fieldGetters) {
+        GenericRowData key = new GenericRowData(fieldGetters.length);
+        for (int i = 0; i < fieldGetters.length; i++) {
+            key.setField(i, fieldGetters[i].getFieldOrNull(row));
         }
         return key;
     }
 
     @Override
     public void close() throws Exception {
+        if (reloadExecutor != null) {
+            reloadExecutor.shutdownNow();
+            reloadExecutor.awaitTermination(RETRY_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+            reloadExecutor = null;
+        }
+        if (cache != null) {
+            cache.close();
+            cache = null;
+        }
         this.fetcherContext.close();
     }
 
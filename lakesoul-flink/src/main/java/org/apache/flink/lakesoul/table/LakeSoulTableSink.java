@@ -138,7 +138,7 @@ public class LakeSoulTableSink implements DynamicTableSink, SupportsPartitioning
         OutputFileConfig fileNameConfig = OutputFileConfig.builder().withPartSuffix(".parquet").build();
         //file rolling rule
         LakeSoulRollingPolicyImpl rollingPolicy = new LakeSoulRollingPolicyImpl(flinkConf.getLong(FILE_ROLLING_SIZE),
-                flinkConf.getLong(FILE_ROLLING_TIME));
+                flinkConf.getLong(FILE_ROLLING_TIME), flinkConf.getBoolean(FILE_ROLL_ON_CHECKPOINT));
         //rowData sink fileSystem Task
         LakeSoulMultiTablesSink<RowData, RowData> sink = LakeSoulMultiTablesSink.forOneTableBulkFormat(path,
                         new TableSchemaIdentity(new TableId(io.debezium.relational.TableId.parse(summaryName)), rowType,
@@ -0,0 +1,39 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.apache.flink.lakesoul.table;
+
+import org.apache.flink.table.data.RowData;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * Rows of the build table grouped by lookup key, used by {@link LakeSoulTableLookupFunction}.
+ */
+interface LookupCache extends AutoCloseable {
+
+    /**
+     * @return rows of the key, or null if the key is not cached
+     */
+    @Nullable
+    List<RowData> get(RowData key);
+
+    /**
+     * Adds one row of the key while loading the table.
+     *
+     * @return false if the cache has reached its capacity
+     */
+    boolean add(RowData key, RowData row);
+
+    /**
+     * Replaces all rows of the key, an empty list caches that the key has no rows.
+     *
+     * @return false if the rows could not be cached since capacity is reached
+     */
+    boolean put(RowData key, List<RowData> rows);
+
+    @Override
+    void close();
+}
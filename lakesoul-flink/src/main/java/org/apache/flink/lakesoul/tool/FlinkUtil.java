@@ -15,6 +15,8 @@ import com.dmetasoul.lakesoul.meta.MetaVersion;
 import com.dmetasoul.lakesoul.meta.PartitionInfoScala;
 import com.dmetasoul.lakesoul.meta.dao.TableInfoDao;
 import com.dmetasoul.lakesoul.meta.entity.TableInfo;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.vector.VarCharVector;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.FieldType;
 import org.apache.flink.configuration.*;
@@ -217,6 +219,42 @@ public class FlinkUtil {
         return delete.equals(operation);
     }
 
+    private static final byte[] INSERT_BYTES = INSERT.toBytes();
+    private static final byte[] UPDATE_BYTES = UPDATE.toBytes();
+    private static final byte[] DELETE_BYTES = DELETE.toBytes();
+
+    // same as operationToRowKind(StringData) for the value at index, compared in place in the arrow buffer
+    public static RowKind operationToRowKind(VarCharVector operations, int index) {
+        if (operationEquals(operations, index, INSERT_BYTES)) {
+            return RowKind.INSERT;
+        }
+        if (operationEquals(operations, index, UPDATE_BYTES)) {
+            return RowKind.UPDATE_AFTER;
+        }
+        if (operationEquals(operations, index, DELETE_BYTES)) {
+            return RowKind.DELETE;
+        }
+        return null;
+    }
+
+    public static boolean isCDCDelete(VarCharVector operations, int index) {
+        return operationEquals(operations, index, DELETE_BYTES);
+    }
+
+    private static boolean operationEquals(VarCharVector operations, int index, byte[] operation) {
+        if (operations.isNull(index) || operations.getValueLength(index) != operation.length) {
+            return false;
+        }
+        ArrowBuf data = operations.getDataBuffer();
+        long start = operations.getStartOffset(index);
+        for (int i = 0; i < operation.length; i++) {
+            if (data.getByte(start + i) != operation[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public static boolean isView(TableInfo tableInfo) {
         JSONObject jsb = DBUtil.stringToJSON(tableInfo.getProperties());
         if (jsb.containsKey(LAKESOUL_VIEW.key()) &&
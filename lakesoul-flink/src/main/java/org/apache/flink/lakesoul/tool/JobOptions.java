@@ -6,6 +6,7 @@ package org.apache.flink.lakesoul.tool;
 
 import org.apache.flink.configuration.ConfigOption;
 import org.apache.flink.configuration.ConfigOptions;
+import org.apache.flink.configuration.MemorySize;
 import org.apache.flink.configuration.description.Description;
 
 import java.time.Duration;
@@ -53,6 +54,52 @@ public class JobOptions {
             .withDescription(
                     "The cache size limit for the build table in lookup join.");
 
+    public static final ConfigOption<Boolean> LOOKUP_JOIN_CACHE_INCREMENTAL = ConfigOptions
+            .key("lookup.join.cache.incremental")
+            .booleanType()
+            .defaultValue(false)
+            .withDescription(
+                    "If true, lookup join cache of primary key table is refreshed by applying files " +
+                    "committed since last refresh instead of reloading the whole table.");
+
+    public static final ConfigOption<MemorySize> LOOKUP_JOIN_CACHE_MAX_MEMORY = ConfigOptions
+            .key("lookup.join.cache.max-memory")
+            .memoryType()
+            .noDefaultValue()
+            .withDescription(
+                    "If set, lookup join cache keeps rows in binary format in off-heap memory of this size, " +
+                    "instead of java objects on heap limited by lookup.join.cache.size.");
+
+    public static final ConfigOption<Boolean> LOOKUP_JOIN_CACHE_PARTIAL = ConfigOptions
+            .key("lookup.join.cache.partial")
+            .booleanType()
+            .defaultValue(false)
+            .withDescription(
+                    "If true, the build table of lookup join is not preloaded. Rows of missed keys are read " +
+                    "with the keys pushed down as filter, and the oldest rows are evicted when " +
+                    "lookup.join.cache.max-memory is used up.");
+
+    public static final ConfigOption<Boolean> LOOKUP_JOIN_PRIMARY_KEY_LOOKUP = ConfigOptions
+            .key("lookup.join.pk-lookup")
+            .booleanType()
+            .defaultValue(false)
+            .withDescription(
+                    "If true and the lookup keys are exactly the primary keys of a hash bucketed table, " +
+                    "lookup join reads only the bucket files of requested keys asynchronously instead of " +
+                    "preloading the table. Results are cached in lookup.join.cache.max-memory (64mb by default).");
+
+    public static final ConfigOption<Integer> LOOKUP_JOIN_ASYNC_THREADS = ConfigOptions
+            .key("lookup.join.async.threads")
+            .intType()
+            .defaultValue(4)
+            .withDescription("The number of threads reading buckets for primary key lookup join.");
+
+    public static final ConfigOption<Integer> LOOKUP_JOIN_ASYNC_MAX_BATCH_SIZE = ConfigOptions
+            .key("lookup.join.async.max-batch-size")
+            .intType()
+            .defaultValue(512)
+            .withDescription("The max number of keys read from a bucket at once for primary key lookup join.");
+
     public static final ConfigOption<Boolean> STREAMING_SOURCE_ENABLE =
             key("streaming-source.enable")
                     .booleanType()
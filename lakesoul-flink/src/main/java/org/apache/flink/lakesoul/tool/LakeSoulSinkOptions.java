@@ -4,6 +4,7 @@
 
 package org.apache.flink.lakesoul.tool;
 
+import com.dmetasoul.lakesoul.meta.DBConfig;
 import com.dmetasoul.lakesoul.meta.LakeSoulOptions;
 import org.apache.flink.configuration.ConfigOption;
 import org.apache.flink.configuration.ConfigOptions;
@@ -101,6 +102,16 @@ public class  LakeSoulSinkOptions {
             .defaultValue(DEFAULT_BUCKET_ROLLING_TIME)
             .withDescription("file rolling time in milliseconds");
 
+    public static final ConfigOption<Boolean> FILE_ROLL_ON_CHECKPOINT = ConfigOptions
+            .key("lakesoul.file.rolling.on_checkpoint")
+            .booleanType()
+            .defaultValue(true)
+            .withDescription("If true, files are closed and committed on every checkpoint. " +
+                    "If false, files are kept open across checkpoints and only rolled by " +
+                    "lakesoul.file.rolling.rows or lakesoul.file.rolling.time.ms since file creation, " +
+                    "with the rows of open files persisted on checkpoint as arrow ipc segments " +
+                    "under the _lakesoul_in_progress directory of the table. Only for non-arrow sinks");
+
     public static final ConfigOption<Long> BUCKET_CHECK_INTERVAL = ConfigOptions
             .key("lakesoul.rolling.check.interval")
             .longType()
@@ -186,6 +197,21 @@ public class  LakeSoulSinkOptions {
             .defaultValue(-1)
             .withDescription("Max row group value number for LakeSoul writer");
 
+    public static final ConfigOption<Integer> MAX_IN_FLIGHT_WRITE_BATCHES = ConfigOptions
+            .key("lakesoul.sink.max_in_flight_write_batches")
+            .intType()
+            .defaultValue(0)
+            .withDescription("Max number of batches handed to native writer asynchronously. " +
+                    "Converting the next batch overlaps with native write of previous ones when positive; " +
+                    "0 means writing synchronously");
+
+    public static final ConfigOption<String> STATS_COLUMNS = ConfigOptions
+            .key(DBConfig.TableInfoProperty.STATS_COLUMNS)
+            .stringType()
+            .noDefaultValue()
+            .withDescription("Comma separated columns to collect min/max and null count of per file for data skipping, " +
+                    "in addition to primary keys");
+
     public static final ConfigOption<String> SOURCE_DB_SCHEMA_TABLES = ConfigOptions
             .key("source_db.schema_tables")
             .stringType()
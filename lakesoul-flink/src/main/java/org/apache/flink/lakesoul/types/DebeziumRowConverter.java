@@ -0,0 +1,219 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.apache.flink.lakesoul.types;
+
+import io.debezium.data.Enum;
+import io.debezium.data.EnumSet;
+import io.debezium.data.Json;
+import io.debezium.data.VariableScaleDecimal;
+import io.debezium.time.Date;
+import io.debezium.time.MicroDuration;
+import io.debezium.time.MicroTime;
+import io.debezium.time.MicroTimestamp;
+import io.debezium.time.NanoTime;
+import io.debezium.time.NanoTimestamp;
+import io.debezium.time.Time;
+import io.debezium.time.Timestamp;
+import io.debezium.time.Year;
+import io.debezium.time.ZonedTime;
+import io.debezium.time.ZonedTimestamp;
+import org.apache.flink.cdc.connectors.shaded.org.apache.kafka.connect.data.Decimal;
+import org.apache.flink.cdc.connectors.shaded.org.apache.kafka.connect.data.Field;
+import org.apache.flink.cdc.connectors.shaded.org.apache.kafka.connect.data.Schema;
+import org.apache.flink.cdc.connectors.shaded.org.apache.kafka.connect.data.Struct;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.data.TimestampData;
+import org.apache.flink.table.data.binary.BinaryRowData;
+import org.apache.flink.table.data.writer.BinaryRowWriter;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.types.RowKind;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Converts Debezium row structs of one table schema to {@link BinaryRowData}, with the same result as
+ * {@link LakeSoulRecordConvert#convert}. The schema dispatch, field lookup, timestamp partition column and its
+ * time zone and date format are all resolved once when the converter is built, so converting a record only runs
+ * one writer per field, bound to the field's index in the struct and in the row.
+ */
+public class DebeziumRowConverter {
+
+    @FunctionalInterface
+    interface FieldWriter {
+        void write(BinaryRowWriter writer, Object value) throws Exception;
+    }
+
+    private final Schema schema;
+
+    private final RowType rowType;
+
+    private final Field[] fields;
+
+    private final boolean[] hasDefault;
+
+    private final FieldWriter[] writers;
+
+    private final Field timestampPartitionField;
+
+    private final ZoneId partitionZoneId;
+
+    private final DateTimeFormatter partitionFormatter;
+
+    private final LakeSoulRecordConvert convert;
+
+    private final int arity;
+
+    DebeziumRowConverter(LakeSoulRecordConvert convert, Schema schema, String timestampPartitionCol,
+                         String formatRule, ZoneId partitionZoneId) {
+        this.schema = schema;
+        this.rowType = convert.toFlinkRowType(schema, false, timestampPartitionCol);
+        this.convert = convert;
+        this.arity = rowType.getFieldCount();
+        List<Field> schemaFields = schema.fields();
+        this.fields = schemaFields.toArray(new Field[0]);
+        this.hasDefault = new boolean[fields.length];
+        this.writers = new FieldWriter[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            hasDefault[i] = fields[i].schema().defaultValue() != null;
+            writers[i] = fieldWriter(convert, i, fields[i].name(), fields[i].schema());
+        }
+        this.timestampPartitionField = timestampPartitionCol == null ? null : schema.field(timestampPartitionCol);
+        this.partitionZoneId = partitionZoneId;
+        this.partitionFormatter = DateTimeFormatter.ofPattern(formatRule == null ? "yyyy-MM-dd" : formatRule);
+    }
+
+    /**
+     * @return whether records of schema can be converted by this converter
+     */
+    boolean accepts(Schema schema) {
+        return this.schema == schema || this.schema.equals(schema);
+    }
+
+    public RowType getRowType() {
+        return rowType;
+    }
+
+    public RowData convert(Struct struct, RowKind rowKind, long sortField) throws Exception {
+        if (struct == null) {
+            return null;
+        }
+        BinaryRowData row = new BinaryRowData(arity);
+        BinaryRowWriter writer = new BinaryRowWriter(row);
+        int pos = 0;
+        for (; pos < fields.length; pos++) {
+            Object fieldValue = value(struct, pos);
+            if (fieldValue == null) {
+                writer.setNullAt(pos);
+            } else {
+                writers[pos].write(writer, fieldValue);
+            }
+        }
+        if (timestampPartitionField != null) {
+            Object fieldValue = value(struct, timestampPartitionField.index());
+            Instant instant;
+            if (fieldValue instanceof Long) {
+                instant = Instant.ofEpochMilli((Long) fieldValue);
+            } else {
+                instant = Instant.parse(fieldValue.toString());
+            }
+            String formattedDate = instant.atZone(partitionZoneId).toLocalDate().format(partitionFormatter);
+            writer.writeString(pos, StringData.fromString(formattedDate));
+            pos++;
+        }
+        writer.writeLong(pos, sortField);
+        pos++;
+        writer.writeRowKind(rowKind);
+        if (convert.useCDC) {
+            convert.setCDCRowKindField(writer, rowKind, pos);
+        }
+        writer.complete();
+        return row;
+    }
+
+    // same as struct.getWithoutDefault(name), without looking the field up by name
+    private Object value(Struct struct, int index) {
+        if (hasDefault[index]) {
+            return struct.getWithoutDefault(fields[index].name());
+        }
+        return struct.get(fields[index]);
+    }
+
+    private static FieldWriter fieldWriter(LakeSoulRecordConvert convert, int index, String fieldName,
+                                           Schema fieldSchema) {
+        if (fieldSchema.name() == null) {
+            return primitiveWriter(convert, index, fieldSchema);
+        }
+        switch (fieldSchema.name()) {
+            case Enum.LOGICAL_NAME:
+            case Json.LOGICAL_NAME:
+            case EnumSet.LOGICAL_NAME:
+                return (writer, value) -> convert.writeString(writer, index, value);
+            case Time.SCHEMA_NAME:
+            case MicroTime.SCHEMA_NAME:
+            case NanoTime.SCHEMA_NAME:
+                return (writer, value) -> convert.writeTime(writer, index, value, fieldSchema);
+            case Timestamp.SCHEMA_NAME:
+            case MicroTimestamp.SCHEMA_NAME:
+            case NanoTimestamp.SCHEMA_NAME:
+            case org.apache.flink.cdc.connectors.shaded.org.apache.kafka.connect.data.Timestamp.LOGICAL_NAME: {
+                int precision = LakeSoulRecordConvert.getPrecision(fieldSchema);
+                return (writer, value) -> writer.writeTimestamp(index, (TimestampData) convert.convertToTimeStamp(
+                        value, fieldSchema, convert.serverTimeZone), precision);
+            }
+            case Decimal.LOGICAL_NAME:
+            case VariableScaleDecimal.LOGICAL_NAME:
+                return (writer, value) -> convert.writeDecimal(writer, index, fieldName, value, fieldSchema);
+            case Date.SCHEMA_NAME:
+                return (writer, value) -> convert.writeDate(writer, index, value);
+            case Year.SCHEMA_NAME:
+                return (writer, value) -> convert.writeInt(writer, index, value);
+            case ZonedTime.SCHEMA_NAME:
+            case ZonedTimestamp.SCHEMA_NAME: {
+                int precision = LakeSoulRecordConvert.getPrecision(fieldSchema);
+                return (writer, value) -> writer.writeTimestamp(index,
+                        (TimestampData) convert.convertToUTCTimeStamp(value), precision);
+            }
+            case MicroDuration.SCHEMA_NAME:
+                return (writer, value) -> convert.writeLong(writer, index, value);
+            default:
+                return (writer, value) -> {
+                    throw new UnsupportedOperationException("LakeSoul doesn't support type: " + fieldSchema.name());
+                };
+        }
+    }
+
+    private static FieldWriter primitiveWriter(LakeSoulRecordConvert convert, int index, Schema fieldSchema) {
+        switch (fieldSchema.type()) {
+            case STRUCT:
+                return (writer, value) -> convert.convertNestedStruct(writer, index, (Struct) value, fieldSchema);
+            case BOOLEAN:
+                return (writer, value) -> convert.writeBoolean(writer, index, value);
+            case INT8:
+            case INT16:
+            case INT32:
+                return (writer, value) -> convert.writeInt(writer, index, value);
+            case INT64:
+                return (writer, value) -> convert.writeLong(writer, index, value);
+            case FLOAT32:
+                return (writer, value) -> convert.writeFloat(writer, index, value);
+            case FLOAT64:
+                return (writer, value) -> convert.writeDouble(writer, index, value);
+            case STRING:
+                return (writer, value) -> convert.writeString(writer, index, value);
+            case BYTES:
+                return (writer, value) -> convert.writeBinary(writer, index, value);
+            case ARRAY:
+                return (writer, value) -> convert.writeArray(writer, index, value, fieldSchema);
+            default:
+                return (writer, value) -> {
+                    throw new UnsupportedOperationException("LakeSoul doesn't support type: " + fieldSchema.type());
+                };
+        }
+    }
+}
@@ -55,8 +55,9 @@ import static org.apache.flink.lakesoul.types.ParseDocument.convertBSONToStruct;
 public class LakeSoulRecordConvert implements Serializable {
 
     private static final long serialVersionUID = -3907477067300265746L;
-    private final ZoneId serverTimeZone;
+    final ZoneId serverTimeZone;
     private static final Logger LOG = LoggerFactory.getLogger(LakeSoulRecordConvert.class);
+    private static final ZoneId UTC = ZoneId.of("UTC");
 
     private final String cdcColumn;
     final boolean useCDC;
@@ -67,6 +68,9 @@ public class LakeSoulRecordConvert implements Serializable {
     Configuration globalConfig;
     Random random = new Random();
 
+    // converters of the current schema of each table, rebuilt when the schema of a table changes
+    private transient HashMap<TableId, DebeziumRowConverter> rowConverters;
+
     public LakeSoulRecordConvert(Configuration conf, String serverTimeZone) {
         this(conf, serverTimeZone, new HashMap<>(), new HashMap<>(), new Configuration());
     }
@@ -176,31 +180,31 @@ public class LakeSoulRecordConvert implements Serializable {
             if (op == Envelope.Operation.CREATE || op == Envelope.Operation.READ) {
                 Schema afterSchema = valueSchema.field(Envelope.FieldName.AFTER).schema();
                 Struct after = value.getStruct(Envelope.FieldName.AFTER);
-                String timeStampPartitionCol = handleTimestampPartitionColumn(tableId, afterSchema, topicsPartitionFields, topicsTimestampPartitionFields);
-                RowData insert = convert(after, afterSchema, RowKind.INSERT, sortField, timeStampPartitionCol, formatRuleList.get(tableId.table()));
-                RowType rt = toFlinkRowType(afterSchema, false, timeStampPartitionCol);
+                DebeziumRowConverter converter = getRowConverter(tableId, afterSchema);
+                RowData insert = converter.convert(after, RowKind.INSERT, sortField);
+                RowType rt = converter.getRowType();
                 insert.setRowKind(RowKind.INSERT);
                 builder.setOperation("insert").setAfterRowData(insert).setAfterType(rt);
             } else if (op == Envelope.Operation.DELETE) {
                 Schema beforeSchema = valueSchema.field(Envelope.FieldName.BEFORE).schema();
                 Struct before = value.getStruct(Envelope.FieldName.BEFORE);
-                String timeStampPartitionCol = handleTimestampPartitionColumn(tableId, beforeSchema, topicsPartitionFields, topicsTimestampPartitionFields);
-                RowData delete = convert(before, beforeSchema, RowKind.DELETE, sortField, timeStampPartitionCol, formatRuleList.get(tableId.table()));
-                RowType rt = toFlinkRowType(beforeSchema, false, timeStampPartitionCol);
+                DebeziumRowConverter converter = getRowConverter(tableId, beforeSchema);
+                RowData delete = converter.convert(before, RowKind.DELETE, sortField);
+                RowType rt = converter.getRowType();
                 delete.setRowKind(RowKind.DELETE);
                 builder.setOperation("delete").setBeforeRowData(delete).setBeforeRowType(rt);
             } else {
                 Schema beforeSchema = valueSchema.field(Envelope.FieldName.BEFORE).schema();
                 Struct before = value.getStruct(Envelope.FieldName.BEFORE);
-                String timeStampPartitionCol = handleTimestampPartitionColumn(tableId, beforeSchema, topicsPartitionFields, topicsTimestampPartitionFields);
-                RowData beforeData = convert(before, beforeSchema, RowKind.UPDATE_BEFORE, sortField, timeStampPartitionCol, formatRuleList.get(tableId.table()));
-                //boolean beforNullable = beforeSchema.isOptional();
-                RowType beforeRT = toFlinkRowType(beforeSchema, false, timeStampPartitionCol);
+                DebeziumRowConverter beforeConverter = getRowConverter(tableId, beforeSchema);
+                RowData beforeData = beforeConverter.convert(before, RowKind.UPDATE_BEFORE, sortField);
+                RowType beforeRT = beforeConverter.getRowType();
                 beforeData.setRowKind(RowKind.UPDATE_BEFORE);
                 Schema afterSchema = valueSchema.field(Envelope.FieldName.AFTER).schema();
                 Struct after = value.getStruct(Envelope.FieldName.AFTER);
-                RowData afterData = convert(after, afterSchema, RowKind.UPDATE_AFTER, sortField, timeStampPartitionCol, formatRuleList.get(tableId.table()));
-                RowType afterRT = toFlinkRowType(afterSchema, false, timeStampPartitionCol);
+                DebeziumRowConverter afterConverter = getRowConverter(tableId, afterSchema);
+                RowData afterData = afterConverter.convert(after, RowKind.UPDATE_AFTER, sortField);
+                RowType afterRT = afterConverter.getRowType();
                 afterData.setRowKind(RowKind.UPDATE_AFTER);
                 if (partitionFieldsChanged(beforeRT, beforeData, afterRT, afterData)) {
                     // partition fields changed. we need to emit both before and after RowData
@@ -216,6 +220,29 @@ public class LakeSoulRecordConvert implements Serializable {
         return builder.setTsMs(tsMs).build();
     }
 
+    /**
+     * @return converter of rows of table with schema, built once for every schema of the table
+     */
+    public DebeziumRowConverter getRowConverter(TableId tableId, Schema schema) {
+        if (rowConverters == null) {
+            rowConverters = new HashMap<>();
+        }
+        DebeziumRowConverter converter = rowConverters.get(tableId);
+        if (converter == null || !converter.accepts(schema)) {
+            String timeStampPartitionCol = handleTimestampPartitionColumn(tableId, schema, topicsPartitionFields, topicsTimestampPartitionFields);
+            converter = new DebeziumRowConverter(this, schema, timeStampPartitionCol,
+                    formatRuleList.get(tableId.table()), partitionZoneId());
+            rowConverters.put(tableId, converter);
+            LOG.info("Built row converter of table {} with {} fields", tableId, schema.fields().size());
+        }
+        return converter;
+    }
+
+    private ZoneId partitionZoneId() {
+        String timeZone = globalConfig.getString("table.local-time-zone", null);
+        return timeZone != null ? ZoneId.of(timeZone) : ZoneId.systemDefault();
+    }
+
     private String handleTimestampPartitionColumn(
             TableId tableId,
             Schema afterSchema,
@@ -598,7 +625,7 @@ public class LakeSoulRecordConvert implements Serializable {
         return row;
     }
 
-    private void convertNestedStruct(BinaryRowWriter writer, int index, Struct nestedStruct, Schema nestedSchema) {
+    void convertNestedStruct(BinaryRowWriter writer, int index, Struct nestedStruct, Schema nestedSchema) {
         int nestedArity = nestedSchema.fields().size();
         List<Field> nestedFields = nestedSchema.fields();
         BinaryRowData nestedRow = new BinaryRowData(nestedArity);
@@ -812,7 +839,7 @@ public class LakeSoulRecordConvert implements Serializable {
                                 + dbzObj.getClass().getName());
             }
 
-            private int getPrecision (Schema schema){
+            static int getPrecision (Schema schema){
                 switch (schema.name()) {
                     case Time.SCHEMA_NAME:
                         return 3;
@@ -849,7 +876,7 @@ public class LakeSoulRecordConvert implements Serializable {
                                     nano / 1000_000, (int) (nano % 1000_000)).toInstant();
                     }
                     if (instant != null) {
-                        ZonedDateTime zonedDateTime = instant.atZone(ZoneId.of("UTC"));
+                        ZonedDateTime zonedDateTime = instant.atZone(UTC);
                         return TimestampData.fromInstant(zonedDateTime.toInstant());
                     }
                     return null;
@@ -861,7 +888,7 @@ public class LakeSoulRecordConvert implements Serializable {
                 }
                 // fallback to zoned timestamp
                 LocalDateTime localDateTime =
-                        TemporalConversions.toLocalDateTime(dbzObj, ZoneId.of("UTC"));
+                        TemporalConversions.toLocalDateTime(dbzObj, UTC);
                 return TimestampData.fromLocalDateTime(localDateTime);
             }
 
@@ -124,10 +124,10 @@ public class LakeSoulArrowSerializer extends TypeSerializer<LakeSoulArrowWrapper
     public LakeSoulArrowWrapper deserialize(DataInputView source) throws IOException {
         int len = source.readInt();
         byte[] encodedTableInfo = new byte[len];
-        source.read(encodedTableInfo);
+        source.readFully(encodedTableInfo);
         len = source.readInt();
         byte[] encodedBatch = new byte[len];
-        source.read(encodedBatch);
+        source.readFully(encodedBatch);
 
         return new LakeSoulArrowWrapper(encodedTableInfo, encodedBatch);
     }
@@ -147,10 +147,10 @@ public class LakeSoulArrowSerializer extends TypeSerializer<LakeSoulArrowWrapper
     public LakeSoulArrowWrapper deserialize(LakeSoulArrowWrapper reuse, DataInputView source) throws IOException {
         int len = source.readInt();
         byte[] encodedTableInfo = new byte[len];
-        source.read(encodedTableInfo);
+        source.readFully(encodedTableInfo);
         len = source.readInt();
         byte[] encodedBatch = new byte[len];
-        source.read(encodedBatch);
+        source.readFully(encodedBatch);
 
         return new LakeSoulArrowWrapper(encodedTableInfo, encodedBatch);
     }
@@ -172,7 +172,7 @@ public class LakeSoulArrowSerializer extends TypeSerializer<LakeSoulArrowWrapper
         target.writeInt(len);
 
         byte[] bytes = new byte[len];
-        source.read(bytes);
+        source.readFully(bytes);
         target.write(bytes);
 
         TableSchemaIdentity identity = SimpleVersionedSerialization.readVersionAndDeSerialize(
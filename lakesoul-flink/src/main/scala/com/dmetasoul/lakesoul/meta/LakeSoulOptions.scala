@@ -30,6 +30,15 @@ object LakeSoulOptions {
   val READ_TYPE = "readtype"
   val TIME_ZONE = "timezone"
   val DISCOVERY_INTERVAL = "discoveryinterval"
+  /** Whether streaming discovery only fetches partitions committed since the last discovery round. */
+  val PARTITION_CHANGE_FEED = "partitionchangefeed"
+  /**
+   * Milliseconds of partition commits re-read on every change-feed round, 60000 by default. Commits are ordered by
+   * their transaction start time, so a commit whose transaction took longer than this is not read.
+   */
+  val PARTITION_CHANGE_FEED_OVERLAP_MS = "partitionchangefeedoverlapms"
+  /** Streaming reads split buckets of tables without primary key larger than this many bytes, 0 to disable. */
+  val SPLIT_MAX_BYTES = "splitmaxbytes"
 
   object ReadType extends Enumeration {
     val FULL_READ = "fullread"
@@ -0,0 +1,126 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.dmetasoul.lakesoul.lakesoul.io.substrait;
+
+import io.substrait.expression.Expression;
+import io.substrait.expression.ExpressionCreator;
+import io.substrait.type.TypeCreator;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static io.substrait.extension.DefaultExtensionCatalog.FUNCTIONS_COMPARISON;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SubstraitFileStatsFilterTest {
+
+    private static final String STATS = "{\"numRows\":10,\"columns\":{" +
+            "\"id\":{\"nullCount\":0,\"min\":1,\"max\":10}," +
+            "\"name\":{\"nullCount\":2,\"min\":\"apple\",\"max\":\"pear\"}," +
+            "\"no_min_max\":{\"nullCount\":1}}}";
+
+    private static final String ALL_NULL_STATS = "{\"numRows\":10,\"columns\":{\"id\":{\"nullCount\":10}}}";
+
+    private static final Expression ID = SubstraitUtil.arrowFieldToSubstraitField(
+            Field.nullable("id", new ArrowType.Int(64, true)));
+
+    private static final Expression NAME = SubstraitUtil.arrowFieldToSubstraitField(
+            Field.nullable("name", ArrowType.Utf8.INSTANCE));
+
+    private static final Expression NO_MIN_MAX = SubstraitUtil.arrowFieldToSubstraitField(
+            Field.nullable("no_min_max", new ArrowType.Int(64, true)));
+
+    private static Expression compare(String function, Expression left, Expression right) {
+        return SubstraitUtil.makeBinary(left, right, FUNCTIONS_COMPARISON, function + ":any_any",
+                TypeCreator.NULLABLE.BOOLEAN);
+    }
+
+    private static Expression unary(String function, Expression expression) {
+        return SubstraitUtil.makeUnary(expression, FUNCTIONS_COMPARISON, function + ":any",
+                TypeCreator.NULLABLE.BOOLEAN);
+    }
+
+    private static Expression lit(int value) {
+        return ExpressionCreator.i32(false, value);
+    }
+
+    private static Expression lit(String value) {
+        return ExpressionCreator.string(false, value);
+    }
+
+    private static boolean mayMatch(Expression filter, String stats) {
+        return new SubstraitFileStatsFilter(SubstraitUtil.substraitExprToProto(filter, "t"), null).mayMatch(stats);
+    }
+
+    @Test
+    public void testComparisons() {
+        assertThat(mayMatch(compare("equal", ID, lit(5)), STATS)).isTrue();
+        assertThat(mayMatch(compare("equal", ID, lit(11)), STATS)).isFalse();
+        assertThat(mayMatch(compare("not_equal", ID, lit(5)), STATS)).isTrue();
+        assertThat(mayMatch(compare("lt", ID, lit(1)), STATS)).isFalse();
+        assertThat(mayMatch(compare("lte", ID, lit(1)), STATS)).isTrue();
+        assertThat(mayMatch(compare("gt", ID, lit(10)), STATS)).isFalse();
+        assertThat(mayMatch(compare("gte", ID, lit(10)), STATS)).isTrue();
+        // literal on the left: 10 < id
+        assertThat(mayMatch(compare("lt", lit(10), ID), STATS)).isFalse();
+        assertThat(mayMatch(compare("gt", lit(10), ID), STATS)).isTrue();
+        assertThat(mayMatch(compare("gt", NAME, lit("pear")), STATS)).isFalse();
+        assertThat(mayMatch(compare("gte", NAME, lit("pear")), STATS)).isTrue();
+        assertThat(mayMatch(compare("lt", NAME, lit("banana")), STATS)).isTrue();
+    }
+
+    @Test
+    public void testLogicalOperators() {
+        assertThat(mayMatch(SubstraitUtil.and(compare("equal", ID, lit(5)), compare("equal", ID, lit(11))), STATS))
+                .isFalse();
+        assertThat(mayMatch(SubstraitUtil.or(compare("equal", ID, lit(11)), compare("equal", ID, lit(5))), STATS))
+                .isTrue();
+        assertThat(mayMatch(SubstraitUtil.or(compare("equal", ID, lit(11)), compare("equal", ID, lit(0))), STATS))
+                .isFalse();
+        // negations are not decided, even if the negated predicate can't match
+        assertThat(mayMatch(SubstraitUtil.not(compare("equal", ID, lit(11))), STATS)).isTrue();
+        assertThat(mayMatch(SubstraitUtil.not(compare("equal", ID, lit(5))), STATS)).isTrue();
+    }
+
+    @Test
+    public void testNullCounts() {
+        assertThat(mayMatch(unary("is_null", ID), STATS)).isFalse();
+        assertThat(mayMatch(unary("is_not_null", ID), STATS)).isTrue();
+        assertThat(mayMatch(unary("is_null", NAME), STATS)).isTrue();
+        assertThat(mayMatch(unary("is_null", ID), ALL_NULL_STATS)).isTrue();
+        assertThat(mayMatch(unary("is_not_null", ID), ALL_NULL_STATS)).isFalse();
+        assertThat(mayMatch(compare("equal", ID, lit(5)), ALL_NULL_STATS)).isFalse();
+        assertThat(mayMatch(compare("not_equal", ID, lit(5)), ALL_NULL_STATS)).isFalse();
+    }
+
+    @Test
+    public void testMissingStatsMayMatch() {
+        assertThat(mayMatch(compare("equal", ID, lit(11)), "")).isTrue();
+        assertThat(mayMatch(compare("equal", ID, lit(11)), "{not json")).isTrue();
+        assertThat(mayMatch(compare("equal", ID, lit(11)), "{\"numRows\":10}")).isTrue();
+        assertThat(mayMatch(compare("equal", NO_MIN_MAX, lit(11)), STATS)).isTrue();
+        assertThat(mayMatch(unary("is_null", NO_MIN_MAX), STATS)).isTrue();
+        assertThat(new SubstraitFileStatsFilter(null, null).mayMatch(STATS)).isTrue();
+    }
+
+    @Test
+    public void testTypeMismatchMayMatch() {
+        assertThat(mayMatch(compare("equal", ID, lit("11")), STATS)).isTrue();
+        assertThat(mayMatch(compare("equal", ID, ExpressionCreator.fp64(false, 11.0)), STATS)).isTrue();
+        assertThat(mayMatch(compare("lt", ID, ExpressionCreator.fp64(false, 0.5)), STATS)).isTrue();
+        assertThat(mayMatch(compare("equal", NAME, lit(5)), STATS)).isTrue();
+        assertThat(mayMatch(compare("equal", ID, ExpressionCreator.bool(false, true)), STATS)).isTrue();
+    }
+
+    @Test
+    public void testOnlyGivenColumnsAreUsed() {
+        SubstraitFileStatsFilter filter = new SubstraitFileStatsFilter(
+                SubstraitUtil.substraitExprToProto(compare("equal", ID, lit(11)), "t"),
+                Collections.singletonList("name"));
+        assertThat(filter.mayMatch(STATS)).isTrue();
+    }
+}
@@ -0,0 +1,168 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.dmetasoul.lakesoul.meta;
+
+import com.alibaba.fastjson.JSONObject;
+import com.dmetasoul.lakesoul.meta.entity.CommitOp;
+import com.dmetasoul.lakesoul.meta.entity.DataCommitInfo;
+import com.dmetasoul.lakesoul.meta.entity.DataFileOp;
+import com.dmetasoul.lakesoul.meta.entity.FileOp;
+import com.dmetasoul.lakesoul.meta.entity.PartitionInfo;
+import com.dmetasoul.lakesoul.meta.entity.Uuid;
+import com.dmetasoul.lakesoul.meta.jnr.NativeUtils;
+import org.apache.flink.lakesoul.test.LakeSoulFlinkTestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CommitConflictTest extends LakeSoulFlinkTestBase {
+
+    private static final String TABLE_ID = "commit_conflict_test";
+    private static final String TABLE_PATH = "file:///tmp/lakesoul/commit_conflict_test";
+    private static final String PARTITION_DESC = "date=2024-01-01";
+
+    @Before
+    public void createTable() {
+        dbManager.createNewTable(TABLE_ID, "default", "", TABLE_PATH, "{}", new JSONObject(), "date;");
+    }
+
+    @After
+    public void cleanMeta() {
+        dbManager.cleanMeta();
+    }
+
+    private static DataCommitInfo dataCommitInfo(CommitOp commitOp, String file) {
+        return DataCommitInfo.newBuilder()
+                .setTableId(TABLE_ID)
+                .setPartitionDesc(PARTITION_DESC)
+                .setCommitId(DBUtil.toProtoUuid(UUID.randomUUID()))
+                .addFileOps(DataFileOp.newBuilder()
+                        .setPath(TABLE_PATH + "/" + PARTITION_DESC + "/" + file)
+                        .setFileOp(FileOp.add)
+                        .setSize(1024)
+                        .setFileExistCols("id,value")
+                        .build())
+                .setCommitOp(commitOp)
+                .setTimestamp(System.currentTimeMillis())
+                .setCommitted(false)
+                .build();
+    }
+
+    @Test
+    public void testConcurrentAppendersLoseNoCommit() throws Exception {
+        int writers = 8;
+        int commitsPerWriter = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        Set<Uuid> committed = Collections.synchronizedSet(new HashSet<>());
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                futures.add(executor.submit(() -> {
+                    for (int c = 0; c < commitsPerWriter; c++) {
+                        DataCommitInfo dataCommitInfo =
+                                dataCommitInfo(CommitOp.AppendCommit, "part-" + writer + "-" + c + ".parquet");
+                        dbManager.commitDataCommitInfo(dataCommitInfo, null);
+                        committed.add(dataCommitInfo.getCommitId());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        PartitionInfo partitionInfo = dbManager.getSinglePartitionInfo(TABLE_ID, PARTITION_DESC);
+        assertThat(partitionInfo.getSnapshotCount()).isEqualTo(writers * commitsPerWriter);
+        assertThat(new HashSet<>(partitionInfo.getSnapshotList())).isEqualTo(committed);
+        assertThat(partitionInfo.getVersion()).isEqualTo(writers * commitsPerWriter - 1);
+    }
+
+    @Test
+    public void testAppendOnNotAppendableLatestVersionFails() {
+        dbManager.commitDataCommitInfo(dataCommitInfo(CommitOp.AppendCommit, "f0.parquet"), null);
+        PartitionInfo read = dbManager.getSinglePartitionInfo(TABLE_ID, PARTITION_DESC);
+
+        // an append planned on top of the version read, committed after a merge commit
+        DataCommitInfo append = dataCommitInfo(CommitOp.AppendCommit, "f1.parquet");
+        DBFactory.getDataCommitInfoDao().insert(append);
+        dbManager.commitDataCommitInfo(dataCommitInfo(CommitOp.MergeCommit, "f2.parquet"), null);
+        PartitionInfo raw = PartitionInfo.newBuilder()
+                .setTableId(TABLE_ID)
+                .setPartitionDesc(PARTITION_DESC)
+                .setCommitOp(CommitOp.AppendCommit)
+                .setDomain(read.getDomain())
+                .addSnapshot(append.getCommitId())
+                .build();
+        PartitionInfo planned = read.toBuilder()
+                .setVersion(read.getVersion() + 1)
+                .setCommitOp(CommitOp.AppendCommit)
+                .addSnapshot(append.getCommitId())
+                .build();
+        Map<String, PartitionInfo> rawMap = new HashMap<>();
+        rawMap.put(PARTITION_DESC, raw);
+        Map<String, PartitionInfo> newMap = new HashMap<>();
+        newMap.put(PARTITION_DESC, planned);
+        List<String> snapshotList = new ArrayList<>();
+        snapshotList.add(DBUtil.toJavaUUID(append.getCommitId()).toString());
+
+        assertThatThrownBy(() -> dbManager.appendConflict(TABLE_ID,
+                new ArrayList<>(Collections.singletonList(PARTITION_DESC)), rawMap, newMap, snapshotList, 1))
+                .isInstanceOf(IllegalStateException.class);
+        PartitionInfo latest = dbManager.getSinglePartitionInfo(TABLE_ID, PARTITION_DESC);
+        assertThat(latest.getVersion()).isEqualTo(read.getVersion() + 1);
+        assertThat(latest.getCommitOp()).isEqualTo(CommitOp.MergeCommit);
+        assertThat(latest.getSnapshotList()).doesNotContain(append.getCommitId());
+    }
+
+    private void replayCommittedBatch() {
+        DataCommitInfo first = dataCommitInfo(CommitOp.AppendCommit, "f0.parquet");
+        DataCommitInfo second = dataCommitInfo(CommitOp.AppendCommit, "f1.parquet");
+        dbManager.commitDataCommitInfoList(Arrays.asList(first, second));
+
+        // on recovery the committed batch is replayed together with a new commit
+        DataCommitInfo third = dataCommitInfo(CommitOp.AppendCommit, "f2.parquet");
+        dbManager.commitDataCommitInfoList(Arrays.asList(first, second, third));
+
+        PartitionInfo partitionInfo = dbManager.getSinglePartitionInfo(TABLE_ID, PARTITION_DESC);
+        assertThat(partitionInfo.getSnapshotList())
+                .containsExactly(first.getCommitId(), second.getCommitId(), third.getCommitId());
+        assertThat(partitionInfo.getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    public void testReplayCommittedBatch() {
+        replayCommittedBatch();
+    }
+
+    @Test
+    public void testReplayCommittedBatchWithJdbc() {
+        boolean updateEnabled = NativeUtils.NATIVE_METADATA_UPDATE_ENABLED;
+        NativeUtils.NATIVE_METADATA_UPDATE_ENABLED = false;
+        try {
+            replayCommittedBatch();
+        } finally {
+            NativeUtils.NATIVE_METADATA_UPDATE_ENABLED = updateEnabled;
+        }
+    }
+}
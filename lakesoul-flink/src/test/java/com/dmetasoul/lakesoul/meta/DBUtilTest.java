@@ -0,0 +1,132 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.dmetasoul.lakesoul.meta;
+
+import com.dmetasoul.lakesoul.meta.entity.CommitOp;
+import com.dmetasoul.lakesoul.meta.entity.DataCommitInfo;
+import com.dmetasoul.lakesoul.meta.entity.DataFileOp;
+import com.dmetasoul.lakesoul.meta.entity.FileOp;
+import com.dmetasoul.lakesoul.meta.jnr.NativeUtils;
+import org.apache.flink.lakesoul.test.LakeSoulFlinkTestBase;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Text codec of data_file_op arrays used without native metadata.
+ */
+public class DBUtilTest extends LakeSoulFlinkTestBase {
+
+    private static final String FILE_STATS = "{\"numRows\":3,\"columns\":{" +
+            "\"name\":{\"nullCount\":1,\"min\":\"a \\\"quoted\\\", b\",\"max\":\"c:\\\\d\\\\\"}," +
+            "\"tag\":{\"nullCount\":0,\"min\":\"{(x,y)}\",\"max\":\"''\"}}}";
+
+    @After
+    public void cleanMeta() {
+        dbManager.cleanMeta();
+    }
+
+    private static DataFileOp fileOp(String path, String fileExistCols, String fileStats) {
+        return DataFileOp.newBuilder()
+                .setPath(path)
+                .setFileOp(FileOp.add)
+                .setSize(1024)
+                .setFileExistCols(fileExistCols)
+                .setFileStats(fileStats)
+                .build();
+    }
+
+    private static List<DataFileOp> fileOps() {
+        return Arrays.asList(
+                fileOp("file:///tmp/t/part-0.parquet", "id,name", FILE_STATS),
+                fileOp("file:///tmp/t/a \"b\",c\\d/part-1.parquet", "id", ""),
+                fileOp("file:///tmp/t/{(x)}/part-2.parquet", "", "{\"numRows\":0}"));
+    }
+
+    // quotes a value the way postgres outputs a record field or an array element
+    private static String pgQuote(String value, boolean record) {
+        if (value.isEmpty()) {
+            return "\"\"";
+        }
+        if (!value.matches(".*[\"\\\\(),{} ].*")) {
+            return value;
+        }
+        String escaped = record
+                ? value.replace("\"", "\"\"").replace("\\", "\\\\")
+                : value.replace("\\", "\\\\").replace("\"", "\\\"");
+        return "\"" + escaped + "\"";
+    }
+
+    private static String pgLiteral(List<DataFileOp> fileOps) {
+        StringBuilder sb = new StringBuilder("{");
+        for (DataFileOp fileOp : fileOps) {
+            String record = "(" + pgQuote(fileOp.getPath(), true) + "," + fileOp.getFileOp().name() + "," +
+                    fileOp.getSize() + "," + pgQuote(fileOp.getFileExistCols(), true) + "," +
+                    (fileOp.getFileStats().isEmpty() ? "" : pgQuote(fileOp.getFileStats(), true)) + ")";
+            if (sb.length() > 1) {
+                sb.append(',');
+            }
+            sb.append(pgQuote(record, false));
+        }
+        return sb.append('}').toString();
+    }
+
+    @Test
+    public void testRoundTrip() {
+        List<DataFileOp> fileOps = fileOps();
+        assertThat(DBUtil.changeStringToDataFileOpList(DBUtil.changeDataFileOpListToString(fileOps)))
+                .isEqualTo(fileOps);
+        assertThat(DBUtil.changeStringToDataFileOpList(DBUtil.changeDataFileOpListToString(
+                Collections.emptyList()))).isEmpty();
+    }
+
+    @Test
+    public void testParsePostgresOutput() {
+        List<DataFileOp> fileOps = fileOps();
+        assertThat(DBUtil.changeStringToDataFileOpList(pgLiteral(fileOps))).isEqualTo(fileOps);
+        // data_file_op of older versions has no file_stats field
+        assertThat(DBUtil.changeStringToDataFileOpList("{\"(file:///tmp/t/part-0.parquet,add,1024,\\\"id,name\\\")\"}"))
+                .containsExactly(fileOp("file:///tmp/t/part-0.parquet", "id,name", ""));
+    }
+
+    private static void roundTripThroughDb(boolean nativeUpdate, boolean nativeQuery) {
+        boolean updateEnabled = NativeUtils.NATIVE_METADATA_UPDATE_ENABLED;
+        boolean queryEnabled = NativeUtils.NATIVE_METADATA_QUERY_ENABLED;
+        DataCommitInfo dataCommitInfo = DataCommitInfo.newBuilder()
+                .setTableId("db_util_test")
+                .setPartitionDesc("-5")
+                .setCommitId(DBUtil.toProtoUuid(UUID.randomUUID()))
+                .addAllFileOps(fileOps())
+                .setCommitOp(CommitOp.AppendCommit)
+                .setTimestamp(System.currentTimeMillis())
+                .setCommitted(false)
+                .setDomain("public")
+                .build();
+        try {
+            NativeUtils.NATIVE_METADATA_UPDATE_ENABLED = nativeUpdate;
+            DBFactory.getDataCommitInfoDao().insert(dataCommitInfo);
+            NativeUtils.NATIVE_METADATA_QUERY_ENABLED = nativeQuery;
+            DataCommitInfo read = DBFactory.getDataCommitInfoDao().selectByPrimaryKey(dataCommitInfo.getTableId(),
+                    dataCommitInfo.getPartitionDesc(), DBUtil.toJavaUUID(dataCommitInfo.getCommitId()).toString());
+            assertThat(read.getFileOpsList()).isEqualTo(dataCommitInfo.getFileOpsList());
+        } finally {
+            NativeUtils.NATIVE_METADATA_UPDATE_ENABLED = updateEnabled;
+            NativeUtils.NATIVE_METADATA_QUERY_ENABLED = queryEnabled;
+        }
+    }
+
+    @Test
+    public void testRoundTripThroughDb() {
+        roundTripThroughDb(false, false);
+        roundTripThroughDb(false, true);
+        roundTripThroughDb(true, false);
+    }
+}
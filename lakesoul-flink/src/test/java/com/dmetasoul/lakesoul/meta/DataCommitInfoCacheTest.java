@@ -0,0 +1,165 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.dmetasoul.lakesoul.meta;
+
+import com.alibaba.fastjson.JSONObject;
+import com.dmetasoul.lakesoul.meta.entity.CommitOp;
+import com.dmetasoul.lakesoul.meta.entity.DataCommitInfo;
+import com.dmetasoul.lakesoul.meta.entity.DataFileOp;
+import com.dmetasoul.lakesoul.meta.entity.FileOp;
+import com.dmetasoul.lakesoul.meta.entity.PartitionInfo;
+import com.dmetasoul.lakesoul.meta.entity.Uuid;
+import org.apache.flink.lakesoul.test.LakeSoulFlinkTestBase;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DataCommitInfoCacheTest extends LakeSoulFlinkTestBase {
+
+    private static final String TABLE_ID = "data_commit_info_cache_test";
+    private static final String TABLE_PATH = "file:///tmp/lakesoul/data_commit_info_cache_test";
+
+    @After
+    public void cleanMeta() {
+        dbManager.cleanMeta();
+    }
+
+    private static DataCommitInfo dataCommitInfo(String tableId, String partitionDesc, boolean committed,
+                                                 String... paths) {
+        DataCommitInfo.Builder builder = DataCommitInfo.newBuilder()
+                .setTableId(tableId)
+                .setPartitionDesc(partitionDesc)
+                .setCommitId(DBUtil.toProtoUuid(UUID.randomUUID()))
+                .setCommitOp(CommitOp.AppendCommit)
+                .setTimestamp(System.currentTimeMillis())
+                .setCommitted(committed);
+        for (String path : paths) {
+            builder.addFileOps(DataFileOp.newBuilder()
+                    .setPath(path)
+                    .setFileOp(FileOp.add)
+                    .setSize(1024)
+                    .setFileExistCols("id,value")
+                    .build());
+        }
+        return builder.build();
+    }
+
+    private static List<Uuid> commitIds(List<DataCommitInfo> dataCommitInfos) {
+        List<Uuid> commitIds = new ArrayList<>();
+        dataCommitInfos.forEach(dataCommitInfo -> commitIds.add(dataCommitInfo.getCommitId()));
+        return commitIds;
+    }
+
+    @Test
+    public void testOnlyCommittedCached() {
+        DataCommitInfoCache cache = new DataCommitInfoCache(1 << 20);
+        DataCommitInfo committed = dataCommitInfo("t", "p=1", true, "a.parquet");
+        DataCommitInfo uncommitted = dataCommitInfo("t", "p=1", false, "b.parquet");
+        cache.putAll(Arrays.asList(committed, uncommitted));
+
+        assertThat(cache.size()).isEqualTo(1);
+        List<DataCommitInfo> found = cache.getAll("t", "p=1", commitIds(Arrays.asList(committed, uncommitted)),
+                missing -> {
+                    assertThat(missing).containsExactly(uncommitted.getCommitId());
+                    return Collections.singletonList(uncommitted);
+                });
+        assertThat(found).containsExactly(committed, uncommitted);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testInvalidateTable() {
+        DataCommitInfoCache cache = new DataCommitInfoCache(1 << 20);
+        cache.putAll(Arrays.asList(
+                dataCommitInfo("t1", "p=1", true, "a.parquet"),
+                dataCommitInfo("t1", "p=2", true, "b.parquet"),
+                dataCommitInfo("t2", "p=1", true, "c.parquet")));
+
+        cache.invalidate("t1", "p=1");
+        assertThat(cache.size()).isEqualTo(2);
+        cache.invalidate("t1", null);
+        assertThat(cache.size()).isEqualTo(1);
+        DataCommitInfo remaining = dataCommitInfo("t2", "p=1", true, "c.parquet");
+        assertThat(cache.sizeInBytes()).isEqualTo(DataCommitInfoCache.estimateBytes(remaining));
+        cache.invalidateAll();
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.sizeInBytes()).isEqualTo(0);
+    }
+
+    @Test
+    public void testBoundedByEstimatedBytes() {
+        List<DataCommitInfo> dataCommitInfos = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            dataCommitInfos.add(dataCommitInfo("t", "p=1", true, "a.parquet", "b.parquet", "c.parquet"));
+        }
+        long entryBytes = DataCommitInfoCache.estimateBytes(dataCommitInfos.get(0));
+        DataCommitInfoCache cache = new DataCommitInfoCache(entryBytes * 4);
+        cache.putAll(dataCommitInfos);
+
+        assertThat(cache.size()).isEqualTo(4);
+        assertThat(cache.sizeInBytes()).isLessThanOrEqualTo(entryBytes * 4);
+        assertThat(cache.getEvictionCount()).isEqualTo(6);
+        // the eldest ones are evicted
+        List<Uuid> missing = cache.getAll("t", "p=1", commitIds(dataCommitInfos), new HashMap<>());
+        assertThat(missing).isEqualTo(commitIds(dataCommitInfos.subList(0, 6)));
+    }
+
+    @Test
+    public void testFailOnMissingLoad() {
+        DataCommitInfoCache cache = new DataCommitInfoCache(1 << 20);
+        DataCommitInfo dataCommitInfo = dataCommitInfo("t", "p=1", true, "a.parquet");
+        assertThatThrownBy(() -> cache.getAll("t", "p=1", commitIds(Collections.singletonList(dataCommitInfo)),
+                missing -> null)).isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    public void testSameSnapshotWithAndWithoutCache() {
+        dbManager.createNewTable(TABLE_ID, "default", "", TABLE_PATH, "{}", new JSONObject(), "date;");
+        List<String> partitionDescs = Arrays.asList("date=2024-01-01", "date=2024-01-02");
+        for (int i = 0; i < 6; i++) {
+            String partitionDesc = partitionDescs.get(i % partitionDescs.size());
+            dbManager.commitDataCommitInfo(dataCommitInfo(TABLE_ID, partitionDesc, false,
+                    String.format("%s/%s/part-%d.parquet", TABLE_PATH, partitionDesc, i)), null);
+        }
+        List<PartitionInfo> partitionInfos = dbManager.getPartitionInfos(TABLE_ID, partitionDescs);
+        assertThat(partitionInfos).hasSize(2);
+
+        DataCommitInfoCache.get().invalidateAll();
+        List<List<DataCommitInfo>> expected = new ArrayList<>();
+        for (PartitionInfo partitionInfo : partitionInfos) {
+            List<DataCommitInfo> dataCommitInfos = DBFactory.getDataCommitInfoDao()
+                    .selectByTableIdPartitionDescCommitList(TABLE_ID, partitionInfo.getPartitionDesc(),
+                            partitionInfo.getSnapshotList());
+            assertThat(commitIds(dataCommitInfos)).isEqualTo(partitionInfo.getSnapshotList());
+            expected.add(dataCommitInfos);
+        }
+
+        // first round loads from the database, second round is served from the cache
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < partitionInfos.size(); i++) {
+                PartitionInfo partitionInfo = partitionInfos.get(i);
+                assertThat(dbManager.getTableSinglePartitionDataInfo(partitionInfo)).isEqualTo(expected.get(i));
+                assertThat(dbManager.getPartitionSnapshot(TABLE_ID, partitionInfo.getPartitionDesc(),
+                        partitionInfo.getVersion()).getKey()).isEqualTo(expected.get(i));
+            }
+            assertThat(dbManager.getTablePartitionsDataInfo(partitionInfos)).isEqualTo(expected);
+            assertThat(DataCommitInfoCache.get().size()).isEqualTo(6);
+        }
+        // the bulk path alone also fills the cache
+        DataCommitInfoCache.get().invalidateAll();
+        assertThat(dbManager.getTablePartitionsDataInfo(partitionInfos)).isEqualTo(expected);
+        assertThat(DataCommitInfoCache.get().size()).isEqualTo(6);
+        assertThat(dbManager.getTablePartitionsDataInfo(partitionInfos)).isEqualTo(expected);
+    }
+}
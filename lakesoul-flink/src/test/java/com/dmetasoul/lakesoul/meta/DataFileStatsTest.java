@@ -0,0 +1,89 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.dmetasoul.lakesoul.meta;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DataFileStatsTest {
+
+    private static final String STATS = "{\"numRows\":10,\"columns\":{" +
+            "\"id\":{\"nullCount\":0,\"min\":1,\"max\":10}," +
+            "\"name\":{\"nullCount\":2,\"min\":\"\\uFFFD\",\"max\":\"\\uD83D\\uDE00\"}," +
+            "\"all_null\":{\"nullCount\":10}," +
+            "\"no_max\":{\"nullCount\":0,\"min\":1}," +
+            "\"big\":{\"nullCount\":0,\"min\":1,\"max\":100000000000000000000}}}";
+
+    @Test
+    public void testParse() {
+        assertThat(DataFileStats.parse(null)).isNull();
+        assertThat(DataFileStats.parse("")).isNull();
+        assertThat(DataFileStats.parse("{not json")).isNull();
+        assertThat(DataFileStats.parse("{\"columns\":{}}")).isNull();
+        assertThat(DataFileStats.parse("{\"numRows\":5}").getColumns()).isEmpty();
+
+        DataFileStats stats = DataFileStats.parse(STATS);
+        assertThat(stats.getNumRows()).isEqualTo(10);
+        assertThat(stats.getColumn("id").getMin()).isEqualTo(1L);
+        assertThat(stats.getColumn("missing")).isNull();
+        // min and max are only used together
+        assertThat(stats.getColumn("no_max").getMin()).isNull();
+    }
+
+    @Test
+    public void testNullCounts() {
+        DataFileStats stats = DataFileStats.parse(STATS);
+        assertThat(stats.getColumn("id").mayBeNull()).isFalse();
+        assertThat(stats.getColumn("id").mayBeNotNull()).isTrue();
+        assertThat(stats.getColumn("all_null").mayBeNull()).isTrue();
+        assertThat(stats.getColumn("all_null").mayBeNotNull()).isFalse();
+        assertThat(stats.getColumn("all_null").mayEqual(1)).isFalse();
+        DataFileStats.ColumnStats unknown = DataFileStats.parse(
+                "{\"numRows\":10,\"columns\":{\"id\":{}}}").getColumn("id");
+        assertThat(unknown.mayBeNull()).isTrue();
+        assertThat(unknown.mayBeNotNull()).isTrue();
+    }
+
+    @Test
+    public void testComparisons() {
+        DataFileStats.ColumnStats id = DataFileStats.parse(STATS).getColumn("id");
+        assertThat(id.mayEqual(5)).isTrue();
+        assertThat(id.mayEqual(11L)).isFalse();
+        assertThat(id.mayEqual((short) 0)).isFalse();
+        assertThat(id.mayNotEqual(5)).isTrue();
+        assertThat(id.mayBeLessThan(1, false)).isFalse();
+        assertThat(id.mayBeLessThan(1, true)).isTrue();
+        assertThat(id.mayBeGreaterThan(10, false)).isFalse();
+        assertThat(id.mayBeGreaterThan(10, true)).isTrue();
+        DataFileStats.ColumnStats single = DataFileStats.parse(
+                "{\"numRows\":3,\"columns\":{\"id\":{\"nullCount\":0,\"min\":7,\"max\":7}}}").getColumn("id");
+        assertThat(single.mayNotEqual(7)).isFalse();
+        assertThat(single.mayNotEqual(8)).isTrue();
+    }
+
+    @Test
+    public void testIncomparableValuesMayMatch() {
+        DataFileStats stats = DataFileStats.parse(STATS);
+        DataFileStats.ColumnStats id = stats.getColumn("id");
+        assertThat(id.mayEqual("11")).isTrue();
+        assertThat(id.mayEqual(11.0)).isTrue();
+        assertThat(id.mayEqual(null)).isTrue();
+        assertThat(id.mayBeLessThan(0.5, false)).isTrue();
+        assertThat(stats.getColumn("name").mayEqual(5)).isTrue();
+        assertThat(stats.getColumn("no_max").mayEqual(100)).isTrue();
+        assertThat(stats.getColumn("big").mayBeGreaterThan(Long.MAX_VALUE, false)).isTrue();
+    }
+
+    @Test
+    public void testStringsCompareByUtf8Bytes() {
+        // U+FFFD sorts after the surrogates of U+1F600 in utf16 but before it in utf8, like parquet min/max
+        DataFileStats.ColumnStats name = DataFileStats.parse(STATS).getColumn("name");
+        assertThat(name.mayEqual("\uD83D\uDE00")).isTrue();
+        assertThat(name.mayEqual("\uFFFD")).isTrue();
+        assertThat(name.mayEqual("z")).isFalse();
+        assertThat(name.mayBeGreaterThan("\uD83D\uDE00", false)).isFalse();
+    }
+}
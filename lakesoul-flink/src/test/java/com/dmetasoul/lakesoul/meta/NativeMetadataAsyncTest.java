@@ -0,0 +1,91 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.dmetasoul.lakesoul.meta;
+
+import com.dmetasoul.lakesoul.meta.entity.JniWrapper;
+import com.dmetasoul.lakesoul.meta.entity.Namespace;
+import com.dmetasoul.lakesoul.meta.jnr.NativeMetadataJavaClient;
+import com.dmetasoul.lakesoul.meta.jnr.NativeUtils;
+import org.apache.flink.lakesoul.test.LakeSoulFlinkTestBase;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Async native metadata calls completed from the native runtime.
+ */
+public class NativeMetadataAsyncTest extends LakeSoulFlinkTestBase {
+
+    private static final int CALLS = 32;
+
+    @After
+    public void cleanMeta() {
+        dbManager.cleanMeta();
+    }
+
+    private static Namespace namespace(String name) {
+        return Namespace.newBuilder()
+                .setNamespace(name)
+                .setProperties("{}")
+                .setComment("")
+                .setDomain("public")
+                .build();
+    }
+
+    private static String name(int i) {
+        return "native_metadata_async_test_" + i;
+    }
+
+    @Test
+    public void testConcurrentInsertsAndQueries() throws Exception {
+        List<CompletableFuture<Integer>> inserts = new ArrayList<>();
+        for (int i = 0; i < CALLS; i++) {
+            inserts.add(NativeMetadataJavaClient.insertAsync(NativeUtils.CodedDaoType.InsertNamespace,
+                    JniWrapper.newBuilder().addNamespace(namespace(name(i))).build()));
+        }
+        for (CompletableFuture<Integer> insert : inserts) {
+            assertThat(insert.get(1, TimeUnit.MINUTES)).isEqualTo(1);
+        }
+
+        List<CompletableFuture<JniWrapper>> queries = new ArrayList<>();
+        for (int i = 0; i < CALLS; i++) {
+            queries.add(NativeMetadataJavaClient.queryAsync(NativeUtils.CodedDaoType.SelectNamespaceByNamespace,
+                    Collections.singletonList(name(i))));
+        }
+        for (int i = 0; i < CALLS; i++) {
+            List<Namespace> found = queries.get(i).get(1, TimeUnit.MINUTES).getNamespaceList();
+            assertThat(found).hasSize(1);
+            assertThat(found.get(0).getNamespace()).isEqualTo(name(i));
+        }
+    }
+
+    @Test
+    public void testFailingCallCompletesExceptionally() throws Exception {
+        JniWrapper insert = JniWrapper.newBuilder().addNamespace(namespace(name(0))).build();
+        assertThat(NativeMetadataJavaClient.insertAsync(NativeUtils.CodedDaoType.InsertNamespace, insert)
+                .get(1, TimeUnit.MINUTES)).isEqualTo(1);
+
+        // the duplicate fails among calls that succeed
+        List<CompletableFuture<JniWrapper>> queries = new ArrayList<>();
+        for (int i = 0; i < CALLS; i++) {
+            queries.add(NativeMetadataJavaClient.queryAsync(NativeUtils.CodedDaoType.SelectNamespaceByNamespace,
+                    Collections.singletonList(name(0))));
+        }
+        CompletableFuture<Integer> duplicate =
+                NativeMetadataJavaClient.insertAsync(NativeUtils.CodedDaoType.InsertNamespace, insert);
+        assertThatThrownBy(() -> duplicate.get(1, TimeUnit.MINUTES)).hasCauseInstanceOf(RuntimeException.class);
+        for (CompletableFuture<JniWrapper> query : queries) {
+            assertThat(query.get(1, TimeUnit.MINUTES).getNamespaceList()).hasSize(1);
+        }
+    }
+}
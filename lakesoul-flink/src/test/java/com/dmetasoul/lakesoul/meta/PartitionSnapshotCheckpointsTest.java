@@ -0,0 +1,210 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.dmetasoul.lakesoul.meta;
+
+import com.alibaba.fastjson.JSONObject;
+import com.dmetasoul.lakesoul.meta.entity.CommitOp;
+import com.dmetasoul.lakesoul.meta.entity.DataCommitInfo;
+import com.dmetasoul.lakesoul.meta.entity.DataFileOp;
+import com.dmetasoul.lakesoul.meta.entity.FileOp;
+import com.dmetasoul.lakesoul.meta.entity.MetaInfo;
+import com.dmetasoul.lakesoul.meta.entity.PartitionInfo;
+import com.dmetasoul.lakesoul.meta.entity.Uuid;
+import org.apache.flink.lakesoul.test.LakeSoulFlinkTestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PartitionSnapshotCheckpointsTest extends LakeSoulFlinkTestBase {
+
+    private static final String TABLE_ID = "partition_snapshot_checkpoints_test";
+    private static final String TABLE_PATH = "file:///tmp/lakesoul/partition_snapshot_checkpoints_test";
+    private static final String PARTITION_DESC = "date=2024-01-01";
+    private static final int INTERVAL = 3;
+
+    private PartitionSnapshotCheckpoints checkpoints;
+    private DBManager manager;
+
+    @Before
+    public void createTable() {
+        checkpoints = new PartitionSnapshotCheckpoints(DBFactory.getPartitionSnapshotCheckpointDao(), INTERVAL, 100);
+        manager = new DBManager(checkpoints);
+        manager.createNewTable(TABLE_ID, "default", "", TABLE_PATH, "{}", new JSONObject(), "date;");
+    }
+
+    @After
+    public void cleanMeta() {
+        dbManager.cleanMeta();
+    }
+
+    private static DataFileOp fileOp(String file, FileOp op) {
+        return DataFileOp.newBuilder()
+                .setPath(TABLE_PATH + "/" + PARTITION_DESC + "/" + file)
+                .setFileOp(op)
+                .setSize(1024)
+                .setFileExistCols("id,value")
+                .build();
+    }
+
+    private static DataCommitInfo dataCommitInfo(CommitOp commitOp, List<DataFileOp> fileOps) {
+        return DataCommitInfo.newBuilder()
+                .setTableId(TABLE_ID)
+                .setPartitionDesc(PARTITION_DESC)
+                .setCommitId(DBUtil.toProtoUuid(UUID.randomUUID()))
+                .addAllFileOps(fileOps)
+                .setCommitOp(commitOp)
+                .setTimestamp(System.currentTimeMillis())
+                .setCommitted(false)
+                .build();
+    }
+
+    private void append(String... files) {
+        for (String file : files) {
+            manager.commitDataCommitInfo(dataCommitInfo(CommitOp.AppendCommit,
+                    Collections.singletonList(fileOp(file, FileOp.add))), null);
+        }
+    }
+
+    /**
+     * Commit an update or compaction on top of the latest version, keeping the current snapshot for updates and
+     * replacing it for compactions, as the writers do.
+     */
+    private void rewrite(CommitOp commitOp, List<DataFileOp> fileOps) {
+        PartitionInfo current = latest();
+        DataCommitInfo dataCommitInfo = dataCommitInfo(commitOp, fileOps);
+        manager.batchCommitDataCommitInfo(Collections.singletonList(dataCommitInfo));
+        List<Uuid> snapshot = new ArrayList<>();
+        if (commitOp == CommitOp.UpdateCommit) {
+            snapshot.addAll(current.getSnapshotList());
+        }
+        snapshot.add(dataCommitInfo.getCommitId());
+        MetaInfo metaInfo = MetaInfo.newBuilder()
+                .setTableInfo(manager.getTableInfoByTableId(TABLE_ID))
+                .addListPartition(PartitionInfo.newBuilder()
+                        .setTableId(TABLE_ID)
+                        .setPartitionDesc(PARTITION_DESC)
+                        .setCommitOp(commitOp)
+                        .setDomain(current.getDomain())
+                        .addAllSnapshot(snapshot)
+                        .build())
+                .addReadPartitionInfo(current)
+                .build();
+        assertThat(manager.commitData(metaInfo, false, commitOp)).isTrue();
+    }
+
+    private PartitionInfo latest() {
+        return manager.getSinglePartitionInfo(TABLE_ID, PARTITION_DESC);
+    }
+
+    /**
+     * Live files of data commit infos in snapshot order: added files not deleted by a later commit.
+     */
+    private static List<String> livePaths(List<DataCommitInfo> dataCommitInfos) {
+        Set<String> deleted = new HashSet<>();
+        List<String> live = new ArrayList<>();
+        for (int i = dataCommitInfos.size() - 1; i >= 0; i--) {
+            List<DataFileOp> fileOps = dataCommitInfos.get(i).getFileOpsList();
+            for (int j = fileOps.size() - 1; j >= 0; j--) {
+                DataFileOp fileOp = fileOps.get(j);
+                if (fileOp.getFileOp() == FileOp.del) {
+                    deleted.add(fileOp.getPath());
+                } else if (!deleted.contains(fileOp.getPath())) {
+                    live.add(fileOp.getPath());
+                }
+            }
+        }
+        Collections.reverse(live);
+        return live;
+    }
+
+    /**
+     * Resolve the latest version through checkpoints, compare its live files with those of the full snapshot and wait
+     * for the checkpoint it queued, if any.
+     *
+     * @return checkpoint used to resolve the latest version, or null
+     */
+    private PartitionSnapshotCheckpoint resolveAndCompare() throws Exception {
+        PartitionInfo partitionInfo = latest();
+        PartitionSnapshotCheckpoint used = checkpoints.find(Collections.singletonList(partitionInfo)).get(0);
+        List<DataCommitInfo> resolved = manager.getTableSinglePartitionDataInfo(partitionInfo);
+        List<DataCommitInfo> full = DBFactory.getDataCommitInfoDao().selectByTableIdPartitionDescCommitList(
+                TABLE_ID, PARTITION_DESC, partitionInfo.getSnapshotList());
+        assertThat(full).hasSize(partitionInfo.getSnapshotCount());
+        assertThat(livePaths(resolved)).isEqualTo(livePaths(full));
+        checkpoints.flush();
+        return used;
+    }
+
+    @Test
+    public void testCheckpointAndTailResolveToFullSnapshot() throws Exception {
+        append("f0", "f1", "f2", "f3");
+        assertThat(resolveAndCompare()).isNull();
+        PartitionSnapshotCheckpoint first = checkpoints.find(Collections.singletonList(latest())).get(0);
+        assertThat(first).isNotNull();
+        assertThat(first.getSnapshotSize()).isEqualTo(4);
+
+        // deletes files of the checkpoint
+        rewrite(CommitOp.UpdateCommit, Arrays.asList(fileOp("f1", FileOp.del), fileOp("f4", FileOp.add)));
+        assertThat(resolveAndCompare().getSnapshotSize()).isEqualTo(4);
+
+        // deletes files of the checkpoint and of the tail, until the tail is long enough for the next checkpoint
+        append("f5");
+        assertThat(resolveAndCompare().getSnapshotSize()).isEqualTo(4);
+        rewrite(CommitOp.UpdateCommit, Arrays.asList(fileOp("f0", FileOp.del), fileOp("f5", FileOp.del),
+                fileOp("f7", FileOp.add)));
+        assertThat(resolveAndCompare().getSnapshotSize()).isEqualTo(4);
+        PartitionSnapshotCheckpoint second = checkpoints.find(Collections.singletonList(latest())).get(0);
+        assertThat(second.getSnapshotSize()).isEqualTo(7);
+        assertThat(livePaths(second.getDataCommitInfos())).hasSize(4);
+
+        append("f8");
+        assertThat(resolveAndCompare().getSnapshotSize()).isEqualTo(7);
+
+        // compaction rewrites the snapshot, so no earlier checkpoint applies any more
+        rewrite(CommitOp.CompactionCommit, Collections.singletonList(fileOp("compacted", FileOp.add)));
+        assertThat(resolveAndCompare()).isNull();
+        append("f9", "f10", "f11");
+        assertThat(resolveAndCompare()).isNull();
+        PartitionSnapshotCheckpoint third = checkpoints.find(Collections.singletonList(latest())).get(0);
+        assertThat(third.getSnapshotSize()).isEqualTo(4);
+        assertThat(third.getVersion()).isEqualTo(latest().getVersion());
+        append("f12");
+        assertThat(resolveAndCompare().getSnapshotSize()).isEqualTo(4);
+    }
+
+    @Test
+    public void testNoCheckpointOfIncompleteResolution() throws Exception {
+        append("f0", "f1", "f2");
+        PartitionInfo partitionInfo = latest();
+        List<DataCommitInfo> full = DBFactory.getDataCommitInfoDao().selectByTableIdPartitionDescCommitList(
+                TABLE_ID, PARTITION_DESC, partitionInfo.getSnapshotList());
+        // e.g. a time travel read of a version some of whose commits were cleaned up
+        checkpoints.checkpointIfNeeded(partitionInfo, null, full.subList(0, 2));
+        checkpoints.flush();
+        assertThat(checkpoints.find(Collections.singletonList(partitionInfo)).get(0)).isNull();
+    }
+
+    @Test
+    public void testReadOfPartlyCleanedVersion() throws Exception {
+        append("f0", "f1", "f2");
+        PartitionInfo partitionInfo = latest();
+        DBFactory.getDataCommitInfoDao().deleteByTableIdPartitionDescCommitList(TABLE_ID, PARTITION_DESC,
+                Collections.singletonList(partitionInfo.getSnapshot(0)));
+
+        assertThat(manager.getTableSinglePartitionDataInfo(partitionInfo)).hasSize(2);
+        checkpoints.flush();
+        assertThat(checkpoints.find(Collections.singletonList(partitionInfo)).get(0)).isNull();
+    }
+}
@@ -0,0 +1,162 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.dmetasoul.lakesoul.meta;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.dmetasoul.lakesoul.meta.entity.TableInfo;
+import org.apache.flink.lakesoul.test.LakeSoulFlinkTestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TableInfoCacheTest extends LakeSoulFlinkTestBase {
+
+    private static final String TABLE_ID = "table_info_cache_test";
+    private static final String TABLE_PATH = "file:///tmp/lakesoul/table_info_cache_test";
+
+    @Before
+    public void createTable() {
+        dbManager.createNewTable(TABLE_ID, "default", "", TABLE_PATH, "{}", new JSONObject(), "date;");
+    }
+
+    @After
+    public void cleanMeta() {
+        dbManager.cleanMeta();
+    }
+
+    private static TableInfo tableInfo(String tableId) {
+        return TableInfo.newBuilder().setTableId(tableId).setTablePath("file:///tmp/lakesoul/" + tableId).build();
+    }
+
+    private static Supplier<TableInfo> counting(AtomicInteger loads, TableInfo tableInfo) {
+        return () -> {
+            loads.incrementAndGet();
+            return tableInfo;
+        };
+    }
+
+    @Test
+    public void testHits() {
+        TableInfoCache cache = new TableInfoCache(60000, 10);
+        AtomicInteger loads = new AtomicInteger();
+        TableInfo t1 = tableInfo("t1");
+        assertThat(cache.getTableInfoById("t1", counting(loads, t1))).isEqualTo(t1);
+        assertThat(cache.getTableInfoById("t1", counting(loads, t1))).isEqualTo(t1);
+        assertThat(cache.getTableInfoByPath(t1.getTablePath(), counting(loads, t1))).isEqualTo(t1);
+        assertThat(cache.getTableInfoByPath(t1.getTablePath(), counting(loads, t1))).isEqualTo(t1);
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.getHitCount()).isEqualTo(2);
+        assertThat(cache.getMissCount()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(2);
+
+        // entries of all keys of the table are dropped
+        cache.invalidate("t1");
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getTableInfoById("t1", counting(loads, t1))).isEqualTo(t1);
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void testMissingTablesNotCached() {
+        TableInfoCache cache = new TableInfoCache(60000, 10);
+        AtomicInteger loads = new AtomicInteger();
+        assertThat(cache.getTableInfoById("t1", counting(loads, null))).isNull();
+        assertThat(cache.getTableInfoById("t1", counting(loads, null))).isNull();
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void testDisabled() {
+        TableInfoCache cache = new TableInfoCache(0, 10);
+        AtomicInteger loads = new AtomicInteger();
+        cache.getTableInfoById("t1", counting(loads, tableInfo("t1")));
+        cache.getTableInfoById("t1", counting(loads, tableInfo("t1")));
+        assertThat(cache.isEnabled()).isFalse();
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void testLookupRacingWithInvalidationNotStored() {
+        TableInfoCache cache = new TableInfoCache(60000, 10);
+        TableInfo t1 = tableInfo("t1");
+        assertThat(cache.getTableInfoById("t1", () -> {
+            cache.invalidate("t1");
+            return t1;
+        })).isEqualTo(t1);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void testSizeBound() {
+        TableInfoCache cache = new TableInfoCache(60000, 2);
+        AtomicInteger loads = new AtomicInteger();
+        cache.getTableInfoById("t1", counting(loads, tableInfo("t1")));
+        cache.getTableInfoById("t2", counting(loads, tableInfo("t2")));
+        // t1 is used more recently than t2, which is evicted by t3
+        cache.getTableInfoById("t1", counting(loads, tableInfo("t1")));
+        cache.getTableInfoById("t3", counting(loads, tableInfo("t3")));
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+        assertThat(loads.get()).isEqualTo(3);
+
+        cache.getTableInfoById("t1", counting(loads, tableInfo("t1")));
+        assertThat(loads.get()).isEqualTo(3);
+        cache.getTableInfoById("t2", counting(loads, tableInfo("t2")));
+        assertThat(loads.get()).isEqualTo(4);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testInvalidationOnRename() {
+        assertThat(dbManager.getTableInfoByTableId(TABLE_ID).getTableName()).isEmpty();
+        assertThat(dbManager.getTableInfoByPath(TABLE_PATH).getTableName()).isEmpty();
+        assertThat(dbManager.shortTableName("t", "default")).isNull();
+
+        dbManager.updateTableShortName(TABLE_PATH, TABLE_ID, "t", "default");
+        assertThat(dbManager.getTableInfoByTableId(TABLE_ID).getTableName()).isEqualTo("t");
+        assertThat(dbManager.getTableInfoByPath(TABLE_PATH).getTableName()).isEqualTo("t");
+        assertThat(dbManager.getTableInfoByNameAndNamespace("t", "default").getTableId()).isEqualTo(TABLE_ID);
+        assertThat(dbManager.shortTableName("t", "default").getTableId()).isEqualTo(TABLE_ID);
+
+        dbManager.deleteShortTableName("t", TABLE_PATH, "default");
+        assertThat(dbManager.shortTableName("t", "default")).isNull();
+    }
+
+    @Test
+    public void testInvalidationOnDrop() {
+        assertThat(dbManager.getTableInfoByTableId(TABLE_ID)).isNotNull();
+        assertThat(dbManager.getTableInfoByPath(TABLE_PATH)).isNotNull();
+
+        dbManager.deleteTableInfo(TABLE_PATH, TABLE_ID, "default");
+        assertThat(dbManager.getTableInfoByTableId(TABLE_ID)).isNull();
+        assertThat(dbManager.getTableInfoByPath(TABLE_PATH)).isNull();
+    }
+
+    @Test
+    public void testInvalidationOnPropertiesUpdate() {
+        assertThat(JSON.parseObject(dbManager.getTableInfoByTableId(TABLE_ID).getProperties()))
+                .doesNotContainKey("hashBucketNum");
+        assertThat(dbManager.getTableInfoByPath(TABLE_PATH)).isNotNull();
+
+        JSONObject properties = new JSONObject();
+        properties.put("hashBucketNum", "4");
+        dbManager.updateTableProperties(TABLE_ID, properties.toJSONString());
+        assertThat(JSON.parseObject(dbManager.getTableInfoByTableId(TABLE_ID).getProperties()))
+                .containsEntry("hashBucketNum", "4");
+        assertThat(JSON.parseObject(dbManager.getTableInfoByPath(TABLE_PATH).getProperties()))
+                .containsEntry("hashBucketNum", "4");
+
+        dbManager.updateTableSchema(TABLE_ID, "{\"type\":\"struct\"}");
+        assertThat(dbManager.getTableInfoByTableId(TABLE_ID).getTableSchema()).isEqualTo("{\"type\":\"struct\"}");
+    }
+}
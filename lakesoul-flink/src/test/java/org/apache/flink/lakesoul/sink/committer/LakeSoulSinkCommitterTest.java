@@ -0,0 +1,77 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.apache.flink.lakesoul.sink.committer;
+
+import org.apache.flink.lakesoul.sink.state.LakeSoulMultiTableSinkCommittable;
+import org.apache.flink.lakesoul.sink.writer.NativeParquetWriter;
+import org.apache.flink.lakesoul.types.TableId;
+import org.apache.flink.lakesoul.types.TableSchemaIdentity;
+import org.apache.flink.streaming.api.functions.sink.filesystem.InProgressFileWriter;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Deletion of the in-progress segments released by committed files.
+ */
+public class LakeSoulSinkCommitterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static LakeSoulMultiTableSinkCommittable committable(TableSchemaIdentity identity,
+                                                                 InProgressFileWriter.PendingFileRecoverable... files) {
+        return new LakeSoulMultiTableSinkCommittable("bucket-1", Arrays.asList(files), System.currentTimeMillis(),
+                identity, System.currentTimeMillis(), "insert", "");
+    }
+
+    @Test
+    public void testDeleteInProgressSegments() throws Exception {
+        File dir = folder.newFolder();
+        File segments = new File(dir, NativeParquetWriter.IN_PROGRESS_DIR);
+        assertThat(segments.mkdirs()).isTrue();
+        File first = new File(segments, "a.arrow");
+        File second = new File(segments, "b.arrow");
+        File unreferenced = new File(segments, "c.arrow");
+        for (File file : Arrays.asList(first, second, unreferenced)) {
+            assertThat(file.createNewFile()).isTrue();
+        }
+        TableSchemaIdentity identity = new TableSchemaIdentity(new TableId("lakesoul", "default", "t"),
+                RowType.of(new LogicalType[]{new IntType()}, new String[]{"id"}), dir.toURI().toString(),
+                Collections.emptyList(), Collections.emptyList(), false, "");
+
+        NativeParquetWriter.NativeWriterPendingFileRecoverable withSegments =
+                new NativeParquetWriter.NativeWriterPendingFileRecoverable(
+                        new File(dir, "part-0.parquet").toURI().toString(), 1000L, 0L, "");
+        withSegments.inProgressSegments.addAll(Arrays.asList(first.toURI().toString(), second.toURI().toString()));
+        // a segment already deleted by an earlier attempt of the same commit
+        NativeParquetWriter.NativeWriterPendingFileRecoverable withMissingSegment =
+                new NativeParquetWriter.NativeWriterPendingFileRecoverable(
+                        new File(dir, "part-1.parquet").toURI().toString(), 1000L, 0L, "");
+        withMissingSegment.inProgressSegments.add(new File(segments, "missing.arrow").toURI().toString());
+        NativeParquetWriter.NativeWriterPendingFileRecoverable withoutSegments =
+                new NativeParquetWriter.NativeWriterPendingFileRecoverable(
+                        new File(dir, "part-2.parquet").toURI().toString(), 1000L, 0L, "");
+        List<LakeSoulMultiTableSinkCommittable> committables = Arrays.asList(
+                committable(identity, withMissingSegment, withSegments),
+                committable(identity, withoutSegments));
+
+        new LakeSoulSinkCommitter().deleteInProgressSegments(committables);
+        assertThat(first).doesNotExist();
+        assertThat(second).doesNotExist();
+        // segments of files not committed yet are kept
+        assertThat(unreferenced).exists();
+    }
+}
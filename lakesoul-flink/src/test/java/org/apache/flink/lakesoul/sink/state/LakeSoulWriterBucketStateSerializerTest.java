@@ -0,0 +1,139 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.apache.flink.lakesoul.sink.state;
+
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.core.io.SimpleVersionedSerialization;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.lakesoul.sink.writer.NativeParquetWriter;
+import org.apache.flink.lakesoul.types.TableId;
+import org.apache.flink.lakesoul.types.TableSchemaIdentity;
+import org.apache.flink.streaming.api.functions.sink.filesystem.InProgressFileWriter;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Writer bucket states and pending files of the native writer, including those of earlier serializer versions.
+ */
+public class LakeSoulWriterBucketStateSerializerTest {
+
+    private static final int MAGIC_NUMBER = 0x1e764b79;
+
+    private static final String FILE_STATS = "{\"numRows\":10}";
+
+    private static final TableSchemaIdentity IDENTITY = new TableSchemaIdentity(
+            new TableId("lakesoul", "default", "t"),
+            RowType.of(new LogicalType[]{new IntType()}, new String[]{"id"}),
+            "file:///tmp/lakesoul/t", Collections.singletonList("id"), Collections.emptyList(), false, "");
+
+    private static final LakeSoulWriterBucketStateSerializer SERIALIZER = new LakeSoulWriterBucketStateSerializer(
+            NativeParquetWriter.NativePendingFileRecoverableSerializer.INSTANCE,
+            NativeParquetWriter.NativeInProgressFileRecoverableSerializer.INSTANCE);
+
+    // a pending file as written by version 2 of the pending file serializer
+    private static byte[] pendingFileV2(String path) throws IOException {
+        DataOutputSerializer out = new DataOutputSerializer(64);
+        out.writeUTF(path);
+        out.writeLong(1000L);
+        out.writeLong(2048L);
+        byte[] fileStats = FILE_STATS.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(fileStats.length);
+        out.write(fileStats);
+        return out.getCopyOfBuffer();
+    }
+
+    private static void assertPendingFile(InProgressFileWriter.PendingFileRecoverable pendingFile, String path,
+                                          List<String> inProgressSegments) {
+        NativeParquetWriter.NativeWriterPendingFileRecoverable recoverable =
+                (NativeParquetWriter.NativeWriterPendingFileRecoverable) pendingFile;
+        assertThat(recoverable.path).isEqualTo(path);
+        assertThat(recoverable.creationTime).isEqualTo(1000L);
+        assertThat(recoverable.fileSize).isEqualTo(2048L);
+        assertThat(recoverable.fileStats).isEqualTo(FILE_STATS);
+        assertThat(recoverable.inProgressSegments).isEqualTo(inProgressSegments);
+    }
+
+    @Test
+    public void testDeserializeVersion1() throws IOException {
+        byte[] pendingFile = pendingFileV2("file:///tmp/lakesoul/t/part-0.parquet");
+        DataOutputSerializer out = new DataOutputSerializer(256);
+        out.writeInt(MAGIC_NUMBER);
+        out.writeInt(3);
+        out.writeUTF("file:///tmp/lakesoul/t");
+        SimpleVersionedSerialization.writeVersionAndSerialize(new TableSchemaIdentitySerializer(), IDENTITY, out);
+        out.writeInt(1);
+        out.writeUTF("bucket-1");
+        out.writeInt(1);
+        out.writeInt(2);
+        out.writeInt(pendingFile.length);
+        out.write(pendingFile);
+
+        LakeSoulWriterBucketState state = SERIALIZER.deserialize(1, out.getCopyOfBuffer());
+        assertThat(state.getBucketId()).isEqualTo("bucket-1");
+        assertThat(state.getBucketPath()).isEqualTo(new Path("file:///tmp/lakesoul/t"));
+        assertThat(state.getRestartTimes()).isEqualTo(3);
+        assertThat(state.getIdentity()).isEqualTo(IDENTITY);
+        assertThat(state.hasInProgressFileRecoverable()).isFalse();
+        assertThat(state.getPendingFileRecoverableMap()).containsOnlyKeys("bucket-1");
+        assertThat(state.getPendingFileRecoverableList()).hasSize(1);
+        assertPendingFile(state.getPendingFileRecoverableList().get(0), "file:///tmp/lakesoul/t/part-0.parquet",
+                Collections.emptyList());
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        List<String> segments = Arrays.asList("file:///tmp/lakesoul/t/_lakesoul_in_progress/a.arrow",
+                "file:///tmp/lakesoul/t/_lakesoul_in_progress/b.arrow");
+        HashMap<String, List<InProgressFileWriter.PendingFileRecoverable>> pendingFiles = new HashMap<>();
+        List<InProgressFileWriter.PendingFileRecoverable> files = Arrays.asList(
+                new NativeParquetWriter.NativeWriterPendingFileRecoverable(
+                        "file:///tmp/lakesoul/t/part-0.parquet", 1000L, 2048L, FILE_STATS),
+                new NativeParquetWriter.NativeWriterPendingFileRecoverable(
+                        "file:///tmp/lakesoul/t/part-1.parquet", 1000L, 2048L, FILE_STATS));
+        ((NativeParquetWriter.NativeWriterPendingFileRecoverable) files.get(0)).inProgressSegments.addAll(segments);
+        pendingFiles.put("bucket-1", files);
+        pendingFiles.put("bucket-2", Collections.emptyList());
+        LakeSoulWriterBucketState state = new LakeSoulWriterBucketState(IDENTITY, "bucket-1",
+                new Path("file:///tmp/lakesoul/t"), pendingFiles, 2,
+                new NativeParquetWriter.NativeWriterInProgressFileRecoverable(
+                        "file:///tmp/lakesoul/t", segments, 1000L, 42L));
+
+        LakeSoulWriterBucketState read = SERIALIZER.deserialize(SERIALIZER.getVersion(), SERIALIZER.serialize(state));
+        assertThat(read.getBucketId()).isEqualTo("bucket-1");
+        assertThat(read.getRestartTimes()).isEqualTo(2);
+        assertThat(read.getPendingFileRecoverableMap()).containsOnlyKeys("bucket-1", "bucket-2");
+        assertThat(read.getPendingFileRecoverableMap().get("bucket-2")).isEmpty();
+        List<InProgressFileWriter.PendingFileRecoverable> readFiles =
+                read.getPendingFileRecoverableMap().get("bucket-1");
+        assertThat(readFiles).hasSize(2);
+        assertPendingFile(readFiles.get(0), "file:///tmp/lakesoul/t/part-0.parquet", segments);
+        assertPendingFile(readFiles.get(1), "file:///tmp/lakesoul/t/part-1.parquet", Collections.emptyList());
+        NativeParquetWriter.NativeWriterInProgressFileRecoverable inProgress =
+                (NativeParquetWriter.NativeWriterInProgressFileRecoverable) read.getInProgressFileRecoverable();
+        assertThat(inProgress.path).isEqualTo("file:///tmp/lakesoul/t");
+        assertThat(inProgress.segments).isEqualTo(segments);
+        assertThat(inProgress.creationTime).isEqualTo(1000L);
+        assertThat(inProgress.totalRows).isEqualTo(42L);
+    }
+
+    @Test
+    public void testDeserializePendingFileVersion2() throws IOException {
+        NativeParquetWriter.NativePendingFileRecoverableSerializer serializer =
+                NativeParquetWriter.NativePendingFileRecoverableSerializer.INSTANCE;
+        String path = "file:///tmp/lakesoul/t/part-0.parquet";
+        assertPendingFile(serializer.deserialize(2, pendingFileV2(path)), path, Collections.emptyList());
+    }
+}
@@ -0,0 +1,128 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.apache.flink.lakesoul.sink.writer;
+
+import com.dmetasoul.lakesoul.meta.DataFileStats;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.lakesoul.tool.LakeSoulSinkOptions;
+import org.apache.flink.streaming.api.functions.sink.filesystem.InProgressFileWriter;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.VarCharType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Persisting the open file of the native writer to in-progress segments and resuming from them.
+ */
+public class NativeParquetWriterTest {
+
+    private static final RowType ROW_TYPE = RowType.of(
+            new LogicalType[]{new IntType(), new VarCharType()}, new String[]{"id", "name"});
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static Configuration conf() {
+        Configuration conf = new Configuration();
+        conf.set(LakeSoulSinkOptions.FILE_ROLL_ON_CHECKPOINT, false);
+        conf.set(LakeSoulSinkOptions.MAX_ROW_GROUP_SIZE, 2);
+        conf.set(LakeSoulSinkOptions.STATS_COLUMNS, "id");
+        return conf;
+    }
+
+    private static void write(NativeParquetWriter writer, int from, int to) throws IOException {
+        for (int id = from; id < to; id++) {
+            writer.write(GenericRowData.of(id, StringData.fromString("name" + id)), System.currentTimeMillis());
+        }
+    }
+
+    private static InProgressFileWriter.InProgressFileRecoverable roundTrip(
+            InProgressFileWriter.InProgressFileRecoverable recoverable) throws IOException {
+        NativeParquetWriter.NativeInProgressFileRecoverableSerializer serializer =
+                NativeParquetWriter.NativeInProgressFileRecoverableSerializer.INSTANCE;
+        return serializer.deserialize(serializer.getVersion(), serializer.serialize(recoverable));
+    }
+
+    private static String[] segmentFiles(File dir) {
+        String[] files = new File(dir, NativeParquetWriter.IN_PROGRESS_DIR).list();
+        return files == null ? new String[0] : files;
+    }
+
+    @Test
+    public void testResumeFromPersistedSegments() throws Exception {
+        File dir = folder.newFolder();
+        Path path = new Path(dir.toURI());
+        NativeParquetWriter writer = new NativeParquetWriter(ROW_TYPE, Collections.emptyList(),
+                Collections.emptyList(), "", path, System.currentTimeMillis(), conf(), 0);
+        // two full batches and one partial batch, sealed by the checkpoint
+        write(writer, 0, 5);
+        NativeParquetWriter.NativeWriterInProgressFileRecoverable checkpointed =
+                (NativeParquetWriter.NativeWriterInProgressFileRecoverable) roundTrip(writer.persist());
+        assertThat(checkpointed.segments).hasSize(1);
+        assertThat(checkpointed.totalRows).isEqualTo(5);
+
+        // rows written after the checkpoint are lost on failover, their open segment is discarded
+        write(writer, 100, 102);
+        assertThat(segmentFiles(dir)).hasSize(2);
+        writer.dispose();
+        assertThat(segmentFiles(dir)).hasSize(1);
+
+        NativeParquetWriter resumed = new NativeParquetWriter(ROW_TYPE, Collections.emptyList(),
+                Collections.emptyList(), "", checkpointed, conf(), 0);
+        write(resumed, 5, 8);
+        NativeParquetWriter.NativeWriterInProgressFileRecoverable next =
+                (NativeParquetWriter.NativeWriterInProgressFileRecoverable) resumed.persist();
+        assertThat(next.segments).hasSize(2).startsWith(checkpointed.segments.get(0));
+        assertThat(next.totalRows).isEqualTo(8);
+        write(resumed, 8, 10);
+
+        Map<String, List<InProgressFileWriter.PendingFileRecoverable>> pendingFiles =
+                resumed.closeForCommitWithRecoverableMap();
+        long numRows = 0;
+        long maxId = Long.MIN_VALUE;
+        for (List<InProgressFileWriter.PendingFileRecoverable> files : pendingFiles.values()) {
+            for (InProgressFileWriter.PendingFileRecoverable file : files) {
+                DataFileStats stats = DataFileStats.parse(
+                        ((NativeParquetWriter.NativeWriterPendingFileRecoverable) file).fileStats);
+                numRows += stats.getNumRows();
+                maxId = Math.max(maxId, (Long) stats.getColumn("id").getMax());
+            }
+        }
+        assertThat(numRows).isEqualTo(10);
+        assertThat(maxId).isEqualTo(9);
+        // the segment open at close holds rows of the closed files only
+        assertThat(segmentFiles(dir)).hasSize(2);
+        NativeParquetWriter.NativeWriterPendingFileRecoverable first =
+                (NativeParquetWriter.NativeWriterPendingFileRecoverable) pendingFiles.values().iterator().next().get(0);
+        assertThat(first.inProgressSegments).isEqualTo(next.segments);
+    }
+
+    @Test
+    public void testNoSegmentsWhenRollingOnCheckpoint() throws Exception {
+        File dir = folder.newFolder();
+        Configuration conf = conf();
+        conf.set(LakeSoulSinkOptions.FILE_ROLL_ON_CHECKPOINT, true);
+        NativeParquetWriter writer = new NativeParquetWriter(ROW_TYPE, Collections.emptyList(),
+                Collections.emptyList(), "", new Path(dir.toURI()), System.currentTimeMillis(), conf, 0);
+        write(writer, 0, 5);
+        assertThat(writer.persist()).isNull();
+        writer.closeForCommitWithRecoverableMap();
+        assertThat(segmentFiles(dir)).isEmpty();
+    }
+}
@@ -0,0 +1,197 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.apache.flink.lakesoul.source;
+
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Round trips of split and enumerator state, and restoring state written by earlier versions of the serializers.
+ */
+public class LakeSoulSourceStateTest {
+
+    private static LakeSoulPartitionSplit split(String id, int bucketId, long size) {
+        return new LakeSoulPartitionSplit(id,
+                Arrays.asList(new Path("file:///tmp/t/range=1/" + id + "-0.parquet"),
+                        new Path("file:///tmp/t/range=1/" + id + "-1.parquet")),
+                3, bucketId, "range=1", 0, null, size);
+    }
+
+    private static void assertSameSplit(LakeSoulPartitionSplit actual, LakeSoulPartitionSplit expected) {
+        assertThat(actual.splitId()).isEqualTo(expected.splitId());
+        assertThat(actual.getFiles()).isEqualTo(expected.getFiles());
+        assertThat(actual.getSkipRecord()).isEqualTo(expected.getSkipRecord());
+        assertThat(actual.getBucketId()).isEqualTo(expected.getBucketId());
+        assertThat(actual.getPartitionDesc()).isEqualTo(expected.getPartitionDesc());
+        assertThat(actual.getPositionRecord()).isEqualTo(expected.getPositionRecord());
+        assertThat(actual.getPositionKey()).isEqualTo(expected.getPositionKey());
+        assertThat(actual.getSize()).isEqualTo(expected.getSize());
+    }
+
+    private static void writeSplitV1(DataOutputSerializer out, LakeSoulPartitionSplit split) throws IOException {
+        out.writeUTF(split.splitId());
+        out.writeInt(split.getFiles().size());
+        for (Path path : split.getFiles()) {
+            path.write(out);
+        }
+        out.writeLong(split.getSkipRecord());
+        out.writeInt(split.getBucketId());
+        out.writeUTF(split.getPartitionDesc());
+    }
+
+    @Test
+    public void testSplitRoundTrip() throws IOException {
+        SimpleLakeSoulSerializer serializer = new SimpleLakeSoulSerializer();
+        LakeSoulPartitionSplit split = split("s0", 2, 4096);
+        split.updatePosition(2, Arrays.asList("k1", "2"));
+        assertSameSplit(serializer.deserialize(serializer.getVersion(), serializer.serialize(split)), split);
+
+        LakeSoulPartitionSplit noPosition = split("s1", -1, -1);
+        assertSameSplit(serializer.deserialize(serializer.getVersion(), serializer.serialize(noPosition)), noPosition);
+    }
+
+    @Test
+    public void testRestoreSplitOfEarlierVersions() throws IOException {
+        SimpleLakeSoulSerializer serializer = new SimpleLakeSoulSerializer();
+        LakeSoulPartitionSplit split = split("s0", 2, 4096);
+
+        DataOutputSerializer out = new DataOutputSerializer(64);
+        writeSplitV1(out, split);
+        LakeSoulPartitionSplit v1 = serializer.deserialize(1, out.getCopyOfBuffer());
+        assertSameSplit(v1, new LakeSoulPartitionSplit("s0", split.getFiles(), 3, 2, "range=1"));
+
+        out.clear();
+        writeSplitV1(out, split);
+        out.writeLong(2);
+        out.writeInt(2);
+        out.writeUTF("k1");
+        out.writeUTF("2");
+        LakeSoulPartitionSplit v2 = serializer.deserialize(2, out.getCopyOfBuffer());
+        assertSameSplit(v2, new LakeSoulPartitionSplit("s0", split.getFiles(), 3, 2, "range=1",
+                2, Arrays.asList("k1", "2"), -1));
+    }
+
+    @Test
+    public void testPendingSplitsRoundTrip() throws IOException {
+        SimpleLakeSoulPendingSplitsSerializer serializer = new SimpleLakeSoulPendingSplitsSerializer();
+        Map<Integer, Integer> owners = new HashMap<>();
+        owners.put(0, 1);
+        owners.put(3, 0);
+        LakeSoulPendingSplits pendingSplits = new LakeSoulPendingSplits(
+                Arrays.asList(split("s0", 0, 100), split("s1", 3, 200)),
+                1700000000000L, "table_id", "range=1", 30000, 4, owners, 2);
+
+        LakeSoulPendingSplits restored =
+                serializer.deserialize(serializer.getVersion(), serializer.serialize(pendingSplits));
+        assertThat(restored.getSplits()).hasSize(2);
+        for (int i = 0; i < 2; i++) {
+            assertSameSplit(restored.getSplits().get(i), pendingSplits.getSplits().get(i));
+        }
+        assertThat(restored.getLastReadTimestamp()).isEqualTo(1700000000000L);
+        assertThat(restored.getTableId()).isEqualTo("table_id");
+        assertThat(restored.getParDesc()).isEqualTo("range=1");
+        assertThat(restored.getDiscoverInterval()).isEqualTo(30000);
+        assertThat(restored.getHashBucketNum()).isEqualTo(4);
+        assertThat(restored.getBucketOwners()).isEqualTo(owners);
+        assertThat(restored.getOwnersParallelism()).isEqualTo(2);
+    }
+
+    /**
+     * Enumerator state in the format of version 2, without split sizes and bucket owners.
+     */
+    private static byte[] pendingSplitsV2(List<LakeSoulPartitionSplit> splits, int hashBucketNum)
+            throws IOException {
+        DataOutputSerializer out = new DataOutputSerializer(64);
+        out.writeLong(1700000000000L);
+        out.writeInt(splits.size());
+        for (LakeSoulPartitionSplit split : splits) {
+            writeSplitV1(out, split);
+        }
+        out.writeUTF("table_id");
+        out.writeUTF("range=1");
+        out.writeLong(30000);
+        out.writeInt(hashBucketNum);
+        return out.getCopyOfBuffer();
+    }
+
+    @Test
+    public void testRestorePendingSplitsOfVersion2() throws IOException {
+        List<LakeSoulPartitionSplit> splits = Arrays.asList(split("s0", 0, 100), split("s1", 3, 200));
+        LakeSoulPendingSplits restored =
+                new SimpleLakeSoulPendingSplitsSerializer().deserialize(2, pendingSplitsV2(splits, 4));
+        assertThat(restored.getSplits()).hasSize(2);
+        for (int i = 0; i < 2; i++) {
+            LakeSoulPartitionSplit split = splits.get(i);
+            assertSameSplit(restored.getSplits().get(i), new LakeSoulPartitionSplit(split.splitId(),
+                    split.getFiles(), 3, split.getBucketId(), "range=1", 0, null, -1));
+        }
+        assertThat(restored.getHashBucketNum()).isEqualTo(4);
+        assertThat(restored.getBucketOwners()).isEmpty();
+        assertThat(restored.getOwnersParallelism()).isEqualTo(-1);
+    }
+
+    private static List<Integer> bucketsRead(LakeSoulDynSplitAssigner assigner, int taskId, int parallelism) {
+        List<Integer> buckets = new ArrayList<>();
+        Optional<LakeSoulPartitionSplit> split;
+        while ((split = assigner.getNext(taskId, parallelism)).isPresent()) {
+            buckets.add(split.get().getBucketId());
+        }
+        Collections.sort(buckets);
+        return buckets;
+    }
+
+    private static LakeSoulDynSplitAssigner restore(LakeSoulPendingSplits pendingSplits) {
+        return new LakeSoulDynSplitAssigner(pendingSplits.getSplits(),
+                String.valueOf(pendingSplits.getHashBucketNum()),
+                pendingSplits.getBucketOwners(), pendingSplits.getOwnersParallelism());
+    }
+
+    @Test
+    public void testRestoreAssignerOfVersion2PinsBucketsAsBefore() throws IOException {
+        // pinning by load would split the two large buckets between the subtasks
+        List<LakeSoulPartitionSplit> splits = Arrays.asList(
+                split("s0", 0, 10), split("s1", 1, 1000), split("s2", 2, 10), split("s3", 3, 1000));
+        LakeSoulDynSplitAssigner assigner = restore(
+                new SimpleLakeSoulPendingSplitsSerializer().deserialize(2, pendingSplitsV2(splits, 4)));
+
+        assertThat(bucketsRead(assigner, 0, 2)).containsExactly(0, 2);
+        assertThat(bucketsRead(assigner, 1, 2)).containsExactly(1, 3);
+        Map<Integer, Integer> owners = assigner.getBucketOwners();
+        for (int bucket = 0; bucket < 4; bucket++) {
+            assertThat(owners.get(bucket)).isEqualTo(bucket % 2);
+        }
+        assertThat(assigner.getOwnersParallelism()).isEqualTo(2);
+    }
+
+    @Test
+    public void testRestoreAssignerKeepsOwners() throws IOException {
+        List<LakeSoulPartitionSplit> splits = Arrays.asList(
+                split("s0", 0, 10), split("s1", 1, 1000), split("s2", 2, 10), split("s3", 3, 1000));
+        Map<Integer, Integer> owners = new HashMap<>();
+        owners.put(1, 0);
+        owners.put(3, 0);
+        SimpleLakeSoulPendingSplitsSerializer serializer = new SimpleLakeSoulPendingSplitsSerializer();
+        LakeSoulDynSplitAssigner assigner = restore(serializer.deserialize(serializer.getVersion(),
+                serializer.serialize(new LakeSoulPendingSplits(splits, 0, "table_id", "range=1", 30000, 4,
+                        owners, 2))));
+
+        // new buckets go to the other subtask, which has no load pinned
+        assertThat(bucketsRead(assigner, 0, 2)).containsExactly(1, 3);
+        assertThat(bucketsRead(assigner, 1, 2)).containsExactly(0, 2);
+        assertThat(assigner.getPendingSplitNum()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,73 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.apache.flink.lakesoul.table;
+
+import org.apache.flink.api.common.functions.util.ListCollector;
+import org.apache.flink.lakesoul.connector.LakeSoulPartition;
+import org.apache.flink.lakesoul.types.TableId;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.VarCharType;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upserts applied to the lookup cache by incremental refresh.
+ */
+public class LakeSoulTableLookupFunctionTest {
+
+    // id is the primary key, p the range partition, lookup is by id
+    private static final RowType ROW_TYPE = RowType.of(
+            new LogicalType[]{new IntType(), new VarCharType(), new VarCharType(), new VarCharType()},
+            new String[]{"id", "value", "p", "op"});
+
+    private static LakeSoulTableLookupFunction<LakeSoulPartition> lookupFunction() {
+        return new LakeSoulTableLookupFunction<>(new TableId("lakesoul", "default", "t"), null, null, null,
+                null, ROW_TYPE, new int[]{0}, Collections.singletonList("p"), Collections.singletonList("id"),
+                "op", Duration.ofMinutes(1), 1000);
+    }
+
+    private static RowData row(int id, String value, String partition, String op) {
+        return GenericRowData.of(id, StringData.fromString(value), StringData.fromString(partition),
+                StringData.fromString(op));
+    }
+
+    private static List<RowData> lookup(LakeSoulTableLookupFunction<LakeSoulPartition> function, int id) {
+        List<RowData> rows = new ArrayList<>();
+        function.setCollector(new ListCollector<>(rows));
+        function.eval(id);
+        return rows;
+    }
+
+    @Test
+    public void testUpsertKeepsSamePrimaryKeyOfOtherPartition() {
+        LakeSoulTableLookupFunction<LakeSoulPartition> function = lookupFunction();
+        RowData first = row(1, "a", "1", "insert");
+        function.loadCache(Arrays.asList(first, row(1, "b", "2", "insert"), row(2, "c", "2", "insert")));
+
+        RowData updated = row(1, "d", "2", "update");
+        assertThat(function.applyUpsert(updated)).isTrue();
+        assertThat(lookup(function, 1)).containsExactlyInAnyOrder(first, updated);
+        assertThat(lookup(function, 2)).containsExactly(row(2, "c", "2", "insert"));
+
+        assertThat(function.applyUpsert(row(1, "d", "2", "delete"))).isTrue();
+        assertThat(lookup(function, 1)).containsExactly(first);
+
+        RowData inserted = row(1, "e", "3", "insert");
+        assertThat(function.applyUpsert(inserted)).isTrue();
+        assertThat(lookup(function, 1)).containsExactlyInAnyOrder(first, inserted);
+    }
+}
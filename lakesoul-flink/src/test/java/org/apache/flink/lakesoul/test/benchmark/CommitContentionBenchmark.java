@@ -0,0 +1,105 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.apache.flink.lakesoul.test.benchmark;
+
+import com.alibaba.fastjson.JSONObject;
+import com.dmetasoul.lakesoul.meta.CommitConflictMetrics;
+import com.dmetasoul.lakesoul.meta.DBManager;
+import com.dmetasoul.lakesoul.meta.DBUtil;
+import com.dmetasoul.lakesoul.meta.entity.CommitOp;
+import com.dmetasoul.lakesoul.meta.entity.DataCommitInfo;
+import com.dmetasoul.lakesoul.meta.entity.DataFileOp;
+import com.dmetasoul.lakesoul.meta.entity.FileOp;
+import com.dmetasoul.lakesoul.meta.entity.PartitionInfo;
+import com.dmetasoul.lakesoul.meta.jnr.NativeMetadataJavaClient;
+import org.apache.flink.api.java.utils.ParameterTool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures append commits of many concurrent writers to one hot partition against the postgres configured for the
+ * tests, and checks that every commit ends up in the partition snapshot. Run with --server.side.append false to
+ * compare with resolving conflicts by re-reading partitions and retrying.
+ *
+ * param example:
+ * --writers 16
+ * --commits.per.writer 50
+ * --server.side.append true
+ */
+public class CommitContentionBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        ParameterTool parameter = ParameterTool.fromArgs(args);
+        int writers = parameter.getInt("writers", 16);
+        int commitsPerWriter = parameter.getInt("commits.per.writer", 50);
+        // read once by DBManager, so it has to be set before its first use
+        System.setProperty("lakesoul.meta.commit.server_side_append",
+                String.valueOf(parameter.getBoolean("server.side.append", true)));
+
+        String tableId = "commit_contention_benchmark";
+        String tablePath = "file:///tmp/lakesoul/commit_contention_benchmark";
+        String partitionDesc = "date=2024-01-01";
+        DBManager dbManager = new DBManager();
+        if (dbManager.getTableInfoByTableId(tableId) != null) {
+            dbManager.deletePartitionInfoByTableId(tableId);
+            dbManager.deleteDataCommitInfo(tableId);
+            dbManager.deleteTableInfo(tablePath, tableId, "default");
+        }
+        dbManager.createNewTable(tableId, "default", "", tablePath, "{}", new JSONObject(), "date;");
+
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            long t0 = System.nanoTime();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                futures.add(executor.submit(() -> {
+                    for (int c = 0; c < commitsPerWriter; c++) {
+                        dbManager.commitDataCommitInfo(DataCommitInfo.newBuilder()
+                                .setTableId(tableId)
+                                .setPartitionDesc(partitionDesc)
+                                .setCommitId(DBUtil.toProtoUuid(UUID.randomUUID()))
+                                .addFileOps(DataFileOp.newBuilder()
+                                        .setPath(String.format("%s/%s/part-%d-%d.parquet",
+                                                tablePath, partitionDesc, writer, c))
+                                        .setFileOp(FileOp.add)
+                                        .setSize(1024)
+                                        .setFileExistCols("id,value")
+                                        .build())
+                                .setCommitOp(CommitOp.AppendCommit)
+                                .setTimestamp(System.currentTimeMillis())
+                                .setCommitted(false)
+                                .build(), null);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsedNs = System.nanoTime() - t0;
+
+            int commits = writers * commitsPerWriter;
+            PartitionInfo partitionInfo = dbManager.getSinglePartitionInfo(tableId, partitionDesc);
+            System.out.printf("%d writers, %d commits: %.0f commits/s, partition version %d with %d of them%n",
+                    writers, commits, commits * 1e9 / elapsedNs,
+                    partitionInfo.getVersion(), partitionInfo.getSnapshotCount());
+            System.out.println(CommitConflictMetrics.get());
+            if (partitionInfo.getSnapshotCount() != commits) {
+                throw new IllegalStateException("Lost " + (commits - partitionInfo.getSnapshotCount()) + " commits");
+            }
+        } finally {
+            executor.shutdown();
+            dbManager.deletePartitionInfoByTableId(tableId);
+            dbManager.deleteDataCommitInfo(tableId);
+            dbManager.deleteTableInfo(tablePath, tableId, "default");
+            NativeMetadataJavaClient.shutDownInstance();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.apache.flink.lakesoul.test.benchmark;
+
+import com.alibaba.fastjson.JSONObject;
+import com.dmetasoul.lakesoul.meta.DBManager;
+import com.dmetasoul.lakesoul.meta.entity.JniWrapper;
+import com.dmetasoul.lakesoul.meta.jnr.NativeMetadataJavaClient;
+import com.dmetasoul.lakesoul.meta.jnr.NativeUtils;
+import org.apache.flink.api.java.utils.ParameterTool;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Measures metadata query throughput against the postgres configured for the tests, comparing one thread issuing
+ * blocking native queries with the same thread keeping up to in.flight async queries pending.
+ *
+ * param example:
+ * --queries 20000
+ * --in.flight 16
+ * --rounds 3
+ */
+public class MetadataQueryBenchmark {
+
+    public static void main(String[] args) {
+        ParameterTool parameter = ParameterTool.fromArgs(args);
+        int queries = parameter.getInt("queries", 20000);
+        int inFlight = parameter.getInt("in.flight", 16);
+        int rounds = parameter.getInt("rounds", 3);
+
+        String tableId = "metadata_query_benchmark";
+        String tablePath = "file:///tmp/lakesoul/metadata_query_benchmark";
+        DBManager dbManager = new DBManager();
+        if (dbManager.getTableInfoByTableId(tableId) == null) {
+            dbManager.createNewTable(tableId, "default", "", tablePath, "{}", new JSONObject(), ";");
+        }
+        List<String> params = Collections.singletonList(tableId);
+
+        try {
+            for (int round = 0; round < rounds; round++) {
+                long t0 = System.nanoTime();
+                for (int i = 0; i < queries; i++) {
+                    check(NativeMetadataJavaClient.query(NativeUtils.CodedDaoType.SelectTableInfoByTableId, params));
+                }
+                long blockingNs = System.nanoTime() - t0;
+
+                t0 = System.nanoTime();
+                List<CompletableFuture<JniWrapper>> pending = new ArrayList<>(inFlight);
+                for (int i = 0; i < queries; i++) {
+                    pending.add(NativeMetadataJavaClient.queryAsync(
+                            NativeUtils.CodedDaoType.SelectTableInfoByTableId, params));
+                    if (pending.size() == inFlight) {
+                        pending.forEach(future -> check(future.join()));
+                        pending.clear();
+                    }
+                }
+                pending.forEach(future -> check(future.join()));
+                long asyncNs = System.nanoTime() - t0;
+
+                System.out.printf("round %d: blocking %.0f queries/s, async with %d in flight %.0f queries/s%n",
+                        round, queries * 1e9 / blockingNs, inFlight, queries * 1e9 / asyncNs);
+            }
+        } finally {
+            dbManager.deleteTableInfo(tablePath, tableId, "default");
+            NativeMetadataJavaClient.shutDownInstance();
+        }
+    }
+
+    private static void check(JniWrapper jniWrapper) {
+        if (jniWrapper == null || jniWrapper.getTableInfoCount() != 1) {
+            throw new IllegalStateException("Table info of benchmark table not found");
+        }
+    }
+}
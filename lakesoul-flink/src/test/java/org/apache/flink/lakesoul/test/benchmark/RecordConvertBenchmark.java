@@ -0,0 +1,102 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.apache.flink.lakesoul.test.benchmark;
+
+import io.debezium.time.Date;
+import io.debezium.time.MicroTimestamp;
+import org.apache.flink.api.java.utils.ParameterTool;
+import org.apache.flink.cdc.connectors.shaded.org.apache.kafka.connect.data.Decimal;
+import org.apache.flink.cdc.connectors.shaded.org.apache.kafka.connect.data.Schema;
+import org.apache.flink.cdc.connectors.shaded.org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.flink.cdc.connectors.shaded.org.apache.kafka.connect.data.Struct;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.lakesoul.types.DebeziumRowConverter;
+import org.apache.flink.lakesoul.types.LakeSoulRecordConvert;
+import org.apache.flink.lakesoul.types.TableId;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.types.RowKind;
+
+import java.math.BigDecimal;
+
+import static org.apache.flink.lakesoul.tool.LakeSoulSinkOptions.USE_CDC;
+
+/**
+ * Measures converting Debezium row structs of a mysql-like table to BinaryRowData, comparing the per record
+ * schema dispatch of {@link LakeSoulRecordConvert#convert} with the converter built once per table schema.
+ *
+ * param example:
+ * --records 2000000
+ * --rounds 5
+ * --use.cdc true
+ */
+public class RecordConvertBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        ParameterTool parameter = ParameterTool.fromArgs(args);
+        int records = parameter.getInt("records", 2000000);
+        int rounds = parameter.getInt("rounds", 5);
+        boolean useCDC = parameter.getBoolean("use.cdc", true);
+
+        Configuration conf = new Configuration();
+        conf.set(USE_CDC, useCDC);
+        LakeSoulRecordConvert convert = new LakeSoulRecordConvert(conf, "UTC");
+        TableId tableId = new TableId("test_cdc", "default", "orders");
+
+        Schema schema = SchemaBuilder.struct()
+                .field("id", Schema.INT64_SCHEMA)
+                .field("user_id", Schema.INT32_SCHEMA)
+                .field("name", Schema.OPTIONAL_STRING_SCHEMA)
+                .field("price", Decimal.builder(2).parameter("connect.decimal.precision", "10").optional().build())
+                .field("quantity", Schema.OPTIONAL_INT32_SCHEMA)
+                .field("score", Schema.OPTIONAL_FLOAT64_SCHEMA)
+                .field("paid", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+                .field("order_date", SchemaBuilder.int32().name(Date.SCHEMA_NAME).optional().build())
+                .field("created_at", SchemaBuilder.int64().name(MicroTimestamp.SCHEMA_NAME).optional().build())
+                .field("comment", Schema.OPTIONAL_STRING_SCHEMA)
+                .build();
+        Struct[] structs = new Struct[1024];
+        for (int i = 0; i < structs.length; i++) {
+            structs[i] = new Struct(schema)
+                    .put("id", (long) i)
+                    .put("user_id", i % 1000)
+                    .put("name", "user_" + i)
+                    .put("price", BigDecimal.valueOf(i * 101L, 2))
+                    .put("quantity", i % 10)
+                    .put("score", i * 0.5)
+                    .put("paid", i % 2 == 0)
+                    .put("order_date", 19000 + i % 365)
+                    .put("created_at", 1700000000000000L + i * 1000L)
+                    .put("comment", i % 3 == 0 ? null : "comment of order " + i);
+        }
+
+        for (int round = 0; round < rounds; round++) {
+            long t0 = System.nanoTime();
+            long legacyFields = 0;
+            for (int i = 0; i < records; i++) {
+                Struct struct = structs[i & (structs.length - 1)];
+                RowType rowType = convert.toFlinkRowType(schema, false, null);
+                legacyFields += convert.convert(struct, schema, RowKind.INSERT, i, null, null).getArity()
+                        + rowType.getFieldCount();
+            }
+            long legacyNs = System.nanoTime() - t0;
+
+            t0 = System.nanoTime();
+            long compiledFields = 0;
+            for (int i = 0; i < records; i++) {
+                Struct struct = structs[i & (structs.length - 1)];
+                DebeziumRowConverter converter = convert.getRowConverter(tableId, schema);
+                compiledFields += converter.convert(struct, RowKind.INSERT, i).getArity()
+                        + converter.getRowType().getFieldCount();
+            }
+            long compiledNs = System.nanoTime() - t0;
+
+            if (legacyFields != compiledFields) {
+                throw new IllegalStateException("Converted rows differ: " + legacyFields + " vs " + compiledFields);
+            }
+            System.out.printf("round %d: per record dispatch %.0f rows/s, per schema converter %.0f rows/s%n",
+                    round, records * 1e9 / legacyNs, records * 1e9 / compiledNs);
+        }
+    }
+}
@@ -32,6 +32,7 @@ public class LakeSoulConfig {
         this.user = config.get("fs.hdfs.user");
         this.virtualPathStyle = Boolean.parseBoolean(config.getOrDefault("fs.s3a.path.style.access", "false"));
         this.timeZone = config.getOrDefault("timezone","");
+        this.scanPrefetch = Boolean.parseBoolean(config.getOrDefault("lakesoul.scan.prefetch", "false"));
     }
 
     private String accessKey;
@@ -44,6 +45,7 @@ public class LakeSoulConfig {
     private String defaultFS;
     private String timeZone;
     private boolean virtualPathStyle;
+    private boolean scanPrefetch;
 
 
     public String getAccessKey() {
@@ -125,4 +127,12 @@ public class LakeSoulConfig {
     public void setVirtualPathStyle(boolean virtualPathStyle) {
         this.virtualPathStyle = virtualPathStyle;
     }
+
+    public boolean isScanPrefetch() {
+        return scanPrefetch;
+    }
+
+    public void setScanPrefetch(boolean scanPrefetch) {
+        this.scanPrefetch = scanPrefetch;
+    }
 }
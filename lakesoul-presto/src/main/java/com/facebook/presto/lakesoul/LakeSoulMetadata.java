@@ -8,6 +8,7 @@ import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONObject;
 import com.dmetasoul.lakesoul.meta.DBManager;
 import com.dmetasoul.lakesoul.meta.DBUtil;
+import com.dmetasoul.lakesoul.meta.TableFileStats;
 import com.dmetasoul.lakesoul.meta.dao.TableInfoDao;
 import com.dmetasoul.lakesoul.meta.entity.TableInfo;
 import com.facebook.presto.common.type.TypeManager;
@@ -17,6 +18,10 @@ import com.facebook.presto.lakesoul.handle.LakeSoulTableLayoutHandle;
 import com.facebook.presto.lakesoul.util.ArrowBlockBuilder;
 import com.facebook.presto.spi.*;
 import com.facebook.presto.spi.connector.ConnectorMetadata;
+import com.facebook.presto.spi.statistics.ColumnStatistics;
+import com.facebook.presto.spi.statistics.DoubleRange;
+import com.facebook.presto.spi.statistics.Estimate;
+import com.facebook.presto.spi.statistics.TableStatistics;
 import com.google.common.collect.ImmutableList;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.spark.sql.types.StructType;
@@ -273,6 +278,60 @@ public class LakeSoulMetadata implements ConnectorMetadata {
         return results;
     }
 
+    /**
+     * Sums up row count, null counts and min/max of the scanned partitions from the statistics of their data
+     * files, listed once per query and shared with its splits. Distinct value counts are those written into table
+     * properties by analyze, if any. Primary key tables report no row count, as their rows are merged on read.
+     */
+    @Override
+    public TableStatistics getTableStatistics(ConnectorSession session,
+                                              ConnectorTableHandle tableHandle,
+                                              Optional<ConnectorTableLayoutHandle> tableLayoutHandle,
+                                              List<ColumnHandle> columnHandles,
+                                              Constraint<ColumnHandle> constraint) {
+        LakeSoulTableHandle table = (LakeSoulTableHandle) tableHandle;
+        TableInfo tableInfo = dbManager.getTableInfoByTableId(table.getId());
+        if (tableInfo == null) {
+            return TableStatistics.empty();
+        }
+        if (!tableLayoutHandle.isPresent()) {
+            return TableStatistics.empty();
+        }
+        LakeSoulTableLayoutHandle layout = (LakeSoulTableLayoutHandle) tableLayoutHandle.get();
+        TableFileStats stats = LakeSoulSplitManager.scanFiles(session, layout).getStats();
+        Long numRows = stats.getNumRows();
+        if (numRows == null) {
+            return TableStatistics.empty();
+        }
+        // rows of primary key tables are merged on read, so their sum over files is only an upper bound
+        boolean exactRows = layout.getPrimaryKeys().isEmpty();
+        Map<String, Long> columnNdv = TableFileStats.parseColumnNdv(JSON.parseObject(tableInfo.getProperties()));
+
+        TableStatistics.Builder builder = TableStatistics.builder();
+        if (exactRows) {
+            builder.setRowCount(Estimate.of(numRows));
+        }
+        for (ColumnHandle columnHandle : columnHandles) {
+            String column = ((LakeSoulTableColumnHandle) columnHandle).getColumnName();
+            ColumnStatistics.Builder columnBuilder = ColumnStatistics.builder();
+            TableFileStats.ColumnSummary summary = stats.getColumn(column);
+            if (summary != null) {
+                if (summary.getNullCount() != null && numRows > 0) {
+                    columnBuilder.setNullsFraction(Estimate.of((double) summary.getNullCount() / numRows));
+                }
+                if (summary.getMin() instanceof Long && summary.getMax() instanceof Long) {
+                    columnBuilder.setRange(new DoubleRange((Long) summary.getMin(), (Long) summary.getMax()));
+                }
+            }
+            Long ndv = columnNdv.get(column);
+            if (ndv != null) {
+                columnBuilder.setDistinctValuesCount(Estimate.of(exactRows ? Math.min(ndv, numRows) : ndv));
+            }
+            builder.setColumnStatistics(columnHandle, columnBuilder.build());
+        }
+        return builder.build();
+    }
+
     public TypeManager getTypeManager() {
         return typeConverter.getTypeManager();
     }
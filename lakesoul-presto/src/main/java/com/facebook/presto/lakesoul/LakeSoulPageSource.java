@@ -37,11 +37,13 @@ public class LakeSoulPageSource implements ConnectorPageSource {
     private final LakeSoulSplit split;
     private final ArrowBlockBuilder arrowBlockBuilder;
     private final List<LakeSoulTableColumnHandle> columns;
-    private LakeSoulArrowReader reader;
-    private int currentPositition = 0;
+    protected LakeSoulArrowReader reader;
+    private long completedPositions = 0;
+    private long completedBytes = 0;
+    private volatile long readTimeNanos = 0;
     private VectorSchemaRoot currentVCR;
     LinkedHashMap<String, String> partitions;
-    private boolean isFinished = false;
+    protected boolean isFinished = false;
 
     public LakeSoulPageSource(LakeSoulSplit split, ArrowBlockBuilder arrowBlockBuilder,
                               List<LakeSoulTableColumnHandle> columns) throws IOException {
@@ -114,16 +116,18 @@ public class LakeSoulPageSource implements ConnectorPageSource {
         log.info("Initialized LakeSoulPageSource {}", this);
     }
 
+    // arrow bytes decoded by native reader, as the native reader does not expose bytes read from storage
     @Override public long getCompletedBytes() {
-        return 0;
+        return completedBytes;
     }
 
     @Override public long getCompletedPositions() {
-        return currentPositition;
+        return completedPositions;
     }
 
+    // time spent waiting for native reader to read and decode batches
     @Override public long getReadTimeNanos() {
-        return 0;
+        return readTimeNanos;
     }
 
     @Override public boolean isFinished() {
@@ -131,31 +135,53 @@ public class LakeSoulPageSource implements ConnectorPageSource {
     }
 
     @Override public Page getNextPage() {
+        if (readNextBatch()) {
+            return buildPage();
+        } else {
+            isFinished = true;
+            return null;
+        }
+    }
+
+    /**
+     * Reads next batch from native reader into the reused VectorSchemaRoot.
+     *
+     * @return false if there is no more batch
+     */
+    protected boolean readNextBatch() {
         if (this.currentVCR != null) {
             this.currentVCR.close();
         }
+        long start = System.nanoTime();
+        try {
+            return this.reader.hasNext();
+        } finally {
+            readTimeNanos += System.nanoTime() - start;
+        }
+    }
 
-        if (this.reader.hasNext()) {
-            ++currentPositition;
-            this.currentVCR = this.reader.nextResultVectorSchemaRoot();
-            List<Block> blocks = new ArrayList<>();
-            List<FieldVector> vectors = currentVCR.getFieldVectors();
-            for (int columnIndex = 0; columnIndex < columns.size(); columnIndex++) {
-                FieldVector vector = vectors.get(columnIndex);
-                Type type = columns.get(columnIndex).getColumnType();
-                Block block = arrowBlockBuilder.buildBlockFromFieldVector(vector, type, reader.reader().getProvider());
-                blocks.add(block);
-            }
-
-            return new Page(currentVCR.getRowCount(), blocks.toArray(new Block[0]));
-        } else {
-            isFinished = true;
-            return null;
+    protected Page buildPage() {
+        this.currentVCR = this.reader.nextResultVectorSchemaRoot();
+        List<Block> blocks = new ArrayList<>();
+        List<FieldVector> vectors = currentVCR.getFieldVectors();
+        for (int columnIndex = 0; columnIndex < columns.size(); columnIndex++) {
+            FieldVector vector = vectors.get(columnIndex);
+            Type type = columns.get(columnIndex).getColumnType();
+            Block block = arrowBlockBuilder.buildBlockFromFieldVector(vector, type, reader.reader().getProvider());
+            blocks.add(block);
+        }
+        for (FieldVector vector : vectors) {
+            completedBytes += vector.getBufferSize();
         }
+        completedPositions += currentVCR.getRowCount();
+
+        return new Page(currentVCR.getRowCount(), blocks.toArray(new Block[0]));
     }
 
+    // arrow buffers held by the native reader's allocator, including the batch being decoded
     @Override public long getSystemMemoryUsage() {
-        return 0;
+        LakeSoulArrowReader arrowReader = this.reader;
+        return arrowReader == null ? 0 : arrowReader.reader().getAllocator().getAllocatedMemory();
     }
 
     @Override public void close() throws IOException {
@@ -35,6 +35,9 @@ public class LakeSoulPagesSourceProvider implements ConnectorPageSourceProvider
         LakeSoulSplit lakeSoulSplit = (LakeSoulSplit) split;
         ArrowBlockBuilder builder = new ArrowBlockBuilder(typeManager);
         try {
+            if (LakeSoulConfig.getInstance().isScanPrefetch()) {
+                return new LakeSoulPrefetchPageSource(lakeSoulSplit, builder, columnHandles.build());
+            }
             return new LakeSoulPageSource(lakeSoulSplit, builder, columnHandles.build());
         } catch (IOException e) {
             throw new RuntimeException(e);
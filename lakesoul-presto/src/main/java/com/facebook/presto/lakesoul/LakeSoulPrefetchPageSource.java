@@ -0,0 +1,81 @@
+// SPDX-FileCopyrightText: LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.facebook.presto.lakesoul;
+
+import com.facebook.presto.common.Page;
+import com.facebook.presto.lakesoul.handle.LakeSoulTableColumnHandle;
+import com.facebook.presto.lakesoul.util.ArrowBlockBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Page source which reads the next batch from native reader in background while the current page is
+ * processed, so that driver threads are not blocked on native reads. {@link #isBlocked()} stays incomplete
+ * until the next batch is available.
+ */
+public class LakeSoulPrefetchPageSource extends LakeSoulPageSource {
+
+    private static final AtomicInteger THREAD_ID = new AtomicInteger();
+
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "lakesoul-prefetch-" + THREAD_ID.getAndIncrement());
+        t.setDaemon(true);
+        return t;
+    });
+
+    // completes with whether a batch has been read into the reader's VectorSchemaRoot
+    private CompletableFuture<Boolean> prefetch;
+
+    public LakeSoulPrefetchPageSource(LakeSoulSplit split, ArrowBlockBuilder arrowBlockBuilder,
+                                      List<LakeSoulTableColumnHandle> columns) throws IOException {
+        super(split, arrowBlockBuilder, columns);
+        startPrefetch();
+    }
+
+    private void startPrefetch() {
+        prefetch = CompletableFuture.supplyAsync(this::readNextBatch, PREFETCH_EXECUTOR);
+    }
+
+    @Override
+    public Page getNextPage() {
+        if (isFinished || !prefetch.isDone()) {
+            return null;
+        }
+        if (!prefetch.join()) {
+            isFinished = true;
+            return null;
+        }
+        // blocks are copied out of the VectorSchemaRoot, so it can be refilled right away
+        Page page = buildPage();
+        startPrefetch();
+        return page;
+    }
+
+    @Override
+    public CompletableFuture<?> isBlocked() {
+        if (isFinished || prefetch.isDone()) {
+            return NOT_BLOCKED;
+        }
+        return prefetch;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (prefetch != null) {
+            // native reader must not be freed while a batch is being read
+            try {
+                prefetch.join();
+            } catch (Exception ignored) {
+                // failure of the last read is irrelevant once closed
+            }
+        }
+        super.close();
+    }
+}
@@ -6,9 +6,11 @@ package com.facebook.presto.lakesoul;
 
 import com.dmetasoul.lakesoul.meta.DataFileInfo;
 import com.dmetasoul.lakesoul.meta.DataOperation;
+import com.dmetasoul.lakesoul.meta.TableFileStats;
 import com.facebook.airlift.log.Logger;
 import com.facebook.presto.lakesoul.handle.LakeSoulTableLayoutHandle;
 import com.facebook.presto.lakesoul.pojo.Path;
+import com.facebook.presto.lakesoul.util.FileStatsPredicate;
 import com.facebook.presto.lakesoul.util.PrestoUtil;
 import com.facebook.presto.spi.ConnectorSession;
 import com.facebook.presto.spi.ConnectorSplit;
@@ -16,19 +18,35 @@ import com.facebook.presto.spi.ConnectorSplitSource;
 import com.facebook.presto.spi.ConnectorTableLayoutHandle;
 import com.facebook.presto.spi.connector.ConnectorSplitManager;
 import com.facebook.presto.spi.connector.ConnectorTransactionHandle;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.parquet.filter2.predicate.FilterPredicate;
 import org.apache.parquet.filter2.predicate.Operators;
 import org.apache.parquet.io.api.Binary;
 import scala.collection.JavaConverters;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 public class LakeSoulSplitManager implements ConnectorSplitManager {
     private static final Logger log = Logger.get(LakeSoulSplitManager.class);
 
+    // bound on the total number of files of listings kept between planning and split generation
+    private static final long MAX_CACHED_SCAN_FILES = 1_000_000;
+
+    // query id, table id and partitions -> files listed for the scan, dropped once its splits are generated
+    private static final Cache<String, ScanFiles> scanFilesCache = CacheBuilder.newBuilder()
+            .maximumWeight(MAX_CACHED_SCAN_FILES)
+            .<String, ScanFiles>weigher((key, scanFiles) -> Math.max(1, scanFiles.files.length))
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .build();
+
     @Override
     public ConnectorSplitSource getSplits(ConnectorTransactionHandle transactionHandle,
                                           ConnectorSession session,
@@ -37,29 +55,14 @@ public class LakeSoulSplitManager implements ConnectorSplitManager {
 
         LakeSoulTableLayoutHandle tableLayout = (LakeSoulTableLayoutHandle) layout;
         String tid = tableLayout.getTableHandle().getId();
-        List<FilterPredicate> parFilters = tableLayout.getParFilters();
-        List<String> partitions = new ArrayList<>();
-        for (FilterPredicate fp : parFilters) {
-            if (fp instanceof Operators.Eq) {
-                Operators.Column column = ((Operators.Eq) fp).getColumn();
-                if (column instanceof Operators.IntColumn || column instanceof Operators.LongColumn) {
-                    partitions.add(column.getColumnPath().toDotString() + "=" + ((Operators.Eq) fp).getValue());
-                } else if (column instanceof Operators.BinaryColumn) {
-                    Binary value = (Binary) ((Operators.Eq) fp).getValue();
-                    partitions.add(column.getColumnPath().toDotString() + "=" + value.toStringUsingUTF8());
-                } else {
-                    break;
-                }
-
-            } else {
-                partitions.clear();
-                break;
-            }
-        }
+        List<String> partitions = scanPartitions(tableLayout);
         log.info("LakeSoul table %s, split partitions %s",
                 tableLayout.getTableHandle().getNames(),
                 partitions);
-        DataFileInfo[] dfinfos = DataOperation.getTableDataInfo(tid, JavaConverters.asScalaBuffer(partitions).toList());
+        String key = scanFilesKey(session, tid, partitions);
+        DataFileInfo[] dfinfos = getScanFiles(key, tid, partitions).files;
+        scanFilesCache.invalidate(key);
+        dfinfos = skipByFileStats(tableLayout, dfinfos);
         ArrayList<ConnectorSplit> splits = new ArrayList<>(16);
         Map<String, Map<Integer, List<Path>>>
                 splitByRangeAndHashPartition =
@@ -84,4 +87,93 @@ public class LakeSoulSplitManager implements ConnectorSplitManager {
         return new LakeSoulSplitSource(splits);
     }
 
+    /**
+     * Files of the partitions scanned through tableLayout, listed once per query for the table statistics of all
+     * planning calls and its splits, so that they also see the same partition versions.
+     */
+    static ScanFiles scanFiles(ConnectorSession session, LakeSoulTableLayoutHandle tableLayout) {
+        String tid = tableLayout.getTableHandle().getId();
+        List<String> partitions = scanPartitions(tableLayout);
+        return getScanFiles(scanFilesKey(session, tid, partitions), tid, partitions);
+    }
+
+    private static String scanFilesKey(ConnectorSession session, String tid, List<String> partitions) {
+        return session.getQueryId() + "/" + tid + "/" + partitions;
+    }
+
+    private static ScanFiles getScanFiles(String key, String tid, List<String> partitions) {
+        try {
+            return scanFilesCache.get(key, () -> new ScanFiles(
+                    DataOperation.getTableDataInfo(tid, JavaConverters.asScalaBuffer(partitions).toList())));
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * @return partition descs selected by equality filters on all range columns, empty to scan all partitions
+     */
+    static List<String> scanPartitions(LakeSoulTableLayoutHandle tableLayout) {
+        List<FilterPredicate> parFilters = tableLayout.getParFilters();
+        List<String> partitions = new ArrayList<>();
+        for (FilterPredicate fp : parFilters) {
+            if (fp instanceof Operators.Eq) {
+                Operators.Column column = ((Operators.Eq) fp).getColumn();
+                if (column instanceof Operators.IntColumn || column instanceof Operators.LongColumn) {
+                    partitions.add(column.getColumnPath().toDotString() + "=" + ((Operators.Eq) fp).getValue());
+                } else if (column instanceof Operators.BinaryColumn) {
+                    Binary value = (Binary) ((Operators.Eq) fp).getValue();
+                    partitions.add(column.getColumnPath().toDotString() + "=" + value.toStringUsingUTF8());
+                } else {
+                    break;
+                }
+
+            } else {
+                partitions.clear();
+                break;
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * Drops files whose column statistics show they have no rows matching the pushed filters. Files of primary
+     * key tables are merged on read, so only predicates on primary keys are used for them.
+     */
+    private DataFileInfo[] skipByFileStats(LakeSoulTableLayoutHandle tableLayout, DataFileInfo[] dfinfos) {
+        List<FilterPredicate> filters = tableLayout.getFilters();
+        if (filters == null || filters.isEmpty()) {
+            return dfinfos;
+        }
+        List<String> primaryKeys = tableLayout.getPrimaryKeys();
+        List<String> columns = primaryKeys.isEmpty() ? null : primaryKeys;
+        DataFileInfo[] result = Arrays.stream(dfinfos)
+                .filter(dfinfo -> FileStatsPredicate.mayMatch(dfinfo.file_stats(), filters, columns))
+                .toArray(DataFileInfo[]::new);
+        if (result.length < dfinfos.length) {
+            log.info("LakeSoul table %s, skipped %s of %s files by file stats",
+                    tableLayout.getTableHandle().getNames(),
+                    dfinfos.length - result.length,
+                    dfinfos.length);
+        }
+        return result;
+    }
+
+    static final class ScanFiles {
+        final DataFileInfo[] files;
+        private TableFileStats stats;
+
+        ScanFiles(DataFileInfo[] files) {
+            this.files = files;
+        }
+
+        synchronized TableFileStats getStats() {
+            if (stats == null) {
+                stats = TableFileStats.aggregate(
+                        Arrays.stream(files).map(DataFileInfo::file_stats).collect(Collectors.toList()));
+            }
+            return stats;
+        }
+    }
+
 }
@@ -15,11 +15,17 @@ package com.facebook.presto.lakesoul.util;
 
 import com.facebook.presto.common.block.Block;
 import com.facebook.presto.common.block.BlockBuilder;
+import com.facebook.presto.common.block.ByteArrayBlock;
 import com.facebook.presto.common.block.DictionaryBlock;
+import com.facebook.presto.common.block.IntArrayBlock;
+import com.facebook.presto.common.block.LongArrayBlock;
+import com.facebook.presto.common.block.ShortArrayBlock;
+import com.facebook.presto.common.block.VariableWidthBlock;
 import com.facebook.presto.common.type.*;
 import com.google.common.base.CharMatcher;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
+import org.apache.arrow.memory.ArrowBuf;
 import org.apache.arrow.vector.*;
 import org.apache.arrow.vector.complex.ListVector;
 import org.apache.arrow.vector.complex.MapVector;
@@ -30,6 +36,7 @@ import org.apache.arrow.vector.types.pojo.ArrowType;
 import org.apache.arrow.vector.types.pojo.Field;
 
 import java.math.BigDecimal;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalTime;
@@ -62,17 +69,119 @@ public class ArrowBlockBuilder
             Dictionary dictionary = dictionaryProvider.lookup(vector.getField().getDictionary().getId());
             if (dictionary != null) {
                 Type prestoType = getPrestoTypeFromArrowField(dictionary.getVector().getField());
-                BlockBuilder dictionaryBuilder = prestoType.createBlockBuilder(null, vector.getValueCount());
-                assignBlockFromValueVector(dictionary.getVector(), prestoType, dictionaryBuilder, 0, dictionary.getVector().getValueCount());
-                return buildDictionaryBlock(vector, dictionaryBuilder.build());
+                return buildDictionaryBlock(vector, buildBlockFromFieldVector(dictionary.getVector(), prestoType, null));
             }
         }
 
+        Block block = buildFlatBlock(vector, type);
+        if (block != null) {
+            return block;
+        }
+        return copyBlockFromFieldVector(vector, type);
+    }
+
+    /**
+     * Converts the vector value by value through a {@link BlockBuilder}, which works for all supported types.
+     */
+    public Block copyBlockFromFieldVector(FieldVector vector, Type type)
+    {
         BlockBuilder builder = type.createBlockBuilder(null, vector.getValueCount());
         assignBlockFromValueVector(vector, type, builder, 0, vector.getValueCount());
         return builder.build();
     }
 
+    /**
+     * Builds the block from whole arrow buffers for flat vectors whose presto block has the same value layout,
+     * so that a column is converted by a few bulk copies instead of a builder call per value. Buffers are
+     * copied rather than wrapped, as pages may be retained by operators after the VectorSchemaRoot is refilled.
+     *
+     * @return null if the vector has to be converted value by value
+     */
+    private Block buildFlatBlock(FieldVector vector, Type type)
+    {
+        int positionCount = vector.getValueCount();
+        if (vector instanceof BigIntVector && type instanceof BigintType
+                || vector instanceof Float8Vector && type instanceof DoubleType
+                || vector instanceof TimeStampMilliVector && type instanceof TimestampType) {
+            return new LongArrayBlock(positionCount, nullMask(vector, positionCount), copyLongs(vector.getDataBuffer(), positionCount));
+        }
+        if (vector instanceof TimeStampMicroVector && type instanceof TimestampType) {
+            long[] values = copyLongs(vector.getDataBuffer(), positionCount);
+            for (int i = 0; i < positionCount; i++) {
+                // truncates like TimeUnit.MICROSECONDS.toMillis in assignBlockFromTimeStampMicroVector
+                values[i] = values[i] / 1000;
+            }
+            return new LongArrayBlock(positionCount, nullMask(vector, positionCount), values);
+        }
+        if (vector instanceof IntVector && type instanceof IntegerType
+                || vector instanceof Float4Vector && type instanceof RealType
+                || vector instanceof DateDayVector && type instanceof DateType) {
+            return new IntArrayBlock(positionCount, nullMask(vector, positionCount), copyInts(vector.getDataBuffer(), positionCount));
+        }
+        if (vector instanceof SmallIntVector && type instanceof SmallintType) {
+            short[] values = new short[positionCount];
+            if (positionCount > 0) {
+                vector.getDataBuffer().nioBuffer(0, positionCount * Short.BYTES).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(values);
+            }
+            return new ShortArrayBlock(positionCount, nullMask(vector, positionCount), values);
+        }
+        if (vector instanceof TinyIntVector && type instanceof TinyintType) {
+            byte[] values = new byte[positionCount];
+            vector.getDataBuffer().getBytes(0, values);
+            return new ByteArrayBlock(positionCount, nullMask(vector, positionCount), values);
+        }
+        if (vector instanceof BitVector && type instanceof BooleanType) {
+            ArrowBuf data = vector.getDataBuffer();
+            byte[] values = new byte[positionCount];
+            for (int i = 0; i < positionCount; i++) {
+                values[i] = (byte) ((data.getByte(i >> 3) >> (i & 7)) & 1);
+            }
+            return new ByteArrayBlock(positionCount, nullMask(vector, positionCount), values);
+        }
+        if (vector instanceof VarCharVector && type instanceof VarcharType
+                || vector instanceof VarBinaryVector && type instanceof VarbinaryType) {
+            if (positionCount == 0) {
+                return new VariableWidthBlock(0, Slices.EMPTY_SLICE, new int[1], Optional.empty());
+            }
+            int[] offsets = copyInts(vector.getOffsetBuffer(), positionCount + 1);
+            byte[] data = new byte[offsets[positionCount]];
+            vector.getDataBuffer().getBytes(0, data);
+            return new VariableWidthBlock(positionCount, Slices.wrappedBuffer(data), offsets, nullMask(vector, positionCount));
+        }
+        return null;
+    }
+
+    private static long[] copyLongs(ArrowBuf buffer, int count)
+    {
+        long[] values = new long[count];
+        if (count > 0) {
+            buffer.nioBuffer(0, count * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(values);
+        }
+        return values;
+    }
+
+    private static int[] copyInts(ArrowBuf buffer, int count)
+    {
+        int[] values = new int[count];
+        if (count > 0) {
+            buffer.nioBuffer(0, count * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(values);
+        }
+        return values;
+    }
+
+    private static Optional<boolean[]> nullMask(FieldVector vector, int positionCount)
+    {
+        if (vector.getNullCount() == 0) {
+            return Optional.empty();
+        }
+        ArrowBuf validity = vector.getValidityBuffer();
+        boolean[] valueIsNull = new boolean[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+            valueIsNull[i] = ((validity.getByte(i >> 3) >> (i & 7)) & 1) == 0;
+        }
+        return Optional.of(valueIsNull);
+    }
+
     public Type getPrestoTypeFromArrowField(Field field)
     {
         switch (field.getType().getTypeID()) {
@@ -156,10 +265,7 @@ public class ArrowBlockBuilder
         if (fieldVector instanceof IntVector) {
             // Get the Arrow indices vector
             IntVector indicesVector = (IntVector) fieldVector;
-            int[] ids = new int[indicesVector.getValueCount()];
-            for (int i = 0; i < indicesVector.getValueCount(); i++) {
-                ids[i] = indicesVector.get(i);
-            }
+            int[] ids = copyInts(indicesVector.getDataBuffer(), indicesVector.getValueCount());
             return new DictionaryBlock(ids.length, dictionaryblock, ids);
         }
         else if (fieldVector instanceof SmallIntVector) {
@@ -0,0 +1,136 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.facebook.presto.lakesoul.util;
+
+import com.dmetasoul.lakesoul.meta.DataFileStats;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.filter2.predicate.UserDefinedPredicate;
+import org.apache.parquet.io.api.Binary;
+
+import java.util.Collection;
+
+/**
+ * Checks pushed down predicates against the column statistics of a data file. Every visit answers whether the
+ * file may contain matching rows, so a file is only skipped when it certainly doesn't match.
+ */
+public class FileStatsPredicate implements FilterPredicate.Visitor<Boolean> {
+
+    private final DataFileStats stats;
+
+    private final Collection<String> columns;
+
+    /**
+     * @param stats   statistics of the file
+     * @param columns columns whose predicates may be used, null for all columns
+     */
+    public FileStatsPredicate(DataFileStats stats, Collection<String> columns) {
+        this.stats = stats;
+        this.columns = columns;
+    }
+
+    public static boolean mayMatch(String fileStats, Collection<FilterPredicate> filters, Collection<String> columns) {
+        DataFileStats stats = DataFileStats.parse(fileStats);
+        if (stats == null) {
+            return true;
+        }
+        FileStatsPredicate visitor = new FileStatsPredicate(stats, columns);
+        for (FilterPredicate filter : filters) {
+            if (!filter.accept(visitor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private DataFileStats.ColumnStats column(Operators.Column<?> column) {
+        String name = column.getColumnPath().toDotString();
+        if (columns != null && !columns.contains(name)) {
+            return null;
+        }
+        return stats.getColumn(name);
+    }
+
+    private static Object value(Object value) {
+        if (value instanceof Binary) {
+            return ((Binary) value).toStringUsingUTF8();
+        }
+        return DataFileStats.normalize(value);
+    }
+
+    @Override
+    public <T extends Comparable<T>> Boolean visit(Operators.Eq<T> eq) {
+        DataFileStats.ColumnStats column = column(eq.getColumn());
+        if (column == null) {
+            return true;
+        }
+        return eq.getValue() == null ? column.mayBeNull() : column.mayEqual(value(eq.getValue()));
+    }
+
+    @Override
+    public <T extends Comparable<T>> Boolean visit(Operators.NotEq<T> notEq) {
+        DataFileStats.ColumnStats column = column(notEq.getColumn());
+        if (column == null) {
+            return true;
+        }
+        return notEq.getValue() == null ? column.mayBeNotNull() : column.mayNotEqual(value(notEq.getValue()));
+    }
+
+    @Override
+    public <T extends Comparable<T>> Boolean visit(Operators.Lt<T> lt) {
+        DataFileStats.ColumnStats column = column(lt.getColumn());
+        return column == null || column.mayBeLessThan(value(lt.getValue()), false);
+    }
+
+    @Override
+    public <T extends Comparable<T>> Boolean visit(Operators.LtEq<T> ltEq) {
+        DataFileStats.ColumnStats column = column(ltEq.getColumn());
+        return column == null || column.mayBeLessThan(value(ltEq.getValue()), true);
+    }
+
+    @Override
+    public <T extends Comparable<T>> Boolean visit(Operators.Gt<T> gt) {
+        DataFileStats.ColumnStats column = column(gt.getColumn());
+        return column == null || column.mayBeGreaterThan(value(gt.getValue()), false);
+    }
+
+    @Override
+    public <T extends Comparable<T>> Boolean visit(Operators.GtEq<T> gtEq) {
+        DataFileStats.ColumnStats column = column(gtEq.getColumn());
+        return column == null || column.mayBeGreaterThan(value(gtEq.getValue()), true);
+    }
+
+    @Override
+    public Boolean visit(Operators.And and) {
+        return and.getLeft().accept(this) && and.getRight().accept(this);
+    }
+
+    @Override
+    public Boolean visit(Operators.Or or) {
+        return or.getLeft().accept(this) || or.getRight().accept(this);
+    }
+
+    @Override
+    public Boolean visit(Operators.Not not) {
+        FilterPredicate predicate = not.getPredicate();
+        if (predicate instanceof Operators.Eq && ((Operators.Eq<?>) predicate).getValue() == null) {
+            DataFileStats.ColumnStats column = column(((Operators.Eq<?>) predicate).getColumn());
+            return column == null || column.mayBeNotNull();
+        }
+        // other negations can't be decided with min/max
+        return true;
+    }
+
+    @Override
+    public <T extends Comparable<T>, U extends UserDefinedPredicate<T>> Boolean visit(Operators.UserDefined<T, U> udp) {
+        return true;
+    }
+
+    @Override
+    public <T extends Comparable<T>, U extends UserDefinedPredicate<T>> Boolean visit(
+            Operators.LogicalNotUserDefined<T, U> udp) {
+        return true;
+    }
+}
@@ -0,0 +1,124 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.facebook.presto.benchmark;
+
+import com.facebook.presto.common.block.Block;
+import com.facebook.presto.common.type.BigintType;
+import com.facebook.presto.common.type.DoubleType;
+import com.facebook.presto.common.type.IntegerType;
+import com.facebook.presto.common.type.Type;
+import com.facebook.presto.common.type.VarcharType;
+import com.facebook.presto.lakesoul.util.ArrowBlockBuilder;
+import com.facebook.presto.metadata.FunctionAndTypeManager;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares converting arrow vectors to presto blocks value by value against converting whole buffers.
+ * <p>
+ * param example:
+ * --rows 100000
+ * --iterations 200
+ * --null.ratio 0.1
+ */
+public class ArrowBlockBuilderBenchmark {
+
+    public static void main(String[] args) {
+        ParametersTool parameter = ParametersTool.fromArgs(args);
+        int rows = parameter.getInt("rows", 100000);
+        int iterations = parameter.getInt("iterations", 200);
+        double nullRatio = parameter.getDouble("null.ratio", 0.1);
+
+        ArrowBlockBuilder builder = new ArrowBlockBuilder(FunctionAndTypeManager.createTestFunctionAndTypeManager());
+        try (BufferAllocator allocator = new RootAllocator();
+             BigIntVector bigints = new BigIntVector("bigint", allocator);
+             IntVector ints = new IntVector("int", allocator);
+             Float8Vector doubles = new Float8Vector("double", allocator);
+             VarCharVector varchars = new VarCharVector("varchar", allocator)) {
+            bigints.allocateNew(rows);
+            ints.allocateNew(rows);
+            doubles.allocateNew(rows);
+            varchars.allocateNew(rows);
+            for (int i = 0; i < rows; i++) {
+                if (i % 1000 < nullRatio * 1000) {
+                    bigints.setNull(i);
+                    ints.setNull(i);
+                    doubles.setNull(i);
+                    varchars.setNull(i);
+                } else {
+                    bigints.set(i, i * 31L);
+                    ints.set(i, i);
+                    doubles.set(i, i * 0.5);
+                    varchars.setSafe(i, ("value_" + i).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            bigints.setValueCount(rows);
+            ints.setValueCount(rows);
+            doubles.setValueCount(rows);
+            varchars.setValueCount(rows);
+
+            List<FieldVector> vectors = Arrays.asList(bigints, ints, doubles, varchars);
+            List<Type> types = Arrays.asList(BigintType.BIGINT, IntegerType.INTEGER, DoubleType.DOUBLE, VarcharType.VARCHAR);
+            for (int column = 0; column < vectors.size(); column++) {
+                FieldVector vector = vectors.get(column);
+                Type type = types.get(column);
+                verify(builder.copyBlockFromFieldVector(vector, type), builder.buildBlockFromFieldVector(vector, type, null), type);
+
+                // warm up both paths before measuring
+                run(iterations / 4 + 1, () -> builder.copyBlockFromFieldVector(vector, type));
+                run(iterations / 4 + 1, () -> builder.buildBlockFromFieldVector(vector, type, null));
+                long byValue = run(iterations, () -> builder.copyBlockFromFieldVector(vector, type));
+                long byBuffer = run(iterations, () -> builder.buildBlockFromFieldVector(vector, type, null));
+                System.out.printf("%-8s by value: %8.2f Mrows/s, by buffer: %8.2f Mrows/s, speedup %.1fx%n",
+                        type.getDisplayName(),
+                        rowsPerMicro(rows, iterations, byValue),
+                        rowsPerMicro(rows, iterations, byBuffer),
+                        (double) byValue / byBuffer);
+            }
+        }
+    }
+
+    private static long run(int iterations, BlockSupplier supplier) {
+        long positions = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            positions += supplier.get().getPositionCount();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (positions < 0) {
+            throw new IllegalStateException();
+        }
+        return elapsed;
+    }
+
+    private static double rowsPerMicro(int rows, int iterations, long nanos) {
+        return (double) rows * iterations / nanos * 1000;
+    }
+
+    private static void verify(Block expected, Block actual, Type type) {
+        if (expected.getPositionCount() != actual.getPositionCount()) {
+            throw new IllegalStateException("Position count differs for " + type);
+        }
+        for (int i = 0; i < expected.getPositionCount(); i++) {
+            if (expected.isNull(i) != actual.isNull(i)
+                    || !expected.isNull(i) && !type.equalTo(expected, i, actual, i)) {
+                throw new IllegalStateException("Value differs for " + type + " at position " + i);
+            }
+        }
+    }
+
+    private interface BlockSupplier {
+        Block get();
+    }
+}
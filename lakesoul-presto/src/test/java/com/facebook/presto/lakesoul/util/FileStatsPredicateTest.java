@@ -0,0 +1,113 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.facebook.presto.lakesoul.util;
+
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.io.api.Binary;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.apache.parquet.filter2.predicate.FilterApi.and;
+import static org.apache.parquet.filter2.predicate.FilterApi.binaryColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.doubleColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.eq;
+import static org.apache.parquet.filter2.predicate.FilterApi.gt;
+import static org.apache.parquet.filter2.predicate.FilterApi.gtEq;
+import static org.apache.parquet.filter2.predicate.FilterApi.longColumn;
+import static org.apache.parquet.filter2.predicate.FilterApi.lt;
+import static org.apache.parquet.filter2.predicate.FilterApi.ltEq;
+import static org.apache.parquet.filter2.predicate.FilterApi.not;
+import static org.apache.parquet.filter2.predicate.FilterApi.notEq;
+import static org.apache.parquet.filter2.predicate.FilterApi.or;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class FileStatsPredicateTest {
+
+    private static final String STATS = "{\"numRows\":10,\"columns\":{" +
+            "\"id\":{\"nullCount\":0,\"min\":1,\"max\":10}," +
+            "\"name\":{\"nullCount\":2,\"min\":\"apple\",\"max\":\"pear\"}," +
+            "\"no_min_max\":{\"nullCount\":1}}}";
+
+    private static final String ALL_NULL_STATS = "{\"numRows\":10,\"columns\":{\"id\":{\"nullCount\":10}}}";
+
+    private static final Operators.LongColumn ID = longColumn("id");
+
+    private static final Operators.BinaryColumn NAME = binaryColumn("name");
+
+    private static boolean mayMatch(FilterPredicate filter, String stats) {
+        return FileStatsPredicate.mayMatch(stats, Collections.singletonList(filter), null);
+    }
+
+    private static Binary string(String value) {
+        return Binary.fromString(value);
+    }
+
+    @Test
+    public void testComparisons() {
+        assertTrue(mayMatch(eq(ID, 5L), STATS));
+        assertFalse(mayMatch(eq(ID, 11L), STATS));
+        assertTrue(mayMatch(notEq(ID, 5L), STATS));
+        assertFalse(mayMatch(lt(ID, 1L), STATS));
+        assertTrue(mayMatch(ltEq(ID, 1L), STATS));
+        assertFalse(mayMatch(gt(ID, 10L), STATS));
+        assertTrue(mayMatch(gtEq(ID, 10L), STATS));
+        assertFalse(mayMatch(gt(NAME, string("pear")), STATS));
+        assertTrue(mayMatch(gtEq(NAME, string("pear")), STATS));
+        assertTrue(mayMatch(lt(NAME, string("banana")), STATS));
+        assertFalse(mayMatch(eq(NAME, string("zebra")), STATS));
+    }
+
+    @Test
+    public void testLogicalOperators() {
+        assertFalse(mayMatch(and(eq(ID, 5L), eq(ID, 11L)), STATS));
+        assertTrue(mayMatch(or(eq(ID, 11L), eq(ID, 5L)), STATS));
+        assertFalse(mayMatch(or(eq(ID, 11L), eq(ID, 0L)), STATS));
+        // negations are not decided, even if the negated predicate can't match
+        assertTrue(mayMatch(not(eq(ID, 11L)), STATS));
+        assertTrue(mayMatch(not(eq(ID, 5L)), STATS));
+        // every filter of the list must match
+        assertFalse(FileStatsPredicate.mayMatch(STATS, Arrays.asList(eq(ID, 5L), eq(ID, 11L)), null));
+    }
+
+    @Test
+    public void testNullCounts() {
+        assertFalse(mayMatch(eq(ID, (Long) null), STATS));
+        assertTrue(mayMatch(notEq(ID, (Long) null), STATS));
+        assertTrue(mayMatch(eq(NAME, (Binary) null), STATS));
+        assertTrue(mayMatch(eq(ID, (Long) null), ALL_NULL_STATS));
+        assertFalse(mayMatch(notEq(ID, (Long) null), ALL_NULL_STATS));
+        assertFalse(mayMatch(not(eq(ID, (Long) null)), ALL_NULL_STATS));
+        assertFalse(mayMatch(eq(ID, 5L), ALL_NULL_STATS));
+        assertFalse(mayMatch(notEq(ID, 5L), ALL_NULL_STATS));
+    }
+
+    @Test
+    public void testMissingStatsMayMatch() {
+        assertTrue(mayMatch(eq(ID, 11L), ""));
+        assertTrue(mayMatch(eq(ID, 11L), null));
+        assertTrue(mayMatch(eq(ID, 11L), "{not json"));
+        assertTrue(mayMatch(eq(ID, 11L), "{\"numRows\":10}"));
+        assertTrue(mayMatch(eq(longColumn("no_min_max"), 11L), STATS));
+        assertTrue(mayMatch(eq(longColumn("no_min_max"), (Long) null), STATS));
+    }
+
+    @Test
+    public void testTypeMismatchMayMatch() {
+        assertTrue(mayMatch(eq(doubleColumn("id"), 11.0), STATS));
+        assertTrue(mayMatch(lt(doubleColumn("id"), 0.5), STATS));
+        assertTrue(mayMatch(eq(binaryColumn("id"), string("11")), STATS));
+        assertTrue(mayMatch(eq(longColumn("name"), 5L), STATS));
+    }
+
+    @Test
+    public void testOnlyGivenColumnsAreUsed() {
+        assertTrue(FileStatsPredicate.mayMatch(STATS, Collections.singletonList(eq(ID, 11L)),
+                Collections.singletonList("name")));
+    }
+}
@@ -4,14 +4,12 @@
 
 package org.apache.spark.sql.arrow;
 
-import com.dmetasoul.lakesoul.LakeSoulArrowReader;
 import com.dmetasoul.lakesoul.lakesoul.io.NativeIOReader;
 import com.dmetasoul.lakesoul.lakesoul.io.NativeIOWriter;
 import com.dmetasoul.lakesoul.lakesoul.io.NativeIOWriter.FlushResult;
 import com.dmetasoul.lakesoul.meta.BucketingUtils;
 import com.dmetasoul.lakesoul.meta.DBUtil;
 import com.dmetasoul.lakesoul.meta.MetaUtils;
-import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.commons.lang3.StringUtils;
@@ -57,10 +55,10 @@ public class CompactBucketIO implements AutoCloseable, Serializable {
     private Schema partitionSchema;
     private final int hashBucketNum;
     private final NativeIOOptions nativeIOOptions;
+    private final List<String> statsColumns;
     private final List<CompressDataFileInfo> fileInfo;
     private final String metaPartitionExpr;
     private NativeIOWriter nativeWriter;
-    private LakeSoulArrowReader lakesoulArrowReader;
     private Map<String, List<CompressDataFileInfo>> levelFileMap;
     private final String tablePath;
     private final int compactLevel0ExistedFileNumLimit;
@@ -89,6 +87,7 @@ public class CompactBucketIO implements AutoCloseable, Serializable {
         this.metaPartitionExpr = metaPartitionExpr;
         this.schema = Schema.fromJSON(tableInfo.table_schema());
         this.primaryKeys = JavaConverters.seqAsJavaList(tableInfo.hash_partition_columns().toSeq());
+        this.statsColumns = JavaConverters.seqAsJavaList(tableInfo.stats_columns().toSeq());
         this.hashBucketNum = tableHashBucketNum;
         if (StringUtils.isNotBlank(tableInfo.range_column())) {
             this.rangeColumns = Arrays.stream(tableInfo.range_column().split(",")).collect(Collectors.toList());
@@ -162,7 +161,6 @@ public class CompactBucketIO implements AutoCloseable, Serializable {
         nativeIOReader.setBatchSize(this.batchSize);
 
         nativeIOReader.initializeReader();
-        lakesoulArrowReader = new LakeSoulArrowReader(this.nativeIOReader, 10000);
         LOG.info("Task {}, Initialized compaction reader for table {}, pk {}, files {}, partitions {}, batch {}",
                 taskId, tablePath, primaryKeys, filePath, partitionSchema, batchSize);
     }
@@ -173,6 +171,7 @@ public class CompactBucketIO implements AutoCloseable, Serializable {
 
 
         nativeWriter.setHashBucketNum(this.hashBucketNum);
+        nativeWriter.setStatsColumns(this.statsColumns);
         if (this.tableHashBucketNumChanged) {
             nativeWriter.setPrimaryKeys(this.primaryKeys);
             nativeWriter.setRangePartitions(rangeColumns);
@@ -202,19 +201,8 @@ public class CompactBucketIO implements AutoCloseable, Serializable {
     }
 
     private HashMap<String, List<FlushResult>> readAndWrite() throws Exception {
-        VectorSchemaRoot currentVCR = null;
-        try {
-            while (this.lakesoulArrowReader.hasNext()) {
-                currentVCR = this.lakesoulArrowReader.nextResultVectorSchemaRoot();
-                nativeWriter.write(currentVCR);
-                currentVCR.close();
-            }
-            return this.nativeWriter.flush();
-        } finally {
-            if (currentVCR != null) {
-                currentVCR.close();
-            }
-        }
+        // merged batches are passed from reader to writer natively without being exported to jvm
+        return this.nativeWriter.compactFrom(this.nativeIOReader);
     }
 
     private void initLevelFile(List<CompressDataFileInfo> fileList) {
@@ -296,7 +284,8 @@ public class CompactBucketIO implements AutoCloseable, Serializable {
         }
         fileSystem.rename(new Path(fileInfo.getFilePath()), new Path(targetPath));
         FileStatus fileStatus = fileSystem.getFileStatus(new Path(targetPath));
-        return new CompressDataFileInfo(targetPath, fileSize, fileExistCols, fileStatus.getModificationTime());
+        return new CompressDataFileInfo(targetPath, fileSize, fileExistCols, fileStatus.getModificationTime(),
+                fileInfo.getFileStats());
     }
 
     public HashMap<String, List<CompressDataFileInfo>> startCompactTask() throws Exception {
@@ -519,7 +508,7 @@ public class CompactBucketIO implements AutoCloseable, Serializable {
                 FileSystem fileSystem = path.getFileSystem(conf);
                 FileStatus fileStatus = fileSystem.getFileStatus(path);
                 compressDataFileInfoList.add(new CompressDataFileInfo(filePath, fileStatus.getLen(), fileExistCols,
-                        fileStatus.getModificationTime()));
+                        fileStatus.getModificationTime(), file.getFileStats()));
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
@@ -9,12 +9,19 @@ public class CompressDataFileInfo {
     private long fileSize;
     private String fileExistsCols;
     private long timestamp;
+    private String fileStats;
 
     public CompressDataFileInfo(String filePath, long fileSize, String fileExistCols, long timestamp) {
+        this(filePath, fileSize, fileExistCols, timestamp, "");
+    }
+
+    public CompressDataFileInfo(String filePath, long fileSize, String fileExistCols, long timestamp,
+                                String fileStats) {
         this.filePath = filePath;
         this.fileSize = fileSize;
         this.fileExistsCols = fileExistCols;
         this.timestamp = timestamp;
+        this.fileStats = fileStats;
     }
 
     public String getFilePath() {
@@ -49,12 +56,21 @@ public class CompressDataFileInfo {
         this.timestamp = timestamp;
     }
 
+    public String getFileStats() {
+        return fileStats;
+    }
+
+    public void setFileStats(String fileStats) {
+        this.fileStats = fileStats;
+    }
+
     @Override public String toString() {
         return "CompressDataFileInfo{" +
                 "filePath='" + filePath + '\'' +
                 ", fileSize=" + fileSize +
                 ", fileExistsCols='" + fileExistsCols + '\'' +
                 ", timestamp=" + timestamp +
+                ", fileStats='" + fileStats + '\'' +
                 '}';
     }
 }
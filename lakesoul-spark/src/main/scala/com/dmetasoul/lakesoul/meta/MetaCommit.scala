@@ -106,6 +106,7 @@ object MetaCommit extends Logging {
         metaDataFileInfo.setFileOp(file_info.getFileOp)
         metaDataFileInfo.setSize(file_info.getSize)
         metaDataFileInfo.setFileExistCols(file_info.getFileExistCols)
+        metaDataFileInfo.setFileStats(file_info.getFileStats)
         fileOps.add(metaDataFileInfo.build)
       }
       metaDataCommitInfo.addAllFileOps(fileOps)
@@ -218,17 +218,21 @@ object SparkMetaVersion extends Logging {
   }
 
   def getTableDataInfoCached(partition_info_arr: Array[PartitionInfoScala], snapshot: Snapshot): Array[DataFileInfo] = {
-    partition_info_arr.flatMap(info => {
-      snapshot.getDataFileInfoCache(info) match {
-        case Some(dataFileInfo) => dataFileInfo
-        case None =>
-          val t0 = System.currentTimeMillis()
-          val dataFileInfos = DataOperation.getSinglePartitionDataInfo(info).toArray
-          logInfo(s"Query data commit info for partition $info, time ${System.currentTimeMillis() - t0}ms")
-          snapshot.putDataFileInfoCache(info, dataFileInfos)
-          dataFileInfos
-      }
-    }).toArray
+    val cached = partition_info_arr.map(info => snapshot.getDataFileInfoCache(info))
+    val missing = partition_info_arr.zip(cached).filter(_._2.isEmpty).map(_._1)
+    val loaded = if (missing.nonEmpty) {
+      val t0 = System.currentTimeMillis()
+      val dataFileInfos = DataOperation.getPartitionsDataInfo(missing).map(_.toArray)
+      logInfo(s"Query data commit info for ${missing.length} partitions, time ${System.currentTimeMillis() - t0}ms")
+      missing.zip(dataFileInfos).foreach { case (info, files) => snapshot.putDataFileInfoCache(info, files) }
+      missing.zip(dataFileInfos).toMap
+    } else {
+      Map.empty[PartitionInfoScala, Array[DataFileInfo]]
+    }
+    partition_info_arr.zip(cached).flatMap {
+      case (_, Some(dataFileInfo)) => dataFileInfo
+      case (info, None) => loaded(info)
+    }
   }
 
   def rollbackPartitionInfoByVersion(table_id: String, range_value: String, toVersion: Int): Unit = {
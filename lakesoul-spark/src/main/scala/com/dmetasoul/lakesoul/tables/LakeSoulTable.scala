@@ -381,7 +381,8 @@ class LakeSoulTable(df: => Dataset[Row], snapshotManagement: SnapshotManagement)
           dataFileInfo => {
             val taskId = TaskContext.get().partitionId()
             val needDealFileInfo = dataFileInfo.map(file => {
-              new CompressDataFileInfo(file.path, file.size, file.file_exist_cols, file.modification_time)
+              new CompressDataFileInfo(file.path, file.size, file.file_exist_cols, file.modification_time,
+                file.file_stats)
             }).toList.asJava
             tryWithResource(new CompactBucketIO(
               configuration.value,
@@ -400,7 +401,7 @@ class LakeSoulTable(df: => Dataset[Row], snapshotManagement: SnapshotManagement)
                 val (partitionDesc, flushResult) = result
                 val array = flushResult.asScala.map(
                   f => DataFileInfo(partitionDesc, f.getFilePath, "add", f.getFileSize, f.getTimestamp,
-                    f.getFileExistCols))
+                    f.getFileExistCols, f.getFileStats))
                 array
               }).toSeq
             }
@@ -446,6 +447,7 @@ class LakeSoulTable(df: => Dataset[Row], snapshotManagement: SnapshotManagement)
             .setFileOp(FileOp.add)
             .setSize(file.size)
             .setFileExistCols(file.file_exist_cols)
+            .setFileStats(file.file_stats)
             .build()
         }
         add_file_arr_buf += DataCommitInfo.newBuilder()
@@ -528,6 +530,15 @@ class LakeSoulTable(df: => Dataset[Row], snapshotManagement: SnapshotManagement)
       this
     }
 
+  /**
+    * Compute approximate number of distinct values of all columns and store them in table properties,
+    * where query engines read them as column statistics besides those collected per data file.
+    */
+  def analyze(): LakeSoulTable = {
+    executeAnalyze(snapshotManagement)
+    this
+  }
+
   def setPartitionTtl(days: Int): LakeSoulTable = {
     executeSetPartitionTtl(snapshotManagement, days)
     this
@@ -4,7 +4,8 @@
 
 package com.dmetasoul.lakesoul.tables.execution
 
-import com.dmetasoul.lakesoul.meta.DBConfig.LAKESOUL_RANGE_PARTITION_SPLITTER
+import com.alibaba.fastjson.{JSON, JSONObject}
+import com.dmetasoul.lakesoul.meta.DBConfig.{LAKESOUL_RANGE_PARTITION_SPLITTER, TableInfoProperty}
 import com.dmetasoul.lakesoul.meta.SparkMetaVersion
 import com.dmetasoul.lakesoul.tables.LakeSoulTable
 import com.dmetasoul.lakesoul.spark.clean.CleanUtils.{cancelCompactionExpiredDays, cancelTableDataExpiredDays, setCompactionExpiredDays, setTableDataExpiredDays, setTableOnlySaveOnceCompactionValue}
@@ -18,7 +19,7 @@ import org.apache.spark.sql.lakesoul.exception.LakeSoulErrors
 import org.apache.spark.sql.lakesoul.rules.PreprocessTableUpsert
 import org.apache.spark.sql.lakesoul.sources.LakeSoulSQLConf
 import org.apache.spark.sql.lakesoul.utils.AnalysisHelper
-import org.apache.spark.sql.types.{StructField, StructType}
+import org.apache.spark.sql.types.{ArrayType, MapType, StructField, StructType}
 import org.apache.spark.sql.{Column, DataFrame, SparkSession, functions}
 
 import scala.collection.mutable
@@ -195,6 +196,27 @@ trait LakeSoulTableOperations extends AnalysisHelper {
     ))
   }
 
+  protected def executeAnalyze(snapshotManagement: SnapshotManagement): Unit = {
+    val tableInfo = snapshotManagement.getTableInfoOnly
+    val df = self.toDF
+    val columns = df.schema.fields.filter(f => f.dataType match {
+      case _: ArrayType | _: MapType | _: StructType => false
+      case _ => true
+    }).map(_.name)
+    if (columns.isEmpty) {
+      return
+    }
+    val aggregates = columns.map(c => functions.approx_count_distinct(new Column(UnresolvedAttribute.quoted(c))))
+    val row = df.agg(aggregates.head, aggregates.tail: _*).head()
+    val columnNdv = new JSONObject()
+    columns.zipWithIndex.foreach { case (c, i) => columnNdv.put(c, row.getLong(i)) }
+
+    val properties = JSON.parseObject(SparkMetaVersion.dbManager.getTableInfoByTableId(tableInfo.table_id).getProperties)
+    properties.put(TableInfoProperty.COLUMN_NDV, columnNdv.toJSONString)
+    SparkMetaVersion.dbManager.updateTableProperties(tableInfo.table_id, properties.toJSONString)
+    snapshotManagement.updateSnapshot()
+  }
+
   protected def executeSetCompactionTtl(snapshotManagement: SnapshotManagement, days: Int): Unit = {
     val tablePath = snapshotManagement.table_path
     setCompactionExpiredDays(tablePath, days)
@@ -45,6 +45,7 @@ import scala.collection.convert.ImplicitConversions.`iterable AsScalaIterable`
 /** A helper object for writing FileFormat data out to a location. */
 object LakeSoulFileWriter extends Logging {
   val MAX_FILE_SIZE_KEY = "max_file_size"
+  val STATS_COLUMNS_KEY = "stats_columns"
   val HASH_BUCKET_ID_KEY = "hash_bucket_id"
   val SNAPPY_COMPRESS_RATIO = 3
   val COPY_FILE_WRITER_KEY = "copy_file_writer"
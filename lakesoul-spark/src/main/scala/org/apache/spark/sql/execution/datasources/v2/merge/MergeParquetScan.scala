@@ -4,7 +4,7 @@
 
 package org.apache.spark.sql.execution.datasources.v2.merge
 
-import com.dmetasoul.lakesoul.meta.DBConfig.{LAKESOUL_FILE_EXISTS_COLUMN_SPLITTER, LAKESOUL_RANGE_PARTITION_SPLITTER}
+import com.dmetasoul.lakesoul.meta.DBConfig.LAKESOUL_RANGE_PARTITION_SPLITTER
 import com.dmetasoul.lakesoul.meta.{DataFileInfo, SparkMetaVersion}
 
 import java.util.{Locale, OptionalLong, TimeZone}
@@ -62,15 +62,24 @@ abstract class MergeDeltaParquetScan(sparkSession: SparkSession,
 
   val snapshotManagement: SnapshotManagement = fileIndex.snapshotManagement
 
+  // files matching partition filters before part merge, fetched from metadata only once per scan
+  private lazy val scanFiles: Seq[DataFileInfo] = fileIndex.getFileInfo(partitionFilters)
+
   lazy val fileInfo: Seq[DataFileInfo] = if (SparkUtil.isPartitionVersionRead(newFileIndex.snapshotManagement)) {
     newFileIndex.getFileInfoForPartitionVersion()
+  } else if (newFileIndex eq fileIndex) {
+    scanFiles
   } else {
     newFileIndex.getFileInfo(partitionFilters)
   }
 
+  /** files to be split into input partitions of a batch scan */
+  lazy val fileListing: MergeScanFileListing =
+    MergeScanFileListing(newFileIndex.filterByDataFilters(fileInfo, dataFilters))
+
   /** if there are too many delta files, we will execute compaction first */
   private def compactAndReturnNewFileIndex(oriFileIndex: LakeSoulFileIndexV2): LakeSoulFileIndexV2 = {
-    val files = oriFileIndex.getFileInfo(partitionFilters)
+    val files = scanFiles
     val partitionGroupedFiles = files
       .groupBy(_.range_partitions)
       .values
@@ -202,7 +211,11 @@ abstract class MergeDeltaParquetScan(sparkSession: SparkSession,
 
   protected def partitions(isStreaming: Boolean): Seq[MergeFilePartition] = {
     val t0 = System.currentTimeMillis()
-    val selectedPartitions = newFileIndex.listFiles(partitionFilters, dataFilters)
+    val listing = if (isStreaming) {
+      MergeScanFileListing(newFileIndex.getFileInfoForPartitionVersion())
+    } else {
+      fileListing
+    }
     logInfo(s"\tpartitions list files took ${System.currentTimeMillis() - t0}ms")
     val partitionAttributes = newFileIndex.partitionSchema.toAttributes
     val attributeMap = partitionAttributes.map(a => normalizeName(a.name) -> a).toMap
@@ -214,79 +227,29 @@ abstract class MergeDeltaParquetScan(sparkSession: SparkSession,
     }
     lazy val partitionValueProject =
       GenerateUnsafeProjection.generate(readPartitionAttributes, partitionAttributes)
-    val splitFiles = selectedPartitions.flatMap { partition =>
+
+    // produce requested schema once for all partitions
+    val requestFilesSchemaMap = listing.requestedSchemas(readDataSchema.fieldNames, tableInfo)
+    hadoopConf.set(ParquetReadSupport.SPARK_ROW_REQUESTED_SCHEMA,
+      requestFilesSchemaMap.map { case (rangeVersion, schema) => rangeVersion + "->" + schema.json }.mkString("|"))
+
+    val fsConf = sparkSession.sessionState.newHadoopConf()
+    val splitFiles = listing.byPartition.toSeq.flatMap { case (rangePartitions, files) =>
       // Prune partition values if part of the partition columns are not required.
       val partitionValues = if (readPartitionAttributes != partitionAttributes) {
-        partitionValueProject(partition.values).copy()
+        partitionValueProject(newFileIndex.partitionRow(rangePartitions)).copy()
       } else {
-        partition.values
+        newFileIndex.partitionRow(rangePartitions)
       }
+      val fileStatuses = files.map(newFileIndex.fileStatus)
+      val fs = fileStatuses.head.getPath.getFileSystem(fsConf)
 
-      // produce requested schema
-      val requestedFields = readDataSchema.fieldNames
-
-      val requestFilesSchemaMap = if (isStreaming) {
-        val requestFilesSchema = newFileIndex.getFileInfoForPartitionVersion()
-          .groupBy(_.range_version)
-          .map(m => {
-            val fileExistCols = m._2.head.file_exist_cols.split(LAKESOUL_FILE_EXISTS_COLUMN_SPLITTER)
-            m._1 + "->" + StructType(
-              requestedFields.filter(f => fileExistCols.contains(f) || tableInfo.hash_partition_columns.contains(f))
-                .map(c => tableInfo.schema(c))
-            ).json
-          }).mkString("|")
-        hadoopConf.set(ParquetReadSupport.SPARK_ROW_REQUESTED_SCHEMA, requestFilesSchema)
-
-        newFileIndex.getFileInfoForPartitionVersion()
-          .groupBy(_.range_version)
-          .map(m => {
-            val fileExistCols = m._2.head.file_exist_cols.split(LAKESOUL_FILE_EXISTS_COLUMN_SPLITTER)
-            (m._1, StructType(
-              requestedFields.filter(f => fileExistCols.contains(f) || tableInfo.hash_partition_columns.contains(f))
-                .map(c => tableInfo.schema(c))
-            ))
-          })
-      } else {
-
-        val requestFilesSchema =
-          fileInfo
-            .groupBy(_.range_version)
-            .map(m => {
-              val fileExistCols = m._2.head.file_exist_cols.split(LAKESOUL_FILE_EXISTS_COLUMN_SPLITTER)
-              m._1 + "->" + StructType(
-                requestedFields.filter(f => fileExistCols.contains(f) || tableInfo.hash_partition_columns.contains(f))
-                  .map(c => tableInfo.schema(c))
-              ).json
-            }).mkString("|")
-
-        hadoopConf.set(ParquetReadSupport.SPARK_ROW_REQUESTED_SCHEMA, requestFilesSchema)
-        fileInfo
-          .groupBy(_.range_version)
-          .map(m => {
-            val fileExistCols = m._2.head.file_exist_cols.split(LAKESOUL_FILE_EXISTS_COLUMN_SPLITTER)
-            (m._1, StructType(
-              requestedFields.filter(f => fileExistCols.contains(f) || tableInfo.hash_partition_columns.contains(f))
-                .map(c => tableInfo.schema(c))
-            ))
-          })
-      }
-
-      val fileInfoSeq = if (isStreaming) newFileIndex.getFileInfoForPartitionVersion() else fileInfo
-      val dataInfoPath = fileInfoSeq.mkString(",")
-      val fs = partition.files.head.getPath
-        .getFileSystem(sparkSession.sessionState.newHadoopConf())
-      val pathToFileInfoMap = fileInfoSeq.map(f => fs.makeQualified(new Path(f.path)).toString -> f).toMap
-
-      partition.files.flatMap { file =>
+      files.zip(fileStatuses).map { case (touchedFileInfo, file) =>
         val filePath = file.getPath
-        val qualifiedPath = fs.makeQualified(filePath).toString
-
-        val touchedFileInfo = pathToFileInfoMap.getOrElse(qualifiedPath, throw LakeSoulErrors.filePathNotFoundException(qualifiedPath, dataInfoPath))
-
-        MergePartitionedFileUtil.notSplitFiles(
-          sparkSession,
+        MergePartitionedFileUtil.getPartitionedFile(
           file,
           filePath,
+          fs.makeQualified(filePath).toString,
           partitionValues,
           tableInfo,
           touchedFileInfo,
@@ -343,7 +306,9 @@ abstract class MergeDeltaParquetScan(sparkSession: SparkSession,
         OptionalLong.of(size)
       }
 
-      override def numRows(): OptionalLong = OptionalLong.empty()
+      // rows of primary key tables are merged on read, the sum over files is only an upper bound
+      override def numRows(): OptionalLong =
+        if (tableInfo.hash_partition_columns.nonEmpty) OptionalLong.empty() else SparkUtil.estimateNumRows(fileInfo)
     }
   }
 
@@ -43,12 +43,25 @@ object MergePartitionedFileUtil {
                          requestFilesSchemaMap: Map[String, StructType],
                          requestDataSchema: StructType,
                          requestPartitionFields: Array[String]): MergePartitionedFile = {
-    val hosts = getBlockHosts(getBlockLocations(file), 0, file.getLen)
-
     val fs = filePath
       .getFileSystem(sparkSession.sessionState.newHadoopConf())
     val filePathStr = fs
       .makeQualified(filePath).toString
+    getPartitionedFile(file, filePath, filePathStr, partitionValues, tableInfo, touchedFileInfo,
+      requestFilesSchemaMap, requestDataSchema, requestPartitionFields)
+  }
+
+  /** Like above, with the qualified path of the file resolved by caller */
+  def getPartitionedFile(file: FileStatus,
+                         filePath: Path,
+                         filePathStr: String,
+                         partitionValues: InternalRow,
+                         tableInfo: TableInfo,
+                         touchedFileInfo: DataFileInfo,
+                         requestFilesSchemaMap: Map[String, StructType],
+                         requestDataSchema: StructType,
+                         requestPartitionFields: Array[String]): MergePartitionedFile = {
+    val hosts = getBlockHosts(getBlockLocations(file), 0, file.getLen)
 
     val touchedFileSchema = requestFilesSchemaMap(touchedFileInfo.range_version).fieldNames
 
@@ -0,0 +1,36 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.apache.spark.sql.execution.datasources.v2.merge
+
+import com.dmetasoul.lakesoul.meta.DBConfig.LAKESOUL_FILE_EXISTS_COLUMN_SPLITTER
+import com.dmetasoul.lakesoul.meta.DataFileInfo
+import org.apache.spark.sql.lakesoul.utils.TableInfo
+import org.apache.spark.sql.types.StructType
+
+/**
+  * Data files of one scan, listed from metadata once and shared by all stages of scan planning.
+  * Files are indexed by range partition and by range version, so that planning never regroups
+  * the whole listing for each partition.
+  */
+case class MergeScanFileListing(files: Seq[DataFileInfo]) {
+
+  lazy val byPartition: Map[String, Seq[DataFileInfo]] = files.groupBy(_.range_partitions)
+
+  lazy val byRangeVersion: Map[String, Seq[DataFileInfo]] = files.groupBy(_.range_version)
+
+  /**
+    * Requested fields existing in the files of each range version, keyed by range version
+    */
+  def requestedSchemas(requestedFields: Array[String], tableInfo: TableInfo): Map[String, StructType] = {
+    val hashColumns = tableInfo.hash_partition_columns.toSet
+    byRangeVersion.map { case (rangeVersion, versionFiles) =>
+      val fileExistCols = versionFiles.head.file_exist_cols.split(LAKESOUL_FILE_EXISTS_COLUMN_SPLITTER).toSet
+      rangeVersion -> StructType(
+        requestedFields.filter(f => fileExistCols.contains(f) || hashColumns.contains(f))
+          .map(c => tableInfo.schema(c))
+      )
+    }
+  }
+}
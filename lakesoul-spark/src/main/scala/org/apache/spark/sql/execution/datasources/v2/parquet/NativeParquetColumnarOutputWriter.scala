@@ -13,7 +13,7 @@ import org.apache.spark.sql.catalyst.InternalRow
 import org.apache.spark.sql.types.StructType
 import org.apache.spark.sql.vectorized.{ArrowFakeRow, ColumnarBatch, NativeIOUtils}
 
-import scala.collection.JavaConverters.{asScalaBufferConverter, seqAsJavaListConverter}
+import scala.collection.JavaConverters.{asScalaBufferConverter, mapAsScalaMapConverter, seqAsJavaListConverter}
 
 // for compaction write, we directly get ColumnarBatch of ArrowVectors
 // from RDD[ArrowFakeRow]
@@ -38,7 +38,7 @@ class NativeParquetColumnarOutputWriter(path: String, dataSchema: StructType, ti
   }
 
   override def close() = {
-    nativeIOWriter.flush()
+    NativeParquetOutputWriter.recordFileStats(nativeIOWriter.flush().asScala.values.flatMap(_.asScala))
     nativeIOWriter.close()
   }
 
@@ -22,9 +22,39 @@ import org.apache.spark.sql.vectorized.{GlutenUtils, NativeIOUtils}
 import org.apache.spark.util.TaskCompletionListener
 
 import java.util
-import scala.collection.JavaConverters.mapAsScalaMapConverter
+import java.util.concurrent.ConcurrentHashMap
+import scala.collection.JavaConverters.{asScalaBufferConverter, mapAsScalaMapConverter}
 import scala.collection.mutable
 
+object NativeParquetOutputWriter {
+
+  // file stats reported on flush, taken by the commit protocol of the same task when it lists added files
+  private val fileStats = new ConcurrentHashMap[String, String]()
+
+  private def statsKey(file: String): String = new Path(file).toUri.getPath
+
+  private[parquet] def recordFileStats(results: Iterable[FlushResult]): Unit = {
+    val keys = results.filter(_.getFileStats.nonEmpty).map(result => {
+      val key = statsKey(result.getFilePath)
+      fileStats.put(key, result.getFileStats)
+      key
+    }).toList
+    // drop stats not taken, e.g. when the task is aborted
+    if (keys.nonEmpty) {
+      Option(TaskContext.get()).foreach(_.addTaskCompletionListener(new TaskCompletionListener {
+        override def onTaskCompletion(context: TaskContext): Unit = keys.foreach(fileStats.remove)
+      }))
+    }
+  }
+
+  /**
+   * @return stats json of file written in current task, empty if not collected
+   */
+  def takeFileStats(file: String): String = {
+    Option(fileStats.remove(statsKey(file))).getOrElse("")
+  }
+}
+
 class NativeParquetOutputWriter(val path: String, dataSchema: StructType, timeZoneId: String, context: TaskAttemptContext) extends OutputWriter {
 
   val NATIVE_IO_WRITE_MAX_ROW_GROUP_SIZE: Int = SQLConf.get.getConf(LakeSoulSQLConf.NATIVE_IO_WRITE_MAX_ROW_GROUP_SIZE)
@@ -77,6 +107,7 @@ class NativeParquetOutputWriter(val path: String, dataSchema: StructType, timeZo
 
         nativeIOWriter.write(root)
         flushResult = nativeIOWriter.flush().asScala
+        NativeParquetOutputWriter.recordFileStats(flushResult.values.flatMap(_.asScala))
 
         recordWriter.reset()
         root.close()
@@ -10,12 +10,12 @@ import org.apache.hadoop.fs.Path
 import org.apache.spark.sql.SparkSession
 import org.apache.spark.sql.catalyst.expressions.Expression
 import org.apache.spark.sql.connector.read.streaming.{MicroBatchStream, Offset}
-import org.apache.spark.sql.connector.read.{InputPartition, PartitionReaderFactory}
+import org.apache.spark.sql.connector.read.{InputPartition, PartitionReaderFactory, Statistics}
 import org.apache.spark.sql.execution.datasources.v2.FileScan
 import org.apache.spark.sql.execution.streaming.LongOffset
 import org.apache.spark.sql.lakesoul.LakeSoulOptions.ReadType
 import org.apache.spark.sql.lakesoul.exception.LakeSoulErrors
-import org.apache.spark.sql.lakesoul.utils.TimestampFormatter
+import org.apache.spark.sql.lakesoul.utils.{SparkUtil, TimestampFormatter}
 import org.apache.spark.sql.lakesoul.{LakeSoulFileIndexV2, LakeSoulOptions, SnapshotManagement}
 import org.apache.spark.sql.sources.Filter
 import org.apache.spark.sql.types.StructType
@@ -23,7 +23,7 @@ import org.apache.spark.sql.util.CaseInsensitiveStringMap
 import org.apache.spark.sql.vectorized.NativeIOUtils
 import org.apache.spark.util.SerializableConfiguration
 
-import java.util.TimeZone
+import java.util.{OptionalLong, TimeZone}
 
 case class NativeParquetScan(
                               sparkSession: SparkSession,
@@ -58,6 +58,17 @@ case class NativeParquetScan(
     super.getMetaData() ++ Map("PushedFilers" -> seqToString(pushedFilters))
   }
 
+  override def estimateStatistics(): Statistics = {
+    val stats = super.estimateStatistics()
+    // the same listing as the input partitions of the scan
+    val rows = SparkUtil.estimateNumRows(fileIndex.listFileInfo(partitionFilters, dataFilters))
+    new Statistics {
+      override def sizeInBytes(): OptionalLong = stats.sizeInBytes()
+
+      override def numRows(): OptionalLong = rows
+    }
+  }
+
   override def createReaderFactory(): PartitionReaderFactory = {
     NativeIOUtils.setParquetConfigurations(sparkSession, hadoopConf, readDataSchema)
 
@@ -14,6 +14,7 @@ import org.apache.spark.internal.Logging
 import org.apache.spark.internal.io.FileCommitProtocol
 import org.apache.spark.internal.io.FileCommitProtocol.TaskCommitMessage
 import org.apache.spark.sql.catalyst.expressions.Cast
+import org.apache.spark.sql.execution.datasources.v2.parquet.NativeParquetOutputWriter
 import org.apache.spark.sql.lakesoul.utils.{DateFormatter, PartitionUtils, TimestampFormatter}
 import org.apache.spark.sql.types.StringType
 
@@ -138,7 +139,8 @@ class DelayedCommitProtocol(jobId: String,
 
         val filePath = new Path(new URI(f._2))
         val stat = fs.getFileStatus(filePath)
-        DataFileInfo(MetaUtils.getPartitionKeyFromList(f._1), fs.makeQualified(filePath).toString, "add", stat.getLen, stat.getModificationTime)
+        DataFileInfo(MetaUtils.getPartitionKeyFromList(f._1), fs.makeQualified(filePath).toString, "add", stat.getLen, stat.getModificationTime,
+          file_stats = NativeParquetOutputWriter.takeFileStats(f._2))
       }
 
       new TaskCommitMessage(statuses)
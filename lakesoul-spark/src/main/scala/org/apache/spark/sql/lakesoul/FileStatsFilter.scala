@@ -0,0 +1,80 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.apache.spark.sql.lakesoul
+
+import com.dmetasoul.lakesoul.meta.{DataFileInfo, DataFileStats}
+import org.apache.spark.internal.Logging
+import org.apache.spark.sql.catalyst.expressions.{And, AttributeReference, EqualTo, Expression, GreaterThan, GreaterThanOrEqual, In, InSet, IsNotNull, IsNull, LessThan, LessThanOrEqual, Literal, Not, Or}
+import org.apache.spark.sql.lakesoul.utils.TableInfo
+import org.apache.spark.unsafe.types.UTF8String
+
+/**
+  * Skips data files by the column statistics recorded in their [[DataFileInfo.file_stats]].
+  * Files of primary key tables are merged on read, so only filters on primary keys are used for them.
+  */
+object FileStatsFilter extends Logging {
+
+  def filterFiles(tableInfo: TableInfo,
+                  files: Seq[DataFileInfo],
+                  dataFilters: Seq[Expression]): Seq[DataFileInfo] = {
+    if (dataFilters.isEmpty || !files.exists(_.file_stats.nonEmpty)) {
+      return files
+    }
+    val columns = if (tableInfo.hash_partition_columns.nonEmpty) Some(tableInfo.hash_partition_columns.toSet) else None
+    val filter = dataFilters.reduce(And)
+    val result = files.filter(file => {
+      val stats = DataFileStats.parse(file.file_stats)
+      stats == null || mayMatch(filter, stats, columns)
+    })
+    if (result.length < files.length) {
+      logInfo(s"Skipped ${files.length - result.length} of ${files.length} files of table " +
+        s"${tableInfo.table_path_s.getOrElse(tableInfo.table_id)} by file stats")
+    }
+    result
+  }
+
+  private def mayMatch(filter: Expression, stats: DataFileStats, columns: Option[Set[String]]): Boolean = {
+    def column(a: AttributeReference): Option[DataFileStats.ColumnStats] =
+      if (columns.forall(_.contains(a.name))) Option(stats.getColumn(a.name)) else None
+
+    filter match {
+      case And(left, right) => mayMatch(left, stats, columns) && mayMatch(right, stats, columns)
+      case Or(left, right) => mayMatch(left, stats, columns) || mayMatch(right, stats, columns)
+      case IsNull(a: AttributeReference) => column(a).forall(_.mayBeNull())
+      case IsNotNull(a: AttributeReference) => column(a).forall(_.mayBeNotNull())
+      case Not(IsNull(a: AttributeReference)) => column(a).forall(_.mayBeNotNull())
+      case Not(IsNotNull(a: AttributeReference)) => column(a).forall(_.mayBeNull())
+      case EqualTo(a: AttributeReference, l: Literal) => column(a).forall(_.mayEqual(value(l)))
+      case EqualTo(l: Literal, a: AttributeReference) => column(a).forall(_.mayEqual(value(l)))
+      case Not(EqualTo(a: AttributeReference, l: Literal)) => column(a).forall(_.mayNotEqual(value(l)))
+      case Not(EqualTo(l: Literal, a: AttributeReference)) => column(a).forall(_.mayNotEqual(value(l)))
+      case LessThan(a: AttributeReference, l: Literal) => column(a).forall(_.mayBeLessThan(value(l), false))
+      case LessThan(l: Literal, a: AttributeReference) => column(a).forall(_.mayBeGreaterThan(value(l), false))
+      case LessThanOrEqual(a: AttributeReference, l: Literal) => column(a).forall(_.mayBeLessThan(value(l), true))
+      case LessThanOrEqual(l: Literal, a: AttributeReference) => column(a).forall(_.mayBeGreaterThan(value(l), true))
+      case GreaterThan(a: AttributeReference, l: Literal) => column(a).forall(_.mayBeGreaterThan(value(l), false))
+      case GreaterThan(l: Literal, a: AttributeReference) => column(a).forall(_.mayBeLessThan(value(l), false))
+      case GreaterThanOrEqual(a: AttributeReference, l: Literal) => column(a).forall(_.mayBeGreaterThan(value(l), true))
+      case GreaterThanOrEqual(l: Literal, a: AttributeReference) => column(a).forall(_.mayBeLessThan(value(l), true))
+      case In(a: AttributeReference, list) if list.forall(_.isInstanceOf[Literal]) =>
+        column(a).forall(c => list.exists(l => c.mayEqual(value(l.asInstanceOf[Literal]))))
+      case InSet(a: AttributeReference, set) =>
+        column(a).forall(c => set.exists(v => c.mayEqual(value(v))))
+      case _ => true
+    }
+  }
+
+  // integers and dates are compared as long, strings by their utf8 bytes
+  private def value(l: Literal): AnyRef = value(l.value)
+
+  private def value(v: Any): AnyRef = v match {
+    case s: UTF8String => s.toString
+    case i: Int => Long.box(i.toLong)
+    case i: Long => Long.box(i)
+    case i: Short => Long.box(i.toLong)
+    case i: Byte => Long.box(i.toLong)
+    case _ => null
+  }
+}
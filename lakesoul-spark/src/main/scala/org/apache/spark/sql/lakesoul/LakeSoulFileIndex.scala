@@ -6,9 +6,11 @@ package org.apache.spark.sql.lakesoul
 
 import java.net.URI
 import org.apache.hadoop.fs.{FileStatus, Path}
+import org.apache.spark.sql.catalyst.InternalRow
 import org.apache.spark.sql.catalyst.expressions.{Cast, Expression, GenericInternalRow, Literal}
 import org.apache.spark.sql.execution.datasources.{PartitionDirectory, PartitionSpec, PartitioningAwareFileIndex}
 import org.apache.spark.sql.lakesoul.LakeSoulFileIndexUtils._
+import org.apache.spark.sql.lakesoul.sources.LakeSoulSQLConf
 import org.apache.spark.sql.lakesoul.utils.SparkUtil
 import org.apache.spark.sql.types.StructType
 import org.apache.spark.sql.{AnalysisException, SparkSession}
@@ -48,39 +50,68 @@ abstract class LakeSoulFileIndexV2(val spark: SparkSession,
                     dataFilters: Seq[Expression] = Nil): Seq[DataFileInfo]
 
 
+  /**
+    * Applies `dataFilters` to files that already match the partition filters, without listing files again
+    */
+  def filterByDataFilters(files: Seq[DataFileInfo], dataFilters: Seq[Expression]): Seq[DataFileInfo] = files
+
   override def partitionSchema: StructType = snapshotManagement.snapshot.getTableInfo.range_partition_schema
 
-  override def listFiles(partitionFilters: Seq[Expression],
-                         dataFilters: Seq[Expression]): Seq[PartitionDirectory] = {
-    val timeZone = spark.sessionState.conf.sessionLocalTimeZone
-    var files: Seq[DataFileInfo] = Seq.empty
-    if (SparkUtil.isPartitionVersionRead(snapshotManagement)) {
-      files = getFileInfoForPartitionVersion()
+  // key and files of the last listing, so that statistics and input partitions of a scan list files only once
+  @volatile private var lastListing: (Snapshot, (String, Long, Long, String), Seq[Expression], Seq[Expression],
+    Seq[DataFileInfo]) = _
+
+  /**
+    * Files listed by [[listFiles]] for the given filters, reused while the snapshot and filters stay the same
+    */
+  def listFileInfo(partitionFilters: Seq[Expression], dataFilters: Seq[Expression]): Seq[DataFileInfo] = {
+    val snapshot = snapshotManagement.snapshot
+    val partitionDescAndVersion = snapshot.getPartitionDescAndVersion
+    val last = lastListing
+    if (last != null && (last._1 eq snapshot) && last._2 == partitionDescAndVersion &&
+      last._3 == partitionFilters && last._4 == dataFilters) {
+      last._5
     } else {
-      files = matchingFiles(partitionFilters, dataFilters)
+      val files = if (SparkUtil.isPartitionVersionRead(snapshotManagement)) {
+        getFileInfoForPartitionVersion()
+      } else {
+        matchingFiles(partitionFilters, dataFilters)
+      }
+      lastListing = (snapshot, partitionDescAndVersion, partitionFilters, dataFilters, files)
+      files
     }
+  }
+
+  override def listFiles(partitionFilters: Seq[Expression],
+                         dataFilters: Seq[Expression]): Seq[PartitionDirectory] = {
+    val files = listFileInfo(partitionFilters, dataFilters)
 
-    files.groupBy(x => MetaUtils.getPartitionMapFromKey(x.range_partitions)).map {
-      case (partitionValues, files) =>
-        val rowValues: Array[Any] = partitionSchema.map { p =>
-          Cast(Literal(partitionValues(p.name)), p.dataType, Option(timeZone)).eval()
-        }.toArray
-
-        //file status
-        val fileStats = files.map { f =>
-          new FileStatus(
-            /* length */ f.size,
-            /* isDir */ false,
-            /* blockReplication */ 0,
-            /* blockSize */ 1,
-            /* modificationTime */ f.modification_time,
-            absolutePath(f.path, tableName))
-        }.toArray
-
-        PartitionDirectory(new GenericInternalRow(rowValues), fileStats)
+    files.groupBy(_.range_partitions).map {
+      case (rangePartitions, files) =>
+        PartitionDirectory(partitionRow(rangePartitions), files.map(fileStatus).toArray)
     }.toSeq
   }
 
+  /** Partition values of `rangePartitions` desc as a row of [[partitionSchema]] */
+  def partitionRow(rangePartitions: String): InternalRow = {
+    val timeZone = spark.sessionState.conf.sessionLocalTimeZone
+    val partitionValues = MetaUtils.getPartitionMapFromKey(rangePartitions)
+    val rowValues: Array[Any] = partitionSchema.map { p =>
+      Cast(Literal(partitionValues(p.name)), p.dataType, Option(timeZone)).eval()
+    }.toArray
+    new GenericInternalRow(rowValues)
+  }
+
+  def fileStatus(f: DataFileInfo): FileStatus = {
+    new FileStatus(
+      /* length */ f.size,
+      /* isDir */ false,
+      /* blockReplication */ 0,
+      /* blockSize */ 1,
+      /* modificationTime */ f.modification_time,
+      absolutePath(f.path, tableName))
+  }
+
 
   override def partitionSpec(): PartitionSpec = {
     throw new AnalysisException(
@@ -108,9 +139,18 @@ case class DataSoulFileIndexV2(override val spark: SparkSession,
 
   override def matchingFiles(partitionFilters: Seq[Expression],
                              dataFilters: Seq[Expression]): Seq[DataFileInfo] = {
-    PartitionFilter.filesForScan(
+    val files = PartitionFilter.filesForScan(
       snapshotManagement.snapshot,
       this.partitionFilters ++ partitionFilters ++ dataFilters)
+    filterByDataFilters(files, dataFilters)
+  }
+
+  override def filterByDataFilters(files: Seq[DataFileInfo], dataFilters: Seq[Expression]): Seq[DataFileInfo] = {
+    if (spark.sessionState.conf.getConf(LakeSoulSQLConf.FILE_STATS_SKIPPING_ENABLE)) {
+      FileStatsFilter.filterFiles(snapshotManagement.snapshot.getTableInfo, files, dataFilters)
+    } else {
+      files
+    }
   }
 
   override def inputFiles: Array[String] = {
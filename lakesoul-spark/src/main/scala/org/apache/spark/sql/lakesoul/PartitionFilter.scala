@@ -157,14 +157,14 @@ object PartitionFilter extends Logging {
     val spark = SparkSession.active
     import spark.implicits._
     val partitionsMatched = filterFileList(partitionSchema,
-      files.map(f => PartitionFilterInfo(
-        f.range_partitions,
-        MetaUtils.getPartitionMapFromKey(f.range_partitions),
+      files.map(_.range_partitions).distinct.map(rangePartitions => PartitionFilterInfo(
+        rangePartitions,
+        MetaUtils.getPartitionMapFromKey(rangePartitions),
         0,
         ""
       )).toDF,
-      partitionFilters).as[PartitionFilterInfo].collect()
-    files.filter(f => partitionsMatched.exists(p => p.range_value == f.range_partitions))
+      partitionFilters).as[PartitionFilterInfo].collect().map(_.range_value).toSet
+    files.filter(f => partitionsMatched.contains(f.range_partitions))
   }
 
   /**
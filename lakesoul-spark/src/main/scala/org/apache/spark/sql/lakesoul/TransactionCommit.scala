@@ -318,6 +318,7 @@ trait Transaction extends TransactionalWrite with Logging {
               .setFileOp(if (file.file_op == "add") FileOp.add else FileOp.del)
               .setSize(file.size)
               .setFileExistCols(file.file_exist_cols)
+              .setFileStats(file.file_stats)
               .build()
           }
 
@@ -350,6 +351,7 @@ trait Transaction extends TransactionalWrite with Logging {
               .setFileOp(if (file.file_op == "add") FileOp.add else FileOp.del)
               .setSize(file.size)
               .setFileExistCols(file.file_exist_cols)
+              .setFileStats(file.file_stats)
               .build()
           }
 
@@ -12,7 +12,7 @@ import org.apache.spark.internal.io.FileCommitProtocol
 import org.apache.spark.sql.Dataset
 import org.apache.spark.sql.catalyst.catalog.BucketSpec
 import org.apache.spark.sql.catalyst.expressions.Attribute
-import org.apache.spark.sql.execution.datasources.LakeSoulFileWriter.COPY_FILE_WRITER_KEY
+import org.apache.spark.sql.execution.datasources.LakeSoulFileWriter.{COPY_FILE_WRITER_KEY, STATS_COLUMNS_KEY}
 import org.apache.spark.sql.execution.datasources.{BasicWriteJobStatsTracker, LakeSoulFileWriter, WriteJobStatsTracker}
 import org.apache.spark.sql.execution.{QueryExecution, SQLExecution}
 import org.apache.spark.sql.functions.{col, when}
@@ -264,13 +264,18 @@ trait TransactionalWrite {
         InvariantCheckerExec(queryExecution.executedPlan, invariants)
       }
 
+      val hadoopConf = spark.sessionState.newHadoopConfWithOptions(snapshot.getConfiguration)
+      if (tableInfo.stats_columns.nonEmpty) {
+        hadoopConf.set(STATS_COLUMNS_KEY, tableInfo.stats_columns.mkString(","))
+      }
+
       LakeSoulFileWriter.write(
         sparkSession = spark,
         plan = physicalPlan,
         fileFormat = snapshot.fileFormat,
         committer = committer,
         outputSpec = outputSpec,
-        hadoopConf = spark.sessionState.newHadoopConfWithOptions(snapshot.getConfiguration),
+        hadoopConf = hadoopConf,
         partitionColumns = partitioningColumns,
         bucketSpec = hashBucketSpec,
         statsTrackers = statsTrackers,
@@ -189,12 +189,14 @@ case class CompactionCommand(snapshotManagement: SnapshotManagement,
           .setFileOp(FileOp.add)
           .setSize(dstFile.size)
           .setFileExistCols(dstFile.file_exist_cols)
+          .setFileStats(dstFile.file_stats)
           .build(),
           DataFileOp.newBuilder()
             .setPath(srcFile.path)
             .setFileOp(FileOp.del)
             .setSize(srcFile.size)
             .setFileExistCols(srcFile.file_exist_cols)
+            .setFileStats(srcFile.file_stats)
             .build(),
         ).asJava
       )
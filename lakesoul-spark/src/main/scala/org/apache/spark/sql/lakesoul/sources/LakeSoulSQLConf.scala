@@ -57,6 +57,16 @@ object LakeSoulSQLConf {
       .booleanConf
       .createWithDefault(true)
 
+  val FILE_STATS_SKIPPING_ENABLE: ConfigEntry[Boolean] =
+    buildConf("scan.file.stats.skipping.enabled")
+      .doc(
+        """
+          |If true, files whose column statistics show no row can match the data filters are not read.
+          |For primary key tables only filters on primary keys are used.
+        """.stripMargin)
+      .booleanConf
+      .createWithDefault(true)
+
   val BUCKET_SCAN_MULTI_PARTITION_ENABLE: ConfigEntry[Boolean] =
     buildConf("bucket.scan.multi.partition.enable")
       .doc(
@@ -4,6 +4,7 @@
 
 package org.apache.spark.sql.lakesoul.utils
 
+import com.dmetasoul.lakesoul.meta.DBConfig
 import com.dmetasoul.lakesoul.meta.DBConfig.{LAKESOUL_HASH_PARTITION_SPLITTER, LAKESOUL_RANGE_PARTITION_SPLITTER}
 import com.dmetasoul.lakesoul.meta.dao.TableInfoDao
 import com.dmetasoul.lakesoul.meta.entity
@@ -98,6 +99,11 @@ case class TableInfo(namespace: String,
     seq
   }
 
+  // columns to collect file statistics of for data skipping, primary keys always included
+  lazy val stats_columns: Seq[String] =
+    (hash_partition_columns ++ configuration.get(DBConfig.TableInfoProperty.STATS_COLUMNS).toSeq
+      .flatMap(_.split(",")).map(_.trim).filter(_.nonEmpty)).distinct
+
   lazy val format: Format = Format()
 }
 
@@ -4,7 +4,7 @@
 
 package org.apache.spark.sql.lakesoul.utils
 
-import com.dmetasoul.lakesoul.meta.{DataFileInfo, DataOperation, MetaUtils}
+import com.dmetasoul.lakesoul.meta.{DataFileInfo, DataOperation, MetaUtils, TableFileStats}
 import org.apache.hadoop.fs.{FileSystem, Path}
 import org.apache.spark.internal.Logging
 import org.apache.spark.sql.catalyst.TableIdentifier
@@ -22,6 +22,7 @@ import org.apache.spark.sql.{DataFrame, Dataset, SparkSession}
 import org.apache.spark.util.Utils.logWarning
 import org.jetbrains.annotations.TestOnly
 
+import java.util.OptionalLong
 import scala.collection.JavaConverters._
 
 
@@ -50,6 +51,12 @@ object SparkUtil extends Logging {
     spark.sparkContext.parallelize(DataOperation.getTableDataInfo(snapshot.getPartitionInfoArray)).toDS().persist().as[DataFileInfo].collect()
   }
 
+  /** Sum of rows in files by their statistics, empty if some file has none */
+  def estimateNumRows(files: Seq[DataFileInfo]): OptionalLong = {
+    val numRows = TableFileStats.aggregate(files.map(_.file_stats).asJava).getNumRows
+    if (numRows == null) OptionalLong.empty() else OptionalLong.of(numRows)
+  }
+
   def isPartitionVersionRead(snapshotManagement: SnapshotManagement): Boolean = {
     val (partitionDesc, startPartitionVersion, endPartitionVersion, incremental) = snapshotManagement.snapshot.getPartitionDescAndVersion
     if (endPartitionVersion == -1L && partitionDesc.equals("")) {
@@ -14,7 +14,7 @@ import org.apache.hadoop.mapreduce.TaskAttemptContext
 import org.apache.parquet.hadoop.ParquetInputFormat
 import org.apache.spark.internal.Logging
 import org.apache.spark.sql.SparkSession
-import org.apache.spark.sql.execution.datasources.LakeSoulFileWriter.MAX_FILE_SIZE_KEY
+import org.apache.spark.sql.execution.datasources.LakeSoulFileWriter.{MAX_FILE_SIZE_KEY, STATS_COLUMNS_KEY}
 import org.apache.spark.sql.execution.datasources.parquet.{ParquetReadSupport, ParquetWriteSupport}
 import org.apache.spark.sql.internal.SQLConf
 import org.apache.spark.sql.types.StructType
@@ -75,6 +75,9 @@ object NativeIOUtils extends Logging {
     if (configuration.get(MAX_FILE_SIZE_KEY, "").nonEmpty) {
       otherOptions += MAX_FILE_SIZE_KEY -> configuration.get(MAX_FILE_SIZE_KEY)
     }
+    if (configuration.get(STATS_COLUMNS_KEY, "").nonEmpty) {
+      otherOptions += STATS_COLUMNS_KEY -> configuration.get(STATS_COLUMNS_KEY)
+    }
     if (hasS3AFileSystemClass) {
       fileSystem match {
         case s3aFileSystem: S3AFileSystem =>
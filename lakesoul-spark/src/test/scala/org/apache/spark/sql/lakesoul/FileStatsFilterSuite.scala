@@ -0,0 +1,115 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.apache.spark.sql.lakesoul
+
+import com.dmetasoul.lakesoul.meta.DataFileInfo
+import org.apache.spark.SparkFunSuite
+import org.apache.spark.sql.catalyst.expressions.{And, AttributeReference, EqualTo, Expression, GreaterThan, GreaterThanOrEqual, In, IsNotNull, IsNull, LessThan, LessThanOrEqual, Literal, Not, Or}
+import org.apache.spark.sql.lakesoul.utils.TableInfo
+import org.apache.spark.sql.types.{DoubleType, IntegerType, LongType, StringType, StructField, StructType}
+import org.junit.runner.RunWith
+import org.scalatestplus.junit.JUnitRunner
+
+@RunWith(classOf[JUnitRunner])
+class FileStatsFilterSuite extends SparkFunSuite {
+
+  private val schema = StructType(Seq(
+    StructField("id", LongType),
+    StructField("name", StringType),
+    StructField("value", IntegerType),
+    StructField("no_min_max", LongType)))
+
+  private val tableInfo = TableInfo(namespace = "default", table_id = "file_stats_filter_suite",
+    table_schema = schema.json)
+
+  private val pkTableInfo = tableInfo.copy(hash_column = "id")
+
+  private val stats =
+    """{"numRows":10,"columns":{
+      |"id":{"nullCount":0,"min":1,"max":10},
+      |"name":{"nullCount":2,"min":"apple","max":"pear"},
+      |"value":{"nullCount":0,"min":100,"max":200},
+      |"no_min_max":{"nullCount":1}}}""".stripMargin
+
+  private val allNullStats = """{"numRows":10,"columns":{"id":{"nullCount":10}}}"""
+
+  private val id = AttributeReference("id", LongType)()
+  private val name = AttributeReference("name", StringType)()
+  private val value = AttributeReference("value", IntegerType)()
+  private val noMinMax = AttributeReference("no_min_max", LongType)()
+
+  private def mayMatch(filter: Expression, fileStats: String = stats, info: TableInfo = tableInfo): Boolean = {
+    val file = DataFileInfo("", "file:///tmp/file_stats_filter_suite/part-0.parquet", "add", 1024,
+      file_stats = fileStats)
+    FileStatsFilter.filterFiles(info, Seq(file), Seq(filter)).nonEmpty
+  }
+
+  test("comparisons") {
+    assert(mayMatch(EqualTo(id, Literal(5L))))
+    assert(!mayMatch(EqualTo(id, Literal(11L))))
+    assert(!mayMatch(EqualTo(Literal(11), id)))
+    assert(mayMatch(Not(EqualTo(id, Literal(5L)))))
+    assert(!mayMatch(LessThan(id, Literal(1L))))
+    assert(mayMatch(LessThanOrEqual(id, Literal(1L))))
+    assert(!mayMatch(GreaterThan(id, Literal(10L))))
+    assert(mayMatch(GreaterThanOrEqual(id, Literal(10L))))
+    // literal on the left: 10 < id
+    assert(!mayMatch(LessThan(Literal(10L), id)))
+    assert(mayMatch(GreaterThan(Literal(10L), id)))
+    assert(!mayMatch(GreaterThan(name, Literal("pear"))))
+    assert(mayMatch(GreaterThanOrEqual(name, Literal("pear"))))
+    assert(mayMatch(In(id, Seq(Literal(11L), Literal(5L)))))
+    assert(!mayMatch(In(id, Seq(Literal(11L), Literal(0L)))))
+  }
+
+  test("logical operators") {
+    assert(!mayMatch(And(EqualTo(id, Literal(5L)), EqualTo(id, Literal(11L)))))
+    assert(mayMatch(Or(EqualTo(id, Literal(11L)), EqualTo(id, Literal(5L)))))
+    assert(!mayMatch(Or(EqualTo(id, Literal(11L)), EqualTo(id, Literal(0L)))))
+    // negations other than of equality and null checks are not decided
+    assert(mayMatch(Not(LessThan(id, Literal(100L)))))
+    // every data filter must match
+    val file = DataFileInfo("", "file:///tmp/file_stats_filter_suite/part-0.parquet", "add", 1024,
+      file_stats = stats)
+    assert(FileStatsFilter.filterFiles(tableInfo, Seq(file),
+      Seq(EqualTo(id, Literal(5L)), EqualTo(id, Literal(11L)))).isEmpty)
+  }
+
+  test("null counts") {
+    assert(!mayMatch(IsNull(id)))
+    assert(mayMatch(IsNotNull(id)))
+    assert(mayMatch(IsNull(name)))
+    assert(!mayMatch(Not(IsNotNull(id))))
+    assert(mayMatch(IsNull(id), allNullStats))
+    assert(!mayMatch(IsNotNull(id), allNullStats))
+    assert(!mayMatch(Not(IsNull(id)), allNullStats))
+    assert(!mayMatch(EqualTo(id, Literal(5L)), allNullStats))
+    assert(!mayMatch(Not(EqualTo(id, Literal(5L))), allNullStats))
+  }
+
+  test("missing stats may match") {
+    assert(mayMatch(EqualTo(id, Literal(11L)), ""))
+    assert(mayMatch(EqualTo(id, Literal(11L)), "{not json"))
+    assert(mayMatch(EqualTo(id, Literal(11L)), """{"numRows":10}"""))
+    assert(mayMatch(EqualTo(noMinMax, Literal(11L))))
+    assert(mayMatch(IsNull(noMinMax)))
+    assert(mayMatch(EqualTo(id, Literal(null, LongType))))
+  }
+
+  test("type mismatch may match") {
+    assert(mayMatch(EqualTo(id, Literal(11.0))))
+    assert(mayMatch(LessThan(AttributeReference("id", DoubleType)(), Literal(0.5))))
+    assert(mayMatch(EqualTo(id, Literal("11"))))
+    assert(mayMatch(EqualTo(name, Literal(5))))
+    assert(mayMatch(EqualTo(value, Literal(150))))
+    assert(!mayMatch(EqualTo(value, Literal(300))))
+  }
+
+  test("primary key tables only use primary key filters") {
+    assert(!mayMatch(EqualTo(id, Literal(11L)), info = pkTableInfo))
+    assert(mayMatch(EqualTo(value, Literal(300)), info = pkTableInfo))
+    assert(mayMatch(IsNull(value), info = pkTableInfo))
+  }
+}
@@ -0,0 +1,116 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.apache.spark.sql.lakesoul.benchmark
+
+import com.dmetasoul.lakesoul.meta.DBConfig.LAKESOUL_FILE_EXISTS_COLUMN_SPLITTER
+import com.dmetasoul.lakesoul.meta.DataFileInfo
+import com.dmetasoul.lakesoul.spark.ParametersTool
+import org.apache.hadoop.conf.Configuration
+import org.apache.hadoop.fs.Path
+import org.apache.spark.sql.execution.datasources.v2.merge.MergeScanFileListing
+import org.apache.spark.sql.lakesoul.LakeSoulFileIndexUtils.absolutePath
+import org.apache.spark.sql.lakesoul.utils.TableInfo
+import org.apache.spark.sql.types.{IntegerType, LongType, StringType, StructField, StructType}
+
+/**
+ * Measures driver side planning of a merge scan over a large listing of files, comparing regrouping the
+ * whole listing for every partition with one listing indexed by partition and range version.
+ * The per partition planning is quadratic, so it is only run for a sample of partitions and extrapolated.
+ *
+ * param example:
+ * --partitions 10000
+ * --files.per.partition 100
+ * --legacy.sample.partitions 10
+ */
+object MergeScanPlanningBenchmark {
+
+  def main(args: Array[String]): Unit = {
+    val parameter = ParametersTool.fromArgs(args)
+    val partitions = parameter.getInt("partitions", 10000)
+    val filesPerPartition = parameter.getInt("files.per.partition", 100)
+    val legacySamplePartitions = parameter.getInt("legacy.sample.partitions", 10)
+
+    val tablePath = "file:///tmp/lakesoul/merge_scan_planning"
+    val schema = StructType(Seq(
+      StructField("id", LongType),
+      StructField("name", StringType),
+      StructField("value", IntegerType),
+      StructField("date", StringType)))
+    val tableInfo = TableInfo(
+      namespace = "default",
+      table_path_s = Some(tablePath),
+      table_id = "merge_scan_planning",
+      table_schema = schema.json,
+      range_column = "date",
+      hash_column = "id",
+      bucket_num = 4)
+    val requestedFields = Array("id", "name", "value")
+
+    val files = for (p <- 0 until partitions; f <- 0 until filesPerPartition) yield {
+      val rangePartitions = s"date=$p"
+      DataFileInfo(rangePartitions,
+        s"$tablePath/date=$p/part-$f-${p}_0000${f % 4}.parquet",
+        "add", 1024L * 1024, System.currentTimeMillis(), "id,name,value")
+    }
+    println(s"Planning ${files.size} files in $partitions partitions")
+    val fs = new Path(tablePath).getFileSystem(new Configuration())
+
+    // warm up both paths before measuring
+    planIndexed(files, tableInfo, requestedFields, fs)
+    planLegacy(files, tableInfo, requestedFields, fs, 1)
+
+    var t0 = System.nanoTime()
+    val indexed = planIndexed(files, tableInfo, requestedFields, fs)
+    val indexedMs = (System.nanoTime() - t0) / 1000000
+
+    val sample = math.min(legacySamplePartitions, partitions)
+    t0 = System.nanoTime()
+    val legacy = planLegacy(files, tableInfo, requestedFields, fs, sample)
+    val legacyMs = (System.nanoTime() - t0) / 1000000 * partitions / sample
+
+    println(s"indexed listing: $indexedMs ms for $indexed files")
+    println(s"legacy regrouping: $legacyMs ms (extrapolated from $legacy files of $sample partitions)")
+  }
+
+  private def planIndexed(files: Seq[DataFileInfo], tableInfo: TableInfo, requestedFields: Array[String],
+                          fs: org.apache.hadoop.fs.FileSystem): Int = {
+    val listing = MergeScanFileListing(files)
+    val schemas = listing.requestedSchemas(requestedFields, tableInfo)
+    val requestedSchema = schemas.map { case (rangeVersion, schema) => rangeVersion + "->" + schema.json }.mkString("|")
+    var planned = 0
+    listing.byPartition.foreach { case (_, partitionFiles) =>
+      partitionFiles.foreach { f =>
+        val qualified = fs.makeQualified(absolutePath(f.path, tableInfo.table_path_s.get)).toString
+        if (schemas(f.range_version).nonEmpty && requestedSchema.nonEmpty && qualified.nonEmpty) {
+          planned += 1
+        }
+      }
+    }
+    planned
+  }
+
+  private def planLegacy(files: Seq[DataFileInfo], tableInfo: TableInfo, requestedFields: Array[String],
+                         fs: org.apache.hadoop.fs.FileSystem, samplePartitions: Int): Int = {
+    var planned = 0
+    files.groupBy(_.range_partitions).take(samplePartitions).foreach { case (_, partitionFiles) =>
+      val schemas = files.groupBy(_.range_version).map { m =>
+        val fileExistCols = m._2.head.file_exist_cols.split(LAKESOUL_FILE_EXISTS_COLUMN_SPLITTER)
+        (m._1, StructType(
+          requestedFields.filter(f => fileExistCols.contains(f) || tableInfo.hash_partition_columns.contains(f))
+            .map(c => tableInfo.schema(c))))
+      }
+      val requestedSchema = schemas.map { case (rangeVersion, schema) => rangeVersion + "->" + schema.json }.mkString("|")
+      val pathToFileInfoMap = files.map(f => fs.makeQualified(new Path(f.path)).toString -> f).toMap
+      partitionFiles.foreach { f =>
+        val qualified = fs.makeQualified(absolutePath(f.path, tableInfo.table_path_s.get)).toString
+        val touched = pathToFileInfoMap(qualified)
+        if (schemas(touched.range_version).nonEmpty && requestedSchema.nonEmpty) {
+          planned += 1
+        }
+      }
+    }
+    planned
+  }
+}
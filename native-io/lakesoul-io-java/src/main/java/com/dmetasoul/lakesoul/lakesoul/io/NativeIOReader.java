@@ -36,7 +36,8 @@ public class NativeIOReader extends NativeIOBase implements AutoCloseable {
     }
 
     /**
-     * usually use only once
+     * Filters added more than once are all applied, e.g. a pushed down query filter and a primary key range
+     * to resume reading a merged split after a checkpointed key.
      *
      * @param plan Filter{}
      */
@@ -90,6 +91,11 @@ public class NativeIOReader extends NativeIOBase implements AutoCloseable {
         }
     }
 
+    Pointer getNativeReader() {
+        assert reader != null;
+        return reader;
+    }
+
     public Schema getSchema() {
         return readerSchema;
     }
@@ -17,25 +17,36 @@ import org.apache.arrow.c.ArrowSchema;
 import org.apache.arrow.c.Data;
 import org.apache.arrow.util.Preconditions;
 import org.apache.arrow.vector.VectorSchemaRoot;
-import org.apache.arrow.vector.ipc.ArrowStreamReader;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import static com.dmetasoul.lakesoul.meta.DBConfig.TableInfoProperty.HASH_BUCKET_NUM;
+import static com.dmetasoul.lakesoul.meta.DBConfig.TableInfoProperty.STATS_COLUMNS;
 
 public class NativeIOWriter extends NativeIOBase implements AutoCloseable {
 
     private final static Logger LOG = LoggerFactory.getLogger(NativeIOWriter.class);
 
+    public static final String STATS_COLUMNS_OPTION = "stats_columns";
+
     private Pointer writer = null;
 
+    private Pointer ipcBuffer = null;
+
+    private ExecutorService writeExecutor = null;
+
+    private Semaphore inFlightPermits = null;
+
+    private final AtomicReference<Throwable> asyncWriteError = new AtomicReference<>();
+
     public NativeIOWriter(Schema schema) {
         super("NativeWriter");
         setSchema(schema);
@@ -50,6 +61,7 @@ public class NativeIOWriter extends NativeIOBase implements AutoCloseable {
             Map<String, String> properties = mapper.readValue(tableInfo.getProperties(), Map.class);
             setHashBucketNum(Integer.parseInt(properties.get(HASH_BUCKET_NUM)));
             cdcColumn = properties.get(DBConfig.TableInfoProperty.CDC_CHANGE_COLUMN);
+            setOption(STATS_COLUMNS_OPTION, properties.get(STATS_COLUMNS));
         } catch (JsonProcessingException e) {
             throw new RuntimeException(e);
         }
@@ -70,6 +82,13 @@ public class NativeIOWriter extends NativeIOBase implements AutoCloseable {
     }
 
 
+    /**
+     * Columns to collect file statistics of for data skipping, in addition to primary keys.
+     */
+    public void setStatsColumns(Iterable<String> statsColumns) {
+        setOption(STATS_COLUMNS_OPTION, String.join(",", statsColumns));
+    }
+
     public void setAuxSortColumns(Iterable<String> auxSortColumns) {
         for (String col : auxSortColumns) {
             ioConfigBuilder = libLakeSoulIO.lakesoul_config_builder_add_single_aux_sort_column(ioConfigBuilder, col);
@@ -111,43 +130,173 @@ public class NativeIOWriter extends NativeIOBase implements AutoCloseable {
     }
 
     public int writeIpc(byte[] encodedBatch) throws IOException {
-//        Pointer ipc = getRuntime().getMemoryManager().allocateDirect(encodedBatch.length + 1, true);
-//        ipc.put(0, encodedBatch, 0, encodedBatch.length);
-//        ipc.putByte(encodedBatch.length, (byte) 0);
-//        String msg = libLakeSoulIO.write_record_batch_ipc_blocked(writer, ipc.address(), ipc.size());
-//        if (!msg.startsWith("Ok: ")) {
-//            throw new IOException("Native writer write batch failed with error: " + msg);
-//        }
-//
-//        return Integer.parseInt(msg.substring(4));
-
-        int batchSize = 0;
-        try (ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(encodedBatch), allocator)) {
-            if (reader.loadNextBatch()) {
-                VectorSchemaRoot batch = reader.getVectorSchemaRoot();
-                batchSize = batch.getRowCount();
-                this.write(batch);
-            }
+        if (ipcBuffer == null || ipcBuffer.size() < encodedBatch.length) {
+            long capacity = Math.max(1L << 16, Long.highestOneBit(Math.max(encodedBatch.length - 1, 1)) << 1);
+            ipcBuffer = getRuntime().getMemoryManager().allocateDirect(capacity, false);
+        }
+        ipcBuffer.put(0, encodedBatch, 0, encodedBatch.length);
+        return writeIpc(ipcBuffer.address(), encodedBatch.length);
+    }
+
+    /**
+     * Write arrow ipc stream located in off-heap memory. The native writer decodes the stream
+     * in place, so no java vectors are materialized for the batch.
+     *
+     * @param ipcAddr address of the encoded ipc stream
+     * @param len     length of the encoded ipc stream in bytes
+     * @return number of rows written
+     */
+    public int writeIpc(long ipcAddr, long len) throws IOException {
+        awaitPendingWrites();
+        Pointer ptr = libLakeSoulIO.write_record_batch_ipc_blocked(writer, ipcAddr, len);
+        if (ptr == null) {
+            throw new IOException("Native writer write ipc batch failed without status");
+        }
+        String msg;
+        try {
+            msg = ptr.getString(0);
+        } finally {
+            libLakeSoulIO.free_c_string(ptr);
+        }
+        if (!msg.startsWith("Ok: ")) {
+            throw new IOException("Native writer write batch failed with error: " + msg);
         }
-        return batchSize;
+        return Integer.parseInt(msg.substring(4));
     }
 
     public void write(VectorSchemaRoot batch) throws IOException {
+        if (writeExecutor != null) {
+            writeAsync(batch);
+            return;
+        }
         ArrowArray array = ArrowArray.allocateNew(allocator);
         ArrowSchema schema = ArrowSchema.allocateNew(allocator);
         Data.exportVectorSchemaRoot(allocator, batch, provider, array, schema);
-        AtomicReference<String> errMsg = new AtomicReference<>();
-        BooleanCallback nativeBooleanCallback = new BooleanCallback((status, err) -> {
-            if (!status && err != null) {
-                errMsg.set(err);
+        writeExported(array, schema);
+    }
+
+    /**
+     * Enable asynchronous write. Batches are exported on the caller thread and written to native
+     * writer by a background thread in submission order, so that the caller could fill the next
+     * batch while native writer encodes the previous ones. At most maxInFlightBatches batches are
+     * pending at the same time, further writes block until one of them finishes.
+     * Must be called before the first write.
+     */
+    public void enableAsyncWrite(int maxInFlightBatches) {
+        Preconditions.checkArgument(maxInFlightBatches > 0, "maxInFlightBatches should be positive");
+        Preconditions.checkState(writeExecutor == null, "async write has already been enabled");
+        inFlightPermits = new Semaphore(maxInFlightBatches);
+        writeExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "lakesoul-native-writer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Submit a batch to native writer. Exported buffers are retained until native writer
+     * consumes them, so the caller may clear and refill the batch once this method returns.
+     * Falls back to blocking write when async write is not enabled.
+     */
+    public CompletableFuture<Void> writeAsync(VectorSchemaRoot batch) throws IOException {
+        if (writeExecutor == null) {
+            write(batch);
+            return CompletableFuture.completedFuture(null);
+        }
+        checkAsyncWriteError();
+        try {
+            inFlightPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for in-flight native writes");
+        }
+        ArrowArray array = ArrowArray.allocateNew(allocator);
+        ArrowSchema schema = ArrowSchema.allocateNew(allocator);
+        try {
+            Data.exportVectorSchemaRoot(allocator, batch, provider, array, schema);
+        } catch (Throwable t) {
+            array.close();
+            schema.close();
+            inFlightPermits.release();
+            throw t;
+        }
+        return CompletableFuture.runAsync(() -> {
+            try {
+                if (asyncWriteError.get() != null) {
+                    // native writer has failed, release exported batch without writing
+                    array.release();
+                    array.close();
+                    schema.release();
+                    schema.close();
+                    return;
+                }
+                writeExported(array, schema);
+            } catch (Throwable t) {
+                asyncWriteError.compareAndSet(null, t);
+                throw new CompletionException(t);
+            } finally {
+                inFlightPermits.release();
             }
-        }, boolReferenceManager);
-        nativeBooleanCallback.registerReferenceKey();
-        libLakeSoulIO.write_record_batch_blocked(writer, schema.memoryAddress(), array.memoryAddress(), nativeBooleanCallback);
+        }, writeExecutor);
+    }
+
+    /**
+     * Wait until all batches submitted by {@link #writeAsync(VectorSchemaRoot)} are written
+     * and rethrow the first failure, if any.
+     */
+    public void awaitPendingWrites() throws IOException {
+        if (writeExecutor == null) {
+            return;
+        }
+        try {
+            // executor is single threaded, so the barrier completes after all previous writes
+            CompletableFuture.runAsync(() -> {
+            }, writeExecutor).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for in-flight native writes");
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+        checkAsyncWriteError();
+    }
+
+    private void checkAsyncWriteError() throws IOException {
+        Throwable t = asyncWriteError.get();
+        if (t != null) {
+            if (t instanceof IOException) {
+                throw new IOException(t.getMessage(), t);
+            }
+            throw new IOException("Native writer async write failed", t);
+        }
+    }
+
+    private void shutdownWriteExecutor() {
+        if (writeExecutor != null) {
+            writeExecutor.shutdown();
+            try {
+                if (!writeExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS)) {
+                    LOG.warn("Native writer async write thread not terminated");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writeExecutor = null;
+        }
+    }
+
+    private void writeExported(ArrowArray array, ArrowSchema schema) throws IOException {
+        Pointer err = libLakeSoulIO.write_record_batch_blocked(writer, schema.memoryAddress(), array.memoryAddress());
         array.close();
         schema.close();
-        if (errMsg.get() != null && !errMsg.get().isEmpty()) {
-            throw new IOException("Native writer write batch failed with error: " + errMsg.get());
+        if (err != null) {
+            String errMsg;
+            try {
+                errMsg = err.getString(0);
+            } finally {
+                libLakeSoulIO.free_c_string(err);
+            }
+            throw new IOException("Native writer write batch failed with error: " + errMsg);
         }
     }
 
@@ -157,10 +306,13 @@ public class NativeIOWriter extends NativeIOBase implements AutoCloseable {
 
         final String fileExistCols;
 
-        FlushResult(String filePath, Long fileSize, String fileExistCols) {
+        final String fileStats;
+
+        FlushResult(String filePath, Long fileSize, String fileExistCols, String fileStats) {
             this.filePath = filePath;
             this.fileSize = fileSize;
             this.fileExistCols = fileExistCols;
+            this.fileStats = fileStats;
         }
 
         public Long getFileSize() {
@@ -175,24 +327,37 @@ public class NativeIOWriter extends NativeIOBase implements AutoCloseable {
             return fileExistCols;
         }
 
+        /**
+         * @return column statistics of the file in json, see {@link com.dmetasoul.lakesoul.meta.DataFileStats}
+         */
+        public String getFileStats() {
+            return fileStats;
+        }
+
         @Override
         public String toString() {
             return "FlushResult{" +
                     "filePath='" + filePath + '\'' +
                     ", fileSize=" + fileSize +
                     ", fileExistCols='" + fileExistCols + '\'' +
+                    ", fileStats='" + fileStats + '\'' +
                     '}';
         }
     }
 
     public static FlushResult decodeFlushResult(String encoded) {
-        String[] fields = encoded.split("\u0003");
+        String[] fields = encoded.split("\u0003", -1);
 
-        Preconditions.checkArgument(fields.length == 3);
-        return new FlushResult(fields[0], Long.parseLong(fields[1]), fields[2]);
+        Preconditions.checkArgument(fields.length == 3 || fields.length == 4);
+        return new FlushResult(fields[0], Long.parseLong(fields[1]), fields[2], fields.length == 4 ? fields[3] : "");
     }
 
     public HashMap<String, List<FlushResult>> flush() throws IOException {
+        try {
+            awaitPendingWrites();
+        } finally {
+            shutdownWriteExecutor();
+        }
         AtomicReference<String> errMsg = new AtomicReference<>();
         AtomicReference<Integer> lenResult = new AtomicReference<>();
         IntegerCallback nativeIntegerCallback = new IntegerCallback((len, err) -> {
@@ -209,8 +374,44 @@ public class NativeIOWriter extends NativeIOBase implements AutoCloseable {
             libLakeSoulIO.free_bytes_result(ptrResult);
             throw new IOException("Native writer flush failed with error: " + errMsg.get());
         }
+        return exportFlushResult(ptrResult, lenResult.get());
+    }
 
-        Integer len = lenResult.get();
+    /**
+     * Writes all remaining batches of an initialized reader into this writer, then flushes and closes the writer.
+     * Batches are passed from reader to writer inside native code and are never exported to java, which makes
+     * compaction much cheaper than reading the batches into a {@link VectorSchemaRoot} and writing them back.
+     * The reader is still owned by the caller and has to be closed afterwards.
+     *
+     * @return the same result as {@link #flush()}
+     */
+    public HashMap<String, List<FlushResult>> compactFrom(NativeIOReader reader) throws IOException {
+        try {
+            awaitPendingWrites();
+        } finally {
+            shutdownWriteExecutor();
+        }
+        AtomicReference<String> errMsg = new AtomicReference<>();
+        AtomicReference<Integer> lenResult = new AtomicReference<>();
+        IntegerCallback nativeIntegerCallback = new IntegerCallback((len, err) -> {
+            if (len < 0 && err != null) {
+                errMsg.set(err);
+            }
+            lenResult.set(len);
+        }, intReferenceManager);
+        nativeIntegerCallback.registerReferenceKey();
+        Pointer ptrResult = libLakeSoulIO.compact_reader_into_writer(reader.getNativeReader(), writer, nativeIntegerCallback);
+        // native writer is consumed whether compaction succeeded or not
+        writer = null;
+        if (errMsg.get() != null && !errMsg.get().isEmpty()) {
+            libLakeSoulIO.free_bytes_result(ptrResult);
+            throw new IOException("Native compaction failed with error: " + errMsg.get());
+        }
+        return exportFlushResult(ptrResult, lenResult.get());
+    }
+
+    private HashMap<String, List<FlushResult>> exportFlushResult(Pointer ptrResult, Integer len) throws IOException {
+        AtomicReference<String> errMsg = new AtomicReference<>();
         if (len != null && len > 0) {
             int lenWithTail = len + 1;
             Pointer buffer = fixedBuffer;
@@ -254,6 +455,8 @@ public class NativeIOWriter extends NativeIOBase implements AutoCloseable {
     }
 
     public void abort() throws IOException {
+        // in-flight native writes could not be interrupted, wait for them before releasing writer
+        shutdownWriteExecutor();
         if (writer == null) {
             return;
         }
@@ -92,9 +92,9 @@ public interface LibLakeSoulIO {
 
     void write_record_batch(Pointer writer, @LongLong long schemaAddr, @LongLong long arrayAddr, BooleanCallback callback);
 
-    void write_record_batch_blocked(Pointer writer, @LongLong long schemaAddr, @LongLong long arrayAddr, BooleanCallback callback);
+    Pointer write_record_batch_blocked(Pointer writer, @LongLong long schemaAddr, @LongLong long arrayAddr);
 
-    String write_record_batch_ipc_blocked(Pointer writer, @LongLong long ipcAddr, @LongLong long len);
+    Pointer write_record_batch_ipc_blocked(Pointer writer, @LongLong long ipcAddr, @LongLong long len);
 
     void free_lakesoul_reader(Pointer reader);
 
@@ -104,6 +104,8 @@ public interface LibLakeSoulIO {
 
     void abort_and_close_writer(Pointer writer, BooleanCallback callback);
 
+    Pointer compact_reader_into_writer(Pointer reader, Pointer writer, IntegerCallback callback);
+
     void free_tokio_runtime(Pointer runtime);
 
     void free_tokio_runtime_builder(Pointer builder);
@@ -0,0 +1,202 @@
+// SPDX-FileCopyrightText: 2023 LakeSoul Contributors
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package com.dmetasoul.lakesoul.lakesoul.io.substrait;
+
+import com.dmetasoul.lakesoul.meta.DataFileStats;
+import io.substrait.extensions.SimpleExtensionDeclaration;
+import io.substrait.proto.Expression;
+import io.substrait.proto.FunctionArgument;
+import io.substrait.proto.Plan;
+import io.substrait.proto.Rel;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decides with {@link DataFileStats} whether a data file may contain rows matching a pushed down substrait filter,
+ * so that files which certainly don't match are not read at all.
+ */
+public class SubstraitFileStatsFilter {
+
+    private final Expression filter;
+
+    private final Map<Integer, String> functionNames = new HashMap<>();
+
+    private final Collection<String> columns;
+
+    /**
+     * @param plan    filter plan as built by {@link SubstraitUtil#substraitExprToProto}
+     * @param columns columns whose predicates may be used for skipping, null for all columns
+     */
+    public SubstraitFileStatsFilter(Plan plan, Collection<String> columns) {
+        this.columns = columns;
+        Expression expression = null;
+        if (plan != null && plan.getRelationsCount() > 0) {
+            Rel input = plan.getRelations(0).getRoot().getInput();
+            if (input.hasRead() && input.getRead().hasFilter()) {
+                expression = input.getRead().getFilter();
+                for (SimpleExtensionDeclaration extension : plan.getExtensionsList()) {
+                    if (extension.hasExtensionFunction()) {
+                        SimpleExtensionDeclaration.ExtensionFunction function = extension.getExtensionFunction();
+                        String name = function.getName();
+                        int signature = name.indexOf(':');
+                        functionNames.put(function.getFunctionAnchor(),
+                                signature < 0 ? name : name.substring(0, signature));
+                    }
+                }
+            }
+        }
+        this.filter = expression;
+    }
+
+    /**
+     * @return whether the filter has any predicate that can be checked against file statistics
+     */
+    public boolean isEmpty() {
+        return filter == null;
+    }
+
+    /**
+     * @param fileStats {@code file_stats} of a data file
+     * @return false only if no row of the file can match the filter
+     */
+    public boolean mayMatch(String fileStats) {
+        if (filter == null) {
+            return true;
+        }
+        DataFileStats stats = DataFileStats.parse(fileStats);
+        return stats == null || mayMatch(filter, stats);
+    }
+
+    private boolean mayMatch(Expression expression, DataFileStats stats) {
+        if (!expression.hasScalarFunction()) {
+            return true;
+        }
+        Expression.ScalarFunction function = expression.getScalarFunction();
+        String name = functionNames.get(function.getFunctionReference());
+        List<FunctionArgument> args = function.getArgumentsList();
+        if (name == null) {
+            return true;
+        }
+        switch (name) {
+            case "and":
+                for (FunctionArgument arg : args) {
+                    if (!mayMatch(arg.getValue(), stats)) {
+                        return false;
+                    }
+                }
+                return true;
+            case "or":
+                for (FunctionArgument arg : args) {
+                    if (mayMatch(arg.getValue(), stats)) {
+                        return true;
+                    }
+                }
+                return args.isEmpty();
+            case "is_null": {
+                DataFileStats.ColumnStats column = columnOf(args.get(0).getValue(), stats);
+                return column == null || column.mayBeNull();
+            }
+            case "is_not_null": {
+                DataFileStats.ColumnStats column = columnOf(args.get(0).getValue(), stats);
+                return column == null || column.mayBeNotNull();
+            }
+            case "equal":
+            case "not_equal":
+            case "lt":
+            case "lte":
+            case "gt":
+            case "gte":
+                return args.size() != 2 || mayMatchComparison(name, args.get(0).getValue(), args.get(1).getValue(), stats);
+            default:
+                // negations and other functions can't be decided with min/max
+                return true;
+        }
+    }
+
+    private boolean mayMatchComparison(String name, Expression left, Expression right, DataFileStats stats) {
+        if (left.hasLiteral() && !right.hasLiteral()) {
+            // compare with column on the left side
+            Expression swap = left;
+            left = right;
+            right = swap;
+            switch (name) {
+                case "lt":
+                    name = "gt";
+                    break;
+                case "lte":
+                    name = "gte";
+                    break;
+                case "gt":
+                    name = "lt";
+                    break;
+                case "gte":
+                    name = "lte";
+                    break;
+                default:
+            }
+        }
+        DataFileStats.ColumnStats column = columnOf(left, stats);
+        if (column == null || !right.hasLiteral()) {
+            return true;
+        }
+        Object value = literalValue(right.getLiteral());
+        switch (name) {
+            case "equal":
+                return column.mayEqual(value);
+            case "not_equal":
+                return column.mayNotEqual(value);
+            case "lt":
+                return column.mayBeLessThan(value, false);
+            case "lte":
+                return column.mayBeLessThan(value, true);
+            case "gt":
+                return column.mayBeGreaterThan(value, false);
+            default:
+                return column.mayBeGreaterThan(value, true);
+        }
+    }
+
+    private DataFileStats.ColumnStats columnOf(Expression expression, DataFileStats stats) {
+        if (!expression.hasSelection() || !expression.getSelection().hasDirectReference()) {
+            return null;
+        }
+        Expression.ReferenceSegment segment = expression.getSelection().getDirectReference();
+        if (!segment.hasMapKey() || segment.getMapKey().hasChild()
+                || !segment.getMapKey().getMapKey().hasString()) {
+            return null;
+        }
+        String name = segment.getMapKey().getMapKey().getString();
+        if (columns != null && !columns.contains(name)) {
+            return null;
+        }
+        return stats.getColumn(name);
+    }
+
+    private static Object literalValue(Expression.Literal literal) {
+        switch (literal.getLiteralTypeCase()) {
+            case I8:
+                return (long) literal.getI8();
+            case I16:
+                return (long) literal.getI16();
+            case I32:
+                return (long) literal.getI32();
+            case I64:
+                return literal.getI64();
+            case DATE:
+                return (long) literal.getDate();
+            case STRING:
+                return literal.getString();
+            case FIXED_CHAR:
+                return literal.getFixedChar();
+            case VAR_CHAR:
+                return literal.getVarChar().getValue();
+            default:
+                return null;
+        }
+    }
+}
@@ -251,7 +251,8 @@ public class LakeSoulLocalJavaWriter implements AutoCloseable {
                     .setFileOp(FileOp.add)
                     .setPath(file.getFilePath())
                     .setSize(file.getFileSize())
-                    .setFileExistCols(file.getFileExistCols());
+                    .setFileExistCols(file.getFileExistCols())
+                    .setFileStats(file.getFileStats());
             builder.addFileOps(fileOp.build());
         }
 
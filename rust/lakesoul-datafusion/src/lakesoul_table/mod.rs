@@ -21,7 +21,7 @@ use datafusion::{
 };
 use helpers::case_fold_table_name;
 use lakesoul_io::config::OPTION_KEY_MEM_LIMIT;
-use lakesoul_io::helpers::get_file_exist_col;
+use lakesoul_io::helpers::{get_file_exist_col, get_file_stats};
 use lakesoul_io::session::create_session_context_with_planner;
 use lakesoul_io::writer::async_writer::{
     AsyncBatchWriter, AsyncSendableMutableLakeSoulWriter, FlushOutput,
@@ -358,7 +358,7 @@ impl LakeSoulTable {
         let mut data_commit_info_list = Vec::new();
 
         let partition_desc_and_files_map =
-            partitioned_files_from_writer_flush_result(&result)?;
+            partitioned_files_from_writer_flush_result(&result, &self.primary_keys)?;
 
         // 处理分区文件映射
         for (partition_desc, file_list) in partition_desc_and_files_map {
@@ -378,6 +378,7 @@ impl LakeSoulTable {
                             path: res.file_path,
                             size: res.file_size,
                             file_exist_cols: res.file_exist_cols,
+                            file_stats: res.file_stats,
                         })
                         .collect()
                 },
@@ -411,21 +412,26 @@ struct FlushResult {
     file_size: i64,
     /// The columns of the file.
     file_exist_cols: String,
+    /// The column statistics of the file in json.
+    file_stats: String,
 }
 
 /// Get the partition description and the files from the writer flush result.
 fn partitioned_files_from_writer_flush_result(
     flush_result: &Vec<FlushOutput>,
+    stats_columns: &[String],
 ) -> Result<HashMap<String, Vec<FlushResult>>> {
     let mut partition_desc_and_files_map = HashMap::new();
 
     for output in flush_result {
         let file_exist_cols = get_file_exist_col(&output.file_meta);
+        let file_stats = get_file_stats(&output.file_meta, stats_columns);
 
         let flush_result = FlushResult {
             file_path: output.file_path.clone(),
             file_size: output.object_meta.size as i64,
             file_exist_cols,
+            file_stats,
         };
 
         partition_desc_and_files_map
@@ -1152,6 +1152,12 @@ pub unsafe extern "C" fn write_record_batch_blocked(
 /// Call [`SyncSendableMutableLakeSoulWriter::write_batch`] of the [`Writer`] by blocking mode,
 /// record batch is read from ipc protocol.
 ///
+/// The ipc stream is decoded directly from the caller's memory, so the caller does not need
+/// to materialize the batch as arrow vectors before handing it over.
+///
+/// Returns `"Ok: <number of rows>"` on success, otherwise the error message.
+/// The returned string must be released by [`free_c_string`].
+///
 /// # Safety
 ///
 /// * `writer` must be a valid pointer to a [`CResult<Writer>`] struct
@@ -1172,7 +1178,10 @@ pub unsafe extern "C" fn write_record_batch_ipc_blocked(
         let raw_parts = std::slice::from_raw_parts(ipc_addr as *const u8, len as usize);
 
         let reader = std::io::Cursor::new(raw_parts);
-        let mut reader = arrow_ipc::reader::StreamReader::try_new(reader, None).unwrap();
+        let mut reader = match arrow_ipc::reader::StreamReader::try_new(reader, None) {
+            Ok(reader) => reader,
+            Err(e) => return CString::new(e.to_string()).unwrap().into_raw(),
+        };
         let mut row_count = 0;
         loop {
             if reader.is_finished() {
@@ -1196,12 +1205,27 @@ pub unsafe extern "C" fn write_record_batch_ipc_blocked(
                 }
             }
         }
-        CString::new(format!("Number of rows: {}", row_count))
+        CString::new(format!("Ok: {}", row_count))
             .unwrap()
             .into_raw()
     }
 }
 
+/// Free a string returned to the ffi side.
+///
+/// # Safety
+///
+/// * `c_string` must be null or a pointer returned by this library
+#[unsafe(no_mangle)]
+pub unsafe extern "C" fn free_c_string(c_string: *mut c_char) {
+    if c_string.is_null() {
+        return;
+    }
+    unsafe {
+        let _ = CString::from_raw(c_string);
+    }
+}
+
 /// Export the byte result to ffi side
 ///
 /// # Safety
@@ -1288,6 +1312,67 @@ pub unsafe extern "C" fn flush_and_close_writer(
     }
 }
 
+/// Stream all record batches of the started [`Reader`] into the [`Writer`], then flush and close
+/// the [`Writer`] and return the [`BytesResult`] wrapped in [`CResult`], like [`flush_and_close_writer`].
+///
+/// Batches never leave native memory, which saves exporting them to and importing them back from
+/// the caller for compaction. The [`Writer`] is consumed in any case and aborted on error,
+/// the [`Reader`] is kept and must still be freed by the caller.
+///
+/// # Safety
+///
+/// * `reader` must be a valid pointer to a started [`CResult<Reader>`] struct
+/// * `writer` must be a valid pointer to a [`CResult<Writer>`] struct
+/// * `callback` must be a valid function pointer
+#[unsafe(no_mangle)]
+pub unsafe extern "C" fn compact_reader_into_writer(
+    reader: NonNull<CResult<Reader>>,
+    writer: NonNull<CResult<Writer>>,
+    callback: I32ResultCallback,
+) -> NonNull<CResult<BytesResult>> {
+    unsafe {
+        let reader = NonNull::new_unchecked(
+            reader.as_ref().ptr as *mut SyncSendableMutableLakeSoulReader,
+        );
+        let mut c_result = from_nonnull(writer);
+        let inner_ptr = c_result.ptr;
+        let mut writer = from_opaque::<Writer, SyncSendableMutableLakeSoulWriter>(
+            NonNull::new_unchecked(inner_ptr),
+        );
+        c_result.ptr = std::ptr::null_mut::<Writer>();
+        c_result.free::<Writer>();
+
+        let mut copy_result: Result<(), String> = Ok(());
+        while let Some(rb_result) = reader.as_ref().next_rb_blocked() {
+            let written = match rb_result {
+                Ok(rb) => writer.write_batch(rb).map_err(|e| e.to_string()),
+                Err(e) => Err(e.to_string()),
+            };
+            if let Err(e) = written {
+                copy_result = Err(e);
+                break;
+            }
+        }
+        let result = match copy_result {
+            Ok(_) => writer.flush_and_close().map_err(|e| e.to_string()),
+            Err(e) => {
+                let _ = writer.abort_and_close();
+                Err(e)
+            }
+        };
+        match result {
+            Ok(bytes) => {
+                call_i32_result_callback(callback, bytes.len() as i32, std::ptr::null());
+                convert_to_nonnull(CResult::<BytesResult>::new::<Vec<u8>>(bytes))
+            }
+            Err(e) => {
+                call_i32_result_callback(callback, -1, CString::new(e).unwrap().into_raw());
+                convert_to_nonnull(CResult::<BytesResult>::new::<Vec<u8>>(vec![]))
+            }
+        }
+    }
+}
+
 /// Abort and close the [`Writer`] and return the [`BytesResult`] wrapped in [`CResult`],
 /// when encountering an external error.
 ///
@@ -250,6 +250,19 @@ impl LakeSoulIOConfig {
             .is_some_and(|x| x.eq("true"))
     }
 
+    /// Returns columns to collect file statistics of, primary keys followed by the stats columns option
+    pub fn stats_columns(&self) -> Vec<String> {
+        let mut columns = self.primary_keys.clone();
+        if let Some(option) = self.option(OPTION_KEY_STATS_COLUMNS) {
+            for col in option.split(',').map(str::trim).filter(|col| !col.is_empty()) {
+                if !columns.iter().any(|c| c == col) {
+                    columns.push(col.to_string());
+                }
+            }
+        }
+        columns
+    }
+
     pub fn set_files(&mut self, files: Vec<String>) {
         self.files = files
     }
@@ -905,6 +905,129 @@ pub fn get_file_exist_col(metadata: &ParquetMetaData) -> String {
         .join(",")
 }
 
+/// Gets the column statistics of a [`ParquetMetaData`] as json, for data skipping at planning time.
+///
+/// The json contains the row count of the file, and for each of `columns` that is a top level column of
+/// a comparable type, its null count and min/max, e.g.
+/// `{"numRows":100,"columns":{"id":{"nullCount":0,"min":1,"max":100}}}`.
+/// A statistic is left out if any row group does not have it exactly, so that readers never skip a file
+/// that could match. Integers and dates are json numbers of their physical value, strings are compared as
+/// utf8 bytes.
+pub fn get_file_stats(metadata: &ParquetMetaData, columns: &[String]) -> String {
+    let schema = metadata.file_metadata().schema_descr();
+    let mut column_stats = serde_json::Map::new();
+    for (idx, descr) in schema.columns().iter().enumerate() {
+        if descr.path().parts().len() != 1 || !columns.iter().any(|col| col == descr.name()) {
+            continue;
+        }
+        let mut null_count = Some(0u64);
+        let mut min_max: Option<(serde_json::Value, serde_json::Value)> = None;
+        let mut has_min_max = is_stats_comparable(descr);
+        for row_group in metadata.row_groups() {
+            let Some(stats) = row_group.column(idx).statistics() else {
+                null_count = None;
+                has_min_max = false;
+                break;
+            };
+            let row_group_nulls = stats.null_count_opt();
+            null_count = null_count.zip(row_group_nulls).map(|(a, b)| a + b);
+            if !has_min_max {
+                continue;
+            }
+            match stats_min_max(stats) {
+                Some((min, max)) => {
+                    min_max = Some(match min_max {
+                        None => (min, max),
+                        Some((cur_min, cur_max)) => (
+                            if compare_stats_value(&min, &cur_min) == Some(std::cmp::Ordering::Less) {
+                                min
+                            } else {
+                                cur_min
+                            },
+                            if compare_stats_value(&max, &cur_max)
+                                == Some(std::cmp::Ordering::Greater)
+                            {
+                                max
+                            } else {
+                                cur_max
+                            },
+                        ),
+                    });
+                }
+                // a row group of only nulls has no min/max
+                None if row_group_nulls == Some(row_group.num_rows() as u64) => {}
+                None => has_min_max = false,
+            }
+        }
+        let mut stats = serde_json::Map::new();
+        if let Some(null_count) = null_count {
+            stats.insert("nullCount".to_string(), serde_json::Value::from(null_count));
+        }
+        if let (true, Some((min, max))) = (has_min_max, min_max) {
+            stats.insert("min".to_string(), min);
+            stats.insert("max".to_string(), max);
+        }
+        if !stats.is_empty() {
+            column_stats.insert(descr.name().to_string(), serde_json::Value::Object(stats));
+        }
+    }
+    serde_json::json!({
+        "numRows": metadata.file_metadata().num_rows(),
+        "columns": column_stats,
+    })
+    .to_string()
+}
+
+/// Whether the parquet min/max of the column order the same way as its logical values.
+fn is_stats_comparable(descr: &parquet::schema::types::ColumnDescriptor) -> bool {
+    use parquet::basic::{ConvertedType, LogicalType, Type as PhysicalType};
+    match descr.physical_type() {
+        PhysicalType::INT32 | PhysicalType::INT64 => match descr.logical_type() {
+            None => descr.converted_type() == ConvertedType::NONE,
+            Some(LogicalType::Integer { is_signed, .. }) => is_signed,
+            Some(LogicalType::Date) => true,
+            _ => false,
+        },
+        // floats are left out, parquet min/max ignore NaN which some engines order above all values
+        PhysicalType::BYTE_ARRAY => matches!(descr.logical_type(), Some(LogicalType::String)),
+        _ => false,
+    }
+}
+
+fn stats_min_max(
+    stats: &parquet::file::statistics::Statistics,
+) -> Option<(serde_json::Value, serde_json::Value)> {
+    use parquet::file::statistics::Statistics;
+    if !stats.min_is_exact() || !stats.max_is_exact() {
+        return None;
+    }
+    match stats {
+        Statistics::Int32(s) => Some((
+            serde_json::Value::from(*s.min_opt()?),
+            serde_json::Value::from(*s.max_opt()?),
+        )),
+        Statistics::Int64(s) => Some((
+            serde_json::Value::from(*s.min_opt()?),
+            serde_json::Value::from(*s.max_opt()?),
+        )),
+        Statistics::ByteArray(s) => Some((
+            serde_json::Value::from(std::str::from_utf8(s.min_opt()?.data()).ok()?),
+            serde_json::Value::from(std::str::from_utf8(s.max_opt()?.data()).ok()?),
+        )),
+        _ => None,
+    }
+}
+
+fn compare_stats_value(a: &serde_json::Value, b: &serde_json::Value) -> Option<std::cmp::Ordering> {
+    match (a, b) {
+        (serde_json::Value::String(a), serde_json::Value::String(b)) => {
+            Some(a.as_bytes().cmp(b.as_bytes()))
+        }
+        (serde_json::Value::Number(a), serde_json::Value::Number(b)) => Some(a.as_i64()?.cmp(&b.as_i64()?)),
+        _ => None,
+    }
+}
+
 /// Extracts the hash bucket ID from a file path.
 ///
 /// File paths are formatted as: "{prefix}/part-{random_string}_{hash_bucket_id:0>4}.parquet"
@@ -38,7 +38,7 @@ use tokio::sync::Mutex;
 use crate::Result;
 use crate::config::{IOSchema, LakeSoulIOConfig};
 use crate::helpers::transform::uniform_schema;
-use crate::helpers::{get_batch_memory_size, get_file_exist_col};
+use crate::helpers::{get_batch_memory_size, get_file_exist_col, get_file_stats};
 use crate::local_sensitive_hash::LSH;
 use crate::session::LakeSoulIOSession;
 use crate::utils::random_str;
@@ -341,6 +341,7 @@ impl SyncSendableMutableLakeSoulWriter {
                 }
             };
             let runtime = self.runtime;
+            let stats_columns = self.io_session.io_config().stats_columns();
             runtime.block_on(async move {
                 let writer = inner_writer.into_inner();
 
@@ -354,10 +355,11 @@ impl SyncSendableMutableLakeSoulWriter {
                 } in self.flush_results.into_iter().chain(results)
                 {
                     let encoded = format!(
-                        "{}\x03{}\x03{}",
+                        "{}\x03{}\x03{}\x03{}",
                         file_path,
                         object_meta.size,
-                        get_file_exist_col(&file_meta)
+                        get_file_exist_col(&file_meta),
+                        get_file_stats(&file_meta, &stats_columns)
                     );
                     match grouped_results.get_mut(&partition_desc) {
                         Some(files) => {
@@ -139,6 +139,24 @@ fn from_nonnull<T>(obj: NonNull<T>) -> T {
     unsafe { *Box::from_raw(obj.as_ptr()) }
 }
 
+/// Raw pointer moved into a task spawned on the runtime. The pointee must outlive the
+/// task, which holds for the client, freed only after the runtime, and for the result of
+/// a call, freed only after its callback.
+struct SendPtr<T>(*mut T);
+
+unsafe impl<T> Send for SendPtr<T> {}
+
+impl<T> SendPtr<T> {
+    fn get(&self) -> *mut T {
+        self.0
+    }
+}
+
+/// The [`PooledClient`] of the opaque client, for tasks spawned on the runtime.
+fn pooled_client(client: NonNull<CResult<TokioPostgresClient>>) -> SendPtr<PooledClient> {
+    SendPtr(unsafe { client.as_ref().ptr as *mut PooledClient })
+}
+
 /// Convert the pointer to the string.
 fn string_from_ptr(ptr: *const c_char) -> String {
     unsafe { CStr::from_ptr(ptr).to_str().unwrap().to_string() }
@@ -165,7 +183,7 @@ pub extern "C" fn execute_insert(
     let runtime =
         unsafe { NonNull::new_unchecked(runtime.as_ref().ptr as *mut Runtime).as_ref() };
     let client = unsafe {
-        NonNull::new_unchecked(client.as_ref().ptr as *mut PooledClient).as_mut()
+        NonNull::new_unchecked(client.as_ref().ptr as *mut PooledClient).as_ref()
     };
 
     let raw_parts =
@@ -185,6 +203,42 @@ pub extern "C" fn execute_insert(
     }
 }
 
+/// Execute the insert Data Access Object without blocking.
+///
+/// Returns once the params are decoded, so the caller may reuse their buffer, and calls
+/// the callback when the insert is done.
+#[unsafe(no_mangle)]
+pub extern "C" fn execute_insert_async(
+    callback: extern "C" fn(i32, *const c_char),
+    runtime: NonNull<CResult<TokioRuntime>>,
+    client: NonNull<CResult<TokioPostgresClient>>,
+    insert_type: i32,
+    addr: c_ptrdiff_t,
+    len: i32,
+) {
+    let runtime =
+        unsafe { NonNull::new_unchecked(runtime.as_ref().ptr as *mut Runtime).as_ref() };
+    let client = pooled_client(client);
+
+    let raw_parts =
+        unsafe { std::slice::from_raw_parts(addr as *const u8, len as usize) };
+    let wrapper =
+        entity::JniWrapper::decode(prost::bytes::Bytes::from(raw_parts)).unwrap();
+    runtime.spawn(async move {
+        let client = unsafe { &*client.get() };
+        let result =
+            lakesoul_metadata::execute_insert(client, insert_type, wrapper).await;
+        match result {
+            Ok(count) => call_result_callback(callback, count, null()),
+            Err(e) => call_result_callback(
+                callback,
+                -1,
+                CString::new(e.to_string().as_str()).unwrap().into_raw(),
+            ),
+        }
+    });
+}
+
 /// Execute the update Data Access Object.
 #[unsafe(no_mangle)]
 pub extern "C" fn execute_update(
@@ -197,7 +251,7 @@ pub extern "C" fn execute_update(
     let runtime =
         unsafe { NonNull::new_unchecked(runtime.as_ref().ptr as *mut Runtime).as_ref() };
     let client = unsafe {
-        NonNull::new_unchecked(client.as_ref().ptr as *mut PooledClient).as_mut()
+        NonNull::new_unchecked(client.as_ref().ptr as *mut PooledClient).as_ref()
     };
 
     let result = runtime.block_on(async {
@@ -218,6 +272,37 @@ pub extern "C" fn execute_update(
     }
 }
 
+/// Execute the update Data Access Object without blocking.
+///
+/// Returns at once and calls the callback when the update is done.
+#[unsafe(no_mangle)]
+pub extern "C" fn execute_update_async(
+    callback: extern "C" fn(i32, *const c_char),
+    runtime: NonNull<CResult<TokioRuntime>>,
+    client: NonNull<CResult<TokioPostgresClient>>,
+    update_type: i32,
+    joined_string: *const c_char,
+) {
+    let runtime =
+        unsafe { NonNull::new_unchecked(runtime.as_ref().ptr as *mut Runtime).as_ref() };
+    let client = pooled_client(client);
+    let joined_string = string_from_ptr(joined_string);
+
+    runtime.spawn(async move {
+        let client = unsafe { &*client.get() };
+        let result =
+            lakesoul_metadata::execute_update(client, update_type, joined_string).await;
+        match result {
+            Ok(count) => call_result_callback(callback, count, null()),
+            Err(e) => call_result_callback(
+                callback,
+                -1,
+                CString::new(e.to_string().as_str()).unwrap().into_raw(),
+            ),
+        }
+    });
+}
+
 /// Execute the query scalar Data Access Object.
 #[unsafe(no_mangle)]
 pub extern "C" fn execute_query_scalar(
@@ -295,6 +380,50 @@ pub extern "C" fn execute_query(
     }
 }
 
+/// Execute the query Data Access Object without blocking.
+///
+/// Returns at once the result to export the bytes of the query from. It is filled before
+/// the callback is called with its length, or with -1 and the error if the query failed,
+/// and must only be freed after that.
+#[unsafe(no_mangle)]
+pub extern "C" fn execute_query_async(
+    callback: extern "C" fn(i32, *const c_char),
+    runtime: NonNull<CResult<TokioRuntime>>,
+    client: NonNull<CResult<TokioPostgresClient>>,
+    query_type: i32,
+    joined_string: *const c_char,
+) -> NonNull<CResult<BytesResult>> {
+    let runtime =
+        unsafe { NonNull::new_unchecked(runtime.as_ref().ptr as *mut Runtime).as_ref() };
+    let client = pooled_client(client);
+    let joined_string = string_from_ptr(joined_string);
+
+    let bytes_result = convert_to_nonnull(CResult::<BytesResult>::new::<Vec<u8>>(vec![]));
+    let bytes = SendPtr(unsafe { bytes_result.as_ref().ptr as *mut Vec<u8> });
+    runtime.spawn(async move {
+        let client = unsafe { &*client.get() };
+        let result =
+            lakesoul_metadata::execute_query(client, query_type, joined_string).await;
+        match result {
+            Ok(u8_vec) => {
+                let len = u8_vec.len();
+                unsafe {
+                    *bytes.get() = u8_vec;
+                }
+                call_result_callback(callback, len as i32, null());
+            }
+            Err(e) => {
+                call_result_callback(
+                    callback,
+                    -1,
+                    CString::new(e.to_string().as_str()).unwrap().into_raw(),
+                );
+            }
+        }
+    });
+    bytes_result
+}
+
 /// Export the bytes result.
 #[unsafe(no_mangle)]
 pub extern "C" fn export_bytes_result(
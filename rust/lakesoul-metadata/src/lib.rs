@@ -10,6 +10,7 @@ use std::io::ErrorKind;
 use std::str::FromStr;
 
 use chrono::NaiveDate;
+use futures::future::join_all;
 use postgres_types::{FromSql, ToSql};
 use prost::Message;
 pub use tokio::runtime::{Builder, Runtime};
@@ -87,6 +88,7 @@ struct DataFileOp {
     file_op: String,
     size: i64,
     file_exist_cols: String,
+    file_stats: Option<String>,
 }
 
 impl DataFileOp {
@@ -99,6 +101,7 @@ impl DataFileOp {
                 .to_string(),
             size: data_file_op.size,
             file_exist_cols: data_file_op.file_exist_cols.clone(),
+            file_stats: Some(data_file_op.file_stats.clone()).filter(|stats| !stats.is_empty()),
         })
     }
 
@@ -110,6 +113,7 @@ impl DataFileOp {
                 as i32,
             size: self.size,
             file_exist_cols: self.file_exist_cols.clone(),
+            file_stats: self.file_stats.clone().unwrap_or_default(),
         })
     }
 }
@@ -189,6 +193,10 @@ pub enum DaoType {
     ListNamespacesByDomain = DAO_TYPE_QUERY_LIST_OFFSET + 14,
     /// The coded type for the Data Access Object for list table name by domain.
     ListTableNamesByDomain = DAO_TYPE_QUERY_LIST_OFFSET + 15,
+    /// The coded type for the Data Access Object for list latest partition versions committed since a timestamp.
+    ListPartitionByTableIdFromTimestamp = DAO_TYPE_QUERY_LIST_OFFSET + 16,
+    /// The coded type for the Data Access Object for list data commit info by table id and commit id list of any partitions.
+    ListDataCommitInfoByTableIdAndCommitList = DAO_TYPE_QUERY_LIST_OFFSET + 17,
 
     // ==== Coded Insert One ====
     /// The coded type for the Data Access Object for insert namespace.
@@ -375,6 +383,11 @@ async fn get_prepared_statement<'a>(
              from partition_info
              where table_id = $1::TEXT
             ORDER BY table_id DESC, partition_desc DESC, version DESC",
+        DaoType::ListPartitionByTableIdFromTimestamp =>
+            "select DISTINCT ON (table_id, partition_desc) table_id, partition_desc, version, commit_op, snapshot, timestamp, expression, domain
+             from partition_info
+             where table_id = $1::TEXT and timestamp >= $2::BIGINT
+            ORDER BY table_id DESC, partition_desc DESC, version DESC",
         DaoType::ListPartitionVersionByTableIdAndPartitionDescAndTimestampRange =>
             "select table_id, partition_desc, version, commit_op, snapshot, timestamp, expression, domain
             from partition_info
@@ -565,6 +578,7 @@ async fn get_prepared_statement<'a>(
         DaoType::TransactionInsertPartitionInfo |
         DaoType::TransactionInsertDiscardCompressedFile |
         DaoType::ListDataCommitInfoByTableIdAndPartitionDescAndCommitList |
+        DaoType::ListDataCommitInfoByTableIdAndCommitList |
         DaoType::DeleteDataCommitInfoByTableIdAndPartitionDescAndCommitIdList |
         DaoType::ListPartitionDescByTableIdAndParList => "",
 
@@ -789,6 +803,15 @@ pub async fn execute_query(
             }
             all_rows
         }
+        DaoType::ListPartitionByTableIdFromTimestamp if params.len() == 2 => {
+            let result = conn
+                .query(&statement, &[&params[0], &i64::from_str(&params[1])?])
+                .await;
+            match result {
+                Ok(rows) => rows,
+                Err(e) => return Err(LakeSoulMetaDataError::from(e)),
+            }
+        }
         DaoType::ListPartitionVersionByTableIdAndPartitionDescAndTimestampRange
             if params.len() == 4 =>
         {
@@ -844,6 +867,38 @@ pub async fn execute_query(
                 Err(e) => return Err(LakeSoulMetaDataError::from(e)),
             }
         }
+        DaoType::ListDataCommitInfoByTableIdAndCommitList if params.len() == 2 => {
+            let concated_uuid = &params[1];
+            if !concated_uuid.len().is_multiple_of(32) {
+                eprintln!(
+                    "Invalid params of query_type={:?}, params={:?}",
+                    query_type, params
+                );
+                return Err(LakeSoulMetaDataError::from(ErrorKind::InvalidInput));
+            }
+
+            let uuid_list = separate_uuid(concated_uuid)?;
+
+            let uuid_str_list = "'".to_owned() + &uuid_list.join("','") + "'";
+
+            // rows of all partitions at once, callers pick and order them by partition snapshot
+            let statement = format!(
+                "select table_id, partition_desc, commit_id, file_ops, commit_op, timestamp, committed, domain
+                from data_commit_info
+                where table_id = $1::TEXT
+                and commit_id in ({})",
+                uuid_str_list
+            );
+
+            let result = {
+                let statement = conn.prepare(&statement).await?;
+                conn.query(&statement, &[&params[0]]).await
+            };
+            match result {
+                Ok(rows) => rows,
+                Err(e) => return Err(LakeSoulMetaDataError::from(e)),
+            }
+        }
         _ => {
             eprintln!(
                 "Invalid params num of query_type={:?}, params={:?}",
@@ -873,6 +928,7 @@ pub async fn execute_query(
         | DaoType::ListTableNamesByDomain => ResultType::TableNameId,
 
         DaoType::ListPartitionByTableId
+        | DaoType::ListPartitionByTableIdFromTimestamp
         | DaoType::ListPartitionDescByTableIdAndParList
         | DaoType::SelectPartitionVersionByTableIdAndDescAndVersion
         | DaoType::SelectOnePartitionVersionByTableIdAndDesc
@@ -883,7 +939,8 @@ pub async fn execute_query(
         }
 
         DaoType::SelectOneDataCommitInfoByTableIdAndPartitionDescAndCommitId
-        | DaoType::ListDataCommitInfoByTableIdAndPartitionDescAndCommitList => {
+        | DaoType::ListDataCommitInfoByTableIdAndPartitionDescAndCommitList
+        | DaoType::ListDataCommitInfoByTableIdAndCommitList => {
             ResultType::DataCommitInfo
         }
 
@@ -1082,7 +1139,7 @@ pub async fn execute_query(
 /// Execute the insert for the coded Data Access Object.
 #[instrument(level = "debug")]
 pub async fn execute_insert(
-    client: &mut PooledClient,
+    client: &PooledClient,
     insert_type: i32,
     wrapper: entity::JniWrapper,
 ) -> Result<i32> {
@@ -1243,46 +1300,62 @@ pub async fn execute_insert(
                     Err(e) => return Err(LakeSoulMetaDataError::from(e)),
                 };
 
-                for partition_info in &partition_info_list {
-                    let snapshot = partition_info
-                        .snapshot
-                        .iter()
-                        .map(|_uuid| uuid::Uuid::from_u64_pair(_uuid.high, _uuid.low))
-                        .collect::<Vec<uuid::Uuid>>();
-
-                    let result = transaction
-                        .execute(
-                            &transaction_insert_statement,
-                            &[
-                                &partition_info.table_id,
-                                &partition_info.partition_desc,
-                                &partition_info.version,
-                                &partition_info.commit_op().as_str_name(),
-                                &snapshot,
-                                &partition_info.expression,
-                                &partition_info.domain,
-                            ],
-                        )
-                        .await;
-
-                    if let Some(e) = result.err() {
-                        eprintln!("transaction insert error, err = {:?}", e);
-                        return match transaction.rollback().await {
-                            Ok(()) => Ok(0i32),
-                            Err(e) => Err(LakeSoulMetaDataError::from(e)),
-                        };
+                // statements polled concurrently are pipelined on the connection, so
+                // a batch covering many tables does not pay one round trip per row
+                let inserts = partition_info_list.iter().map(|partition_info| {
+                    let transaction = &transaction;
+                    let statement = &transaction_insert_statement;
+                    async move {
+                        let snapshot = partition_info
+                            .snapshot
+                            .iter()
+                            .map(|_uuid| uuid::Uuid::from_u64_pair(_uuid.high, _uuid.low))
+                            .collect::<Vec<uuid::Uuid>>();
+                        transaction
+                            .execute(
+                                statement,
+                                &[
+                                    &partition_info.table_id,
+                                    &partition_info.partition_desc,
+                                    &partition_info.version,
+                                    &partition_info.commit_op().as_str_name(),
+                                    &snapshot,
+                                    &partition_info.expression,
+                                    &partition_info.domain,
+                                ],
+                            )
+                            .await
+                    }
+                });
+                if let Some(e) = join_all(inserts)
+                    .await
+                    .into_iter()
+                    .find_map(|result| result.err())
+                {
+                    eprintln!("transaction insert error, err = {:?}", e);
+                    return match transaction.rollback().await {
+                        Ok(()) => Ok(0i32),
+                        Err(e) => Err(LakeSoulMetaDataError::from(e)),
                     };
                 }
-                for _uuid in &snapshot_container.snapshot {
-                    let uid = uuid::Uuid::from_u64_pair(_uuid.high, _uuid.low);
-                    let result = transaction.execute(&update_statement, &[&uid]).await;
-                    if let Some(e) = result.err() {
-                        eprintln!("update committed error, err = {:?}", e);
-                        return match transaction.rollback().await {
-                            Ok(()) => Ok(0i32),
-                            Err(e) => Err(LakeSoulMetaDataError::from(e)),
-                        };
+                let updates = snapshot_container.snapshot.iter().map(|_uuid| {
+                    let transaction = &transaction;
+                    let statement = &update_statement;
+                    async move {
+                        let uid = uuid::Uuid::from_u64_pair(_uuid.high, _uuid.low);
+                        transaction.execute(statement, &[&uid]).await
                     }
+                });
+                if let Some(e) = join_all(updates)
+                    .await
+                    .into_iter()
+                    .find_map(|result| result.err())
+                {
+                    eprintln!("update committed error, err = {:?}", e);
+                    return match transaction.rollback().await {
+                        Ok(()) => Ok(0i32),
+                        Err(e) => Err(LakeSoulMetaDataError::from(e)),
+                    };
                 }
                 match transaction.commit().await {
                     Ok(()) => Ok(partition_info_list.len() as u64),
@@ -1318,38 +1391,53 @@ pub async fn execute_insert(
                     Err(e) => return Err(LakeSoulMetaDataError::from(e)),
                 };
 
-                for data_commit_info in &data_commit_info_list {
-                    let file_ops = data_commit_info
-                        .file_ops
-                        .iter()
-                        .map(DataFileOp::from_proto_data_file_op)
-                        .collect::<Result<Vec<DataFileOp>>>()?;
-                    let commit_id = data_commit_info.commit_id.as_ref().ok_or(
-                        LakeSoulMetaDataError::Internal("commit_id missing".to_string()),
-                    )?;
-                    let _uuid = uuid::Uuid::from_u64_pair(commit_id.high, commit_id.low);
-
-                    let result = transaction
-                        .execute(
-                            &statement,
-                            &[
-                                &data_commit_info.table_id,
-                                &data_commit_info.partition_desc,
-                                &_uuid,
-                                &file_ops,
-                                &data_commit_info.commit_op().as_str_name(),
-                                &data_commit_info.timestamp,
-                                &data_commit_info.committed,
-                                &data_commit_info.domain,
-                            ],
-                        )
-                        .await;
-                    if let Some(e) = result.err() {
-                        eprintln!("transaction insert error, err = {:?}", e);
-                        return match transaction.rollback().await {
-                            Ok(()) => Ok(0i32),
-                            Err(e) => Err(LakeSoulMetaDataError::from(e)),
-                        };
+                let rows = data_commit_info_list
+                    .iter()
+                    .map(|data_commit_info| {
+                        let file_ops = data_commit_info
+                            .file_ops
+                            .iter()
+                            .map(DataFileOp::from_proto_data_file_op)
+                            .collect::<Result<Vec<DataFileOp>>>()?;
+                        let commit_id = data_commit_info.commit_id.as_ref().ok_or(
+                            LakeSoulMetaDataError::Internal("commit_id missing".to_string()),
+                        )?;
+                        let _uuid = uuid::Uuid::from_u64_pair(commit_id.high, commit_id.low);
+                        Ok((data_commit_info, _uuid, file_ops))
+                    })
+                    .collect::<Result<Vec<_>>>()?;
+
+                // pipelined on the connection, see TransactionInsertPartitionInfo
+                let inserts = rows.iter().map(|(data_commit_info, _uuid, file_ops)| {
+                    let transaction = &transaction;
+                    let statement = &statement;
+                    async move {
+                        transaction
+                            .execute(
+                                statement,
+                                &[
+                                    &data_commit_info.table_id,
+                                    &data_commit_info.partition_desc,
+                                    _uuid,
+                                    file_ops,
+                                    &data_commit_info.commit_op().as_str_name(),
+                                    &data_commit_info.timestamp,
+                                    &data_commit_info.committed,
+                                    &data_commit_info.domain,
+                                ],
+                            )
+                            .await
+                    }
+                });
+                if let Some(e) = join_all(inserts)
+                    .await
+                    .into_iter()
+                    .find_map(|result| result.err())
+                {
+                    eprintln!("transaction insert error, err = {:?}", e);
+                    return match transaction.rollback().await {
+                        Ok(()) => Ok(0i32),
+                        Err(e) => Err(LakeSoulMetaDataError::from(e)),
                     };
                 }
                 match transaction.commit().await {
@@ -1453,7 +1541,7 @@ pub async fn execute_insert(
 /// Execute the update for the coded Data Access Object.
 #[instrument(level = "debug")]
 pub async fn execute_update(
-    client: &mut PooledClient,
+    client: &PooledClient,
     update_type: i32,
     joined_string: String,
 ) -> Result<i32> {
@@ -58,12 +58,26 @@ $$
                 path            text,
                 file_op         text,
                 size            bigint,
-                file_exist_cols text
+                file_exist_cols text,
+                file_stats      text
             );
         END IF;
     END
 $$;
 
+-- file_stats is added after data_file_op was first released
+DO
+$$
+    BEGIN
+        IF NOT EXISTS (SELECT 1
+                       FROM pg_attribute
+                       WHERE attrelid = (SELECT typrelid FROM pg_type WHERE typname = 'data_file_op')
+                         AND attname = 'file_stats') THEN
+            alter type data_file_op add attribute file_stats text;
+        END IF;
+    END
+$$;
+
 create table if not exists data_commit_info
 (
     table_id       text,
@@ -92,6 +106,7 @@ create table if not exists partition_info
     primary key (table_id, partition_desc, version)
 );
 CREATE INDEX CONCURRENTLY IF NOT EXISTS partition_info_timestamp ON partition_info (timestamp);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS partition_info_table_timestamp ON partition_info (table_id, timestamp);
 CREATE INDEX CONCURRENTLY IF NOT EXISTS partition_info_desc_gin_tsvector_index ON partition_info USING GIN (to_tsvector('english', partition_desc));
 
 CREATE OR REPLACE FUNCTION partition_insert() RETURNS TRIGGER AS
@@ -161,3 +176,16 @@ create table if not exists discard_compressed_file_info
     t_date date,
     PRIMARY KEY (file_path)
 );
+
+create table if not exists partition_snapshot_checkpoint
+(
+    table_id        text,
+    partition_desc  text,
+    version         int,
+    snapshot_size   int,
+    snapshot_digest text,
+    manifest        bytea,
+    timestamp       bigint,
+    domain          text default 'public',
+    primary key (table_id, partition_desc, version)
+);
@@ -130,6 +130,25 @@ $$
     END
 $$;
 
+ALTER TABLE partition_snapshot_checkpoint
+    ENABLE ROW LEVEL SECURITY;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS partition_snapshot_checkpoint_domain_index ON partition_snapshot_checkpoint (domain);
+DO
+$$
+    BEGIN
+        IF NOT EXISTS (SELECT 1 FROM pg_policies WHERE tablename = 'partition_snapshot_checkpoint') THEN
+            CREATE POLICY domain_only_policy ON partition_snapshot_checkpoint
+                USING (
+                        domain = 'public'
+                    OR domain = 'lake-public'
+                    OR domain = current_user
+                    OR domain IN (SELECT rolname
+                                  FROM pg_roles
+                                  WHERE pg_has_role(current_user, oid, 'member')));
+        END IF;
+    END
+$$;
+
 
 
 -- create table if not exists casbin_rule